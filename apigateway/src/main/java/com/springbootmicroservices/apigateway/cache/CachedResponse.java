@@ -0,0 +1,69 @@
+package com.springbootmicroservices.apigateway.cache;
+
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An upstream response held by the {@link ResponseCache}: status, the headers worth replaying, the body
+ * and its freshness window. Instances are immutable apart from the revalidation flag.
+ */
+@Getter
+public class CachedResponse {
+
+    private final HttpStatusCode statusCode;
+    private final HttpHeaders headers;
+    private final byte[] body;
+    private final String eTag;
+    private final long storedAtNanos;
+    private final long freshUntilNanos;
+    private final long staleUntilNanos;
+
+    // Set by the single request that refreshes a stale entry, so others keep getting the stale copy meanwhile
+    private final AtomicBoolean revalidating = new AtomicBoolean();
+
+    public CachedResponse(final HttpStatusCode statusCode,
+                          final HttpHeaders headers,
+                          final byte[] body,
+                          final String eTag,
+                          final long storedAtNanos,
+                          final long freshUntilNanos,
+                          final long staleUntilNanos) {
+        this.statusCode = statusCode;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.body = body;
+        this.eTag = eTag;
+        this.storedAtNanos = storedAtNanos;
+        this.freshUntilNanos = freshUntilNanos;
+        this.staleUntilNanos = staleUntilNanos;
+    }
+
+    /**
+     * Checks whether the entry may still be served without revalidation.
+     *
+     * @param nowNanos the current {@link System#nanoTime()}
+     * @return true if the entry is fresh
+     */
+    public boolean isFresh(final long nowNanos) {
+        return nowNanos < freshUntilNanos;
+    }
+
+    /**
+     * Tries to become the request that refreshes this stale entry.
+     *
+     * @return true for exactly one caller until {@link #revalidationFailed()} is called
+     */
+    public boolean tryStartRevalidation() {
+        return revalidating.compareAndSet(false, true);
+    }
+
+    /**
+     * Lets another request retry the refresh after the previous attempt did not produce a cacheable response.
+     */
+    public void revalidationFailed() {
+        revalidating.set(false);
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.springbootmicroservices.apigateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.springbootmicroservices.apigateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * In-memory store named {@link ResponseCache} for cacheable upstream responses, bounded by total body size.
+ * Entries are evicted once their stale-while-revalidate window has passed.
+ * Size, hit and eviction meters are published under {@code cache=gateway.response}.
+ */
+@Component
+@Slf4j
+public class ResponseCache {
+
+    private static final String CACHE_NAME = "gateway.response";
+
+    private final Cache<String, CachedResponse> cache;
+
+    public ResponseCache(final ResponseCacheProperties responseCacheProperties, final MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(responseCacheProperties.getMaximumSize().toBytes())
+                .weigher((String key, CachedResponse value) -> key.length() + value.getBody().length)
+                .expireAfter(new StaleUntilExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the entry stored under the given key, fresh or stale.
+     *
+     * @param key the normalized request key
+     * @return the cached response, or {@code null}
+     */
+    public CachedResponse get(final String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Stores or replaces the entry under the given key.
+     *
+     * @param key            the normalized request key
+     * @param cachedResponse the response to store
+     */
+    public void put(final String key, final CachedResponse cachedResponse) {
+        cache.put(key, cachedResponse);
+    }
+
+    /**
+     * Removes all entries whose key starts with the given path prefix, or every entry if no prefix is given.
+     *
+     * @param pathPrefix the path prefix, e.g. {@code /api/v1/products}
+     * @return the number of removed entries
+     */
+    public int purge(final String pathPrefix) {
+
+        if (!StringUtils.hasText(pathPrefix)) {
+            final int size = (int) cache.estimatedSize();
+            cache.invalidateAll();
+            log.info("Purged all {} cached responses", size);
+            return size;
+        }
+
+        int removed = 0;
+        for (String key : cache.asMap().keySet()) {
+            if (key.startsWith(pathPrefix) && cache.asMap().remove(key) != null) {
+                removed++;
+            }
+        }
+        log.info("Purged {} cached responses with prefix {}", removed, pathPrefix);
+        return removed;
+
+    }
+
+    /**
+     * Returns the number of cached entries.
+     *
+     * @return the estimated number of entries
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Keeps an entry until the end of its stale-while-revalidate window.
+     */
+    private static final class StaleUntilExpiry implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(final String key, final CachedResponse value, final long currentTime) {
+            return Math.max(0, value.getStaleUntilNanos() - System.nanoTime());
+        }
+
+        @Override
+        public long expireAfterUpdate(final String key, final CachedResponse value,
+                                      final long currentTime, final long currentDuration) {
+            return Math.max(0, value.getStaleUntilNanos() - System.nanoTime());
+        }
+
+        @Override
+        public long expireAfterRead(final String key, final CachedResponse value,
+                                    final long currentTime, final long currentDuration) {
+            return currentDuration;
+        }
+
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.springbootmicroservices.apigateway.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint named {@link ResponseCacheEndpoint} for inspecting and purging the edge {@link ResponseCache}.
+ * <ul>
+ *     <li>{@code GET /actuator/responsecache} returns the number of cached entries.</li>
+ *     <li>{@code DELETE /actuator/responsecache?prefix=/api/v1/products} purges entries under a path prefix,
+ *     or everything when no prefix is given. productservice calls this when catalog data changes.</li>
+ * </ul>
+ * Served on the management port only, which is not exposed outside the service network.
+ */
+@Component
+@Endpoint(id = "responsecache")
+@RequiredArgsConstructor
+public class ResponseCacheEndpoint {
+
+    private final ResponseCache responseCache;
+
+    /**
+     * Returns the current size of the response cache.
+     *
+     * @return the number of cached entries
+     */
+    @ReadOperation
+    public Map<String, Object> status() {
+        return Map.of("entries", responseCache.size());
+    }
+
+    /**
+     * Purges cached responses.
+     *
+     * @param prefix the path prefix to purge, or {@code null} to purge everything
+     * @return the number of purged entries
+     */
+    @DeleteOperation
+    public Map<String, Object> purge(@Nullable final String prefix) {
+        return Map.of("purged", responseCache.purge(prefix));
+    }
+
+}
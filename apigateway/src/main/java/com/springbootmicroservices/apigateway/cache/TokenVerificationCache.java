@@ -0,0 +1,132 @@
+package com.springbootmicroservices.apigateway.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.springbootmicroservices.apigateway.model.VerifiedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Bounded cache named {@link TokenVerificationCache} for token verification results.
+ * <p>
+ * Entries are keyed by the SHA-256 hash of the token, so raw tokens are never kept in memory.
+ * Each entry lives for at most {@code gateway.authentication.cache.max-ttl} and never beyond the token's own
+ * {@code exp} claim. Concurrent requests carrying the same token share a single in-flight verification
+ * instead of each calling the verifier. Failed verifications are not cached.
+ * <p>
+ * Hit rate and evictions are published as {@code cache.*} meters tagged {@code cache=gateway.token-verification},
+ * and requests that joined an in-flight verification are counted by {@code gateway.token.verification.coalesced}.
+ */
+@Component
+public class TokenVerificationCache {
+
+    private static final String CACHE_NAME = "gateway.token-verification";
+
+    private final boolean enabled;
+    private final AsyncCache<String, VerifiedToken> cache;
+    private final Counter coalescedCounter;
+
+    public TokenVerificationCache(@Value("${gateway.authentication.cache.enabled:true}") final boolean enabled,
+                                  @Value("${gateway.authentication.cache.maximum-size:100000}") final long maximumSize,
+                                  @Value("${gateway.authentication.cache.max-ttl:5m}") final Duration maxTtl,
+                                  final MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry(maxTtl))
+                .recordStats()
+                .buildAsync();
+        this.coalescedCounter = Counter.builder("gateway.token.verification.coalesced")
+                .description("Requests that waited on an in-flight verification of the same token")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached verification result for the given token, verifying it with the given verifier on a miss.
+     *
+     * @param jwt      the raw JWT taken from the Authorization header
+     * @param verifier the verification to run when the token is not cached yet
+     * @return a {@link Mono} emitting the verified token
+     */
+    public Mono<VerifiedToken> get(final String jwt, final Function<String, Mono<VerifiedToken>> verifier) {
+
+        if (!enabled) {
+            return verifier.apply(jwt);
+        }
+
+        return Mono.defer(() -> {
+            final String key = hash(jwt);
+
+            final boolean[] loadedHere = new boolean[1];
+            final CompletableFuture<VerifiedToken> result = cache.get(key, (k, executor) -> {
+                loadedHere[0] = true;
+                return verifier.apply(jwt).toFuture();
+            });
+
+            if (!loadedHere[0] && !result.isDone()) {
+                coalescedCounter.increment();
+            }
+
+            // Cancellation by one subscriber must not cancel the verification shared with others
+            return Mono.fromFuture(result, true);
+        });
+
+    }
+
+    /**
+     * Hashes the token with SHA-256 so that cache keys do not retain bearer credentials.
+     */
+    private static String hash(final String jwt) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(jwt.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Expires an entry at the earlier of the configured maximum TTL and the token's expiry.
+     */
+    private record TokenExpiry(Duration maxTtl) implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(final String key, final VerifiedToken value, final long currentTime) {
+            final long maxTtlNanos = maxTtl.toNanos();
+            if (value.getExpiresAt() == null) {
+                return maxTtlNanos;
+            }
+            final long untilExpiry = Duration.between(Instant.now(), value.getExpiresAt()).toNanos();
+            return Math.max(0, Math.min(maxTtlNanos, untilExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(final String key, final VerifiedToken value,
+                                      final long currentTime, final long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(final String key, final VerifiedToken value,
+                                    final long currentTime, final long currentDuration) {
+            return currentDuration;
+        }
+
+    }
+
+}
@@ -1,14 +1,22 @@
 package com.springbootmicroservices.apigateway.config;
 
 import com.springbootmicroservices.apigateway.filter.JwtAuthenticationFilter;
+import com.springbootmicroservices.apigateway.filter.RateLimitFilter;
+import com.springbootmicroservices.apigateway.filter.ResponseCacheFilter;
+import com.springbootmicroservices.apigateway.filter.RouteProtectionFilter;
+import com.springbootmicroservices.apigateway.filter.StorefrontAggregationFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.route.builder.GatewayFilterSpec;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 
 import java.util.List;
 
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
+
 /**
  * Configuration class named {@link GatewayConfig} for setting up API Gateway routes.
  */
@@ -17,6 +25,11 @@ import java.util.List;
 public class GatewayConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final ResponseCacheFilter responseCacheFilter;
+    private final RouteProtectionFilter routeProtectionFilter;
+    private final RouteProtectionProperties routeProtectionProperties;
+    private final StorefrontAggregationFilter storefrontAggregationFilter;
 
     // Define the list of public endpoints
     private static final List<String> PUBLIC_ENDPOINTS = List.of(
@@ -24,9 +37,26 @@ public class GatewayConfig {
             "/api/v1/authentication/users/login",
             "/api/v1/authentication/users/refresh-token",
             "/api/v1/authentication/users/logout",
+            "/api/v1/search",
+            "/api/v1/storefront",
+            "/api/v1/payments/stripe/webhook" // Authenticated by its Stripe-Signature in orderservice
+    );
+
+    // Public, read-heavy GET endpoints served from the edge response cache
+    private static final List<String> CACHEABLE_PRODUCT_PATHS = List.of(
+            "/api/v1/products",
+            "/api/v1/products/{productId}",
+            "/api/v1/products/category/{category}"
+    );
+
+    private static final List<String> CACHEABLE_SEARCH_PATHS = List.of(
             "/api/v1/search"
     );
 
+    private static final List<String> CACHEABLE_STOREFRONT_PATHS = List.of(
+            "/api/v1/storefront"
+    );
+
     /**
      * Configures the route locator to define the routing rules for the gateway.
      *
@@ -36,26 +66,70 @@ public class GatewayConfig {
     @Bean
     public RouteLocator routes(RouteLocatorBuilder builder) {
         return builder.routes()
+                // Answered by the gateway itself: one document aggregated from productservice and searchservice
+                .route("storefront", r -> r.path("/api/v1/storefront").and().method(HttpMethod.GET)
+                        .filters(f -> authenticatedAndRateLimited(f, "storefront")
+                                .filter(responseCacheFilter.apply(new ResponseCacheFilter.Config()
+                                        .setRouteId("storefront")
+                                        .setCacheablePaths(CACHEABLE_STOREFRONT_PATHS)))
+                                .filter(storefrontAggregationFilter))
+                        .uri("no://op"))
                 .route("productservice", r -> r.path("/api/v1/products/**")
-                        .filters(f -> f.filter(jwtAuthFilter.apply(new JwtAuthenticationFilter.Config()
-                                .setPublicEndpoints(PUBLIC_ENDPOINTS))))
+                        .filters(f -> protect(authenticatedAndRateLimited(f, "productservice")
+                                .filter(responseCacheFilter.apply(new ResponseCacheFilter.Config()
+                                        .setRouteId("productservice")
+                                        .setCacheablePaths(CACHEABLE_PRODUCT_PATHS))), "productservice"))
+                        .metadata(RESPONSE_TIMEOUT_ATTR, responseTimeoutMillis("productservice"))
                         .uri("lb://productservice"))
+                // Login runs BCrypt, so it gets its own (stricter) per-IP limit ahead of the general auth route
+                .route("authservice-login", r -> r.path("/api/v1/authentication/users/login")
+                        .filters(f -> protect(authenticatedAndRateLimited(f, "authservice-login"), "authservice-login"))
+                        .metadata(RESPONSE_TIMEOUT_ATTR, responseTimeoutMillis("authservice-login"))
+                        .uri("lb://authservice"))
                 .route("authservice", r -> r.path("/api/v1/authentication/**")
-                        .filters(f -> f.filter(jwtAuthFilter.apply(new JwtAuthenticationFilter.Config()
-                                .setPublicEndpoints(PUBLIC_ENDPOINTS))))
+                        .filters(f -> protect(authenticatedAndRateLimited(f, "authservice"), "authservice"))
+                        .metadata(RESPONSE_TIMEOUT_ATTR, responseTimeoutMillis("authservice"))
                         .uri("lb://authservice"))
                 .route("userservice", r -> r.path("/api/v1/users/**")
-                        .filters(f -> f.filter(jwtAuthFilter.apply(new JwtAuthenticationFilter.Config()
-                                .setPublicEndpoints(PUBLIC_ENDPOINTS))))
+                        .filters(f -> protect(authenticatedAndRateLimited(f, "userservice"), "userservice"))
+                        .metadata(RESPONSE_TIMEOUT_ATTR, responseTimeoutMillis("userservice"))
                         .uri("lb://userservice"))
                 .route("searchservice-api", r -> r.path("/api/v1/search/**")
-                        .filters(f -> f.filter(jwtAuthFilter.apply(new JwtAuthenticationFilter.Config().setPublicEndpoints(PUBLIC_ENDPOINTS))))
+                        .filters(f -> protect(authenticatedAndRateLimited(f, "searchservice-api")
+                                .filter(responseCacheFilter.apply(new ResponseCacheFilter.Config()
+                                        .setRouteId("searchservice-api")
+                                        .setCacheablePaths(CACHEABLE_SEARCH_PATHS))), "searchservice-api"))
+                        .metadata(RESPONSE_TIMEOUT_ATTR, responseTimeoutMillis("searchservice-api"))
                         .uri("lb://search-service"))
                 .route("orderservice", r -> r.path("/api/v1/orders/**", "/api/v1/payments/**")
-                        .filters(f -> f.filter(jwtAuthFilter.apply(new JwtAuthenticationFilter.Config()
-                                .setPublicEndpoints(PUBLIC_ENDPOINTS))))
+                        .filters(f -> protect(authenticatedAndRateLimited(f, "orderservice"), "orderservice"))
+                        .metadata(RESPONSE_TIMEOUT_ATTR, responseTimeoutMillis("orderservice"))
                         .uri("lb://orderservice"))
                 .build();
     }
 
-}
\ No newline at end of file
+    /**
+     * Applies JWT authentication followed by the route's rate limit.
+     * The order matters: the rate limiter keys on the user id verified by the JWT filter.
+     */
+    private GatewayFilterSpec authenticatedAndRateLimited(GatewayFilterSpec f, String routeId) {
+        return f.filter(jwtAuthFilter.apply(new JwtAuthenticationFilter.Config()
+                        .setPublicEndpoints(PUBLIC_ENDPOINTS)))
+                .filter(rateLimitFilter.apply(new RateLimitFilter.Config()
+                        .setRouteId(routeId)));
+    }
+
+    /**
+     * Appends the route's circuit breaker and concurrency limit.
+     * It goes last so that rejected or cache-served requests never occupy an upstream slot.
+     */
+    private GatewayFilterSpec protect(GatewayFilterSpec f, String routeId) {
+        return f.filter(routeProtectionFilter.apply(new RouteProtectionFilter.Config()
+                .setRouteId(routeId)));
+    }
+
+    private long responseTimeoutMillis(String routeId) {
+        return routeProtectionProperties.forRoute(routeId).getResponseTimeout().toMillis();
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.springbootmicroservices.apigateway.config;
+
+import com.springbootmicroservices.apigateway.loadbalancer.InstanceLoadRegistry;
+import com.springbootmicroservices.apigateway.loadbalancer.LoadRecordingFilter;
+import com.springbootmicroservices.apigateway.loadbalancer.PeakEwmaLoadBalancerConfiguration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration class named {@link LoadBalancerConfig} replacing the default round-robin load balancer of
+ * {@code lb://} routes with the peak-EWMA power-of-two-choices balancer.
+ * Set {@code gateway.load-balancer.strategy} to {@code round-robin} to fall back to the Spring Cloud default.
+ */
+@Configuration
+@ConditionalOnProperty(name = "gateway.load-balancer.strategy", havingValue = "peak-ewma", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+
+    @Bean
+    public InstanceLoadRegistry instanceLoadRegistry(
+            @Value("${gateway.load-balancer.peak-ewma.decay-time:10s}") final Duration decayTime,
+            @Value("${gateway.load-balancer.peak-ewma.failure-penalty:1s}") final Duration failurePenalty) {
+        return new InstanceLoadRegistry(decayTime, failurePenalty);
+    }
+
+    @Bean
+    public LoadRecordingFilter loadRecordingFilter(final InstanceLoadRegistry instanceLoadRegistry) {
+        return new LoadRecordingFilter(instanceLoadRegistry);
+    }
+
+}
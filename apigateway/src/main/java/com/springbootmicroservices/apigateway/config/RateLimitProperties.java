@@ -0,0 +1,60 @@
+package com.springbootmicroservices.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties named {@link RateLimitProperties} for the per-route token-bucket rate limiter,
+ * bound from {@code gateway.rate-limit}.
+ * Routes without an entry under {@code routes} use {@code defaults}.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Buckets idle for this long are forgotten; a returning client starts with a full bucket
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    // Upper bound on tracked keys (users or IPs) per route
+    private long maximumKeys = 100_000;
+
+    private Limit defaults = new Limit();
+
+    private Map<String, Limit> routes = new HashMap<>();
+
+    /**
+     * Returns the limit configured for the given route, falling back to the defaults.
+     *
+     * @param routeId the gateway route id
+     * @return the limit for the route
+     */
+    public Limit forRoute(final String routeId) {
+        return routes.getOrDefault(routeId, defaults);
+    }
+
+    /**
+     * Token-bucket settings of a single route.
+     */
+    @Getter
+    @Setter
+    public static class Limit {
+
+        // Maximum burst size
+        private int capacity = 100;
+
+        // Sustained rate per key
+        private double refillTokensPerSecond = 50;
+
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.springbootmicroservices.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties named {@link ResponseCacheProperties} for the gateway edge response cache,
+ * bound from {@code gateway.response-cache}.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    // Total size of cached bodies
+    private DataSize maximumSize = DataSize.ofMegabytes(64);
+
+    // Larger responses are passed through without being cached
+    private DataSize maximumEntrySize = DataSize.ofMegabytes(1);
+
+    // Freshness used when the upstream response has no max-age
+    private Duration ttl = Duration.ofSeconds(30);
+
+    // Upper bound for an upstream max-age
+    private Duration maximumTtl = Duration.ofMinutes(5);
+
+    // How long an expired entry may still be served while one request refreshes it
+    private Duration staleWhileRevalidate = Duration.ofSeconds(60);
+
+}
@@ -0,0 +1,104 @@
+package com.springbootmicroservices.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties named {@link RouteProtectionProperties} for the per-route circuit breakers,
+ * adaptive concurrency limits and response timeouts, bound from {@code gateway.route-protection}.
+ * Routes without an entry under {@code routes} use {@code defaults}.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.route-protection")
+public class RouteProtectionProperties {
+
+    private boolean enabled = true;
+
+    // Sent as Retry-After when a route is over its concurrency limit
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    private Protection defaults = new Protection();
+
+    private Map<String, Protection> routes = new HashMap<>();
+
+    /**
+     * Returns the protection settings configured for the given route, falling back to the defaults.
+     *
+     * @param routeId the gateway route id
+     * @return the protection settings for the route
+     */
+    public Protection forRoute(final String routeId) {
+        return routes.getOrDefault(routeId, defaults);
+    }
+
+    /**
+     * Protection settings of a single route.
+     */
+    @Getter
+    @Setter
+    public static class Protection {
+
+        // Upstream must start responding within this time, otherwise the gateway answers 504
+        private Duration responseTimeout = Duration.ofSeconds(10);
+
+        private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+        private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+    }
+
+    /**
+     * Circuit breaker settings; 5xx responses, timeouts and connection errors count as failures.
+     */
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+
+        private float failureRateThreshold = 50;
+
+        // Calls slower than this count towards the slow-call rate
+        private Duration slowCallDurationThreshold = Duration.ofSeconds(3);
+
+        private float slowCallRateThreshold = 80;
+
+        // Number of most recent calls the rates are computed over
+        private int slidingWindowSize = 50;
+
+        private int minimumNumberOfCalls = 20;
+
+        private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+
+        private int permittedNumberOfCallsInHalfOpenState = 5;
+
+    }
+
+    /**
+     * Adaptive concurrency limit settings; {@code maxLimit} is the hard bulkhead ceiling.
+     */
+    @Getter
+    @Setter
+    public static class ConcurrencyLimit {
+
+        private int initialLimit = 20;
+
+        private int minLimit = 5;
+
+        private int maxLimit = 200;
+
+        // How much the current latency may exceed the long-term baseline before the limit shrinks
+        private double rttTolerance = 1.5;
+
+        // Weight of a new limit estimate; lower values react more slowly but jitter less
+        private double smoothing = 0.2;
+
+    }
+
+}
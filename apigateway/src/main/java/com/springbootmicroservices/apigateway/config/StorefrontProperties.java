@@ -0,0 +1,31 @@
+package com.springbootmicroservices.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties named {@link StorefrontProperties} for the storefront aggregation endpoint,
+ * bound from {@code gateway.storefront}.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.storefront")
+public class StorefrontProperties {
+
+    // Per-call deadlines; a section that misses its deadline is returned as TIMEOUT
+    private Duration productsTimeout = Duration.ofMillis(800);
+    private Duration categoryTimeout = Duration.ofMillis(800);
+    private Duration searchTimeout = Duration.ofMillis(1200);
+
+    private int defaultPageSize = 12;
+
+    // Used when the request has no category / q parameter; blank skips the section
+    private String featuredCategory = "";
+    private String defaultQuery = "";
+
+}
@@ -0,0 +1,28 @@
+package com.springbootmicroservices.apigateway.config;
+
+import com.springbootmicroservices.apigateway.model.enums.ConfigurationParameter;
+import com.springbootmicroservices.apigateway.utils.KeyConverter;
+import lombok.Getter;
+import org.springframework.context.annotation.Configuration;
+
+import java.security.PublicKey;
+
+/**
+ * Configuration class named {@link TokenConfigurationParameter} for token parameters.
+ * Provides access to the public key used to verify access tokens issued by userservice.
+ */
+@Getter
+@Configuration
+public class TokenConfigurationParameter {
+
+    private final PublicKey publicKey;
+
+    public TokenConfigurationParameter() {
+
+        this.publicKey = KeyConverter.convertPublicKey(
+                ConfigurationParameter.AUTH_PUBLIC_KEY.getDefaultValue()
+        );
+
+    }
+
+}
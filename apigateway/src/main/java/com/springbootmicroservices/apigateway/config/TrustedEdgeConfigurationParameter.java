@@ -0,0 +1,32 @@
+package com.springbootmicroservices.apigateway.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+/**
+ * Configuration class named {@link TrustedEdgeConfigurationParameter} for trusted-edge mode.
+ * When enabled, the gateway forwards the identity of a verified token as internal headers, together with
+ * a shared secret that downstream services check before trusting them.
+ */
+@Getter
+@Configuration
+public class TrustedEdgeConfigurationParameter {
+
+    private final boolean enabled;
+    private final String secret;
+
+    public TrustedEdgeConfigurationParameter(@Value("${gateway.trusted-edge.enabled:false}") final boolean enabled,
+                                             @Value("${gateway.trusted-edge.secret:}") final String secret) {
+
+        if (enabled && !StringUtils.hasText(secret)) {
+            throw new IllegalStateException("gateway.trusted-edge.secret must be set when trusted-edge mode is enabled");
+        }
+
+        this.enabled = enabled;
+        this.secret = secret;
+
+    }
+
+}
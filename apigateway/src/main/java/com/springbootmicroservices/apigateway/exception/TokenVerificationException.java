@@ -0,0 +1,34 @@
+package com.springbootmicroservices.apigateway.exception;
+
+import java.io.Serial;
+
+/**
+ * Exception named {@link TokenVerificationException} thrown when a bearer token is rejected,
+ * either because its signature is invalid or because it has expired.
+ */
+public class TokenVerificationException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 3482746184907621094L;
+
+    private static final String DEFAULT_MESSAGE = """
+            Token is not valid!
+            """;
+
+    /**
+     * Constructs a {@code TokenVerificationException} with the default message.
+     */
+    public TokenVerificationException() {
+        super(DEFAULT_MESSAGE);
+    }
+
+    /**
+     * Constructs a {@code TokenVerificationException} with the default message and the underlying cause.
+     *
+     * @param cause the reason the token was rejected
+     */
+    public TokenVerificationException(final Throwable cause) {
+        super(DEFAULT_MESSAGE, cause);
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.springbootmicroservices.apigateway.filter;
+
+import com.springbootmicroservices.apigateway.model.enums.IdentityHeader;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Global filter named {@link IdentityHeaderSanitizingFilter} that removes every {@link IdentityHeader}
+ * from incoming requests, so only the gateway itself can set them after verifying a token.
+ * Runs first on every route, including public and discovery-locator routes.
+ */
+@Component
+public class IdentityHeaderSanitizingFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Strips client-supplied identity headers before any other filter runs.
+     *
+     * @param exchange the current server exchange
+     * @param chain    the gateway filter chain
+     * @return a {@link Mono} that completes when the rest of the chain completes
+     */
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final GatewayFilterChain chain) {
+
+        final HttpHeaders headers = exchange.getRequest().getHeaders();
+        boolean present = false;
+        for (IdentityHeader identityHeader : IdentityHeader.values()) {
+            if (headers.containsKey(identityHeader.getValue())) {
+                present = true;
+                break;
+            }
+        }
+
+        if (!present) {
+            return chain.filter(exchange);
+        }
+
+        return chain.filter(exchange.mutate()
+                .request(request -> request.headers(httpHeaders -> {
+                    for (IdentityHeader identityHeader : IdentityHeader.values()) {
+                        httpHeaders.remove(identityHeader.getValue());
+                    }
+                }))
+                .build());
+
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+}
@@ -1,28 +1,60 @@
 package com.springbootmicroservices.apigateway.filter;
 
-import com.springbootmicroservices.apigateway.client.UserServiceClient;
+import com.springbootmicroservices.apigateway.cache.TokenVerificationCache;
+import com.springbootmicroservices.apigateway.config.TrustedEdgeConfigurationParameter;
+import com.springbootmicroservices.apigateway.exception.TokenVerificationException;
 import com.springbootmicroservices.apigateway.model.Token;
-import feign.FeignException;
+import com.springbootmicroservices.apigateway.model.VerifiedToken;
+import com.springbootmicroservices.apigateway.model.enums.IdentityHeader;
+import com.springbootmicroservices.apigateway.service.TokenVerificationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
-import org.springframework.context.ApplicationContext;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A custom Gateway filter named {@link JwtAuthenticationFilter} that handles JWT authentication for requests.
  * This filter validates JWT tokens for all requests except those to public endpoints.
+ * Verification is delegated to the configured {@link TokenVerificationService}
+ * (local RS256 verification by default, userservice's validate-token endpoint as a fallback),
+ * with results served from the {@link TokenVerificationCache} where possible.
+ * In trusted-edge mode the verified identity is forwarded downstream as {@link IdentityHeader}s.
  */
 @Component
 @Slf4j
 public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAuthenticationFilter.Config> {
 
+    private final TokenVerificationService tokenVerificationService;
+    private final TokenVerificationCache tokenVerificationCache;
+    private final TrustedEdgeConfigurationParameter trustedEdgeConfigurationParameter;
+
+    // Time spent verifying the bearer token, by outcome; the rest of the request is in gateway.route.latency
+    private final Timer validTokenTimer;
+    private final Timer invalidTokenTimer;
+    private final Timer verificationErrorTimer;
+
+    public JwtAuthenticationFilter(final TokenVerificationService tokenVerificationService,
+                                   final TokenVerificationCache tokenVerificationCache,
+                                   final TrustedEdgeConfigurationParameter trustedEdgeConfigurationParameter,
+                                   final MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.tokenVerificationService = tokenVerificationService;
+        this.tokenVerificationCache = tokenVerificationCache;
+        this.trustedEdgeConfigurationParameter = trustedEdgeConfigurationParameter;
+        this.validTokenTimer = verificationTimer(meterRegistry, "valid");
+        this.invalidTokenTimer = verificationTimer(meterRegistry, "invalid");
+        this.verificationErrorTimer = verificationTimer(meterRegistry, "error");
+    }
+
     /**
      * Configuration class for JwtAuthenticationFilter.
      * It holds a list of public endpoints that should not be filtered.
@@ -73,26 +105,21 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
 
             if (Token.isBearerToken(authorizationHeader)) {
                 String jwt = Token.getJwt(authorizationHeader);
+                long start = System.nanoTime();
 
-                // Inject UserServiceClient here
-                ApplicationContext context = exchange.getApplicationContext();
-                UserServiceClient userServiceClient = context.getBean(UserServiceClient.class);
-
-                return Mono.fromCallable(() -> {
-                            userServiceClient.validateToken(jwt);
+                return tokenVerificationCache.get(jwt, tokenVerificationService::verify)
+                        .doOnSuccess(verifiedToken ->
+                                validTokenTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                        .doOnError(e -> (e instanceof TokenVerificationException ? invalidTokenTimer : verificationErrorTimer)
+                                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                        .onErrorResume(e -> reject(exchange, path, e).then(Mono.empty()))
+                        .flatMap(verifiedToken -> {
                             log.debug("Token validation succeeded for path: {}", path);
-                            return true;
-                        })
-                        .subscribeOn(Schedulers.boundedElastic())
-                        .flatMap(valid -> chain.filter(exchange))
-                        .onErrorResume(e -> {
-                            log.error("Token validation failed for path: {}", path, e);
-                            if (e instanceof FeignException.Unauthorized || e instanceof FeignException.Forbidden) {
-                                exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
-                            } else {
-                                exchange.getResponse().setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
+                            exchange.getAttributes().put(VerifiedToken.EXCHANGE_ATTRIBUTE, verifiedToken);
+                            if (trustedEdgeConfigurationParameter.isEnabled()) {
+                                return chain.filter(withIdentityHeaders(exchange, verifiedToken));
                             }
-                            return exchange.getResponse().setComplete();
+                            return chain.filter(exchange);
                         });
             }
             log.warn("Missing or invalid Authorization header for path: {}", path);
@@ -100,4 +127,51 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
         };
     }
 
-}
\ No newline at end of file
+    /**
+     * Completes the exchange with 401 for rejected tokens, or 500 when verification itself failed.
+     */
+    private Mono<Void> reject(final ServerWebExchange exchange, final String path, final Throwable e) {
+        if (e instanceof TokenVerificationException) {
+            log.warn("Token validation failed for path: {}", path);
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        } else {
+            log.error("Token validation failed for path: {}", path, e);
+            exchange.getResponse().setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        return exchange.getResponse().setComplete();
+    }
+
+    /**
+     * Adds the verified identity and the shared edge secret to the request forwarded downstream.
+     */
+    private ServerWebExchange withIdentityHeaders(final ServerWebExchange exchange, final VerifiedToken verifiedToken) {
+        return exchange.mutate()
+                .request(request -> request.headers(headers -> {
+                    headers.set(IdentityHeader.EDGE_SECRET.getValue(), trustedEdgeConfigurationParameter.getSecret());
+                    setIfPresent(headers, IdentityHeader.USER_ID, verifiedToken.getUserId());
+                    setIfPresent(headers, IdentityHeader.USER_TYPE, verifiedToken.getUserType());
+                    setIfPresent(headers, IdentityHeader.USER_EMAIL, verifiedToken.getUserEmail());
+                    setIfPresent(headers, IdentityHeader.JWT_ID, verifiedToken.getJti());
+                    if (verifiedToken.getExpiresAt() != null) {
+                        headers.set(IdentityHeader.EXPIRES_AT.getValue(),
+                                String.valueOf(verifiedToken.getExpiresAt().getEpochSecond()));
+                    }
+                }))
+                .build();
+    }
+
+    private static Timer verificationTimer(final MeterRegistry meterRegistry, final String result) {
+        return Timer.builder("gateway.auth.verification")
+                .description("Time spent verifying bearer tokens in JwtAuthenticationFilter")
+                .tag("result", result)
+                .publishPercentiles(0.5, 0.9, 0.99, 0.999)
+                .register(meterRegistry);
+    }
+
+    private static void setIfPresent(final HttpHeaders headers, final IdentityHeader header, final String value) {
+        if (value != null) {
+            headers.set(header.getValue(), value);
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.springbootmicroservices.apigateway.filter;
+
+import com.springbootmicroservices.apigateway.config.RateLimitProperties;
+import com.springbootmicroservices.apigateway.model.VerifiedToken;
+import com.springbootmicroservices.apigateway.ratelimit.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A custom Gateway filter named {@link RateLimitFilter} that applies an in-process token-bucket limit per route.
+ * Authenticated requests are limited per verified user id, as set by {@link JwtAuthenticationFilter},
+ * so this filter must be placed after it. Requests without a verified token (public endpoints such as
+ * login or search) are limited per client IP.
+ * Rejected requests get 429 with a {@code Retry-After} header.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends AbstractGatewayFilterFactory<RateLimitFilter.Config> {
+
+    private static final String UNKNOWN_CLIENT = "unknown";
+
+    private final RateLimitProperties rateLimitProperties;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(final RateLimitProperties rateLimitProperties, final MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.rateLimitProperties = rateLimitProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Configuration class for RateLimitFilter.
+     * It holds the id of the route whose limits from {@link RateLimitProperties} apply.
+     */
+    public static class Config {
+
+        private String routeId;
+
+        /**
+         * Gets the route id.
+         *
+         * @return the route id
+         */
+        public String getRouteId() {
+            return routeId;
+        }
+
+        /**
+         * Sets the route id used to look up the limit and tag the metrics.
+         *
+         * @param routeId the route id to set
+         * @return the updated Config object
+         */
+        public Config setRouteId(String routeId) {
+            this.routeId = routeId;
+            return this;
+        }
+
+    }
+
+    /**
+     * Applies the rate limit filter to a route.
+     *
+     * @param config the configuration for the filter
+     * @return the gateway filter
+     */
+    @Override
+    public GatewayFilter apply(Config config) {
+
+        if (!rateLimitProperties.isEnabled()) {
+            return (exchange, chain) -> chain.filter(exchange);
+        }
+
+        final String routeId = config.getRouteId();
+        final RateLimitProperties.Limit limit = rateLimitProperties.forRoute(routeId);
+        final TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(
+                limit.getCapacity(),
+                limit.getRefillTokensPerSecond(),
+                rateLimitProperties.getIdleTimeout(),
+                rateLimitProperties.getMaximumKeys()
+        );
+
+        // Meters are registered once per route so the request path only increments them
+        final Counter allowed = Counter.builder("gateway.ratelimit.requests")
+                .tag("route", routeId).tag("result", "allowed")
+                .register(meterRegistry);
+        final Counter rejected = Counter.builder("gateway.ratelimit.requests")
+                .tag("route", routeId).tag("result", "rejected")
+                .register(meterRegistry);
+        Gauge.builder("gateway.ratelimit.keys", rateLimiter, TokenBucketRateLimiter::trackedKeys)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.ratelimit.capacity", limit, RateLimitProperties.Limit::getCapacity)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.ratelimit.refill.rate", limit, RateLimitProperties.Limit::getRefillTokensPerSecond)
+                .tag("route", routeId)
+                .register(meterRegistry);
+
+        return (exchange, chain) -> {
+
+            final long waitNanos = rateLimiter.tryAcquire(resolveKey(exchange));
+
+            if (waitNanos == 0) {
+                allowed.increment();
+                return chain.filter(exchange);
+            }
+
+            rejected.increment();
+            log.debug("Rate limit exceeded on route {} for path: {}", routeId, exchange.getRequest().getURI().getPath());
+            exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1))));
+            return exchange.getResponse().setComplete();
+
+        };
+
+    }
+
+    /**
+     * Resolves the rate-limit key: the verified user id when present, otherwise the client IP.
+     */
+    private static String resolveKey(final ServerWebExchange exchange) {
+
+        final VerifiedToken verifiedToken = exchange.getAttribute(VerifiedToken.EXCHANGE_ATTRIBUTE);
+        if (verifiedToken != null && verifiedToken.getUserId() != null) {
+            return verifiedToken.getUserId();
+        }
+
+        final InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return UNKNOWN_CLIENT;
+        }
+        return remoteAddress.getAddress().getHostAddress();
+
+    }
+
+}
@@ -0,0 +1,404 @@
+package com.springbootmicroservices.apigateway.filter;
+
+import com.springbootmicroservices.apigateway.cache.CachedResponse;
+import com.springbootmicroservices.apigateway.cache.ResponseCache;
+import com.springbootmicroservices.apigateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A custom Gateway filter named {@link ResponseCacheFilter} that serves public GET responses from the
+ * in-memory {@link ResponseCache}.
+ * <p>
+ * Responses are keyed on the path plus the query parameters sorted by name and value.
+ * The filter honours {@code Cache-Control}:
+ * <ul>
+ *     <li>{@code no-store} on the request bypasses the cache.</li>
+ *     <li>{@code no-cache} on the request forces a refetch.</li>
+ *     <li>{@code no-store}, {@code no-cache} or {@code private} on the response prevents storing it.</li>
+ *     <li>{@code s-maxage}/{@code max-age} on the response set its freshness, capped by the configured maximum.</li>
+ * </ul>
+ * Every stored response carries an {@code ETag}, and matching {@code If-None-Match} requests get 304.
+ * Once an entry goes stale it can still be served for the stale-while-revalidate window. During that window
+ * exactly one request goes upstream to refresh it while all others get the stale copy, so a hot key is
+ * never fetched by many requests at once.
+ */
+@Component
+@Slf4j
+public class ResponseCacheFilter extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private final ResponseCache responseCache;
+    private final ResponseCacheProperties responseCacheProperties;
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCacheFilter(final ResponseCache responseCache,
+                               final ResponseCacheProperties responseCacheProperties,
+                               final MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.responseCache = responseCache;
+        this.responseCacheProperties = responseCacheProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Configuration class for ResponseCacheFilter.
+     * It holds the route id used for metrics and the path patterns whose GET responses may be cached.
+     */
+    public static class Config {
+
+        private String routeId;
+        private List<String> cacheablePaths = List.of();
+
+        /**
+         * Gets the route id.
+         *
+         * @return the route id
+         */
+        public String getRouteId() {
+            return routeId;
+        }
+
+        /**
+         * Sets the route id used to tag the metrics.
+         *
+         * @param routeId the route id to set
+         * @return the updated Config object
+         */
+        public Config setRouteId(String routeId) {
+            this.routeId = routeId;
+            return this;
+        }
+
+        /**
+         * Gets the cacheable path patterns.
+         *
+         * @return the list of path patterns
+         */
+        public List<String> getCacheablePaths() {
+            return cacheablePaths;
+        }
+
+        /**
+         * Sets the path patterns (e.g. {@code /api/v1/products/{productId}}) whose GET responses may be cached.
+         *
+         * @param cacheablePaths the path patterns to set
+         * @return the updated Config object
+         */
+        public Config setCacheablePaths(List<String> cacheablePaths) {
+            this.cacheablePaths = cacheablePaths;
+            return this;
+        }
+
+    }
+
+    /**
+     * Applies the response cache filter to a route.
+     *
+     * @param config the configuration for the filter
+     * @return the gateway filter
+     */
+    @Override
+    public GatewayFilter apply(Config config) {
+
+        if (!responseCacheProperties.isEnabled()) {
+            return (exchange, chain) -> chain.filter(exchange);
+        }
+
+        final List<PathPattern> patterns = new ArrayList<>();
+        config.getCacheablePaths().forEach(path -> patterns.add(PathPatternParser.defaultInstance.parse(path)));
+
+        final Counter hits = counter(config.getRouteId(), "hit");
+        final Counter staleHits = counter(config.getRouteId(), "stale");
+        final Counter notModified = counter(config.getRouteId(), "not_modified");
+        final Counter misses = counter(config.getRouteId(), "miss");
+        final Counter bypasses = counter(config.getRouteId(), "bypass");
+
+        return (exchange, chain) -> {
+
+            final ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET || !matches(patterns, request)) {
+                return chain.filter(exchange);
+            }
+
+            final String requestCacheControl = request.getHeaders().getCacheControl();
+            if (hasDirective(requestCacheControl, "no-store")) {
+                bypasses.increment();
+                return chain.filter(exchange);
+            }
+
+            final String key = cacheKey(request);
+            final long now = System.nanoTime();
+            final CachedResponse cached = hasDirective(requestCacheControl, "no-cache") ? null : responseCache.get(key);
+
+            if (cached != null) {
+                if (cached.isFresh(now)) {
+                    return writeCached(exchange, cached, "HIT", now, hits, notModified);
+                }
+                if (!cached.tryStartRevalidation()) {
+                    return writeCached(exchange, cached, "STALE", now, staleHits, notModified);
+                }
+                log.debug("Revalidating stale cached response for {}", key);
+            }
+
+            misses.increment();
+            final CachingResponseDecorator decorator = new CachingResponseDecorator(exchange.getResponse(), key, cached);
+            return chain.filter(exchange.mutate().response(decorator).build())
+                    .doFinally(signalType -> decorator.releaseRevalidationIfNotStored());
+
+        };
+
+    }
+
+    private Counter counter(final String routeId, final String result) {
+        return Counter.builder("gateway.response.cache.requests")
+                .tag("route", routeId)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static boolean matches(final List<PathPattern> patterns, final ServerHttpRequest request) {
+        final PathContainer path = request.getPath().pathWithinApplication();
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the cache key from the path without a trailing slash and the query parameters sorted by name and value,
+     * so {@code ?b=2&a=1} and {@code ?a=1&b=2} share an entry.
+     */
+    static String cacheKey(final ServerHttpRequest request) {
+
+        String path = request.getPath().pathWithinApplication().value();
+        if (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+
+        final MultiValueMap<String, String> queryParams = request.getQueryParams();
+        if (queryParams.isEmpty()) {
+            return path;
+        }
+
+        final StringBuilder key = new StringBuilder(path).append('?');
+        final Map<String, List<String>> sorted = new TreeMap<>(queryParams);
+        sorted.forEach((name, values) -> values.stream().sorted().forEach(value -> {
+            if (key.charAt(key.length() - 1) != '?') {
+                key.append('&');
+            }
+            key.append(name).append('=').append(value != null ? value : "");
+        }));
+        return key.toString();
+
+    }
+
+    private Mono<Void> writeCached(final ServerWebExchange exchange,
+                                   final CachedResponse cached,
+                                   final String cacheStatus,
+                                   final long now,
+                                   final Counter counter,
+                                   final Counter notModified) {
+
+        final ServerHttpResponse response = exchange.getResponse();
+        final HttpHeaders headers = response.getHeaders();
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+        headers.set(HttpHeaders.AGE, String.valueOf(TimeUnit.NANOSECONDS.toSeconds(now - cached.getStoredAtNanos())));
+        headers.setETag(cached.getETag());
+
+        if (eTagMatches(exchange.getRequest().getHeaders().getIfNoneMatch(), cached.getETag())) {
+            notModified.increment();
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        counter.increment();
+        response.setStatusCode(cached.getStatusCode());
+        cached.getHeaders().forEach((name, values) -> {
+            if (!headers.containsKey(name)) {
+                headers.put(name, values);
+            }
+        });
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.getBody())));
+
+    }
+
+    private static boolean eTagMatches(final List<String> ifNoneMatch, final String eTag) {
+        if (ifNoneMatch.isEmpty() || eTag == null) {
+            return false;
+        }
+        final String opaque = stripWeakPrefix(eTag);
+        for (String candidate : ifNoneMatch) {
+            if ("*".equals(candidate) || opaque.equals(stripWeakPrefix(candidate))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeakPrefix(final String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    private static boolean hasDirective(final String cacheControl, final String directive) {
+        return cacheControl != null && cacheControl.toLowerCase().contains(directive);
+    }
+
+    /**
+     * Returns the freshness lifetime of a response, or {@link Duration#ZERO} if it must not be stored.
+     */
+    private Duration freshness(final HttpHeaders responseHeaders) {
+
+        final String cacheControl = responseHeaders.getCacheControl();
+        if (hasDirective(cacheControl, "no-store") || hasDirective(cacheControl, "no-cache")
+                || hasDirective(cacheControl, "private") || responseHeaders.containsKey(HttpHeaders.SET_COOKIE)) {
+            return Duration.ZERO;
+        }
+
+        Duration ttl = responseCacheProperties.getTtl();
+        if (cacheControl != null) {
+            Long sharedMaxAge = null;
+            Long maxAge = null;
+            for (String directive : cacheControl.toLowerCase().split(",")) {
+                final String trimmed = directive.trim();
+                try {
+                    if (trimmed.startsWith("s-maxage=")) {
+                        sharedMaxAge = Long.parseLong(trimmed.substring("s-maxage=".length()));
+                    } else if (trimmed.startsWith("max-age=")) {
+                        maxAge = Long.parseLong(trimmed.substring("max-age=".length()));
+                    }
+                } catch (NumberFormatException ignored) {
+                    // Malformed directive: fall back to the configured TTL
+                }
+            }
+            final Long seconds = sharedMaxAge != null ? sharedMaxAge : maxAge;
+            if (seconds != null) {
+                ttl = Duration.ofSeconds(seconds);
+            }
+        }
+
+        final Duration maximumTtl = responseCacheProperties.getMaximumTtl();
+        return ttl.compareTo(maximumTtl) > 0 ? maximumTtl : ttl;
+
+    }
+
+    /**
+     * Response decorator that buffers a cacheable 200 response, stores it and then writes it to the client.
+     */
+    private final class CachingResponseDecorator extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final CachedResponse previous;
+        private boolean stored;
+
+        private CachingResponseDecorator(final ServerHttpResponse delegate, final String key, final CachedResponse previous) {
+            super(delegate);
+            this.key = key;
+            this.previous = previous;
+        }
+
+        @Override
+        public Mono<Void> writeWith(final Publisher<? extends DataBuffer> body) {
+
+            final HttpHeaders headers = getHeaders();
+            final Duration freshness = freshness(headers);
+            if (!HttpStatus.OK.equals(getStatusCode()) || freshness.isZero() || freshness.isNegative()) {
+                headers.set(CACHE_STATUS_HEADER, "BYPASS");
+                return super.writeWith(body);
+            }
+
+            return super.writeWith(DataBufferUtils.join(Flux.from(body)).map(joined -> {
+
+                final byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+
+                headers.set(CACHE_STATUS_HEADER, "MISS");
+                if (bytes.length <= responseCacheProperties.getMaximumEntrySize().toBytes()) {
+                    store(headers, bytes, freshness);
+                }
+                return bufferFactory().wrap(bytes);
+
+            }));
+
+        }
+
+        private void store(final HttpHeaders headers, final byte[] bytes, final Duration freshness) {
+
+            String eTag = headers.getETag();
+            if (eTag == null) {
+                eTag = "W/\"" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+                headers.setETag(eTag);
+            }
+
+            final HttpHeaders replayed = new HttpHeaders();
+            copyIfPresent(headers, replayed, HttpHeaders.CONTENT_TYPE);
+            copyIfPresent(headers, replayed, HttpHeaders.CONTENT_LANGUAGE);
+            copyIfPresent(headers, replayed, HttpHeaders.CACHE_CONTROL);
+            copyIfPresent(headers, replayed, HttpHeaders.LAST_MODIFIED);
+
+            final long now = System.nanoTime();
+            final long freshUntil = now + freshness.toNanos();
+            responseCache.put(key, new CachedResponse(
+                    getStatusCode(),
+                    replayed,
+                    bytes,
+                    eTag,
+                    now,
+                    freshUntil,
+                    freshUntil + responseCacheProperties.getStaleWhileRevalidate().toNanos()
+            ));
+            stored = true;
+
+        }
+
+        private void copyIfPresent(final HttpHeaders from, final HttpHeaders to, final String name) {
+            final List<String> values = from.get(name);
+            if (values != null) {
+                to.put(name, values);
+            }
+        }
+
+        /**
+         * Lets another request refresh a stale entry when this one did not manage to replace it.
+         */
+        private void releaseRevalidationIfNotStored() {
+            if (previous != null && !stored) {
+                previous.revalidationFailed();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,164 @@
+package com.springbootmicroservices.apigateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Global filter named {@link RouteMetricsFilter} recording, per route id, the end-to-end latency, the number of
+ * responses per status class and the request/response bytes.
+ * <p>
+ * Latency is a Micrometer timer publishing p50/p90/p99/p999 from its HdrHistogram-based recorder and a
+ * percentile histogram for {@code histogram_quantile} on the Prometheus endpoint. All meters of a route are
+ * resolved once and cached, so the request path does a map lookup and lock-free increments only.
+ * It runs right after {@link IdentityHeaderSanitizingFilter} and therefore covers every route filter,
+ * including {@link JwtAuthenticationFilter}, whose share is recorded separately as
+ * {@code gateway.auth.verification}.
+ */
+@Component
+public class RouteMetricsFilter implements GlobalFilter, Ordered {
+
+    private static final String UNKNOWN_ROUTE = "unknown";
+
+    private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteMeters> routeMeters = new ConcurrentHashMap<>();
+
+    public RouteMetricsFilter(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final GatewayFilterChain chain) {
+
+        final Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        final RouteMeters meters = routeMeters.computeIfAbsent(
+                route != null ? route.getId() : UNKNOWN_ROUTE, this::createMeters);
+        final long start = System.nanoTime();
+
+        final ServerWebExchange counted = exchange.mutate()
+                .request(countingRequest(exchange.getRequest(), meters.bytesIn))
+                .response(countingResponse(exchange.getResponse(), meters.bytesOut))
+                .build();
+
+        return chain.filter(counted)
+                .doFinally(signal -> {
+                    meters.latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    meters.statusClass(exchange.getResponse().getStatusCode()).increment();
+                });
+
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+
+    private static ServerHttpRequest countingRequest(final ServerHttpRequest request, final Counter bytesIn) {
+
+        // Most requests declare their size; only chunked bodies need to be counted buffer by buffer
+        final long contentLength = request.getHeaders().getContentLength();
+        if (contentLength >= 0) {
+            bytesIn.increment(contentLength);
+            return request;
+        }
+
+        return new ServerHttpRequestDecorator(request) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return super.getBody().doOnNext(buffer -> bytesIn.increment(buffer.readableByteCount()));
+            }
+        };
+
+    }
+
+    private static ServerHttpResponse countingResponse(final ServerHttpResponse response, final Counter bytesOut) {
+        return new ServerHttpResponseDecorator(response) {
+            @Override
+            public Mono<Void> writeWith(final Publisher<? extends DataBuffer> body) {
+                return super.writeWith(Flux.from(body)
+                        .doOnNext(buffer -> bytesOut.increment(buffer.readableByteCount())));
+            }
+
+            @Override
+            public Mono<Void> writeAndFlushWith(final Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                return super.writeAndFlushWith(Flux.from(body)
+                        .map(chunk -> Flux.from(chunk)
+                                .doOnNext(buffer -> bytesOut.increment(buffer.readableByteCount()))));
+            }
+        };
+    }
+
+    private RouteMeters createMeters(final String routeId) {
+
+        final Timer latency = Timer.builder("gateway.route.latency")
+                .description("End-to-end gateway latency per route")
+                .tag("route", routeId)
+                .publishPercentiles(0.5, 0.9, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+
+        final Counter[] responses = new Counter[STATUS_CLASSES.length + 1];
+        for (int i = 0; i < STATUS_CLASSES.length; i++) {
+            responses[i] = responseCounter(routeId, STATUS_CLASSES[i]);
+        }
+        // No status at all: the client went away or the connection failed before a response was set
+        responses[STATUS_CLASSES.length] = responseCounter(routeId, "none");
+
+        return new RouteMeters(
+                latency,
+                responses,
+                Counter.builder("gateway.route.bytes").baseUnit("bytes")
+                        .tag("route", routeId).tag("direction", "in")
+                        .register(meterRegistry),
+                Counter.builder("gateway.route.bytes").baseUnit("bytes")
+                        .tag("route", routeId).tag("direction", "out")
+                        .register(meterRegistry)
+        );
+
+    }
+
+    private Counter responseCounter(final String routeId, final String statusClass) {
+        return Counter.builder("gateway.route.responses")
+                .tag("route", routeId)
+                .tag("status", statusClass)
+                .register(meterRegistry);
+    }
+
+    private record RouteMeters(Timer latency, Counter[] responses, Counter bytesIn, Counter bytesOut) {
+
+        private Counter statusClass(final HttpStatusCode status) {
+            if (status == null) {
+                return responses[STATUS_CLASSES.length];
+            }
+            final int index = status.value() / 100 - 1;
+            return index >= 0 && index < STATUS_CLASSES.length ? responses[index] : responses[STATUS_CLASSES.length];
+        }
+
+    }
+
+}
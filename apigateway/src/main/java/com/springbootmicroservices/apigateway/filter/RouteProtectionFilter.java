@@ -0,0 +1,162 @@
+package com.springbootmicroservices.apigateway.filter;
+
+import com.springbootmicroservices.apigateway.config.RouteProtectionProperties;
+import com.springbootmicroservices.apigateway.protection.GradientConcurrencyLimiter;
+import com.springbootmicroservices.apigateway.protection.RouteProtectionRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A custom Gateway filter named {@link RouteProtectionFilter} isolating routes from each other when an upstream
+ * slows down or fails.
+ * <p>
+ * Each route gets its own circuit breaker and adaptive concurrency limit from {@link RouteProtectionRegistry}.
+ * A request is rejected immediately with 503 and {@code Retry-After} while the breaker is open or the route
+ * already has as many requests in flight as its limit allows, instead of queuing behind a slow upstream.
+ * 5xx responses, upstream timeouts and connection errors count as failures for the breaker.
+ * <p>
+ * It should be the last filter of a route so cached or rejected responses neither take a slot nor feed
+ * the latency samples.
+ */
+@Component
+@Slf4j
+public class RouteProtectionFilter extends AbstractGatewayFilterFactory<RouteProtectionFilter.Config> {
+
+    // Recorded for 5xx responses, which reach the filter as a normal completion rather than an error
+    private static final Exception UPSTREAM_SERVER_ERROR = new IllegalStateException("Upstream returned 5xx");
+
+    private final RouteProtectionProperties routeProtectionProperties;
+    private final RouteProtectionRegistry routeProtectionRegistry;
+    private final MeterRegistry meterRegistry;
+
+    public RouteProtectionFilter(final RouteProtectionProperties routeProtectionProperties,
+                                 final RouteProtectionRegistry routeProtectionRegistry,
+                                 final MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.routeProtectionProperties = routeProtectionProperties;
+        this.routeProtectionRegistry = routeProtectionRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Configuration class for RouteProtectionFilter.
+     * It holds the id of the route whose breaker and limit apply.
+     */
+    public static class Config {
+
+        private String routeId;
+
+        /**
+         * Gets the route id.
+         *
+         * @return the route id
+         */
+        public String getRouteId() {
+            return routeId;
+        }
+
+        /**
+         * Sets the route id used to look up the breaker and limit and tag the metrics.
+         *
+         * @param routeId the route id to set
+         * @return the updated Config object
+         */
+        public Config setRouteId(String routeId) {
+            this.routeId = routeId;
+            return this;
+        }
+
+    }
+
+    /**
+     * Applies the circuit breaker and concurrency limit to a route.
+     *
+     * @param config the configuration for the filter
+     * @return the gateway filter
+     */
+    @Override
+    public GatewayFilter apply(Config config) {
+
+        if (!routeProtectionProperties.isEnabled()) {
+            return (exchange, chain) -> chain.filter(exchange);
+        }
+
+        final String routeId = config.getRouteId();
+        final CircuitBreaker circuitBreaker = routeProtectionRegistry.circuitBreaker(routeId);
+        final GradientConcurrencyLimiter limiter = routeProtectionRegistry.concurrencyLimiter(routeId);
+        final Duration openRetryAfter = routeProtectionProperties.forRoute(routeId)
+                .getCircuitBreaker().getWaitDurationInOpenState();
+
+        final Counter circuitOpen = Counter.builder("gateway.route.protection.rejected")
+                .tag("route", routeId).tag("reason", "circuit_open")
+                .register(meterRegistry);
+        final Counter limitExceeded = Counter.builder("gateway.route.protection.rejected")
+                .tag("route", routeId).tag("reason", "limit_exceeded")
+                .register(meterRegistry);
+
+        return (exchange, chain) -> {
+
+            if (!circuitBreaker.tryAcquirePermission()) {
+                circuitOpen.increment();
+                log.debug("Circuit open on route {} for path: {}", routeId, exchange.getRequest().getURI().getPath());
+                return reject(exchange, openRetryAfter);
+            }
+
+            if (!limiter.tryAcquire()) {
+                circuitBreaker.releasePermission();
+                limitExceeded.increment();
+                log.debug("Concurrency limit {} reached on route {} for path: {}",
+                        limiter.getLimit(), routeId, exchange.getRequest().getURI().getPath());
+                return reject(exchange, routeProtectionProperties.getRetryAfter());
+            }
+
+            final long start = System.nanoTime();
+
+            return chain.filter(exchange)
+                    .doOnSuccess(ignored -> {
+                        final long elapsed = System.nanoTime() - start;
+                        final HttpStatusCode status = exchange.getResponse().getStatusCode();
+                        if (status != null && status.is5xxServerError()) {
+                            circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS, UPSTREAM_SERVER_ERROR);
+                            limiter.release(elapsed, true);
+                        } else {
+                            circuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+                            limiter.release(elapsed, false);
+                        }
+                    })
+                    .doOnError(throwable -> {
+                        final long elapsed = System.nanoTime() - start;
+                        circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS, throwable);
+                        limiter.release(elapsed, true);
+                    })
+                    .doOnCancel(() -> {
+                        // The client went away; this says nothing about the upstream
+                        circuitBreaker.releasePermission();
+                        limiter.release();
+                    });
+
+        };
+
+    }
+
+    private static Mono<Void> reject(final ServerWebExchange exchange, final Duration retryAfter) {
+        exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, retryAfter.toSeconds())));
+        return exchange.getResponse().setComplete();
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.springbootmicroservices.apigateway.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springbootmicroservices.apigateway.config.StorefrontProperties;
+import com.springbootmicroservices.apigateway.model.storefront.StorefrontResponse;
+import com.springbootmicroservices.apigateway.service.StorefrontService;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * A terminal Gateway filter named {@link StorefrontAggregationFilter} answering {@code GET /api/v1/storefront}
+ * itself with the document built by {@link StorefrontService}; it never calls the rest of the chain.
+ * <p>
+ * Supported query parameters: {@code page} (1-based, default 1), {@code size} (default
+ * {@code gateway.storefront.default-page-size}, at most 100), {@code category} and {@code q}.
+ * Partial documents are marked {@code Cache-Control: no-store} so the edge cache only keeps complete ones.
+ */
+@Component
+public class StorefrontAggregationFilter implements GatewayFilter {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final StorefrontService storefrontService;
+    private final StorefrontProperties storefrontProperties;
+    private final ObjectMapper objectMapper;
+
+    public StorefrontAggregationFilter(final StorefrontService storefrontService,
+                                       final StorefrontProperties storefrontProperties,
+                                       final ObjectMapper objectMapper) {
+        this.storefrontService = storefrontService;
+        this.storefrontProperties = storefrontProperties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final GatewayFilterChain chain) {
+
+        final MultiValueMap<String, String> params = exchange.getRequest().getQueryParams();
+        final int page;
+        final int size;
+        try {
+            page = intParam(params.getFirst("page"), 1);
+            size = intParam(params.getFirst("size"), storefrontProperties.getDefaultPageSize());
+        } catch (NumberFormatException e) {
+            exchange.getResponse().setStatusCode(HttpStatus.BAD_REQUEST);
+            return exchange.getResponse().setComplete();
+        }
+        if (page < 1 || size < 1 || size > MAX_PAGE_SIZE) {
+            exchange.getResponse().setStatusCode(HttpStatus.BAD_REQUEST);
+            return exchange.getResponse().setComplete();
+        }
+
+        return storefrontService.getStorefront(page, size, params.getFirst("category"), params.getFirst("q"))
+                .flatMap(storefront -> write(exchange.getResponse(), storefront));
+
+    }
+
+    private Mono<Void> write(final ServerHttpResponse response, final StorefrontResponse storefront) {
+
+        final byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(storefront);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(body.length);
+        if (storefront.isPartial()) {
+            response.getHeaders().setCacheControl(CacheControl.noStore());
+        }
+        final DataBuffer buffer = response.bufferFactory().wrap(body);
+        return response.writeWith(Mono.just(buffer));
+
+    }
+
+    private static int intParam(final String value, final int defaultValue) {
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+}
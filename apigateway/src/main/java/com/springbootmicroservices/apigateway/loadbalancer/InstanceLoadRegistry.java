@@ -0,0 +1,135 @@
+package com.springbootmicroservices.apigateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry named {@link InstanceLoadRegistry} holding the live load of every service instance the gateway
+ * talks to: an exponentially weighted moving average of response time and the number of outstanding requests.
+ * <p>
+ * The average is "peak sensitive": a response slower than the current average replaces it immediately, while
+ * faster responses only pull it down gradually. A slow instance is therefore avoided at once and trusted
+ * again only after it has proven itself. Without new samples the average decays towards zero with
+ * {@code decayTime}, so an instance that was slow a while ago is eventually probed again.
+ */
+public class InstanceLoadRegistry {
+
+    private final Map<String, InstanceLoad> loads = new ConcurrentHashMap<>();
+    private final double decayNanos;
+    private final long failurePenaltyNanos;
+    private final LongSupplier nanoClock;
+
+    public InstanceLoadRegistry(final Duration decayTime, final Duration failurePenalty) {
+        this(decayTime, failurePenalty, System::nanoTime);
+    }
+
+    InstanceLoadRegistry(final Duration decayTime, final Duration failurePenalty, final LongSupplier nanoClock) {
+        if (decayTime.isZero() || decayTime.isNegative()) {
+            throw new IllegalArgumentException("decayTime must be positive");
+        }
+        this.decayNanos = decayTime.toNanos();
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns the current load of an instance; lower is better.
+     * The load is the decayed average response time multiplied by the outstanding requests plus one, so
+     * an instance is charged both for being slow and for already being busy.
+     *
+     * @param instance the service instance
+     * @return the load of the instance
+     */
+    public double load(final ServiceInstance instance) {
+        return loadOf(instance).load(nanoClock.getAsLong());
+    }
+
+    /**
+     * Marks the start of a request sent to the given instance.
+     *
+     * @param instance the chosen service instance
+     */
+    public void requestStarted(final ServiceInstance instance) {
+        loadOf(instance).outstanding.incrementAndGet();
+    }
+
+    /**
+     * Marks the end of a request and feeds its response time into the average.
+     * A failed request is recorded as taking at least {@code failurePenalty}, so an instance that fails fast
+     * does not look like the fastest one.
+     *
+     * @param instance       the service instance that handled the request
+     * @param latencyNanos   the observed response time in nanoseconds
+     * @param failed         whether the request failed (transport error or 5xx response)
+     */
+    public void requestCompleted(final ServiceInstance instance, final long latencyNanos, final boolean failed) {
+        final InstanceLoad load = loadOf(instance);
+        load.outstanding.updateAndGet(current -> Math.max(current - 1, 0));
+        load.observe(failed ? Math.max(latencyNanos, failurePenaltyNanos) : latencyNanos, nanoClock.getAsLong());
+    }
+
+    /**
+     * Returns the number of requests currently in flight to the given instance.
+     *
+     * @param instance the service instance
+     * @return the outstanding request count
+     */
+    public int outstanding(final ServiceInstance instance) {
+        return loadOf(instance).outstanding.get();
+    }
+
+    private InstanceLoad loadOf(final ServiceInstance instance) {
+        return loads.computeIfAbsent(keyOf(instance), key -> new InstanceLoad());
+    }
+
+    private static String keyOf(final ServiceInstance instance) {
+        // Eureka instance ids are unique, but static or simple-discovery instances may not carry one
+        final String instanceId = instance.getInstanceId();
+        return instance.getServiceId() + "/"
+                + (instanceId != null ? instanceId : instance.getHost() + ":" + instance.getPort());
+    }
+
+    private final class InstanceLoad {
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        // Guarded by this
+        private double ewmaNanos;
+        private long stamp = nanoClock.getAsLong();
+
+        private synchronized void observe(final long latencyNanos, final long now) {
+            final double decayed = decayed(now);
+            if (latencyNanos > decayed) {
+                ewmaNanos = latencyNanos;
+            } else {
+                final double weight = Math.exp(-Math.max(now - stamp, 0) / decayNanos);
+                ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+            }
+            stamp = now;
+        }
+
+        private double load(final long now) {
+            final int pending = outstanding.get();
+            final double average;
+            synchronized (this) {
+                average = decayed(now);
+            }
+            // A fresh instance has no average yet; rank it by its queue alone so it is not flooded
+            if (average == 0) {
+                return pending == 0 ? 0 : failurePenaltyNanos + pending;
+            }
+            return average * (pending + 1);
+        }
+
+        private double decayed(final long now) {
+            return ewmaNanos * Math.exp(-Math.max(now - stamp, 0) / decayNanos);
+        }
+
+    }
+
+}
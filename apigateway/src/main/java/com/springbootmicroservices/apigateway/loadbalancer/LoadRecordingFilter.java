@@ -0,0 +1,59 @@
+package com.springbootmicroservices.apigateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Global filter named {@link LoadRecordingFilter} feeding {@link InstanceLoadRegistry} with the outstanding
+ * requests and response times of the instances chosen by {@link PeakEwmaLoadBalancer}.
+ * <p>
+ * It runs right after {@link ReactiveLoadBalancerClientFilter} and records in {@code doFinally}, so a request
+ * the client abandons still releases its outstanding slot; the load-balancer lifecycle callbacks are not
+ * invoked on cancellation and would leak it.
+ */
+public class LoadRecordingFilter implements GlobalFilter, Ordered {
+
+    private final InstanceLoadRegistry instanceLoadRegistry;
+
+    public LoadRecordingFilter(final InstanceLoadRegistry instanceLoadRegistry) {
+        this.instanceLoadRegistry = instanceLoadRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final GatewayFilterChain chain) {
+
+        final Response<ServiceInstance> response =
+                exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (response == null || !response.hasServer()) {
+            return chain.filter(exchange);
+        }
+
+        final ServiceInstance instance = response.getServer();
+        final long start = System.nanoTime();
+        instanceLoadRegistry.requestStarted(instance);
+
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    final HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    final boolean failed = signal == SignalType.ON_ERROR
+                            || (status != null && status.is5xxServerError());
+                    instanceLoadRegistry.requestCompleted(instance, System.nanoTime() - start, failed);
+                });
+
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.springbootmicroservices.apigateway.loadbalancer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Load balancer named {@link PeakEwmaLoadBalancer} using "power of two choices": for every request two distinct
+ * instances are picked at random and the one with the lower load in {@link InstanceLoadRegistry} wins.
+ * <p>
+ * Comparing only two random candidates keeps selection O(1) and avoids the herding that comes from always
+ * sending traffic to the single least-loaded instance, while still steering requests away from slow or
+ * saturated instances far better than round robin.
+ */
+@Slf4j
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+    private final String serviceId;
+    private final InstanceLoadRegistry instanceLoadRegistry;
+
+    public PeakEwmaLoadBalancer(final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                final String serviceId,
+                                final InstanceLoadRegistry instanceLoadRegistry) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.serviceId = serviceId;
+        this.instanceLoadRegistry = instanceLoadRegistry;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(final Request request) {
+        final ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request)
+                .next()
+                .map(instances -> {
+                    final Response<ServiceInstance> response = choose(instances);
+                    if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+                        callback.selectedServiceInstance(response.getServer());
+                    }
+                    return response;
+                });
+    }
+
+    private Response<ServiceInstance> choose(final List<ServiceInstance> instances) {
+
+        if (instances.isEmpty()) {
+            log.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        final ServiceInstance a = instances.get(first);
+        final ServiceInstance b = instances.get(second);
+        return new DefaultResponse(instanceLoadRegistry.load(a) <= instanceLoadRegistry.load(b) ? a : b);
+
+    }
+
+}
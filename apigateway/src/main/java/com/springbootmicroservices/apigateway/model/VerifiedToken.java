@@ -0,0 +1,58 @@
+package com.springbootmicroservices.apigateway.model;
+
+import com.springbootmicroservices.apigateway.model.enums.TokenClaims;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Represents an access token whose signature and expiry have already been verified,
+ * together with the identity claims downstream filters need.
+ * The verified token is stored on the exchange under {@link #EXCHANGE_ATTRIBUTE}.
+ */
+@Getter
+@Builder
+public class VerifiedToken {
+
+    public static final String EXCHANGE_ATTRIBUTE = VerifiedToken.class.getName();
+
+    private String jti;
+    private String userId;
+    private String userType;
+    private String userEmail;
+    private Instant expiresAt;
+
+    /**
+     * Builds a {@link VerifiedToken} from the claims of a token that has already been verified.
+     *
+     * @param claims the verified claims
+     * @return the verified token
+     */
+    public static VerifiedToken of(final Map<String, Object> claims) {
+        return VerifiedToken.builder()
+                .jti(asString(claims.get(TokenClaims.JWT_ID.getValue())))
+                .userId(asString(claims.get(TokenClaims.USER_ID.getValue())))
+                .userType(asString(claims.get(TokenClaims.USER_TYPE.getValue())))
+                .userEmail(asString(claims.get(TokenClaims.USER_EMAIL.getValue())))
+                .expiresAt(asInstant(claims.get(TokenClaims.EXPIRES_AT.getValue())))
+                .build();
+    }
+
+    private static String asString(final Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static Instant asInstant(final Object value) {
+        if (value instanceof Date date) {
+            return date.toInstant();
+        }
+        if (value instanceof Number epochSeconds) {
+            return Instant.ofEpochSecond(epochSeconds.longValue());
+        }
+        return null;
+    }
+
+}
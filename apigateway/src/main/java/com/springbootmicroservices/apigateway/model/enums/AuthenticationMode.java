@@ -0,0 +1,13 @@
+package com.springbootmicroservices.apigateway.model.enums;
+
+/**
+ * Enum representing how the gateway verifies bearer tokens.
+ * <ul>
+ *     <li>{@link #LOCAL} - the RS256 signature and expiry are checked in-process with the userservice public key.</li>
+ *     <li>{@link #REMOTE} - every token is sent to userservice's validate-token endpoint (fallback mode).</li>
+ * </ul>
+ */
+public enum AuthenticationMode {
+    LOCAL,
+    REMOTE
+}
@@ -0,0 +1,28 @@
+package com.springbootmicroservices.apigateway.model.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Enum representing configuration parameters used by the gateway.
+ * Holds the public key that userservice signs access tokens with, so the gateway can verify them locally.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ConfigurationParameter {
+
+    AUTH_PUBLIC_KEY("""
+            -----BEGIN PUBLIC KEY-----
+            MIIBIjANBgkqhkiG9w0BAQEFAAOCAQ8AMIIBCgKCAQEA1HmZ3A379M6Rv9UnMt9R
+            Wq0a6bpcnoOWJxTi2exwnecW3r1X1PjeUvsDogy7RYjhlxU0G+1r38gPWfUW2FNd
+            tsa3H+FDhJ6dcNc4uKVYPsiVJukHi4NrvWA8E8dPdLW1lNcijr4PqXjvZTLoS1QX
+            f30wnNLBNDwdPXTESodi/n87VoSH2ChgLZUVfoS3m/NlUN8Z58gGxRcpUyjl+MmC
+            hD2cfyWr2xdxKd+UQMrd36LfyoWh0IlONlxo0H5x8JIwlziLbPEAh7dJ9QYM0b5G
+            msXBAzrILvW5+POSq4u1vNlzSwdLe+AZ6bnCwQVrqvMn/I7JT+4+lY8BsP/gMRQL
+            awIDAQAB
+            -----END PUBLIC KEY-----
+                        """);
+
+    private final String defaultValue;
+
+}
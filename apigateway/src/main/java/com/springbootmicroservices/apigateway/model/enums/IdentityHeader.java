@@ -0,0 +1,24 @@
+package com.springbootmicroservices.apigateway.model.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Enum representing the internal headers the gateway uses to forward an already verified identity
+ * to downstream services in trusted-edge mode.
+ * Clients can never supply these headers themselves; they are stripped from every incoming request.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum IdentityHeader {
+
+    EDGE_SECRET("X-Edge-Secret"),
+    USER_ID("X-Auth-User-Id"),
+    USER_TYPE("X-Auth-User-Type"),
+    USER_EMAIL("X-Auth-User-Email"),
+    JWT_ID("X-Auth-Jti"),
+    EXPIRES_AT("X-Auth-Expires-At");
+
+    private final String value;
+
+}
@@ -0,0 +1,17 @@
+package com.springbootmicroservices.apigateway.model.enums;
+
+/**
+ * Enum representing the outcome of one upstream call of the storefront aggregation.
+ * <ul>
+ *     <li>{@link #OK} - the upstream answered in time; the section carries its data.</li>
+ *     <li>{@link #TIMEOUT} - the upstream did not answer within the section's deadline.</li>
+ *     <li>{@link #ERROR} - the upstream failed or returned an error status.</li>
+ *     <li>{@link #SKIPPED} - the section was not requested and has no configured default.</li>
+ * </ul>
+ */
+public enum StorefrontSectionStatus {
+    OK,
+    TIMEOUT,
+    ERROR,
+    SKIPPED
+}
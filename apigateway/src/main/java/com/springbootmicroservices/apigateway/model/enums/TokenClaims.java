@@ -0,0 +1,23 @@
+package com.springbootmicroservices.apigateway.model.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Enum representing the JSON Web Token (JWT) claims the gateway reads from a verified access token.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TokenClaims {
+
+    JWT_ID("jti"),
+    USER_ID("userId"),
+    USER_TYPE("userType"),
+    USER_STATUS("userStatus"),
+    USER_EMAIL("userEmail"),
+    ISSUED_AT("iat"),
+    EXPIRES_AT("exp");
+
+    private final String value;
+
+}
@@ -0,0 +1,28 @@
+package com.springbootmicroservices.apigateway.model.storefront;
+
+import com.springbootmicroservices.apigateway.model.enums.StorefrontSectionStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.stream.Stream;
+
+/**
+ * Represents the combined landing-page document returned by {@code GET /api/v1/storefront}:
+ * the product listing, the products of one category and the search results with facets.
+ * {@code partial} is {@code true} when at least one requested section could not be loaded.
+ */
+@Getter
+@Builder
+public class StorefrontResponse {
+
+    private StorefrontSection products;
+    private StorefrontSection category;
+    private StorefrontSection search;
+
+    public boolean isPartial() {
+        return Stream.of(products, category, search)
+                .anyMatch(section -> section.getStatus() == StorefrontSectionStatus.TIMEOUT
+                        || section.getStatus() == StorefrontSectionStatus.ERROR);
+    }
+
+}
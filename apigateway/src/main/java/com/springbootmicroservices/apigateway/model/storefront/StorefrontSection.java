@@ -0,0 +1,35 @@
+package com.springbootmicroservices.apigateway.model.storefront;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.springbootmicroservices.apigateway.model.enums.StorefrontSectionStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Represents one part of the storefront document: the upstream payload when the call succeeded,
+ * otherwise the reason it is missing.
+ * The payload is passed through as-is, so the gateway does not need the upstream DTOs.
+ */
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StorefrontSection {
+
+    private StorefrontSectionStatus status;
+    private JsonNode data;
+    private String error;
+
+    public static StorefrontSection ok(final JsonNode data) {
+        return StorefrontSection.builder().status(StorefrontSectionStatus.OK).data(data).build();
+    }
+
+    public static StorefrontSection failed(final StorefrontSectionStatus status, final String error) {
+        return StorefrontSection.builder().status(status).error(error).build();
+    }
+
+    public static StorefrontSection skipped() {
+        return StorefrontSection.builder().status(StorefrontSectionStatus.SKIPPED).build();
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.springbootmicroservices.apigateway.protection;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive concurrency limiter named {@link GradientConcurrencyLimiter}, acting as a bulkhead whose size
+ * follows the measured latency of the protected upstream.
+ * <p>
+ * The limit is adjusted with a gradient: the ratio between a long-term baseline of response times and the
+ * latest response time. While latency stays near the baseline the limit grows by roughly its square root
+ * per sample (room for queueing); once latency climbs above {@code rttTolerance} times the baseline the
+ * gradient drops below one and the limit shrinks proportionally. Dropped requests (errors, timeouts) cut
+ * the limit multiplicatively. The limit never leaves {@code [minLimit, maxLimit]}.
+ * <p>
+ * Acquiring is a single CAS on the in-flight counter; only releases that carry a sample take the monitor.
+ */
+public class GradientConcurrencyLimiter {
+
+    // Samples averaged into the initial baseline before the exponential average takes over
+    private static final int WARMUP_SAMPLES = 10;
+
+    // Weight of one sample in the long-term baseline (≈ 600-sample window)
+    private static final double LONG_RTT_ALPHA = 2.0 / 601;
+
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimatedLimit;
+    private double longRttNanos;
+    private long samples;
+
+    public GradientConcurrencyLimiter(final int initialLimit,
+                                      final int minLimit,
+                                      final int maxLimit,
+                                      final double rttTolerance,
+                                      final double smoothing) {
+
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("limits must satisfy 1 <= minLimit <= initialLimit <= maxLimit");
+        }
+        if (rttTolerance < 1 || smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("rttTolerance must be >= 1 and smoothing must be in (0, 1]");
+        }
+
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.smoothing = smoothing;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+
+    }
+
+    /**
+     * Reserves a slot if the number of requests in flight is below the current limit.
+     * Every successful call must be paired with exactly one {@code release}.
+     *
+     * @return {@code true} if the request may proceed
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            final int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a slot without feeding a sample, e.g. when the client cancelled the request.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Releases a slot and adjusts the limit with the observed response time.
+     *
+     * @param rttNanos the response time of the request in nanoseconds
+     * @param dropped  whether the request failed or timed out
+     */
+    public void release(final long rttNanos, final boolean dropped) {
+        final int inFlightBefore = inFlight.getAndDecrement();
+        onSample(rttNanos, inFlightBefore, dropped);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(final long rttNanos, final int inFlightBefore, final boolean dropped) {
+
+        if (dropped) {
+            update(estimatedLimit * DROP_BACKOFF);
+            return;
+        }
+
+        samples++;
+        if (samples <= WARMUP_SAMPLES) {
+            longRttNanos += (rttNanos - longRttNanos) / samples;
+            return;
+        }
+        longRttNanos = longRttNanos * (1 - LONG_RTT_ALPHA) + rttNanos * LONG_RTT_ALPHA;
+
+        // After an overload the baseline is inflated; let it follow the recovered latency down quickly
+        if (longRttNanos / rttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        // Only a route that actually uses its limit tells us anything about whether the limit is right
+        if (inFlightBefore < estimatedLimit / 2) {
+            return;
+        }
+
+        final double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / rttNanos));
+        final double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        update(estimatedLimit * (1 - smoothing) + target * smoothing);
+
+    }
+
+    private void update(final double newLimit) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+}
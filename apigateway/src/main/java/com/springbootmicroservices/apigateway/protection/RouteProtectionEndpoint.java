@@ -0,0 +1,56 @@
+package com.springbootmicroservices.apigateway.protection;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Actuator endpoint named {@link RouteProtectionEndpoint} exposing, per route, the circuit breaker state and
+ * the current adaptive concurrency limit.
+ * {@code GET /actuator/routeprotection} is served on the management port only.
+ */
+@Component
+@Endpoint(id = "routeprotection")
+@RequiredArgsConstructor
+public class RouteProtectionEndpoint {
+
+    private final RouteProtectionRegistry routeProtectionRegistry;
+
+    /**
+     * Returns the protection state of every route that has received traffic.
+     *
+     * @return breaker and limiter state keyed by route id
+     */
+    @ReadOperation
+    public Map<String, Object> routes() {
+
+        final Map<String, Object> routes = new TreeMap<>();
+        routeProtectionRegistry.concurrencyLimiters().forEach((routeId, limiter) -> {
+
+            final CircuitBreaker circuitBreaker = routeProtectionRegistry.circuitBreaker(routeId);
+            final CircuitBreaker.Metrics metrics = circuitBreaker.getMetrics();
+
+            final Map<String, Object> breaker = new LinkedHashMap<>();
+            breaker.put("state", circuitBreaker.getState());
+            breaker.put("failureRate", metrics.getFailureRate());
+            breaker.put("slowCallRate", metrics.getSlowCallRate());
+            breaker.put("bufferedCalls", metrics.getNumberOfBufferedCalls());
+            breaker.put("notPermittedCalls", metrics.getNumberOfNotPermittedCalls());
+
+            routes.put(routeId, Map.of(
+                    "circuitBreaker", breaker,
+                    "concurrency", Map.of("limit", limiter.getLimit(), "inFlight", limiter.getInFlight())
+            ));
+
+        });
+        return routes;
+
+    }
+
+}
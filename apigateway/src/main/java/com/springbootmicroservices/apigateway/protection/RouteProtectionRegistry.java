@@ -0,0 +1,105 @@
+package com.springbootmicroservices.apigateway.protection;
+
+import com.springbootmicroservices.apigateway.config.RouteProtectionProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry named {@link RouteProtectionRegistry} owning one circuit breaker and one
+ * {@link GradientConcurrencyLimiter} per gateway route, built from {@link RouteProtectionProperties}.
+ * Breaker state is published through the resilience4j Micrometer binder and limiter state through
+ * {@code gateway.concurrency.*} gauges.
+ */
+@Component
+public class RouteProtectionRegistry {
+
+    private final RouteProtectionProperties routeProtectionProperties;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private final Map<String, GradientConcurrencyLimiter> concurrencyLimiters = new ConcurrentHashMap<>();
+
+    public RouteProtectionRegistry(final RouteProtectionProperties routeProtectionProperties,
+                                   final MeterRegistry meterRegistry) {
+        this.routeProtectionProperties = routeProtectionProperties;
+        this.meterRegistry = meterRegistry;
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+    }
+
+    /**
+     * Returns the circuit breaker of a route, creating it on first use.
+     *
+     * @param routeId the gateway route id
+     * @return the route's circuit breaker
+     */
+    public CircuitBreaker circuitBreaker(final String routeId) {
+        return circuitBreakerRegistry.circuitBreaker(routeId, () -> circuitBreakerConfig(routeId));
+    }
+
+    /**
+     * Returns the concurrency limiter of a route, creating it on first use.
+     *
+     * @param routeId the gateway route id
+     * @return the route's concurrency limiter
+     */
+    public GradientConcurrencyLimiter concurrencyLimiter(final String routeId) {
+        return concurrencyLimiters.computeIfAbsent(routeId, this::createConcurrencyLimiter);
+    }
+
+    /**
+     * Returns the concurrency limiters of all routes seen so far, keyed by route id.
+     *
+     * @return a read-only view of the limiters
+     */
+    public Map<String, GradientConcurrencyLimiter> concurrencyLimiters() {
+        return Collections.unmodifiableMap(concurrencyLimiters);
+    }
+
+    private CircuitBreakerConfig circuitBreakerConfig(final String routeId) {
+        final RouteProtectionProperties.CircuitBreaker settings =
+                routeProtectionProperties.forRoute(routeId).getCircuitBreaker();
+        return CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(settings.getSlidingWindowSize())
+                .minimumNumberOfCalls(settings.getMinimumNumberOfCalls())
+                .failureRateThreshold(settings.getFailureRateThreshold())
+                .slowCallDurationThreshold(settings.getSlowCallDurationThreshold())
+                .slowCallRateThreshold(settings.getSlowCallRateThreshold())
+                .waitDurationInOpenState(settings.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(settings.getPermittedNumberOfCallsInHalfOpenState())
+                .automaticTransitionFromOpenToHalfOpenEnabled(false)
+                .build();
+    }
+
+    private GradientConcurrencyLimiter createConcurrencyLimiter(final String routeId) {
+
+        final RouteProtectionProperties.ConcurrencyLimit settings =
+                routeProtectionProperties.forRoute(routeId).getConcurrencyLimit();
+        final GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(
+                settings.getInitialLimit(),
+                settings.getMinLimit(),
+                settings.getMaxLimit(),
+                settings.getRttTolerance(),
+                settings.getSmoothing()
+        );
+
+        Gauge.builder("gateway.concurrency.limit", limiter, GradientConcurrencyLimiter::getLimit)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.inflight", limiter, GradientConcurrencyLimiter::getInFlight)
+                .tag("route", routeId)
+                .register(meterRegistry);
+
+        return limiter;
+
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.springbootmicroservices.apigateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process token-bucket rate limiter named {@link TokenBucketRateLimiter}, keyed by an arbitrary string
+ * such as a user id or client IP.
+ * <p>
+ * Each key owns one bucket holding up to {@code capacity} tokens, refilled continuously at
+ * {@code refillTokensPerSecond}. Bucket state is guarded by a fixed set of striped locks rather than one
+ * lock per bucket or a global lock, and the hot path allocates nothing once a key's bucket exists.
+ * Buckets idle for longer than {@code idleTimeout} are dropped, and at most {@code maximumKeys} are tracked.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final long capacityNanos;
+    private final long nanosPerToken;
+    private final Object[] locks = new Object[STRIPES];
+    private final Cache<String, Bucket> buckets;
+    private final LongSupplier nanoClock;
+
+    public TokenBucketRateLimiter(final int capacity,
+                                  final double refillTokensPerSecond,
+                                  final Duration idleTimeout,
+                                  final long maximumKeys) {
+        this(capacity, refillTokensPerSecond, idleTimeout, maximumKeys, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(final int capacity,
+                           final double refillTokensPerSecond,
+                           final Duration idleTimeout,
+                           final long maximumKeys,
+                           final LongSupplier nanoClock) {
+
+        if (capacity < 1 || refillTokensPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity must be >= 1 and refillTokensPerSecond must be > 0");
+        }
+
+        // Tokens are tracked in nanoseconds of refill time so the hot path stays in integer arithmetic
+        this.nanosPerToken = (long) (TimeUnit.SECONDS.toNanos(1) / refillTokensPerSecond);
+        this.capacityNanos = nanosPerToken * capacity;
+        this.nanoClock = nanoClock;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout)
+                .maximumSize(maximumKeys)
+                .build();
+
+    }
+
+    /**
+     * Takes one token from the bucket of the given key.
+     *
+     * @param key the rate-limit key, e.g. a user id or client IP
+     * @return {@code 0} if the request is allowed, otherwise the number of nanoseconds until a token is available
+     */
+    public long tryAcquire(final String key) {
+
+        final long now = nanoClock.getAsLong();
+
+        Bucket bucket = buckets.getIfPresent(key);
+        if (bucket == null) {
+            bucket = buckets.get(key, k -> new Bucket(now - capacityNanos));
+        }
+
+        synchronized (locks[stripe(key)]) {
+            // Refill: a bucket never holds more than capacity tokens, however long it has been idle
+            final long emptyAt = Math.max(bucket.emptyAt, now - capacityNanos);
+            final long afterAcquire = emptyAt + nanosPerToken;
+            if (afterAcquire > now) {
+                return afterAcquire - now;
+            }
+            bucket.emptyAt = afterAcquire;
+            return 0;
+        }
+
+    }
+
+    /**
+     * Returns the number of keys currently tracked.
+     *
+     * @return the estimated number of buckets
+     */
+    public long trackedKeys() {
+        return buckets.estimatedSize();
+    }
+
+    private static int stripe(final String key) {
+        final int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    /**
+     * Bucket state stored as a single timestamp: the instant at which the bucket was (or will be) empty.
+     * At time {@code now} it holds {@code (now - emptyAt) / nanosPerToken} tokens, capped at capacity.
+     */
+    private static final class Bucket {
+
+        private long emptyAt;
+
+        private Bucket(final long emptyAt) {
+            this.emptyAt = emptyAt;
+        }
+
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.springbootmicroservices.apigateway.service;
+
+import com.springbootmicroservices.apigateway.model.storefront.StorefrontResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service interface named {@link StorefrontService} for assembling the storefront landing-page document
+ * from productservice and searchservice.
+ */
+public interface StorefrontService {
+
+    /**
+     * Loads the product listing, the products of a category and the search results concurrently.
+     * Each call has its own deadline; a failed or late call leaves its section empty instead of failing
+     * the whole document.
+     *
+     * @param page     the 1-based product listing page
+     * @param size     the product listing page size
+     * @param category the category to list, or {@code null} for the configured featured category
+     * @param query    the search query, or {@code null} for the configured default query
+     * @return a {@link Mono} emitting the combined document; it never errors
+     */
+    Mono<StorefrontResponse> getStorefront(int page, int size, String category, String query);
+
+}
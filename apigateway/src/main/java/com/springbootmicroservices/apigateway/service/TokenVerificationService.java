@@ -0,0 +1,21 @@
+package com.springbootmicroservices.apigateway.service;
+
+import com.springbootmicroservices.apigateway.exception.TokenVerificationException;
+import com.springbootmicroservices.apigateway.model.VerifiedToken;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service interface named {@link TokenVerificationService} for verifying bearer tokens at the gateway.
+ */
+public interface TokenVerificationService {
+
+    /**
+     * Verifies the given JWT and extracts its identity claims.
+     *
+     * @param jwt the raw JWT taken from the Authorization header
+     * @return a {@link Mono} emitting the verified token, or failing with {@link TokenVerificationException}
+     *         when the token is invalid or expired
+     */
+    Mono<VerifiedToken> verify(String jwt);
+
+}
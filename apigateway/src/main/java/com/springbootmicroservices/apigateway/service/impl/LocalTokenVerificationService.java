@@ -0,0 +1,50 @@
+package com.springbootmicroservices.apigateway.service.impl;
+
+import com.springbootmicroservices.apigateway.config.TokenConfigurationParameter;
+import com.springbootmicroservices.apigateway.exception.TokenVerificationException;
+import com.springbootmicroservices.apigateway.model.VerifiedToken;
+import com.springbootmicroservices.apigateway.service.TokenVerificationService;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service implementation named {@link LocalTokenVerificationService} that verifies RS256 tokens in-process
+ * with the userservice public key.
+ * Verification is pure CPU work, so it runs on the calling event-loop thread instead of a blocking scheduler.
+ * This is the default {@link com.springbootmicroservices.apigateway.model.enums.AuthenticationMode}.
+ */
+@Service
+@ConditionalOnProperty(name = "gateway.authentication.mode", havingValue = "local", matchIfMissing = true)
+public class LocalTokenVerificationService implements TokenVerificationService {
+
+    // JwtParser is immutable and thread-safe, so one instance is shared by every request
+    private final JwtParser jwtParser;
+
+    public LocalTokenVerificationService(final TokenConfigurationParameter tokenConfigurationParameter) {
+        this.jwtParser = Jwts.parser()
+                .verifyWith(tokenConfigurationParameter.getPublicKey())
+                .build();
+    }
+
+    /**
+     * Verifies the signature and expiry of the given JWT locally.
+     *
+     * @param jwt the raw JWT taken from the Authorization header
+     * @return a {@link Mono} emitting the verified token
+     */
+    @Override
+    public Mono<VerifiedToken> verify(final String jwt) {
+        return Mono.fromCallable(() -> {
+            try {
+                return VerifiedToken.of(jwtParser.parseSignedClaims(jwt).getPayload());
+            } catch (JwtException | IllegalArgumentException exception) {
+                throw new TokenVerificationException(exception);
+            }
+        });
+    }
+
+}
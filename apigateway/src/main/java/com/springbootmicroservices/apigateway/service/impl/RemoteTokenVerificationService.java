@@ -0,0 +1,68 @@
+package com.springbootmicroservices.apigateway.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springbootmicroservices.apigateway.client.UserServiceClient;
+import com.springbootmicroservices.apigateway.exception.TokenVerificationException;
+import com.springbootmicroservices.apigateway.model.VerifiedToken;
+import com.springbootmicroservices.apigateway.service.TokenVerificationService;
+import feign.FeignException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Service implementation named {@link RemoteTokenVerificationService} that delegates verification to
+ * userservice's validate-token endpoint.
+ * Kept as a fallback {@link com.springbootmicroservices.apigateway.model.enums.AuthenticationMode};
+ * the blocking Feign call runs on {@link Schedulers#boundedElastic()}.
+ */
+@Service
+@ConditionalOnProperty(name = "gateway.authentication.mode", havingValue = "remote")
+@RequiredArgsConstructor
+public class RemoteTokenVerificationService implements TokenVerificationService {
+
+    private static final TypeReference<Map<String, Object>> CLAIMS_TYPE = new TypeReference<>() {
+    };
+
+    private final UserServiceClient userServiceClient;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Validates the given JWT through userservice and, once accepted, reads its claims.
+     *
+     * @param jwt the raw JWT taken from the Authorization header
+     * @return a {@link Mono} emitting the verified token
+     */
+    @Override
+    public Mono<VerifiedToken> verify(final String jwt) {
+        return Mono.fromCallable(() -> {
+                    try {
+                        userServiceClient.validateToken(jwt);
+                    } catch (FeignException.Unauthorized | FeignException.Forbidden exception) {
+                        throw new TokenVerificationException(exception);
+                    }
+                    return VerifiedToken.of(readClaims(jwt));
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Decodes the payload segment of a JWT whose signature userservice has already accepted.
+     */
+    private Map<String, Object> readClaims(final String jwt) throws IOException {
+        final String[] segments = jwt.split("\\.");
+        if (segments.length < 2) {
+            throw new TokenVerificationException();
+        }
+        return objectMapper.readValue(Base64.getUrlDecoder().decode(segments[1]), CLAIMS_TYPE);
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.springbootmicroservices.apigateway.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.springbootmicroservices.apigateway.config.StorefrontProperties;
+import com.springbootmicroservices.apigateway.model.enums.StorefrontSectionStatus;
+import com.springbootmicroservices.apigateway.model.storefront.StorefrontResponse;
+import com.springbootmicroservices.apigateway.model.storefront.StorefrontSection;
+import com.springbootmicroservices.apigateway.service.StorefrontService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Service implementation named {@link StorefrontServiceImpl} that fans out to productservice and searchservice
+ * in parallel through the service-discovery load balancer.
+ * <p>
+ * The three calls are subscribed together, so the document takes as long as the slowest call, bounded by
+ * that call's deadline, instead of the sum of all three round trips.
+ */
+@Service
+@Slf4j
+public class StorefrontServiceImpl implements StorefrontService {
+
+    // productservice wraps payloads in CustomResponse; only its "response" field is passed on
+    private static final String PRODUCT_RESPONSE_FIELD = "response";
+
+    private final WebClient webClient;
+    private final StorefrontProperties storefrontProperties;
+
+    @Autowired
+    public StorefrontServiceImpl(final WebClient.Builder webClientBuilder,
+                                 final ReactorLoadBalancerExchangeFilterFunction loadBalancerExchangeFilterFunction,
+                                 final StorefrontProperties storefrontProperties) {
+        this(webClientBuilder.filter(loadBalancerExchangeFilterFunction).build(), storefrontProperties);
+    }
+
+    StorefrontServiceImpl(final WebClient webClient, final StorefrontProperties storefrontProperties) {
+        this.webClient = webClient;
+        this.storefrontProperties = storefrontProperties;
+    }
+
+    @Override
+    public Mono<StorefrontResponse> getStorefront(final int page,
+                                                  final int size,
+                                                  final String category,
+                                                  final String query) {
+
+        final String resolvedCategory = StringUtils.hasText(category) ? category : storefrontProperties.getFeaturedCategory();
+        final String resolvedQuery = StringUtils.hasText(query) ? query : storefrontProperties.getDefaultQuery();
+
+        final Mono<StorefrontSection> products = section("products", storefrontProperties.getProductsTimeout(),
+                webClient.get()
+                        .uri("http://productservice/api/v1/products?page={page}&size={size}", page, size)
+                        .retrieve()
+                        .bodyToMono(JsonNode.class)
+                        .map(StorefrontServiceImpl::unwrapProductResponse));
+
+        final Mono<StorefrontSection> categoryProducts = !StringUtils.hasText(resolvedCategory)
+                ? Mono.just(StorefrontSection.skipped())
+                : section("category", storefrontProperties.getCategoryTimeout(),
+                webClient.get()
+                        .uri("http://productservice/api/v1/products/category/{category}", resolvedCategory)
+                        .retrieve()
+                        .bodyToMono(JsonNode.class)
+                        .map(StorefrontServiceImpl::unwrapProductResponse));
+
+        final Mono<StorefrontSection> search = !StringUtils.hasText(resolvedQuery)
+                ? Mono.just(StorefrontSection.skipped())
+                : section("search", storefrontProperties.getSearchTimeout(),
+                webClient.get()
+                        .uri("http://search-service/api/v1/search?q={q}&page=0&size={size}", resolvedQuery, size)
+                        .retrieve()
+                        .bodyToMono(JsonNode.class));
+
+        return Mono.zip(products, categoryProducts, search)
+                .map(sections -> StorefrontResponse.builder()
+                        .products(sections.getT1())
+                        .category(sections.getT2())
+                        .search(sections.getT3())
+                        .build());
+
+    }
+
+    /**
+     * Applies the section's deadline and turns any failure into an empty section, so one upstream can never
+     * fail the whole document.
+     */
+    private static Mono<StorefrontSection> section(final String name,
+                                                   final Duration timeout,
+                                                   final Mono<JsonNode> call) {
+        return call
+                .map(StorefrontSection::ok)
+                .timeout(timeout)
+                .onErrorResume(TimeoutException.class, e -> {
+                    log.warn("Storefront section {} timed out after {} ms", name, timeout.toMillis());
+                    return Mono.just(StorefrontSection.failed(StorefrontSectionStatus.TIMEOUT,
+                            "No response within " + timeout.toMillis() + " ms"));
+                })
+                .onErrorResume(WebClientResponseException.class, e -> {
+                    log.warn("Storefront section {} failed with status {}", name, e.getStatusCode().value());
+                    return Mono.just(StorefrontSection.failed(StorefrontSectionStatus.ERROR,
+                            "Upstream returned " + e.getStatusCode().value()));
+                })
+                .onErrorResume(e -> {
+                    log.warn("Storefront section {} failed: {}", name, e.toString());
+                    return Mono.just(StorefrontSection.failed(StorefrontSectionStatus.ERROR, "Upstream unavailable"));
+                });
+    }
+
+    private static JsonNode unwrapProductResponse(final JsonNode body) {
+        final JsonNode response = body.get(PRODUCT_RESPONSE_FIELD);
+        return response != null ? response : body;
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.springbootmicroservices.apigateway.utils;
+
+import lombok.experimental.UtilityClass;
+import org.bouncycastle.asn1.x509.SubjectPublicKeyInfo;
+import org.bouncycastle.openssl.PEMParser;
+import org.bouncycastle.openssl.jcajce.JcaPEMKeyConverter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.security.PublicKey;
+
+/**
+ * Utility class for converting PEM-encoded keys to {@link PublicKey} objects.
+ */
+@UtilityClass
+public class KeyConverter {
+
+    /**
+     * Converts a PEM-encoded public key string to a {@link PublicKey} object.
+     *
+     * @param publicPemKey the PEM-encoded public key string
+     * @return the corresponding {@link PublicKey} object
+     * @throws RuntimeException if an error occurs while reading or converting the key
+     */
+    public PublicKey convertPublicKey(final String publicPemKey) {
+
+        final StringReader keyReader = new StringReader(publicPemKey);
+        try {
+            SubjectPublicKeyInfo publicKeyInfo = SubjectPublicKeyInfo
+                    .getInstance(new PEMParser(keyReader).readObject());
+            return new JcaPEMKeyConverter().getPublicKey(publicKeyInfo);
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.springbootmicroservices.apigateway.cache;
+
+import com.springbootmicroservices.apigateway.exception.TokenVerificationException;
+import com.springbootmicroservices.apigateway.model.VerifiedToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenVerificationCacheTest {
+
+    private MeterRegistry meterRegistry;
+
+    private TokenVerificationCache tokenVerificationCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tokenVerificationCache = new TokenVerificationCache(true, 1000, Duration.ofMinutes(5), meterRegistry);
+    }
+
+    @Test
+    void get_WhenTokenIsCached_ShouldNotVerifyAgain() {
+
+        // Given
+        AtomicInteger verifications = new AtomicInteger();
+        VerifiedToken verifiedToken = verifiedToken(Instant.now().plusSeconds(600));
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(tokenVerificationCache.get("token", jwt -> {
+                        verifications.incrementAndGet();
+                        return Mono.just(verifiedToken);
+                    }))
+                    .expectNext(verifiedToken)
+                    .verifyComplete();
+        }
+
+        // Then
+        assertEquals(1, verifications.get());
+
+    }
+
+    @Test
+    void get_WhenSameTokenIsVerifiedConcurrently_ShouldShareOneVerification() {
+
+        // Given
+        AtomicInteger verifications = new AtomicInteger();
+        Sinks.One<VerifiedToken> pending = Sinks.one();
+        VerifiedToken verifiedToken = verifiedToken(Instant.now().plusSeconds(600));
+
+        Mono<VerifiedToken> first = tokenVerificationCache.get("token", jwt -> {
+            verifications.incrementAndGet();
+            return pending.asMono();
+        });
+        Mono<VerifiedToken> second = tokenVerificationCache.get("token", jwt -> {
+            verifications.incrementAndGet();
+            return Mono.just(verifiedToken);
+        });
+
+        // When
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> pending.tryEmitValue(verifiedToken))
+                .assertNext(results -> {
+                    assertEquals(verifiedToken, results.getT1());
+                    assertEquals(verifiedToken, results.getT2());
+                })
+                .verifyComplete();
+
+        // Then
+        assertEquals(1, verifications.get());
+        assertEquals(1.0, meterRegistry.get("gateway.token.verification.coalesced").counter().count());
+
+    }
+
+    @Test
+    void get_WhenVerificationFails_ShouldNotCacheFailure() {
+
+        // Given
+        AtomicInteger verifications = new AtomicInteger();
+
+        // When
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(tokenVerificationCache.get("token", jwt -> {
+                        verifications.incrementAndGet();
+                        return Mono.error(new TokenVerificationException());
+                    }))
+                    .expectError(TokenVerificationException.class)
+                    .verify();
+        }
+
+        // Then
+        assertEquals(2, verifications.get());
+
+    }
+
+    @Test
+    void get_WhenTokenHasExpired_ShouldVerifyAgain() {
+
+        // Given
+        AtomicInteger verifications = new AtomicInteger();
+        VerifiedToken expiredToken = verifiedToken(Instant.now().minusSeconds(1));
+
+        // When
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(tokenVerificationCache.get("token", jwt -> {
+                        verifications.incrementAndGet();
+                        return Mono.just(expiredToken);
+                    }))
+                    .expectNext(expiredToken)
+                    .verifyComplete();
+        }
+
+        // Then
+        assertEquals(2, verifications.get());
+
+    }
+
+    private static VerifiedToken verifiedToken(final Instant expiresAt) {
+        return VerifiedToken.builder()
+                .jti("jti")
+                .userId("user-id-123")
+                .userType("USER")
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+}
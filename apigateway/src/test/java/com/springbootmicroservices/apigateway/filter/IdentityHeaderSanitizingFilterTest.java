@@ -0,0 +1,48 @@
+package com.springbootmicroservices.apigateway.filter;
+
+import com.springbootmicroservices.apigateway.model.enums.IdentityHeader;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class IdentityHeaderSanitizingFilterTest {
+
+    private final IdentityHeaderSanitizingFilter identityHeaderSanitizingFilter = new IdentityHeaderSanitizingFilter();
+
+    @Test
+    void filter_WhenClientSendsIdentityHeaders_ShouldStripThem() {
+
+        // Given
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/orders/history")
+                .header(IdentityHeader.USER_ID.getValue(), "spoofed-user")
+                .header(IdentityHeader.USER_TYPE.getValue(), "ADMIN")
+                .header(IdentityHeader.EDGE_SECRET.getValue(), "guess")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token"));
+
+        AtomicReference<HttpHeaders> forwardedHeaders = new AtomicReference<>();
+        GatewayFilterChain chain = forwardedExchange -> {
+            forwardedHeaders.set(forwardedExchange.getRequest().getHeaders());
+            return Mono.empty();
+        };
+
+        // When
+        StepVerifier.create(identityHeaderSanitizingFilter.filter(exchange, chain)).verifyComplete();
+
+        // Then
+        for (IdentityHeader identityHeader : IdentityHeader.values()) {
+            assertFalse(forwardedHeaders.get().containsKey(identityHeader.getValue()));
+        }
+        assertEquals("Bearer token", forwardedHeaders.get().getFirst(HttpHeaders.AUTHORIZATION));
+
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.springbootmicroservices.apigateway.filter;
+
+import com.springbootmicroservices.apigateway.cache.ResponseCache;
+import com.springbootmicroservices.apigateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class ResponseCacheFilterTest {
+
+    private static final String BODY = "{\"isSuccess\":true}";
+
+    private ResponseCacheProperties responseCacheProperties;
+
+    private ResponseCache responseCache;
+
+    private GatewayFilter gatewayFilter;
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        responseCacheProperties = new ResponseCacheProperties();
+        responseCache = new ResponseCache(responseCacheProperties, meterRegistry);
+        gatewayFilter = new ResponseCacheFilter(responseCache, responseCacheProperties, meterRegistry)
+                .apply(new ResponseCacheFilter.Config()
+                        .setRouteId("productservice")
+                        .setCacheablePaths(List.of("/api/v1/products", "/api/v1/products/{productId}")));
+    }
+
+    @Test
+    void filter_WhenSameRequestIsRepeated_ShouldServeSecondFromCache() {
+
+        // Given
+        MockServerWebExchange first = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/products?size=10&page=0"));
+        MockServerWebExchange second = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/products?page=0&size=10"));
+
+        // When
+        gatewayFilter.filter(first, upstream(null)).block();
+        gatewayFilter.filter(second, upstream(null)).block();
+
+        // Then
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("MISS", first.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("HIT", second.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals(BODY, second.getResponse().getBodyAsString().block());
+        assertEquals(MediaType.APPLICATION_JSON, second.getResponse().getHeaders().getContentType());
+        assertNotNull(second.getResponse().getHeaders().getETag());
+
+    }
+
+    @Test
+    void filter_WhenIfNoneMatchEqualsETag_ShouldReturnNotModified() {
+
+        // Given
+        MockServerWebExchange first = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/products/1"));
+        gatewayFilter.filter(first, upstream(null)).block();
+        String eTag = first.getResponse().getHeaders().getETag();
+
+        MockServerWebExchange second = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/products/1")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag));
+
+        // When
+        gatewayFilter.filter(second, upstream(null)).block();
+
+        // Then
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getResponse().getStatusCode());
+        assertEquals(1, upstreamCalls.get());
+
+    }
+
+    @Test
+    void filter_WhenResponseIsNoStore_ShouldNotCache() {
+
+        // Given
+        MockServerWebExchange first = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/products/1"));
+        MockServerWebExchange second = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/products/1"));
+
+        // When
+        gatewayFilter.filter(first, upstream("no-cache, no-store, max-age=0, must-revalidate")).block();
+        gatewayFilter.filter(second, upstream("no-cache, no-store, max-age=0, must-revalidate")).block();
+
+        // Then
+        assertEquals(2, upstreamCalls.get());
+
+    }
+
+    @Test
+    void filter_WhenEntryIsStaleAndBeingRevalidated_ShouldServeStaleCopyToOthers() throws InterruptedException {
+
+        // Given
+        responseCacheProperties.setTtl(Duration.ofMillis(1));
+        gatewayFilter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/products/1")), upstream(null)).block();
+        Thread.sleep(5);
+
+        // The first request after expiry refreshes the entry, and its upstream call is still in flight
+        gatewayFilter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/products/1")), exchange -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.never();
+        }).subscribe();
+
+        MockServerWebExchange concurrent = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/products/1"));
+
+        // When
+        gatewayFilter.filter(concurrent, upstream(null)).block();
+
+        // Then
+        assertEquals(2, upstreamCalls.get());
+        assertEquals("STALE", concurrent.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals(BODY, concurrent.getResponse().getBodyAsString().block());
+
+    }
+
+    @Test
+    void purge_WhenPrefixMatches_ShouldForceRefetch() {
+
+        // Given
+        gatewayFilter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/products/1")), upstream(null)).block();
+
+        // When
+        int purged = responseCache.purge("/api/v1/products");
+        gatewayFilter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/products/1")), upstream(null)).block();
+
+        // Then
+        assertEquals(1, purged);
+        assertEquals(2, upstreamCalls.get());
+
+    }
+
+    private GatewayFilterChain upstream(final String cacheControl) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            if (cacheControl != null) {
+                exchange.getResponse().getHeaders().setCacheControl(cacheControl);
+            }
+            return exchange.getResponse().writeWith(Mono.just(
+                    exchange.getResponse().bufferFactory().wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.springbootmicroservices.apigateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RouteMetricsFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RouteMetricsFilter routeMetricsFilter = new RouteMetricsFilter(meterRegistry);
+
+    @Test
+    void filter_WhenRouteResponds_ShouldRecordLatencyStatusClassAndBytes() {
+
+        // Given
+        MockServerWebExchange created = exchange("{\"items\":[]}");
+        MockServerWebExchange unavailable = exchange("{\"items\":[1]}");
+
+        // When
+        routeMetricsFilter.filter(created, respondWith(HttpStatus.CREATED, "{\"id\":\"1\"}")).block();
+        routeMetricsFilter.filter(unavailable, respondWith(HttpStatus.SERVICE_UNAVAILABLE, "")).block();
+
+        // Then
+        Timer latency = meterRegistry.get("gateway.route.latency").tag("route", "orderservice").timer();
+        assertEquals(2, latency.count());
+        assertEquals(1, meterRegistry.get("gateway.route.responses")
+                .tags("route", "orderservice", "status", "2xx").counter().count());
+        assertEquals(1, meterRegistry.get("gateway.route.responses")
+                .tags("route", "orderservice", "status", "5xx").counter().count());
+        assertEquals(25, meterRegistry.get("gateway.route.bytes")
+                .tags("route", "orderservice", "direction", "in").counter().count());
+        assertEquals(10, meterRegistry.get("gateway.route.bytes")
+                .tags("route", "orderservice", "direction", "out").counter().count());
+
+    }
+
+    private static MockServerWebExchange exchange(final String body) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/orders")
+                .body(body));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route("orderservice"));
+        return exchange;
+    }
+
+    private static GatewayFilterChain respondWith(final HttpStatus status, final String body) {
+        // Reads the request body the way the routing filter does, then writes the response
+        return exchange -> DataBufferUtils.join(exchange.getRequest().getBody())
+                .doOnNext(DataBufferUtils::release)
+                .then(Mono.defer(() -> {
+                    exchange.getResponse().setStatusCode(status);
+                    DataBuffer buffer = exchange.getResponse().bufferFactory()
+                            .wrap(body.getBytes(StandardCharsets.UTF_8));
+                    return exchange.getResponse().writeWith(Mono.just(buffer));
+                }));
+    }
+
+    private static Route route(final String routeId) {
+        return Route.async()
+                .id(routeId)
+                .uri("lb://" + routeId)
+                .predicate(exchange -> true)
+                .build();
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.springbootmicroservices.apigateway.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PeakEwmaLoadBalancerTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(1000));
+
+    private final InstanceLoadRegistry registry =
+            new InstanceLoadRegistry(Duration.ofSeconds(10), Duration.ofSeconds(1), clock::get);
+
+    @Test
+    void choose_WhenNoInstances_ShouldReturnEmptyResponse() {
+
+        // Given
+        PeakEwmaLoadBalancer loadBalancer = loadBalancer(List.of());
+
+        // When
+        Response<ServiceInstance> response = loadBalancer.choose(new DefaultRequest<>()).block();
+
+        // Then
+        assertFalse(response.hasServer());
+
+    }
+
+    @Test
+    void choose_WhenOneInstanceIsBusyAndSlow_ShouldPickTheOther() {
+
+        // Given
+        ServiceInstance fast = instance("productservice-1");
+        ServiceInstance slow = instance("productservice-2");
+        registry.requestStarted(fast);
+        registry.requestCompleted(fast, 5 * MILLIS, false);
+        registry.requestStarted(slow);
+        registry.requestCompleted(slow, 80 * MILLIS, false);
+        registry.requestStarted(slow);
+
+        PeakEwmaLoadBalancer loadBalancer = loadBalancer(List.of(fast, slow));
+
+        // When & Then: with two instances both are always candidates, so the cheaper one must win every time
+        for (int i = 0; i < 100; i++) {
+            assertSame(fast, loadBalancer.choose(new DefaultRequest<>()).block().getServer());
+        }
+
+    }
+
+    /**
+     * Harness simulating five stub instances, one of which has degraded to ~150 ms responses, under a steady
+     * stream of requests on a virtual clock. The same traffic is replayed through round robin and through the
+     * peak-EWMA balancer and the tail latencies are compared.
+     */
+    @Test
+    void choose_WhenOneInstanceIsDegraded_ShouldCutTailLatencyComparedToRoundRobin() {
+
+        // Given
+        List<ServiceInstance> instances = List.of(
+                instance("productservice-1"), instance("productservice-2"), instance("productservice-3"),
+                instance("productservice-4"), instance("productservice-degraded"));
+        PeakEwmaLoadBalancer loadBalancer = loadBalancer(instances);
+        AtomicLong roundRobin = new AtomicLong();
+
+        // When
+        long[] roundRobinLatencies = simulate(
+                list -> list.get((int) (roundRobin.getAndIncrement() % list.size())), instances, new Random(42));
+        long[] peakEwmaLatencies = simulate(
+                list -> loadBalancer.choose(new DefaultRequest<>()).block().getServer(), instances, new Random(42));
+
+        // Then
+        long roundRobinP99 = percentile(roundRobinLatencies, 0.99);
+        long peakEwmaP99 = percentile(peakEwmaLatencies, 0.99);
+        assertTrue(peakEwmaP99 * 3 < roundRobinP99,
+                "p99 round robin " + roundRobinP99 / MILLIS + " ms, peak EWMA " + peakEwmaP99 / MILLIS + " ms");
+        assertTrue(percentile(peakEwmaLatencies, 0.5) <= percentile(roundRobinLatencies, 0.5));
+
+    }
+
+    private long[] simulate(final Function<List<ServiceInstance>, ServiceInstance> chooser,
+                            final List<ServiceInstance> instances,
+                            final Random random) {
+
+        record Completion(long at, ServiceInstance instance, long latency) {
+        }
+
+        final int requests = 20_000;
+        final PriorityQueue<Completion> inFlight = new PriorityQueue<>((a, b) -> Long.compare(a.at, b.at));
+        final long[] latencies = new long[requests];
+        long now = clock.get();
+
+        for (int i = 0; i < requests; i++) {
+
+            // Poisson arrivals, ~500 requests per second
+            now += (long) (-Math.log(1 - random.nextDouble()) * 2 * MILLIS);
+
+            while (!inFlight.isEmpty() && inFlight.peek().at <= now) {
+                final Completion completion = inFlight.poll();
+                clock.set(completion.at);
+                registry.requestCompleted(completion.instance, completion.latency, false);
+            }
+            clock.set(now);
+
+            final ServiceInstance instance = chooser.apply(instances);
+            registry.requestStarted(instance);
+
+            // 5 ms base plus exponential jitter; the degraded instance adds a 150 ms stall
+            long latency = 5 * MILLIS + (long) (-Math.log(1 - random.nextDouble()) * 5 * MILLIS);
+            if (instance.getInstanceId().endsWith("degraded")) {
+                latency += 150 * MILLIS;
+            }
+            latencies[i] = latency;
+            inFlight.add(new Completion(now + latency, instance, latency));
+
+        }
+
+        // Drain so the next run starts from an idle registry
+        while (!inFlight.isEmpty()) {
+            final Completion completion = inFlight.poll();
+            clock.set(completion.at);
+            registry.requestCompleted(completion.instance, completion.latency, false);
+        }
+
+        return latencies;
+
+    }
+
+    private PeakEwmaLoadBalancer loadBalancer(final List<ServiceInstance> instances) {
+        ServiceInstanceListSupplier supplier = new ServiceInstanceListSupplier() {
+            @Override
+            public String getServiceId() {
+                return "productservice";
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                return Flux.just(instances);
+            }
+        };
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("supplier", supplier));
+        return new PeakEwmaLoadBalancer(
+                beanFactory.getBeanProvider(ServiceInstanceListSupplier.class), "productservice", registry);
+    }
+
+    private static ServiceInstance instance(final String instanceId) {
+        return new DefaultServiceInstance(instanceId, "productservice", instanceId, 8080, false);
+    }
+
+    private static long percentile(final long[] values, final double percentile) {
+        long[] sorted = Arrays.copyOf(values, values.length);
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+
+}
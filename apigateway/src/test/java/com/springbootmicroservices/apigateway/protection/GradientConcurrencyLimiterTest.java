@@ -0,0 +1,96 @@
+package com.springbootmicroservices.apigateway.protection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradientConcurrencyLimiterTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_WhenLimitReached_ShouldRejectUntilReleased() {
+
+        // Given
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(2, 1, 10, 1.5, 0.2);
+
+        // When & Then
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release();
+        assertEquals(1, limiter.getInFlight());
+        assertTrue(limiter.tryAcquire());
+
+    }
+
+    @Test
+    void release_WhenSaturatedAndLatencyStable_ShouldGrowLimit() {
+
+        // Given
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(10, 5, 100, 1.5, 0.2);
+
+        // When
+        runSaturated(limiter, 200, 20 * MILLIS);
+
+        // Then
+        assertTrue(limiter.getLimit() > 10, "limit " + limiter.getLimit());
+
+    }
+
+    @Test
+    void release_WhenLatencyRisesWellAboveBaseline_ShouldShrinkLimit() {
+
+        // Given
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(50, 5, 100, 1.5, 0.2);
+        runSaturated(limiter, 100, 20 * MILLIS);
+        int healthyLimit = limiter.getLimit();
+
+        // When
+        runSaturated(limiter, 100, 200 * MILLIS);
+
+        // Then
+        assertTrue(limiter.getLimit() < healthyLimit / 2,
+                "healthy limit " + healthyLimit + ", degraded limit " + limiter.getLimit());
+        assertTrue(limiter.getLimit() >= 5);
+
+    }
+
+    @Test
+    void release_WhenRequestsAreDropped_ShouldBackOffToMinimum() {
+
+        // Given
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(40, 5, 100, 1.5, 0.2);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(10 * MILLIS, true);
+        }
+
+        // Then
+        assertEquals(5, limiter.getLimit());
+
+    }
+
+    /**
+     * Keeps the limiter full and completes one request per round with the given latency.
+     */
+    private static void runSaturated(final GradientConcurrencyLimiter limiter, final int rounds, final long rttNanos) {
+        for (int i = 0; i < rounds; i++) {
+            while (limiter.tryAcquire()) {
+                // fill every free slot
+            }
+            limiter.release(rttNanos, false);
+        }
+        while (limiter.getInFlight() > 0) {
+            limiter.release();
+        }
+    }
+
+}
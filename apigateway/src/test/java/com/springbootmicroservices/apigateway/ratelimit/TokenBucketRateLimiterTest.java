@@ -0,0 +1,72 @@
+package com.springbootmicroservices.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(1000));
+
+    @Test
+    void tryAcquire_WhenBurstExceedsCapacity_ShouldRejectWithWaitTime() {
+
+        // Given
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(
+                3, 1, Duration.ofMinutes(1), 100, clock::get);
+
+        // When & Then
+        assertEquals(0, rateLimiter.tryAcquire("user-1"));
+        assertEquals(0, rateLimiter.tryAcquire("user-1"));
+        assertEquals(0, rateLimiter.tryAcquire("user-1"));
+
+        long waitNanos = rateLimiter.tryAcquire("user-1");
+        assertEquals(TimeUnit.SECONDS.toNanos(1), waitNanos);
+
+    }
+
+    @Test
+    void tryAcquire_WhenTimePasses_ShouldRefillUpToCapacity() {
+
+        // Given
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(
+                2, 2, Duration.ofMinutes(1), 100, clock::get);
+        rateLimiter.tryAcquire("user-1");
+        rateLimiter.tryAcquire("user-1");
+        assertTrue(rateLimiter.tryAcquire("user-1") > 0);
+
+        // When
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+
+        // Then
+        assertEquals(0, rateLimiter.tryAcquire("user-1"));
+        assertTrue(rateLimiter.tryAcquire("user-1") > 0);
+
+        // A long idle period refills to capacity, not beyond
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(10));
+        assertEquals(0, rateLimiter.tryAcquire("user-1"));
+        assertEquals(0, rateLimiter.tryAcquire("user-1"));
+        assertTrue(rateLimiter.tryAcquire("user-1") > 0);
+
+    }
+
+    @Test
+    void tryAcquire_WhenKeysDiffer_ShouldUseIndependentBuckets() {
+
+        // Given
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(
+                1, 1, Duration.ofMinutes(1), 100, clock::get);
+
+        // When & Then
+        assertEquals(0, rateLimiter.tryAcquire("10.0.0.1"));
+        assertTrue(rateLimiter.tryAcquire("10.0.0.1") > 0);
+        assertEquals(0, rateLimiter.tryAcquire("10.0.0.2"));
+
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.springbootmicroservices.apigateway.service.impl;
+
+import com.springbootmicroservices.apigateway.config.TokenConfigurationParameter;
+import com.springbootmicroservices.apigateway.exception.TokenVerificationException;
+import com.springbootmicroservices.apigateway.model.enums.TokenClaims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LocalTokenVerificationServiceTest {
+
+    private KeyPair keyPair;
+
+    private LocalTokenVerificationService localTokenVerificationService;
+
+    @BeforeEach
+    void setUp() throws NoSuchAlgorithmException {
+        keyPair = generateKeyPair();
+        TokenConfigurationParameter tokenConfigurationParameter = mock(TokenConfigurationParameter.class);
+        when(tokenConfigurationParameter.getPublicKey()).thenReturn(keyPair.getPublic());
+        localTokenVerificationService = new LocalTokenVerificationService(tokenConfigurationParameter);
+    }
+
+    @Test
+    void verify_WhenTokenIsValid_ShouldReturnVerifiedToken() {
+
+        // Given
+        Instant expiresAt = Instant.now().plusSeconds(600);
+        String jti = UUID.randomUUID().toString();
+        String jwt = Jwts.builder()
+                .id(jti)
+                .claim(TokenClaims.USER_ID.getValue(), "user-id-123")
+                .claim(TokenClaims.USER_TYPE.getValue(), "USER")
+                .claim(TokenClaims.USER_EMAIL.getValue(), "user@example.com")
+                .expiration(Date.from(expiresAt))
+                .signWith(keyPair.getPrivate())
+                .compact();
+
+        // When & Then
+        StepVerifier.create(localTokenVerificationService.verify(jwt))
+                .assertNext(verifiedToken -> {
+                    assertEquals(jti, verifiedToken.getJti());
+                    assertEquals("user-id-123", verifiedToken.getUserId());
+                    assertEquals("USER", verifiedToken.getUserType());
+                    assertEquals("user@example.com", verifiedToken.getUserEmail());
+                    assertEquals(expiresAt.getEpochSecond(), verifiedToken.getExpiresAt().getEpochSecond());
+                })
+                .verifyComplete();
+
+    }
+
+    @Test
+    void verify_WhenTokenIsExpired_ShouldFailWithTokenVerificationException() {
+
+        // Given
+        String jwt = Jwts.builder()
+                .claim(TokenClaims.USER_ID.getValue(), "user-id-123")
+                .expiration(Date.from(Instant.now().minusSeconds(60)))
+                .signWith(keyPair.getPrivate())
+                .compact();
+
+        // When & Then
+        StepVerifier.create(localTokenVerificationService.verify(jwt))
+                .expectError(TokenVerificationException.class)
+                .verify();
+
+    }
+
+    @Test
+    void verify_WhenTokenIsSignedWithAnotherKey_ShouldFailWithTokenVerificationException() throws NoSuchAlgorithmException {
+
+        // Given
+        String jwt = Jwts.builder()
+                .claim(TokenClaims.USER_ID.getValue(), "user-id-123")
+                .expiration(Date.from(Instant.now().plusSeconds(600)))
+                .signWith(generateKeyPair().getPrivate())
+                .compact();
+
+        // When & Then
+        StepVerifier.create(localTokenVerificationService.verify(jwt))
+                .expectError(TokenVerificationException.class)
+                .verify();
+
+    }
+
+    private static KeyPair generateKeyPair() throws NoSuchAlgorithmException {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        return keyPairGenerator.generateKeyPair();
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.springbootmicroservices.apigateway.service.impl;
+
+import com.springbootmicroservices.apigateway.config.StorefrontProperties;
+import com.springbootmicroservices.apigateway.model.enums.StorefrontSectionStatus;
+import com.springbootmicroservices.apigateway.model.storefront.StorefrontResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StorefrontServiceImplTest {
+
+    private StorefrontProperties storefrontProperties;
+
+    @BeforeEach
+    void setUp() {
+        storefrontProperties = new StorefrontProperties();
+        storefrontProperties.setProductsTimeout(Duration.ofMillis(300));
+        storefrontProperties.setCategoryTimeout(Duration.ofMillis(300));
+        storefrontProperties.setSearchTimeout(Duration.ofMillis(300));
+    }
+
+    @Test
+    void getStorefront_WhenAllUpstreamsAnswer_ShouldCallThemConcurrently() {
+
+        // Given: every upstream takes 200 ms, so sequential calls would need 600 ms
+        StorefrontServiceImpl storefrontService = new StorefrontServiceImpl(webClient(request ->
+                respond(HttpStatus.OK, "{\"isSuccess\":true,\"response\":{\"content\":[]}}", 200)), storefrontProperties);
+
+        // Warm up WebClient and Jackson so the measurement only covers the calls
+        storefrontService.getStorefront(1, 12, "books", "laptop").block();
+
+        // When
+        long start = System.nanoTime();
+        StorefrontResponse storefront = storefrontService.getStorefront(1, 12, "books", "laptop").block();
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        // Then
+        assertEquals(StorefrontSectionStatus.OK, storefront.getProducts().getStatus());
+        assertEquals(StorefrontSectionStatus.OK, storefront.getCategory().getStatus());
+        assertEquals(StorefrontSectionStatus.OK, storefront.getSearch().getStatus());
+        assertTrue(storefront.getProducts().getData().has("content"));
+        assertFalse(storefront.isPartial());
+        assertTrue(elapsedMillis < 450, "took " + elapsedMillis + " ms");
+
+    }
+
+    @Test
+    void getStorefront_WhenOneUpstreamIsSlowAndOneFails_ShouldReturnPartialDocument() {
+
+        // Given
+        StorefrontServiceImpl storefrontService = new StorefrontServiceImpl(webClient(request -> {
+            String path = request.url().getPath();
+            if (path.startsWith("/api/v1/products/category")) {
+                return respond(HttpStatus.OK, "{\"response\":[]}", 2_000);
+            }
+            if (path.startsWith("/api/v1/search")) {
+                return respond(HttpStatus.SERVICE_UNAVAILABLE, "", 0);
+            }
+            return respond(HttpStatus.OK, "{\"response\":{\"content\":[]}}", 0);
+        }), storefrontProperties);
+
+        // When
+        StorefrontResponse storefront = storefrontService.getStorefront(1, 12, "books", "laptop").block();
+
+        // Then
+        assertEquals(StorefrontSectionStatus.OK, storefront.getProducts().getStatus());
+        assertEquals(StorefrontSectionStatus.TIMEOUT, storefront.getCategory().getStatus());
+        assertEquals(StorefrontSectionStatus.ERROR, storefront.getSearch().getStatus());
+        assertTrue(storefront.isPartial());
+
+    }
+
+    @Test
+    void getStorefront_WhenNoCategoryOrQueryConfigured_ShouldSkipThoseSections() {
+
+        // Given
+        StorefrontServiceImpl storefrontService = new StorefrontServiceImpl(webClient(request ->
+                respond(HttpStatus.OK, "{\"response\":{\"content\":[]}}", 0)), storefrontProperties);
+
+        // When
+        StorefrontResponse storefront = storefrontService.getStorefront(1, 12, null, null).block();
+
+        // Then
+        assertEquals(StorefrontSectionStatus.OK, storefront.getProducts().getStatus());
+        assertEquals(StorefrontSectionStatus.SKIPPED, storefront.getCategory().getStatus());
+        assertEquals(StorefrontSectionStatus.SKIPPED, storefront.getSearch().getStatus());
+        assertFalse(storefront.isPartial());
+
+    }
+
+    private static WebClient webClient(final ExchangeFunction exchangeFunction) {
+        return WebClient.builder().exchangeFunction(exchangeFunction).build();
+    }
+
+    private static Mono<ClientResponse> respond(final HttpStatus status, final String body, final long delayMillis) {
+        return Mono.delay(Duration.ofMillis(delayMillis))
+                .map(ignored -> ClientResponse.create(status)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(body)
+                        .build());
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.springbootmicroservices.authservice.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+
+/**
+ * Load-balancer lifecycle named {@link LoadRecordingLifecycle} feeding {@link InstanceLoadRegistry} with the
+ * outstanding requests and response times of Feign calls routed by {@link PeakEwmaLoadBalancer}.
+ * <p>
+ * Feign invokes {@code onStartRequest} right before the HTTP call and {@code onComplete} after it, on both
+ * success and failure, so every started request is also completed.
+ */
+public class LoadRecordingLifecycle
+        implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    private final InstanceLoadRegistry instanceLoadRegistry;
+
+    public LoadRecordingLifecycle(final InstanceLoadRegistry instanceLoadRegistry) {
+        this.instanceLoadRegistry = instanceLoadRegistry;
+    }
+
+    // Raw as declared by LoadBalancerLifecycle: a Class<?> parameter would not override it
+    @Override
+    @SuppressWarnings("rawtypes")
+    public boolean supports(final Class requestContextClass, final Class responseClass, final Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(final Request<RequestDataContext> request) {
+        // Nothing to record until an instance has been chosen
+    }
+
+    @Override
+    public void onStartRequest(final Request<RequestDataContext> request,
+                               final Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() != null) {
+            request.getContext().setRequestStartTime(System.nanoTime());
+        }
+        instanceLoadRegistry.requestStarted(lbResponse.getServer());
+    }
+
+    @Override
+    public void onComplete(final CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+
+        final Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        final RequestDataContext context = completionContext.getLoadBalancerRequest().getContext();
+        if (completionContext.status() == CompletionContext.Status.DISCARD
+                || lbResponse == null || !lbResponse.hasServer()
+                || context == null || context.getRequestStartTime() == 0) {
+            return;
+        }
+
+        final ResponseData responseData = completionContext.getClientResponse();
+        final boolean failed = completionContext.status() == CompletionContext.Status.FAILED
+                || (responseData != null && responseData.getHttpStatus() != null
+                && responseData.getHttpStatus().is5xxServerError());
+        instanceLoadRegistry.requestCompleted(
+                lbResponse.getServer(), System.nanoTime() - context.getRequestStartTime(), failed);
+
+    }
+
+}
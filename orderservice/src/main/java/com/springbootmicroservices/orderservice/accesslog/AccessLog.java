@@ -0,0 +1,140 @@
+package com.springbootmicroservices.orderservice.accesslog;
+
+import com.springbootmicroservices.orderservice.config.AccessLogConfigurationParameter;
+import com.springbootmicroservices.orderservice.model.auth.enums.IdentityHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Sampling decisions and structured entries for inbound requests and outbound Feign calls.
+// Entries go to the ACCESS_LOG logger, which logback-spring.xml routes through a non-blocking async appender.
+@Component
+public class AccessLog {
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("ACCESS_LOG");
+    private static final String REDACTED = "[REDACTED]";
+
+    private static final Set<String> REDACTED_HEADERS = redactedHeaders();
+
+    private final AccessLogConfigurationParameter accessLogConfigurationParameter;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    // Replaced as a whole by the actuator endpoint, so a request always sees one consistent set of rates
+    private volatile Settings settings;
+
+    public AccessLog(AccessLogConfigurationParameter accessLogConfigurationParameter) {
+        this.accessLogConfigurationParameter = accessLogConfigurationParameter;
+        reset();
+    }
+
+    public record Settings(boolean enabled, double defaultSampleRate, Map<String, Double> sampleRates) {
+    }
+
+    public record Entry(String direction, String method, String path, int status, long durationMs,
+                        String userId, String target, Map<String, String> headers, String body, String error) {
+    }
+
+    public boolean isEnabled() {
+        return settings.enabled();
+    }
+
+    public int getMaxBodyBytes() {
+        return accessLogConfigurationParameter.getMaxBodyBytes();
+    }
+
+    // Errors are always kept; successful calls are kept with the rate of the first matching route
+    public boolean shouldLog(String path, boolean error) {
+        Settings current = settings;
+        if (!current.enabled()) {
+            return false;
+        }
+        if (error) {
+            return true;
+        }
+        double rate = current.defaultSampleRate();
+        for (Map.Entry<String, Double> route : current.sampleRates().entrySet()) {
+            if (pathMatcher.match(route.getKey(), path)) {
+                rate = route.getValue();
+                break;
+            }
+        }
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    public void write(Entry entry) {
+        LoggingEventBuilder event = (entry.status() >= 500 || entry.error() != null ? ACCESS_LOG.atWarn() : ACCESS_LOG.atInfo())
+                .addKeyValue("direction", entry.direction())
+                .addKeyValue("method", entry.method())
+                .addKeyValue("path", entry.path())
+                .addKeyValue("status", entry.status())
+                .addKeyValue("durationMs", entry.durationMs());
+        if (entry.userId() != null) event = event.addKeyValue("userId", entry.userId());
+        if (entry.target() != null) event = event.addKeyValue("target", entry.target());
+        if (entry.headers() != null) event = event.addKeyValue("headers", entry.headers());
+        if (entry.body() != null) event = event.addKeyValue("body", entry.body());
+        if (entry.error() != null) event = event.addKeyValue("error", entry.error());
+        event.log("{} {} {} {}", entry.direction(), entry.method(), entry.path(), entry.status());
+    }
+
+    // Header values for an error entry, with credentials replaced
+    public static Map<String, String> redact(Map<String, ? extends Collection<String>> headers) {
+        Map<String, String> redacted = new LinkedHashMap<>();
+        headers.forEach((name, values) ->
+                redacted.put(name, REDACTED_HEADERS.contains(name) ? REDACTED : String.join(",", values)));
+        return redacted;
+    }
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+    public synchronized Settings update(Boolean enabled, String route, Double sampleRate) {
+        Settings current = settings;
+        double defaultSampleRate = current.defaultSampleRate();
+        Map<String, Double> sampleRates = current.sampleRates();
+        if (sampleRate != null) {
+            AccessLogConfigurationParameter.requireRate(sampleRate);
+            if (route == null || route.isBlank()) {
+                defaultSampleRate = sampleRate;
+            } else {
+                // A route set at runtime goes first so it wins over a broader configured pattern
+                Map<String, Double> updated = new LinkedHashMap<>();
+                updated.put(route, sampleRate);
+                sampleRates.forEach(updated::putIfAbsent);
+                sampleRates = Collections.unmodifiableMap(updated);
+            }
+        }
+        settings = new Settings(enabled != null ? enabled : current.enabled(), defaultSampleRate, sampleRates);
+        return settings;
+    }
+
+    public synchronized Settings reset() {
+        settings = new Settings(
+                accessLogConfigurationParameter.isEnabled(),
+                accessLogConfigurationParameter.getDefaultSampleRate(),
+                accessLogConfigurationParameter.getSampleRates()
+        );
+        return settings;
+    }
+
+    private static Set<String> redactedHeaders() {
+        Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        names.add(HttpHeaders.AUTHORIZATION);
+        names.add(HttpHeaders.PROXY_AUTHORIZATION);
+        names.add(HttpHeaders.COOKIE);
+        names.add(IdentityHeader.EDGE_SECRET.getValue());
+        names.add(IdentityHeader.SERVICE_SECRET.getValue());
+        return names;
+    }
+}
@@ -0,0 +1,42 @@
+package com.springbootmicroservices.orderservice.accesslog;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+// Runtime switch for the access log on the internal management port:
+// GET /actuator/accesslog shows the active settings,
+// POST /actuator/accesslog {"enabled":false} turns it off, {"route":"/api/v1/orders/**","sampleRate":1.0} samples a route fully
+// (without a route the default rate changes), DELETE /actuator/accesslog restores the configured settings.
+@Component
+@Endpoint(id = "accesslog")
+@RequiredArgsConstructor
+public class AccessLogEndpoint {
+
+    private final AccessLog accessLog;
+
+    @ReadOperation
+    public AccessLog.Settings settings() {
+        return accessLog.getSettings();
+    }
+
+    @WriteOperation
+    public AccessLog.Settings update(@Nullable final Boolean enabled,
+                                     @Nullable final String route,
+                                     @Nullable final Double sampleRate) {
+        if (sampleRate != null && (sampleRate < 0 || sampleRate > 1)) {
+            throw new InvalidEndpointRequestException("sampleRate must be between 0 and 1", "Invalid sampleRate");
+        }
+        return accessLog.update(enabled, route, sampleRate);
+    }
+
+    @DeleteOperation
+    public AccessLog.Settings reset() {
+        return accessLog.reset();
+    }
+}
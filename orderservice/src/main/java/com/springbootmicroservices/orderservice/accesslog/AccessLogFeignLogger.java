@@ -0,0 +1,83 @@
+package com.springbootmicroservices.orderservice.accesslog;
+
+import feign.Logger;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+// Feign logger that writes outbound calls to the access log instead of Feign's line-per-header output.
+// Response bodies are read (and rebuffered) only for error responses, so successful calls are streamed untouched.
+@RequiredArgsConstructor
+public class AccessLogFeignLogger extends Logger {
+
+    private final AccessLog accessLog;
+
+    @Override
+    protected void log(String configKey, String format, Object... args) {
+        // Everything is written as structured entries below; Feign's free-text lines are dropped
+    }
+
+    @Override
+    protected void logRequest(String configKey, Level logLevel, Request request) {
+        // The call is logged once, when its outcome is known
+    }
+
+    @Override
+    protected void logRetry(String configKey, Level logLevel) {
+        // Each attempt produces its own entry
+    }
+
+    @Override
+    protected Response logAndRebufferResponse(String configKey, Level logLevel, Response response, long elapsedTime) throws IOException {
+        boolean error = response.status() >= 400;
+        String path = URI.create(response.request().url()).getPath();
+        if (!accessLog.shouldLog(path, error)) {
+            return response;
+        }
+
+        String body = null;
+        if (error && response.body() != null) {
+            byte[] content = Util.toByteArray(response.body().asInputStream());
+            body = new String(content, 0, Math.min(content.length, accessLog.getMaxBodyBytes()), StandardCharsets.UTF_8);
+            response = response.toBuilder().body(content).build();
+        }
+
+        accessLog.write(new AccessLog.Entry(
+                "outbound",
+                response.request().httpMethod().name(),
+                path,
+                response.status(),
+                elapsedTime,
+                null,
+                configKey,
+                error ? AccessLog.redact(response.request().headers()) : null,
+                body,
+                null
+        ));
+        return response;
+    }
+
+    @Override
+    protected IOException logIOException(String configKey, Level logLevel, IOException ioe, long elapsedTime) {
+        if (accessLog.isEnabled()) {
+            accessLog.write(new AccessLog.Entry(
+                    "outbound",
+                    null,
+                    null,
+                    0,
+                    elapsedTime,
+                    null,
+                    configKey,
+                    null,
+                    null,
+                    ioe.getClass().getSimpleName() + ": " + ioe.getMessage()
+            ));
+        }
+        return ioe;
+    }
+}
@@ -0,0 +1,95 @@
+package com.springbootmicroservices.orderservice.accesslog;
+
+import com.springbootmicroservices.orderservice.model.auth.enums.TokenClaims;
+import com.springbootmicroservices.orderservice.service.TokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// One structured entry per sampled inbound request. Runs just outside Spring Security so rejected
+// requests are logged too. Headers and the request body are only written for error responses.
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+@RequiredArgsConstructor
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private final AccessLog accessLog;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (!accessLog.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Copies at most max-body-bytes of what the application reads, so an error entry can include it
+        ContentCachingRequestWrapper cachingRequest = new ContentCachingRequestWrapper(request, accessLog.getMaxBodyBytes());
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            filterChain.doFilter(cachingRequest, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            int status = failure != null ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+            boolean error = status >= 400;
+            String path = request.getRequestURI();
+            if (accessLog.shouldLog(path, error)) {
+                accessLog.write(new AccessLog.Entry(
+                        "inbound",
+                        request.getMethod(),
+                        path,
+                        status,
+                        (System.nanoTime() - start) / 1_000_000,
+                        userId(request),
+                        null,
+                        error ? AccessLog.redact(headers(request)) : null,
+                        error ? body(cachingRequest) : null,
+                        failure != null ? failure.getClass().getSimpleName() + ": " + failure.getMessage() : null
+                ));
+            }
+        }
+    }
+
+    // Set by the bearer token filter, so the token is not parsed again here
+    private static String userId(HttpServletRequest request) {
+        if (request.getAttribute(TokenService.CLAIMS_REQUEST_ATTRIBUTE) instanceof Map<?, ?> claims
+                && claims.get(TokenClaims.USER_ID.getValue()) != null) {
+            return String.valueOf(claims.get(TokenClaims.USER_ID.getValue()));
+        }
+        return null;
+    }
+
+    private static Map<String, List<String>> headers(HttpServletRequest request) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : Collections.list(request.getHeaderNames())) {
+            headers.put(name, Collections.list(request.getHeaders(name)));
+        }
+        return headers;
+    }
+
+    private static String body(ContentCachingRequestWrapper request) {
+        byte[] content = request.getContentAsByteArray();
+        return content.length == 0 ? null : new String(content, StandardCharsets.UTF_8);
+    }
+}
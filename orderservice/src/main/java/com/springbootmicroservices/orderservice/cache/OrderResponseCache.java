@@ -0,0 +1,73 @@
+package com.springbootmicroservices.orderservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.springbootmicroservices.orderservice.config.OrderResponseCacheConfigurationParameter;
+import com.springbootmicroservices.orderservice.model.order.dto.response.OrderResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+// Mapped OrderResponses by order ID for clients polling an order, e.g. while its payment is pending. Entries are
+// stored for every caller alike; the owner check is made by the caller against OrderResponse#getUserId.
+// Every write of an order on this instance invalidates its entry once the writing transaction has committed.
+// A load in progress holds its key, so an invalidation arriving meanwhile waits for it and then drops the result.
+@Component
+public class OrderResponseCache {
+
+    private final Cache<String, OrderResponse> orderResponses;
+
+    // cache.gets{cache=orderResponses,result=hit|miss} and friends come from CaffeineCacheMetrics;
+    // order.response.cache.load.duration adds the latency distribution of a miss
+    private final Timer loadTimer;
+
+    public OrderResponseCache(OrderResponseCacheConfigurationParameter orderResponseCacheConfigurationParameter,
+                              MeterRegistry meterRegistry) {
+        this.orderResponses = Caffeine.newBuilder()
+                .maximumSize(orderResponseCacheConfigurationParameter.getMaximumSize())
+                .expireAfterWrite(orderResponseCacheConfigurationParameter.getTtl())
+                .recordStats()
+                .build();
+        this.loadTimer = Timer.builder("order.response.cache.load.duration")
+                .description("Time to load and map an order missing from the order response cache")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, orderResponses, "orderResponses");
+        Gauge.builder("order.response.cache.hit.ratio", orderResponses, cache -> cache.stats().hitRate())
+                .description("Share of order lookups answered from the order response cache")
+                .register(meterRegistry);
+    }
+
+    // Null when the loader finds no order; that outcome is not cached
+    public OrderResponse get(String orderId, Function<String, OrderResponse> loader) {
+        return orderResponses.get(orderId, id -> loadTimer.record(() -> loader.apply(id)));
+    }
+
+    public void invalidateAfterCommit(String orderId) {
+        invalidateAfterCommit(List.of(orderId));
+    }
+
+    // Invalidating before the commit would let a concurrent poll cache the old row again
+    public void invalidateAfterCommit(Collection<String> orderIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            orderResponses.invalidateAll(orderIds);
+            return;
+        }
+        List<String> invalidated = List.copyOf(orderIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                orderResponses.invalidateAll(invalidated);
+            }
+        });
+    }
+}
@@ -4,16 +4,23 @@ import com.springbootmicroservices.orderservice.config.FeignClientConfig;
 import com.springbootmicroservices.orderservice.config.ProductServiceFeignConfig;
 
 // Import the DTOs we created in the .dto package
+import com.springbootmicroservices.orderservice.client.dto.ProductBatchDetailsDto;
+import com.springbootmicroservices.orderservice.client.dto.ProductBatchRequestDto;
 import com.springbootmicroservices.orderservice.client.dto.ProductDetailsDto;
 import com.springbootmicroservices.orderservice.client.dto.PurchaseQuantityDto;
+import com.springbootmicroservices.orderservice.client.dto.StockHoldRequestDto;
+import com.springbootmicroservices.orderservice.client.dto.StockHoldResultDto;
 import com.springbootmicroservices.orderservice.client.dto.CustomResponse;
+import feign.Request;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.MediaType;
 //import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody; // Added for reduceStock
+import org.springframework.web.bind.annotation.RequestHeader;
 // import org.springframework.web.bind.annotation.RequestParam; // No longer needed for reduceStock if quantity is in body
 
 // Commented out these inline records as we have proper DTO classes now
@@ -23,6 +30,10 @@ import org.springframework.web.bind.annotation.RequestBody; // Added for reduceS
 @FeignClient(name = "productservice", path = "/api/v1/products", configuration = ProductServiceFeignConfig.class)
 public interface ProductServiceClient {
 
+    String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    String SERVICE_NAME_HEADER = "X-Service-Name"; // IdentityHeader.SERVICE_NAME
+    String SERVICE_SECRET_HEADER = "X-Service-Secret"; // IdentityHeader.SERVICE_SECRET
+
     /**
      * Retrieves essential product details (like price and current stock) by its ID from ProductService.
      * This method expects ProductService to have an endpoint that returns a ProductDetailsDto structure.
@@ -40,6 +51,19 @@ public interface ProductServiceClient {
     // ResponseEntity<ProductDetailsDto> getProductDetailsForOrder(@PathVariable("productId") String productId);
 
 
+    /**
+     * Retrieves the details of several products with one call to POST /api/v1/products/batch.
+     * ProductService answers with a single query and lists the IDs it could not find instead of failing.
+     *
+     * @param batchRequest DTO containing the distinct product IDs to look up
+     * @param options connect and read timeouts of this call, i.e. what is left of the order's deadline
+     * @return the found products keyed by ID and the missing IDs
+     */
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    CustomResponse<ProductBatchDetailsDto> getProductDetailsBatch(@RequestBody ProductBatchRequestDto batchRequest,
+                                                                  Request.Options options);
+
+
     /**
      * Reduces the stock for a single product in ProductService.
      * This corresponds to the POST /api/v1/products/{productId}/purchase endpoint in ProductService,
@@ -52,11 +76,47 @@ public interface ProductServiceClient {
     @PostMapping(path = "/{productId}/purchase", consumes = MediaType.APPLICATION_JSON_VALUE)
     void reduceStock(@PathVariable("productId") String productId, @RequestBody PurchaseQuantityDto quantityDto);
 
-    // Example: Batch stock update (more efficient if purchasing multiple different items)
-    // ProductService would need to implement an endpoint for this, and you'd need a DTO for the list.
-    // @PostMapping("/stock/batch-update")
-    // ResponseEntity<Void> batchUpdateStock(@RequestBody List<com.springbootmicroservices.orderservice.client.dto.StockAdjustmentDto> requests);
-    // where StockAdjustmentDto might be:
-    // package com.springbootmicroservices.orderservice.client.dto;
-    // public record StockAdjustmentDto(String productId, int quantityChange) {}
-}
\ No newline at end of file
+    /**
+     * Holds stock for all lines of an order with one call to POST /api/v1/products/stock/holds.
+     * All lines are taken or none, and the stock returns to the products when the hold expires unless it is
+     * confirmed first.
+     *
+     * @param holdRequest DTO containing the order ID as reference, the hold lifetime and the lines
+     * @param options connect and read timeouts of this call, i.e. what is left of the order's deadline
+     * @return the hold, plus the per-line results
+     */
+    @PostMapping(path = "/stock/holds", consumes = MediaType.APPLICATION_JSON_VALUE)
+    CustomResponse<StockHoldResultDto> placeStockHold(@RequestBody StockHoldRequestDto holdRequest, Request.Options options);
+
+    /**
+     * Makes the stock of a hold permanently taken. Answers 409 if the hold was released, or expired and its stock has been sold since.
+     * Called by the outbox dispatcher, which acts for no user and authenticates with the service credential.
+     *
+     * @param reference the order ID the hold was placed with
+     * @param serviceName the name this service authenticates with
+     * @param serviceSecret the shared service credential secret
+     * @param idempotencyKey identifies the command, so a redelivery is recognisable
+     * @return the confirmed hold
+     */
+    @PostMapping("/stock/holds/{reference}/confirm")
+    CustomResponse<StockHoldResultDto> confirmStockHold(@PathVariable("reference") String reference,
+                                                        @RequestHeader(SERVICE_NAME_HEADER) String serviceName,
+                                                        @RequestHeader(SERVICE_SECRET_HEADER) String serviceSecret,
+                                                        @RequestHeader(IDEMPOTENCY_KEY_HEADER) String idempotencyKey);
+
+    /**
+     * Returns the stock of a hold to the products. Releasing an expired or released hold changes nothing.
+     * Called by the outbox dispatcher, which acts for no user and authenticates with the service credential.
+     *
+     * @param reference the order ID the hold was placed with
+     * @param serviceName the name this service authenticates with
+     * @param serviceSecret the shared service credential secret
+     * @param idempotencyKey identifies the command, so a redelivery is recognisable
+     * @return the released hold
+     */
+    @DeleteMapping("/stock/holds/{reference}")
+    CustomResponse<StockHoldResultDto> releaseStockHold(@PathVariable("reference") String reference,
+                                                        @RequestHeader(SERVICE_NAME_HEADER) String serviceName,
+                                                        @RequestHeader(SERVICE_SECRET_HEADER) String serviceSecret,
+                                                        @RequestHeader(IDEMPOTENCY_KEY_HEADER) String idempotencyKey);
+}
@@ -0,0 +1,23 @@
+// src/main/java/com/springbootmicroservices/orderservice/client/dto/ProductBatchDetailsDto.java
+package com.springbootmicroservices.orderservice.client.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for the result of a batch product lookup in ProductService:
+ * the found products keyed by ID plus the IDs ProductService does not know.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchDetailsDto {
+    private Map<String, ProductDetailsDto> products;
+    private List<String> missingProductIds;
+}
@@ -0,0 +1,21 @@
+// src/main/java/com/springbootmicroservices/orderservice/client/dto/ProductBatchRequestDto.java
+package com.springbootmicroservices.orderservice.client.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * DTO sent to ProductService's POST /api/v1/products/batch endpoint to fetch
+ * the details of several products in one round trip.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchRequestDto {
+    private List<String> productIds; // Distinct IDs, at most ProductService's batch limit (500)
+}
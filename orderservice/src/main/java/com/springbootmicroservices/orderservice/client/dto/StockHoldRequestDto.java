@@ -0,0 +1,32 @@
+// src/main/java/com/springbootmicroservices/orderservice/client/dto/StockHoldRequestDto.java
+package com.springbootmicroservices.orderservice.client.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * DTO sent to ProductService's POST /api/v1/products/stock/holds endpoint.
+ * ProductService holds every line or none of them, until the hold is confirmed, released or expires.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHoldRequestDto {
+    private String reference;   // The order ID, used later to confirm or release the hold
+    private Long ttlSeconds;
+    private List<Line> lines;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private String productId;
+        private int quantity;
+    }
+}
@@ -0,0 +1,37 @@
+// src/main/java/com/springbootmicroservices/orderservice/client/dto/StockHoldResultDto.java
+package com.springbootmicroservices.orderservice.client.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for a stock hold in ProductService. The lines are only filled in when the hold is placed.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHoldResultDto {
+    private String reference;
+    private boolean reserved;
+    private String status;              // ACTIVE, CONFIRMED, RELEASED or EXPIRED; null when the hold could not be placed
+    private LocalDateTime expiresAt;
+    private List<Line> lines;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private String productId;
+        private int requestedQuantity;
+        private String status;              // RESERVED, ROLLED_BACK, INSUFFICIENT_STOCK or PRODUCT_NOT_FOUND
+        private BigDecimal availableAmount; // Null when the product does not exist
+    }
+}
@@ -0,0 +1,67 @@
+package com.springbootmicroservices.orderservice.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Configuration
+public class AccessLogConfigurationParameter {
+
+    // Start-up values; the accesslog actuator endpoint changes them at runtime
+    private final boolean enabled;
+
+    // Share of successful requests logged on routes without their own rate; errors are always logged
+    private final double defaultSampleRate;
+
+    // Ant pattern -> sample rate, first match wins
+    private final Map<String, Double> sampleRates;
+
+    // Request or response body bytes kept for an error entry
+    private final int maxBodyBytes;
+
+    public AccessLogConfigurationParameter(@Value("${access-log.enabled:true}") boolean enabled,
+                                           @Value("${access-log.default-sample-rate:0.01}") double defaultSampleRate,
+                                           @Value("${access-log.sample-rates:}") List<String> sampleRates,
+                                           @Value("${access-log.max-body-bytes:4096}") int maxBodyBytes) {
+        if (maxBodyBytes < 0) {
+            throw new IllegalStateException("access-log.max-body-bytes must not be negative");
+        }
+        this.enabled = enabled;
+        this.defaultSampleRate = requireRate(defaultSampleRate);
+        this.sampleRates = Collections.unmodifiableMap(parseSampleRates(sampleRates));
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    public static double requireRate(double rate) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalStateException("Access log sample rate must be between 0 and 1, was " + rate);
+        }
+        return rate;
+    }
+
+    // Entries are written as pattern=rate, e.g. /api/v1/orders/admin/**=0.1
+    private static Map<String, Double> parseSampleRates(List<String> entries) {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        for (String entry : entries) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf('=');
+            if (separator < 1) {
+                throw new IllegalStateException("access-log.sample-rates entry must be pattern=rate, was " + entry);
+            }
+            try {
+                rates.put(entry.substring(0, separator).trim(), requireRate(Double.parseDouble(entry.substring(separator + 1).trim())));
+            } catch (NumberFormatException e) {
+                throw new IllegalStateException("access-log.sample-rates entry has an invalid rate: " + entry, e);
+            }
+        }
+        return rates;
+    }
+}
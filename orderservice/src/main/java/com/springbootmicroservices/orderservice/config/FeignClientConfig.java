@@ -1,5 +1,7 @@
 package com.springbootmicroservices.orderservice.config;
 
+import com.springbootmicroservices.orderservice.accesslog.AccessLog;
+import com.springbootmicroservices.orderservice.accesslog.AccessLogFeignLogger;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -32,8 +34,15 @@ public class FeignClientConfig {
         return new JacksonEncoder(objectMapper);
     }
 
+    // BASIC is the lowest level at which Feign reports responses to the logger; no headers or bodies are formatted
     @Bean
     Logger.Level feignLoggerLevel() {
-        return Logger.Level.FULL; // Keep this for debugging
+        return Logger.Level.BASIC;
+    }
+
+    // Outbound calls go to the sampled access log; see AccessLogFeignLogger
+    @Bean
+    Logger feignLogger(AccessLog accessLog) {
+        return new AccessLogFeignLogger(accessLog);
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.springbootmicroservices.orderservice.config;
 
+import com.springbootmicroservices.orderservice.model.auth.enums.IdentityHeader;
 import feign.RequestInterceptor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
@@ -17,11 +18,24 @@ public class GlobalFeignClientConfig {
     private static final String TOKEN_TYPE = "Bearer";
 
     @Bean
-    public RequestInterceptor requestInterceptor() {
+    public RequestInterceptor requestInterceptor(ServiceCredentialConfigurationParameter serviceCredentialConfigurationParameter) {
         return requestTemplate -> {
+            // Calls that pass their credentials explicitly (e.g. the outbox dispatcher's service credential) are left alone
+            if (requestTemplate.headers().containsKey(AUTHORIZATION_HEADER)
+                    || requestTemplate.headers().containsKey(IdentityHeader.SERVICE_SECRET.getValue())) {
+                return;
+            }
+
             // This logic is robust and tries to get the token from the SecurityContext first
             var authentication = SecurityContextHolder.getContext().getAuthentication();
 
+            if (serviceCredentialConfigurationParameter.isServiceAuthentication(authentication)) {
+                log.debug("GlobalFeignClientConfig: Acting for no user. Sending the service credential.");
+                requestTemplate.header(IdentityHeader.SERVICE_NAME.getValue(), serviceCredentialConfigurationParameter.getName());
+                requestTemplate.header(IdentityHeader.SERVICE_SECRET.getValue(), serviceCredentialConfigurationParameter.getSecret());
+                return;
+            }
+
             if (authentication != null && authentication.getPrincipal() instanceof Jwt) {
                 Jwt jwt = (Jwt) authentication.getPrincipal();
                 log.debug("GlobalFeignClientConfig: Found JWT in SecurityContext. Propagating token.");
@@ -0,0 +1,54 @@
+package com.springbootmicroservices.orderservice.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Getter
+@Configuration
+public class IdempotencyConfigurationParameter {
+
+    // POST paths (Ant patterns) that honour the header
+    private final List<String> paths;
+
+    // How long a stored response is replayed; keys older than this execute again
+    private final Duration retention;
+
+    // Lifetime of a response in the in-memory front cache, bounded by the retention
+    private final Duration cacheTtl;
+
+    private final long cacheMaximumSize;
+
+    // How long a duplicate waits for the first request, and after which an unfinished first request counts as abandoned
+    private final Duration inFlightTimeout;
+
+    // Larger responses are not stored, so the table stays compact
+    private final int maxResponseBytes;
+
+    public IdempotencyConfigurationParameter(@Value("${idempotency.paths:/api/v1/orders}") List<String> paths,
+                                             @Value("${idempotency.retention:24h}") Duration retention,
+                                             @Value("${idempotency.cache-ttl:10m}") Duration cacheTtl,
+                                             @Value("${idempotency.cache-maximum-size:10000}") long cacheMaximumSize,
+                                             @Value("${idempotency.in-flight-timeout:30s}") Duration inFlightTimeout,
+                                             @Value("${idempotency.max-response-bytes:65536}") int maxResponseBytes) {
+        if (retention.isNegative() || retention.isZero() || cacheTtl.isNegative() || cacheTtl.isZero()) {
+            throw new IllegalStateException("idempotency.retention and idempotency.cache-ttl must be positive");
+        }
+        if (inFlightTimeout.isNegative() || inFlightTimeout.isZero()) {
+            throw new IllegalStateException("idempotency.in-flight-timeout must be positive");
+        }
+        if (cacheMaximumSize < 1 || maxResponseBytes < 1) {
+            throw new IllegalStateException("idempotency.cache-maximum-size and idempotency.max-response-bytes must be positive");
+        }
+        this.paths = List.copyOf(paths);
+        this.retention = retention;
+        this.cacheTtl = cacheTtl.compareTo(retention) < 0 ? cacheTtl : retention;
+        this.cacheMaximumSize = cacheMaximumSize;
+        this.inFlightTimeout = inFlightTimeout;
+        this.maxResponseBytes = maxResponseBytes;
+    }
+
+}
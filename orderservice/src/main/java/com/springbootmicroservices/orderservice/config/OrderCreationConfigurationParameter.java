@@ -0,0 +1,47 @@
+package com.springbootmicroservices.orderservice.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Configuration
+public class OrderCreationConfigurationParameter {
+
+    // Upper bound for the whole createOrder call, shared by the product lookups and the stock updates
+    private final Duration deadline;
+
+    // Worker pool used to fan out the calls to productservice; it is bounded so a burst of large carts
+    // is rejected quickly instead of piling up threads
+    private final int productCallThreads;
+    private final int productCallQueueCapacity;
+
+    // Product IDs sent per batch lookup; must not exceed productservice's limit of 500
+    private final int productBatchSize;
+
+    // How long productservice keeps the stock of a new order aside while the checkout is unfinished
+    private final Duration stockHoldTtl;
+
+    public OrderCreationConfigurationParameter(@Value("${order.creation.deadline:10s}") Duration deadline,
+                                               @Value("${order.creation.product-call-threads:32}") int productCallThreads,
+                                               @Value("${order.creation.product-call-queue-capacity:256}") int productCallQueueCapacity,
+                                               @Value("${order.creation.product-batch-size:200}") int productBatchSize,
+                                               @Value("${order.creation.stock-hold-ttl:30m}") Duration stockHoldTtl) {
+        if (deadline.isNegative() || deadline.isZero()) {
+            throw new IllegalStateException("order.creation.deadline must be positive");
+        }
+        if (productBatchSize < 1 || productBatchSize > 500) {
+            throw new IllegalStateException("order.creation.product-batch-size must be between 1 and 500");
+        }
+        if (stockHoldTtl.toSeconds() < 1) {
+            throw new IllegalStateException("order.creation.stock-hold-ttl must be at least one second");
+        }
+        this.deadline = deadline;
+        this.productCallThreads = productCallThreads;
+        this.productCallQueueCapacity = productCallQueueCapacity;
+        this.productBatchSize = productBatchSize;
+        this.stockHoldTtl = stockHoldTtl;
+    }
+}
@@ -0,0 +1,51 @@
+package com.springbootmicroservices.orderservice.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Configuration
+public class OrderIntakeConfigurationParameter {
+
+    // When enabled, POST /api/v1/orders only stores the cart and answers 202; pricing and stock run in the background
+    private final boolean async;
+
+    // Orders priced and reserved at the same time
+    private final int workers;
+
+    // Accepted orders waiting for a worker; beyond this, new orders are turned away with 503 instead of queueing up
+    private final int queueCapacity;
+
+    // Sent as Retry-After with the 503
+    private final Duration retryAfter;
+
+    // An accepted order still PENDING this long after it was handed to a worker was lost (e.g. the instance restarted)
+    // and is re-submitted from its stored cart
+    private final Duration staleAfter;
+
+    // Intake runs per order, the first one included; an order lost this many times is cancelled instead
+    private final int maxAttempts;
+
+    public OrderIntakeConfigurationParameter(@Value("${order.intake.async:false}") boolean async,
+                                             @Value("${order.intake.workers:8}") int workers,
+                                             @Value("${order.intake.queue-capacity:500}") int queueCapacity,
+                                             @Value("${order.intake.retry-after:5s}") Duration retryAfter,
+                                             @Value("${order.intake.stale-after:10m}") Duration staleAfter,
+                                             @Value("${order.intake.max-attempts:3}") int maxAttempts) {
+        if (workers < 1 || queueCapacity < 1 || maxAttempts < 1) {
+            throw new IllegalStateException("order.intake.workers, queue-capacity and max-attempts must be positive");
+        }
+        if (staleAfter.isNegative() || staleAfter.isZero()) {
+            throw new IllegalStateException("order.intake.stale-after must be positive");
+        }
+        this.async = async;
+        this.workers = workers;
+        this.queueCapacity = queueCapacity;
+        this.retryAfter = retryAfter;
+        this.staleAfter = staleAfter;
+        this.maxAttempts = maxAttempts;
+    }
+}
@@ -0,0 +1,28 @@
+package com.springbootmicroservices.orderservice.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Configuration
+public class OrderResponseCacheConfigurationParameter {
+
+    // Mapped orders kept for GET /api/v1/orders/{orderId}; 0 turns the cache off
+    private final long maximumSize;
+
+    // Changes made on this instance invalidate an entry right away; changes made on another instance
+    // (e.g. a webhook batch it processed) become visible once the entry is this old
+    private final Duration ttl;
+
+    public OrderResponseCacheConfigurationParameter(@Value("${order.response-cache.maximum-size:10000}") long maximumSize,
+                                                    @Value("${order.response-cache.ttl:5s}") Duration ttl) {
+        if (maximumSize < 0 || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalStateException("order.response-cache.maximum-size must not be negative and order.response-cache.ttl must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.ttl = ttl;
+    }
+}
@@ -0,0 +1,48 @@
+package com.springbootmicroservices.orderservice.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Configuration
+public class OutboxConfigurationParameter {
+
+    // Rows claimed per dispatcher round; each round is one short claim transaction and one short result transaction
+    private final int batchSize;
+
+    // Concurrent deliveries to productservice
+    private final int dispatchThreads;
+
+    // How long a claimed row is hidden from other dispatchers; must exceed the productservice read timeout
+    private final Duration lease;
+
+    // Deliveries per row before it is given up as FAILED
+    private final int maxAttempts;
+
+    // Retry delay doubles from the initial backoff up to the maximum
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public OutboxConfigurationParameter(@Value("${order.outbox.batch-size:100}") int batchSize,
+                                        @Value("${order.outbox.dispatch-threads:16}") int dispatchThreads,
+                                        @Value("${order.outbox.lease:60s}") Duration lease,
+                                        @Value("${order.outbox.max-attempts:10}") int maxAttempts,
+                                        @Value("${order.outbox.initial-backoff:1s}") Duration initialBackoff,
+                                        @Value("${order.outbox.max-backoff:5m}") Duration maxBackoff) {
+        if (batchSize < 1 || dispatchThreads < 1 || maxAttempts < 1) {
+            throw new IllegalStateException("order.outbox.batch-size, dispatch-threads and max-attempts must be positive");
+        }
+        if (initialBackoff.isNegative() || initialBackoff.isZero() || maxBackoff.compareTo(initialBackoff) < 0) {
+            throw new IllegalStateException("order.outbox.initial-backoff must be positive and not exceed max-backoff");
+        }
+        this.batchSize = batchSize;
+        this.dispatchThreads = dispatchThreads;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+}
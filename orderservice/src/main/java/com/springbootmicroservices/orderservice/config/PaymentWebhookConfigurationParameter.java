@@ -0,0 +1,49 @@
+package com.springbootmicroservices.orderservice.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Configuration
+public class PaymentWebhookConfigurationParameter {
+
+    // Signing secret of the Stripe webhook endpoint (whsec_...); without it every event is rejected
+    private final String secret;
+
+    // Largest accepted age of the Stripe-Signature timestamp, against replayed deliveries
+    private final Duration tolerance;
+
+    // Inbox events applied per transaction
+    private final int batchSize;
+
+    // Times an event is applied on its own after failing, before it is given up as FAILED
+    private final int maxAttempts;
+
+    // Settled events are kept this long, well past Stripe's retry window, so late redeliveries are still recognised
+    private final Duration retention;
+
+    public PaymentWebhookConfigurationParameter(@Value("${stripe.webhook-secret:}") String secret,
+                                                @Value("${stripe.webhook.tolerance:5m}") Duration tolerance,
+                                                @Value("${stripe.webhook.batch-size:200}") int batchSize,
+                                                @Value("${stripe.webhook.max-attempts:5}") int maxAttempts,
+                                                @Value("${stripe.webhook.retention:30d}") Duration retention) {
+        if (tolerance.isNegative() || tolerance.isZero() || retention.isNegative() || retention.isZero()) {
+            throw new IllegalStateException("stripe.webhook.tolerance and stripe.webhook.retention must be positive");
+        }
+        if (batchSize < 1 || maxAttempts < 1) {
+            throw new IllegalStateException("stripe.webhook.batch-size and max-attempts must be positive");
+        }
+        this.secret = secret;
+        this.tolerance = tolerance;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retention = retention;
+    }
+
+    public boolean hasSecret() {
+        return secret != null && !secret.isBlank();
+    }
+}
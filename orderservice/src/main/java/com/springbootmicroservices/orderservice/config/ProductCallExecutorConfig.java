@@ -0,0 +1,47 @@
+package com.springbootmicroservices.orderservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+@Configuration
+public class ProductCallExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor productCallExecutor(OrderCreationConfigurationParameter orderCreationConfigurationParameter) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("product-call-");
+        executor.setCorePoolSize(orderCreationConfigurationParameter.getProductCallThreads());
+        executor.setMaxPoolSize(orderCreationConfigurationParameter.getProductCallThreads());
+        executor.setQueueCapacity(orderCreationConfigurationParameter.getProductCallQueueCapacity());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setTaskDecorator(callerContextDecorator());
+        return executor;
+    }
+
+    // Feign's request interceptor reads the caller's JWT from thread-locals, so the submitting
+    // request's security context and request attributes are carried over to the worker thread
+    private static TaskDecorator callerContextDecorator() {
+        return task -> {
+            SecurityContext securityContext = SecurityContextHolder.getContext();
+            RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+            return () -> {
+                SecurityContext previousSecurityContext = SecurityContextHolder.getContext();
+                RequestAttributes previousRequestAttributes = RequestContextHolder.getRequestAttributes();
+                SecurityContextHolder.setContext(securityContext);
+                RequestContextHolder.setRequestAttributes(requestAttributes);
+                try {
+                    task.run();
+                } finally {
+                    SecurityContextHolder.setContext(previousSecurityContext);
+                    RequestContextHolder.setRequestAttributes(previousRequestAttributes);
+                }
+            };
+        };
+    }
+}
@@ -1,20 +0,0 @@
-package com.springbootmicroservices.orderservice.config;
-
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.filter.CommonsRequestLoggingFilter;
-
-@Configuration
-public class RequestLoggingConfig {
-
-    @Bean
-    public CommonsRequestLoggingFilter logFilter() {
-        CommonsRequestLoggingFilter filter = new CommonsRequestLoggingFilter();
-        filter.setIncludeQueryString(true);
-        filter.setIncludePayload(true); // Log request body
-        filter.setMaxPayloadLength(10000); // Max length of payload to log
-        filter.setIncludeHeaders(true); // Log headers
-        filter.setAfterMessagePrefix("REQUEST DATA : ");
-        return filter;
-    }
-}
\ No newline at end of file
@@ -32,8 +32,8 @@ public class SecurityConfig {
                 .cors(AbstractHttpConfigurer::disable) // Disable CORS here, API Gateway should handle it
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(authorize -> authorize
-                        // Example: Stripe webhook might be public or require specific auth not covered by user JWTs
-                        // .requestMatchers(HttpMethod.POST, "/api/v1/payments/stripe/webhook").permitAll()
+                        // Stripe calls the webhook without a user JWT; PaymentServiceImpl verifies its Stripe-Signature instead
+                        .requestMatchers(HttpMethod.POST, "/api/v1/payments/stripe/webhook").permitAll()
 
                         // Order placement and history require an authenticated user
                         .requestMatchers(HttpMethod.POST, "/api/v1/orders").authenticated()
@@ -45,7 +45,6 @@ public class SecurityConfig {
 
                         // Updating order status is an admin-only operation
                         .requestMatchers(HttpMethod.PUT, "/api/v1/orders/{orderId}/status").hasAuthority("ROLE_ADMIN")
-                        //.requestMatchers(HttpMethod.POST, "/api/v1/payments/stripe/webhook").permitAll()
 
                         // Example for an admin endpoint to view all orders (if you add it)
                         // .requestMatchers(HttpMethod.GET, "/api/v1/orders/admin/all").hasAuthority("ADMIN")
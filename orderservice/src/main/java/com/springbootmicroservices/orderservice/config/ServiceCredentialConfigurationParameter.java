@@ -0,0 +1,44 @@
+package com.springbootmicroservices.orderservice.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+@Getter
+@Configuration
+public class ServiceCredentialConfigurationParameter {
+
+    public static final String SERVICE_AUTHORITY = "ROLE_SERVICE";
+
+    // Name this service authenticates to productservice with on calls that act for no user, e.g. outbox deliveries
+    private final String name;
+
+    // Shared with productservice's security.service-credential.secret; without it the outbox is not delivered
+    private final String secret;
+
+    public ServiceCredentialConfigurationParameter(@Value("${security.service-credential.name:orderservice}") String name,
+                                                   @Value("${security.service-credential.secret:}") String secret) {
+        this.name = name;
+        this.secret = secret;
+    }
+
+    public boolean hasSecret() {
+        return secret != null && !secret.isBlank();
+    }
+
+    // Work this service does for no user (e.g. resuming a lost intake order) runs under this authentication;
+    // the Feign interceptor sends the credential instead of a bearer token for it
+    public Authentication authentication() {
+        return new UsernamePasswordAuthenticationToken(name, null, List.of(new SimpleGrantedAuthority(SERVICE_AUTHORITY)));
+    }
+
+    public boolean isServiceAuthentication(Authentication authentication) {
+        return authentication != null && name.equals(authentication.getPrincipal())
+                && authentication.getAuthorities().stream().anyMatch(authority -> SERVICE_AUTHORITY.equals(authority.getAuthority()));
+    }
+}
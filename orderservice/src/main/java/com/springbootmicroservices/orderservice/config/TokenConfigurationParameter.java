@@ -3,9 +3,11 @@ package com.springbootmicroservices.orderservice.config;
 import com.springbootmicroservices.orderservice.model.user.enums.ConfigurationParameter;
 import com.springbootmicroservices.orderservice.utils.KeyConverter; // You will create this util
 import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 
 import java.security.PublicKey;
+import java.time.Duration;
 // PrivateKey is not needed if OrderService only validates tokens
 // import java.security.PrivateKey;
 
@@ -20,7 +22,14 @@ public class TokenConfigurationParameter {
     // private final int accessTokenExpireMinute; // Not strictly needed by OrderService
     // private final PrivateKey privateKey; // Not needed by OrderService
 
-    public TokenConfigurationParameter() {
+    // Verified tokens remembered so a client reusing its token is not RSA-verified on every request
+    private final long verifiedTokenCacheSize;
+
+    // Longest a verified token is remembered; never beyond the token's own exp
+    private final Duration verifiedTokenCacheTtl;
+
+    public TokenConfigurationParameter(@Value("${token.verified-cache.maximum-size:10000}") long verifiedTokenCacheSize,
+                                       @Value("${token.verified-cache.max-ttl:5m}") Duration verifiedTokenCacheTtl) {
         this.publicKey = KeyConverter.convertPublicKey(
                 ConfigurationParameter.AUTH_PUBLIC_KEY.getDefaultValue()
         );
@@ -30,5 +39,11 @@ public class TokenConfigurationParameter {
         // this.accessTokenExpireMinute = Integer.parseInt(
         //        ConfigurationParameter.AUTH_ACCESS_TOKEN_EXPIRE_MINUTE.getDefaultValue()
         // );
+
+        if (verifiedTokenCacheSize < 0 || verifiedTokenCacheTtl.isNegative()) {
+            throw new IllegalStateException("token.verified-cache.maximum-size and token.verified-cache.max-ttl must not be negative");
+        }
+        this.verifiedTokenCacheSize = verifiedTokenCacheSize;
+        this.verifiedTokenCacheTtl = verifiedTokenCacheTtl;
     }
 }
\ No newline at end of file
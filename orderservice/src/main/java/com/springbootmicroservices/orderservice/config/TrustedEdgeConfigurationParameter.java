@@ -0,0 +1,33 @@
+package com.springbootmicroservices.orderservice.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+@Getter
+@Configuration
+public class TrustedEdgeConfigurationParameter {
+
+    // When enabled, identity headers forwarded by the gateway are trusted instead of re-verifying the JWT.
+    // Must match gateway.trusted-edge on the API gateway.
+    private final boolean enabled;
+    private final byte[] secret;
+
+    public TrustedEdgeConfigurationParameter(@Value("${security.trusted-edge.enabled:false}") boolean enabled,
+                                             @Value("${security.trusted-edge.secret:}") String secret) {
+        if (enabled && !StringUtils.hasText(secret)) {
+            throw new IllegalStateException("security.trusted-edge.secret must be set when trusted-edge mode is enabled");
+        }
+        this.enabled = enabled;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Constant-time comparison so the secret cannot be guessed byte by byte from response timings
+    public boolean isTrustedSecret(String candidate) {
+        return candidate != null && MessageDigest.isEqual(secret, candidate.getBytes(StandardCharsets.UTF_8));
+    }
+}
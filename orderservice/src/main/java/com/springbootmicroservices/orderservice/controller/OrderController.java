@@ -1,23 +1,31 @@
 package com.springbootmicroservices.orderservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springbootmicroservices.orderservice.config.OrderIntakeConfigurationParameter;
 import com.springbootmicroservices.orderservice.model.common.dto.response.CustomResponse;
-import com.springbootmicroservices.orderservice.model.common.dto.response.CustomPagingResponse; // For admin/all if paginated
+import com.springbootmicroservices.orderservice.model.common.dto.response.CustomCursorPagingResponse;
+import com.springbootmicroservices.orderservice.model.order.dto.request.BulkOrderStatusUpdateRequest;
 import com.springbootmicroservices.orderservice.model.order.dto.request.CreateOrderRequest;
 import com.springbootmicroservices.orderservice.model.order.dto.request.UpdateOrderStatusRequest;
+import com.springbootmicroservices.orderservice.model.order.dto.response.BulkOrderStatusResult;
 import com.springbootmicroservices.orderservice.model.order.dto.response.OrderHistoryItemResponse;
 import com.springbootmicroservices.orderservice.model.order.dto.response.OrderResponse;
+import com.springbootmicroservices.orderservice.model.order.dto.response.OrderSummaryResponse;
 import com.springbootmicroservices.orderservice.model.order.mapper.OrderMapper; // If using mapper for paging response
 import com.springbootmicroservices.orderservice.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page; // If service returns Page
-import org.springframework.data.domain.Pageable; // For paginated admin endpoint
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 
 @RestController
 @RequestMapping("/api/v1/orders")
@@ -26,26 +34,46 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderIntakeConfigurationParameter orderIntakeConfigurationParameter;
+    private final ObjectMapper objectMapper;
     // private final OrderMapper orderMapper; // Only if you need to map Page to CustomPagingResponse here
 
+    // In async intake mode the order is only accepted here (202 + PENDING); clients poll GET /{orderId}
+    // until it moves to PENDING_PAYMENT or CANCELLED
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    public CustomResponse<OrderResponse> placeOrder(@Valid @RequestBody CreateOrderRequest createOrderRequest) {
+    public ResponseEntity<CustomResponse<OrderResponse>> placeOrder(@Valid @RequestBody CreateOrderRequest createOrderRequest) {
         log.info("OrderController :: Received request to place a new order with {} items.",
                 createOrderRequest.getItems() != null ? createOrderRequest.getItems().size() : 0);
+
+        if (orderIntakeConfigurationParameter.isAsync()) {
+            OrderResponse acceptedOrder = orderService.acceptOrder(createOrderRequest);
+            log.info("OrderController :: Order accepted with ID: {}", acceptedOrder.getId());
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/orders/" + acceptedOrder.getId()))
+                    .body(CustomResponse.<OrderResponse>builder()
+                            .httpStatus(HttpStatus.ACCEPTED)
+                            .isSuccess(true)
+                            .response(acceptedOrder)
+                            .build());
+        }
+
         OrderResponse orderResponse = orderService.createOrder(createOrderRequest);
         log.info("OrderController :: Order placed successfully with ID: {}", orderResponse.getId());
-        return CustomResponse.<OrderResponse>builder()
-                .httpStatus(HttpStatus.CREATED)
-                .isSuccess(true)
-                .response(orderResponse)
-                .build();
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(CustomResponse.<OrderResponse>builder()
+                        .httpStatus(HttpStatus.CREATED)
+                        .isSuccess(true)
+                        .response(orderResponse)
+                        .build());
     }
 
+    // Keyset-paginated: pass the nextCursor of a page to get the one after it
     @GetMapping("/history")
-    public CustomResponse<List<OrderHistoryItemResponse>> getOrderHistory() {
+    public CustomResponse<CustomCursorPagingResponse<OrderHistoryItemResponse>> getOrderHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
         log.info("OrderController :: Received request to fetch order history for current user.");
-        List<OrderHistoryItemResponse> history = orderService.getOrderHistoryForCurrentUser();
+        CustomCursorPagingResponse<OrderHistoryItemResponse> history = orderService.getOrderHistoryForCurrentUser(cursor, size);
         return CustomResponse.successOf(history);
     }
 
@@ -69,22 +97,37 @@ public class OrderController {
         return CustomResponse.successOf(updatedOrder);
     }
 
-    @GetMapping("/admin/all")
+    // Streams one JSON line per order (application/x-ndjson), written as each chunk of the run commits,
+    // so a run over many thousands of orders neither buffers its results nor waits for all of them
+    @PostMapping(value = "/admin/status", produces = "application/x-ndjson")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
-    public CustomResponse<CustomPagingResponse<OrderResponse>> getAllOrdersForAdmin(Pageable pageable) {
-        log.info("OrderController :: Received ADMIN request to fetch all orders with pagination: {}", pageable);
-
-        Page<OrderResponse> orderResponsePage = orderService.getAllOrdersForAdmin(pageable);
-
-        // Map Spring Data Page to your CustomPagingResponse
-        CustomPagingResponse<OrderResponse> pagingResponse = CustomPagingResponse.<OrderResponse>builder()
-                .content(orderResponsePage.getContent())
-                .pageNumber(orderResponsePage.getNumber() + 1) // Spring Page is 0-indexed, client usually expects 1-indexed
-                .pageSize(orderResponsePage.getSize())
-                .totalElementCount(orderResponsePage.getTotalElements())
-                .totalPageCount(orderResponsePage.getTotalPages())
-                .build();
+    public ResponseEntity<StreamingResponseBody> bulkUpdateOrderStatus(
+            @Valid @RequestBody BulkOrderStatusUpdateRequest bulkOrderStatusUpdateRequest) {
+        log.info("OrderController :: Received ADMIN request for a bulk status update ({})",
+                bulkOrderStatusUpdateRequest.getFilter() != null ? "filter" : bulkOrderStatusUpdateRequest.getUpdates().size() + " orders");
+        StreamingResponseBody body = outputStream -> orderService.bulkUpdateOrderStatus(bulkOrderStatusUpdateRequest, results -> {
+            try {
+                for (BulkOrderStatusResult result : results) {
+                    outputStream.write(objectMapper.writeValueAsBytes(result));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+            } catch (IOException e) {
+                // The client went away; the chunks already committed stay applied
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
 
-        return CustomResponse.successOf(pagingResponse);
+    @GetMapping("/admin/all")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public CustomResponse<CustomCursorPagingResponse<OrderSummaryResponse>> getAllOrdersForAdmin(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("OrderController :: Received ADMIN request to fetch all orders, page size: {}", size);
+        return CustomResponse.successOf(orderService.getAllOrdersForAdmin(cursor, size));
     }
 }
\ No newline at end of file
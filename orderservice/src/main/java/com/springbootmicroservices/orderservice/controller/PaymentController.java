@@ -10,7 +10,6 @@ import com.springbootmicroservices.orderservice.service.PaymentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -34,21 +33,14 @@ public class PaymentController {
 
     // This endpoint needs to be public in SecurityConfig, as Stripe sends an unauthenticated request.
     // Security is handled by verifying the Stripe-Signature header in PaymentServiceImpl.
-    /*
+    // The event is only stored here, so Stripe gets its 2xx without waiting for the order update.
     @PostMapping("/stripe/webhook")
     public ResponseEntity<String> handleStripeWebhook(@RequestBody String payload,
                                                       @RequestHeader("Stripe-Signature") String sigHeader) {
-        log.info("PaymentController :: Received Stripe webhook.");
-        try {
-            paymentService.handleStripeWebhook(payload, sigHeader);
-            log.info("PaymentController :: Stripe webhook processed successfully by service.");
-            return ResponseEntity.ok("Webhook received and acknowledged.");
-        } catch (Exception e) {
-            log.error("PaymentController :: Error processing Stripe webhook: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Webhook processing error: " + e.getMessage());
-        }
+        log.debug("PaymentController :: Received Stripe webhook.");
+        paymentService.handleStripeWebhook(payload, sigHeader);
+        return ResponseEntity.ok("Webhook received and acknowledged.");
     }
-    */
 
     @PostMapping("/create-checkout-session")
     public CustomResponse<CheckoutResponseDto> createCheckoutSession(@Valid @RequestBody CheckoutRequestDto checkoutRequest) {
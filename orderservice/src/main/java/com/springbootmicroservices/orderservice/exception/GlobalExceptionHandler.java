@@ -4,6 +4,7 @@ import com.springbootmicroservices.orderservice.model.common.CustomError;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -89,6 +90,30 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(ProductServiceUnavailableException.class)
+    public ResponseEntity<CustomError> handleProductServiceUnavailableException(ProductServiceUnavailableException ex) {
+        log.error("Product Service Unavailable: {}", ex.getMessage(), ex.getCause());
+        CustomError error = CustomError.builder()
+                .httpStatus(HttpStatus.SERVICE_UNAVAILABLE) // 503 so clients know the order can be retried
+                .header(CustomError.Header.API_ERROR.getName())
+                .message(ex.getMessage())
+                .build();
+        return new ResponseEntity<>(error, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(OrderIntakeOverloadedException.class)
+    public ResponseEntity<CustomError> handleOrderIntakeOverloadedException(OrderIntakeOverloadedException ex) {
+        log.warn("Order intake overloaded: {}", ex.getMessage());
+        CustomError error = CustomError.builder()
+                .httpStatus(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(CustomError.Header.API_ERROR.getName())
+                .message(ex.getMessage())
+                .build();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(error);
+    }
+
     @ExceptionHandler(PaymentProcessingException.class)
     public ResponseEntity<CustomError> handlePaymentProcessingException(PaymentProcessingException ex) {
         log.error("Payment Processing Error: {}", ex.getMessage(), ex.getCause()); // Log cause if present
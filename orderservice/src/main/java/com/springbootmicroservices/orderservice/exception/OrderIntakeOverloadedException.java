@@ -0,0 +1,23 @@
+package com.springbootmicroservices.orderservice.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.io.Serial;
+import java.time.Duration;
+
+@Getter
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE) // 503 with Retry-After when the async order queue is full
+public class OrderIntakeOverloadedException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    public OrderIntakeOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
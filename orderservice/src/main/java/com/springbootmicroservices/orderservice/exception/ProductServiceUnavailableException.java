@@ -0,0 +1,20 @@
+package com.springbootmicroservices.orderservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import java.io.Serial;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE) // 503 when productservice cannot answer within the order deadline
+public class ProductServiceUnavailableException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public ProductServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public ProductServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
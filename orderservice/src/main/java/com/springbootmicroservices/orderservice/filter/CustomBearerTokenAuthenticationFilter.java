@@ -1,5 +1,8 @@
 package com.springbootmicroservices.orderservice.filter;
 
+import com.springbootmicroservices.orderservice.config.TrustedEdgeConfigurationParameter;
+import com.springbootmicroservices.orderservice.model.auth.enums.IdentityHeader;
+import com.springbootmicroservices.orderservice.model.auth.enums.TokenClaims;
 import com.springbootmicroservices.orderservice.service.TokenService;
 import io.jsonwebtoken.JwtException; // JJWT's base exception
 import jakarta.servlet.FilterChain;
@@ -11,7 +14,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -19,6 +24,9 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -26,6 +34,7 @@ import java.io.IOException;
 public class CustomBearerTokenAuthenticationFilter extends OncePerRequestFilter {
 
     private final TokenService tokenService;
+    private final TrustedEdgeConfigurationParameter trustedEdgeConfigurationParameter;
     private static final String TOKEN_PREFIX = "Bearer ";
 
     @Override
@@ -47,9 +56,20 @@ public class CustomBearerTokenAuthenticationFilter extends OncePerRequestFilter
 
         if (SecurityContextHolder.getContext().getAuthentication() == null) { // Only process if not already authenticated
             try {
-                tokenService.validateToken(jwt); // Basic validation (throws on failure)
+                // In trusted-edge mode the gateway already verified the token; no parsing or crypto needed
+                UsernamePasswordAuthenticationToken authenticationToken = trustedEdgeConfigurationParameter.isEnabled()
+                        ? getAuthenticationFromIdentityHeaders(request, jwt)
+                        : null;
 
-                UsernamePasswordAuthenticationToken authenticationToken = tokenService.getAuthentication(jwt);
+                if (authenticationToken == null) {
+                    // Verifies the token once (throws on failure) and builds the principal from the same parse
+                    authenticationToken = tokenService.getAuthentication(jwt);
+                }
+
+                // Later code reads the claims from the request instead of parsing the token again
+                if (authenticationToken.getPrincipal() instanceof Jwt principal) {
+                    request.setAttribute(TokenService.CLAIMS_REQUEST_ATTRIBUTE, principal.getClaims());
+                }
 
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
@@ -75,4 +95,50 @@ public class CustomBearerTokenAuthenticationFilter extends OncePerRequestFilter
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    // Builds the authentication from the gateway's identity headers, or returns null so the caller verifies the JWT itself
+    private UsernamePasswordAuthenticationToken getAuthenticationFromIdentityHeaders(HttpServletRequest request, String jwt) {
+        final String userId = request.getHeader(IdentityHeader.USER_ID.getValue());
+        if (!StringUtils.hasText(userId)) {
+            return null; // Not forwarded by the gateway (e.g. a direct service-to-service call)
+        }
+        if (!trustedEdgeConfigurationParameter.isTrustedSecret(request.getHeader(IdentityHeader.EDGE_SECRET.getValue()))) {
+            log.warn("Identity headers with an untrusted edge secret for URI: {}. Falling back to JWT verification.", request.getRequestURI());
+            return null;
+        }
+
+        final String expiresAtHeader = request.getHeader(IdentityHeader.EXPIRES_AT.getValue());
+        Instant expiresAt = null;
+        if (StringUtils.hasText(expiresAtHeader)) {
+            try {
+                expiresAt = Instant.ofEpochSecond(Long.parseLong(expiresAtHeader.trim()));
+            } catch (NumberFormatException | DateTimeException e) {
+                log.warn("Malformed {} header for URI: {}. Falling back to JWT verification.", IdentityHeader.EXPIRES_AT.getValue(), request.getRequestURI());
+                return null;
+            }
+        }
+        if (expiresAt != null && expiresAt.isBefore(Instant.now())) {
+            return null; // JWT verification gives the authoritative answer, and rejects the token if it really expired
+        }
+
+        final String userType = request.getHeader(IdentityHeader.USER_TYPE.getValue());
+        final String userEmail = request.getHeader(IdentityHeader.USER_EMAIL.getValue());
+        final String jti = request.getHeader(IdentityHeader.JWT_ID.getValue());
+
+        // Same principal shape as TokenService#getAuthentication, so downstream code (BaseEntity, Feign interceptors) is unaffected
+        Jwt.Builder principal = Jwt.withTokenValue(jwt)
+                .header("alg", "RS256")
+                .header("typ", "JWT")
+                .claim(TokenClaims.USER_ID.getValue(), userId);
+        if (expiresAt != null) principal.expiresAt(expiresAt);
+        if (userType != null) principal.claim(TokenClaims.USER_TYPE.getValue(), userType);
+        if (userEmail != null) principal.claim(TokenClaims.USER_EMAIL.getValue(), userEmail);
+        if (jti != null) principal.claim(TokenClaims.JWT_ID.getValue(), jti);
+
+        List<SimpleGrantedAuthority> authorities = userType != null
+                ? List.of(new SimpleGrantedAuthority("ROLE_" + userType.toUpperCase()))
+                : List.of();
+
+        return new UsernamePasswordAuthenticationToken(principal.build(), null, authorities);
+    }
+}
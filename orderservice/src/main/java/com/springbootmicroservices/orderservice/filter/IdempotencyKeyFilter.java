@@ -0,0 +1,317 @@
+package com.springbootmicroservices.orderservice.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springbootmicroservices.orderservice.config.IdempotencyConfigurationParameter;
+import com.springbootmicroservices.orderservice.model.auth.enums.TokenClaims;
+import com.springbootmicroservices.orderservice.model.common.CustomError;
+import com.springbootmicroservices.orderservice.model.common.IdempotentResponse;
+import com.springbootmicroservices.orderservice.service.IdempotencyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Executes POST /api/v1/orders at most once per user and Idempotency-Key and replays the stored first response to retries.
+// A retry arriving while the first request runs waits for it (in memory on this instance, by polling the record
+// across instances). Ordered after the Spring Security chain so keys can be scoped to the authenticated user.
+@Slf4j
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+public class IdempotencyKeyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+
+    private final IdempotencyService idempotencyService;
+    private final IdempotencyConfigurationParameter idempotencyConfigurationParameter;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    // First requests running on this instance, joined by duplicates arriving meanwhile
+    private final Map<String, CompletableFuture<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyKeyFilter(final IdempotencyService idempotencyService,
+                                final IdempotencyConfigurationParameter idempotencyConfigurationParameter,
+                                final ObjectMapper objectMapper) {
+        this.idempotencyService = idempotencyService;
+        this.idempotencyConfigurationParameter = idempotencyConfigurationParameter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull final HttpServletRequest httpServletRequest) {
+        return !HttpMethod.POST.matches(httpServletRequest.getMethod())
+                || httpServletRequest.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+                || idempotencyConfigurationParameter.getPaths().stream()
+                .noneMatch(path -> pathMatcher.match(path, httpServletRequest.getRequestURI()));
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull final HttpServletRequest httpServletRequest,
+                                    @NonNull final HttpServletResponse httpServletResponse,
+                                    @NonNull final FilterChain filterChain) throws ServletException, IOException {
+
+        final String idempotencyKey = httpServletRequest.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(httpServletResponse, HttpStatus.BAD_REQUEST, CustomError.Header.VALIDATION_ERROR,
+                    IDEMPOTENCY_KEY_HEADER + " must contain 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        final byte[] requestBody = StreamUtils.copyToByteArray(httpServletRequest.getInputStream());
+        final String keyHash = sha256((callerOf() + '\n' + httpServletRequest.getRequestURI() + '\n' + idempotencyKey)
+                .getBytes(StandardCharsets.UTF_8));
+        final String requestHash = sha256(requestBody);
+
+        final Optional<IdempotentResponse> stored = idempotencyService.findCompleted(keyHash);
+        if (stored.isPresent()) {
+            replay(stored.get(), requestHash, httpServletResponse);
+            return;
+        }
+
+        final CompletableFuture<IdempotentResponse> execution = new CompletableFuture<>();
+        final CompletableFuture<IdempotentResponse> running = inFlight.putIfAbsent(keyHash, execution);
+        if (running != null) {
+            awaitAndReplay(running, requestHash, httpServletResponse);
+            return;
+        }
+
+        try {
+            final IdempotentResponse response = executeOnce(keyHash, requestHash,
+                    new CachedBodyRequest(httpServletRequest, requestBody), httpServletResponse, filterChain);
+            execution.complete(response);
+        } catch (IOException | ServletException | RuntimeException exception) {
+            execution.completeExceptionally(exception);
+            throw exception;
+        } finally {
+            inFlight.remove(keyHash, execution);
+        }
+    }
+
+    private IdempotentResponse executeOnce(final String keyHash,
+                                           final String requestHash,
+                                           final HttpServletRequest httpServletRequest,
+                                           final HttpServletResponse httpServletResponse,
+                                           final FilterChain filterChain) throws ServletException, IOException {
+
+        final long deadline = System.nanoTime() + idempotencyConfigurationParameter.getInFlightTimeout().toNanos();
+        while (!idempotencyService.claim(keyHash, requestHash)) {
+            final Optional<IdempotentResponse> stored = idempotencyService.findCompleted(keyHash);
+            if (stored.isPresent()) {
+                replay(stored.get(), requestHash, httpServletResponse);
+                return stored.get();
+            }
+            if (System.nanoTime() > deadline || !pause()) {
+                writeInProgress(httpServletResponse);
+                return null;
+            }
+        }
+
+        final ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(httpServletResponse);
+        try {
+            filterChain.doFilter(httpServletRequest, responseWrapper);
+        } catch (IOException | ServletException | RuntimeException exception) {
+            idempotencyService.release(keyHash);
+            throw exception;
+        }
+
+        final IdempotentResponse response = new IdempotentResponse(requestHash, responseWrapper.getStatus(),
+                responseWrapper.getContentType(), responseWrapper.getContentAsByteArray());
+        try {
+            idempotencyService.complete(keyHash, response);
+        } catch (RuntimeException exception) {
+            // The request itself succeeded; a retry will find the key abandoned and execute again
+            log.error("Could not store the response of idempotent request {}", keyHash, exception);
+        }
+        responseWrapper.copyBodyToResponse();
+        return response;
+    }
+
+    private void awaitAndReplay(final CompletableFuture<IdempotentResponse> running,
+                                final String requestHash,
+                                final HttpServletResponse httpServletResponse) throws IOException {
+        try {
+            final IdempotentResponse response = running.get(
+                    idempotencyConfigurationParameter.getInFlightTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            if (response != null) {
+                replay(response, requestHash, httpServletResponse);
+                return;
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException exception) {
+            log.debug("Idempotent request being waited for did not produce a response", exception);
+        }
+        writeInProgress(httpServletResponse);
+    }
+
+    private void replay(final IdempotentResponse response,
+                        final String requestHash,
+                        final HttpServletResponse httpServletResponse) throws IOException {
+
+        if (!response.requestHash().equals(requestHash)) {
+            writeError(httpServletResponse, HttpStatus.UNPROCESSABLE_ENTITY, CustomError.Header.VALIDATION_ERROR,
+                    IDEMPOTENCY_KEY_HEADER + " was already used for a different request");
+            return;
+        }
+
+        httpServletResponse.setStatus(response.status());
+        if (response.contentType() != null) {
+            httpServletResponse.setContentType(response.contentType());
+        }
+        httpServletResponse.setHeader(IDEMPOTENT_REPLAYED_HEADER, "true");
+        httpServletResponse.setContentLength(response.body().length);
+        httpServletResponse.getOutputStream().write(response.body());
+    }
+
+    private void writeInProgress(final HttpServletResponse httpServletResponse) throws IOException {
+        writeError(httpServletResponse, HttpStatus.CONFLICT, CustomError.Header.PROCESS_ERROR,
+                "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still being processed");
+    }
+
+    private void writeError(final HttpServletResponse httpServletResponse,
+                            final HttpStatus httpStatus,
+                            final CustomError.Header header,
+                            final String message) throws IOException {
+
+        final CustomError customError = CustomError.builder()
+                .httpStatus(httpStatus)
+                .header(header.getName())
+                .message(message)
+                .build();
+
+        httpServletResponse.setStatus(httpStatus.value());
+        httpServletResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        httpServletResponse.getOutputStream().write(objectMapper.writeValueAsBytes(customError));
+    }
+
+    private static boolean pause() {
+        try {
+            Thread.sleep(POLL_INTERVAL.toMillis());
+            return true;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Keys are scoped to the user so one caller can never replay another caller's response
+    private static String callerOf() {
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return "anonymousUser";
+        }
+        if (authentication.getPrincipal() instanceof Jwt jwt && jwt.hasClaim(TokenClaims.USER_ID.getValue())) {
+            return jwt.getClaimAsString(TokenClaims.USER_ID.getValue());
+        }
+        return authentication.getName();
+    }
+
+    private static String sha256(final byte[] value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available", exception);
+        }
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(final HttpServletRequest httpServletRequest, final byte[] body) {
+            super(httpServletRequest);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            final ByteArrayInputStream inputStream = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+
+                @Override
+                public boolean isFinished() {
+                    return inputStream.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(final ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return inputStream.read();
+                }
+
+                @Override
+                public int read(final byte[] buffer, final int offset, final int length) {
+                    return inputStream.read(buffer, offset, length);
+                }
+
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.springbootmicroservices.orderservice.intake;
+
+import com.springbootmicroservices.orderservice.config.OrderIntakeConfigurationParameter;
+import com.springbootmicroservices.orderservice.exception.OrderIntakeOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+// Bounded worker pool behind the asynchronous order intake. A slot is taken before an order is stored, so an
+// accepted order always finds room in the queue and a full queue turns new orders away before anything is written.
+//
+// Metrics: order.intake.queue.depth and order.intake.in.flight (gauges), order.intake.rejected (counter),
+// order.intake.stage.duration{stage=queue|pricing|reservation} (timer), order.intake.completed{outcome} (counter).
+@Component
+@Slf4j
+public class OrderIntakePipeline {
+
+    private final OrderIntakeConfigurationParameter orderIntakeConfigurationParameter;
+    private final ThreadPoolTaskExecutor workerExecutor;
+    private final Semaphore slots;
+    private final int totalSlots;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter rejectedCounter;
+    private final Timer queueTimer;
+
+    public OrderIntakePipeline(OrderIntakeConfigurationParameter orderIntakeConfigurationParameter, MeterRegistry meterRegistry) {
+        this.orderIntakeConfigurationParameter = orderIntakeConfigurationParameter;
+        this.meterRegistry = meterRegistry;
+
+        this.workerExecutor = new ThreadPoolTaskExecutor();
+        this.workerExecutor.setThreadNamePrefix("order-intake-");
+        this.workerExecutor.setCorePoolSize(orderIntakeConfigurationParameter.getWorkers());
+        this.workerExecutor.setMaxPoolSize(orderIntakeConfigurationParameter.getWorkers());
+        this.workerExecutor.setQueueCapacity(orderIntakeConfigurationParameter.getQueueCapacity());
+        this.workerExecutor.initialize();
+
+        // Every running or queued order holds one slot, so the executor itself can never reject a submitted order
+        this.totalSlots = orderIntakeConfigurationParameter.getWorkers() + orderIntakeConfigurationParameter.getQueueCapacity();
+        this.slots = new Semaphore(totalSlots);
+
+        this.rejectedCounter = meterRegistry.counter("order.intake.rejected");
+        this.queueTimer = stageTimer("queue");
+        Gauge.builder("order.intake.queue.depth", workerExecutor, executor -> executor.getThreadPoolExecutor().getQueue().size())
+                .description("Accepted orders waiting for an intake worker")
+                .register(meterRegistry);
+        Gauge.builder("order.intake.in.flight", slots, available -> totalSlots - available.availablePermits())
+                .description("Accepted orders queued or being processed")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workerExecutor.shutdown();
+    }
+
+    // Must be called before the order is stored; every successful call is followed by submit(...) or releaseSlot()
+    public void reserveSlot() {
+        if (!slots.tryAcquire()) {
+            rejectedCounter.increment();
+            throw new OrderIntakeOverloadedException("Too many orders are being processed right now. Please try again shortly.",
+                    orderIntakeConfigurationParameter.getRetryAfter());
+        }
+    }
+
+    public void releaseSlot() {
+        slots.release();
+    }
+
+    // Runs the work on an intake worker in the given context: the user who placed the order, so calls to productservice
+    // carry their token, or the service itself for an order re-submitted after its worker was lost
+    public void submit(String orderId, SecurityContext callerContext, Runnable work) {
+        Timer.Sample queued = Timer.start();
+        workerExecutor.execute(() -> {
+            queued.stop(queueTimer);
+            SecurityContextHolder.setContext(callerContext);
+            try {
+                work.run();
+            } catch (RuntimeException e) {
+                log.error("OrderIntakePipeline :: Unexpected failure while processing accepted Order ID {}", orderId, e);
+            } finally {
+                SecurityContextHolder.clearContext();
+                slots.release();
+            }
+        });
+    }
+
+    public <T> T recordStage(String stage, Supplier<T> work) {
+        return stageTimer(stage).record(work);
+    }
+
+    public void recordCompletion(String outcome) {
+        meterRegistry.counter("order.intake.completed", "outcome", outcome).increment();
+    }
+
+    private Timer stageTimer(String stage) {
+        return Timer.builder("order.intake.stage.duration")
+                .description("Time an accepted order spends in each intake stage")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,22 @@
+package com.springbootmicroservices.orderservice.model.auth.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Internal headers set by the API gateway in trusted-edge mode, after it has verified the JWT.
+// The gateway strips these from client requests, and EDGE_SECRET proves the request came through it.
+@Getter
+@RequiredArgsConstructor
+public enum IdentityHeader {
+    EDGE_SECRET("X-Edge-Secret"),
+    USER_ID("X-Auth-User-Id"),
+    USER_TYPE("X-Auth-User-Type"),
+    USER_EMAIL("X-Auth-User-Email"),
+    JWT_ID("X-Auth-Jti"),
+    EXPIRES_AT("X-Auth-Expires-At"), // Epoch seconds
+    // Sent by this service itself on calls that act for no user, authenticated by the service credential secret
+    SERVICE_NAME("X-Service-Name"),
+    SERVICE_SECRET("X-Service-Secret");
+
+    private final String value;
+}
@@ -0,0 +1,5 @@
+package com.springbootmicroservices.orderservice.model.common;
+
+// First response of an idempotent request, replayed byte for byte; requestHash identifies the body that produced it
+public record IdempotentResponse(String requestHash, int status, String contentType, byte[] body) {
+}
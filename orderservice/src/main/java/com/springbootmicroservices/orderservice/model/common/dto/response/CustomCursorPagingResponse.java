@@ -0,0 +1,26 @@
+package com.springbootmicroservices.orderservice.model.common.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Represents a generic DTO for keyset-paginated API responses.
+ * Unlike {@link CustomPagingResponse} there are no totals: the next page is requested with {@code nextCursor},
+ * so no count query runs and deep pages cost the same as the first one.
+ *
+ * @param <T> The type of the content in the page.
+ */
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CustomCursorPagingResponse<T> {
+
+    private List<T> content;      // The items of the current page
+    private Integer pageSize;     // Number of items requested per page
+    private Boolean hasNextPage;  // True if another page follows
+    private String nextCursor;    // Opaque cursor for the next page; absent on the last page
+
+}
@@ -0,0 +1,9 @@
+package com.springbootmicroservices.orderservice.model.common.enums;
+
+public enum IdempotencyRecordStatus {
+
+    IN_PROGRESS, // First request still executing; duplicates wait for it
+
+    COMPLETED // Response stored and replayed to duplicates
+
+}
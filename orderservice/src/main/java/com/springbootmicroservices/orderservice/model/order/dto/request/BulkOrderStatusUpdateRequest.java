@@ -0,0 +1,36 @@
+package com.springbootmicroservices.orderservice.model.order.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+// Either explicit (orderId, newStatus) pairs or a filter, never both
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOrderStatusUpdateRequest {
+
+    @Valid
+    @Size(max = 100000, message = "At most 100000 orders per request; use a filter for larger runs")
+    private List<OrderStatusChangeDto> updates;
+
+    @Valid
+    private OrderStatusFilterDto filter;
+
+    @JsonIgnore
+    @AssertTrue(message = "Exactly one of updates or filter must be given")
+    public boolean isUpdatesOrFilter() {
+        boolean hasUpdates = updates != null && !updates.isEmpty();
+        return hasUpdates != (filter != null);
+    }
+}
@@ -0,0 +1,24 @@
+package com.springbootmicroservices.orderservice.model.order.dto.request;
+
+import com.springbootmicroservices.orderservice.model.order.enums.OrderStatus;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatusChangeDto {
+
+    @NotBlank(message = "Order ID cannot be blank")
+    private String orderId;
+
+    @NotNull(message = "New status cannot be null")
+    private OrderStatus newStatus;
+}
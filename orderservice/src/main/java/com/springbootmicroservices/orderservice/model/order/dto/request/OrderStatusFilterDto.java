@@ -0,0 +1,36 @@
+package com.springbootmicroservices.orderservice.model.order.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.springbootmicroservices.orderservice.model.order.enums.OrderStatus;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Selects every order in currentStatus (optionally created before a point in time) and moves it to newStatus
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatusFilterDto {
+
+    @NotNull(message = "Current status cannot be null")
+    private OrderStatus currentStatus;
+
+    @NotNull(message = "New status cannot be null")
+    private OrderStatus newStatus;
+
+    private LocalDateTime createdBefore; // Defaults to the start of the run, so orders placed meanwhile are left alone
+
+    @JsonIgnore
+    @AssertTrue(message = "The filter's status change is not an allowed transition")
+    public boolean isAllowedTransition() {
+        return currentStatus == null || newStatus == null || currentStatus.canTransitionTo(newStatus);
+    }
+}
@@ -0,0 +1,23 @@
+package com.springbootmicroservices.orderservice.model.order.dto.response;
+
+import com.springbootmicroservices.orderservice.model.order.enums.BulkOrderStatusOutcome;
+import com.springbootmicroservices.orderservice.model.order.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// One line of the streamed bulk status response
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOrderStatusResult {
+    private String orderId;
+    private OrderStatus previousStatus; // Null when the order was not found
+    private OrderStatus newStatus;
+    private BulkOrderStatusOutcome outcome;
+    private String reason; // Only for REJECTED and NOT_FOUND
+}
@@ -21,4 +21,5 @@ public class OrderHistoryItemResponse {
     private BigDecimal totalAmount;
     private OrderStatus status;
     private Integer itemCount; // Calculated: sum of quantities of all items in the order
+    private String firstProductName;
 }
\ No newline at end of file
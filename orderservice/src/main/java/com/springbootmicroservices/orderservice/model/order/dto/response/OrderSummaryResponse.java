@@ -0,0 +1,27 @@
+package com.springbootmicroservices.orderservice.model.order.dto.response;
+
+import com.springbootmicroservices.orderservice.model.order.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One row of the admin order listing; the full order is available from GET /api/v1/orders/{orderId}
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSummaryResponse {
+    private String id;
+    private String userId;
+    private LocalDateTime orderDate;
+    private BigDecimal totalAmount;
+    private OrderStatus status;
+    private Integer itemCount; // Sum of quantities of all items in the order
+    private String firstProductName;
+}
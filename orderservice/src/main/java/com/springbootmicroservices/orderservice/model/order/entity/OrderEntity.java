@@ -9,6 +9,7 @@ import lombok.*;
 import lombok.experimental.SuperBuilder;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList; // Import ArrayList
 import java.util.List;
 
@@ -20,7 +21,9 @@ import java.util.List;
 @EqualsAndHashCode(callSuper = true, exclude = {"items"}) // Exclude collections from equals/hashCode
 @ToString(callSuper = true, exclude = {"items"})      // Exclude collections from toString
 @Entity
-@Table(name = "ORDERS") // Using "ORDERS" as "ORDER" is often a reserved SQL keyword
+@Table(name = "ORDERS", // Using "ORDERS" as "ORDER" is often a reserved SQL keyword
+        // Walks the orders of one status in ID order, for filtered bulk status runs
+        indexes = @Index(name = "IDX_ORDERS_ORDER_STATUS_ID", columnList = "ORDER_STATUS, ID"))
 public class OrderEntity extends BaseEntity {
 
     @Id
@@ -53,6 +56,18 @@ public class OrderEntity extends BaseEntity {
     @Column(name = "SHIPPING_ADDRESS_JSON", columnDefinition = "TEXT") // Use TEXT for longer JSON
     private String shippingAddressJson;
 
+    // Raw cart of an order accepted by the asynchronous intake; cleared once the order is priced and its stock held
+    @Column(name = "INTAKE_CART_JSON", columnDefinition = "TEXT")
+    private String intakeCartJson;
+
+    // Intake runs of an accepted order: the first worker plus every re-submission by the stale intake sweeper
+    @Column(name = "INTAKE_ATTEMPTS")
+    private Integer intakeAttempts;
+
+    // When the order was last handed to an intake worker; still PENDING long after that, the worker was lost
+    @Column(name = "INTAKE_SUBMITTED_AT")
+    private LocalDateTime intakeSubmittedAt;
+
     @Column(name = "PAYMENT_ID_EXTERNAL", length = 100) // From Stripe or other payment gateway
     private String externalPaymentId;
 
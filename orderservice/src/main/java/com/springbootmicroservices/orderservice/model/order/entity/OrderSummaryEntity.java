@@ -0,0 +1,53 @@
+package com.springbootmicroservices.orderservice.model.order.entity;
+
+import com.springbootmicroservices.orderservice.model.order.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Read model of an order for the history and admin listings: one narrow row per order, written in the same
+// transaction as the order itself, so listing pages never touch ORDERS or ORDER_ITEMS.
+// Both indexes carry every column the listings select, so a page is answered from the index alone.
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "ORDER_SUMMARY", indexes = {
+        @Index(name = "IDX_ORDER_SUMMARY_USER_ID_CREATED_AT",
+                columnList = "USER_ID, CREATED_AT DESC, ORDER_ID DESC, ORDER_STATUS, TOTAL_AMOUNT, ITEM_COUNT, FIRST_PRODUCT_NAME"),
+        @Index(name = "IDX_ORDER_SUMMARY_CREATED_AT",
+                columnList = "CREATED_AT DESC, ORDER_ID DESC, USER_ID, ORDER_STATUS, TOTAL_AMOUNT, ITEM_COUNT, FIRST_PRODUCT_NAME")
+})
+public class OrderSummaryEntity {
+
+    @Id
+    @Column(name = "ORDER_ID")
+    private String orderId;
+
+    @Column(name = "USER_ID", nullable = false, updatable = false)
+    private String userId;
+
+    // The order's creation time, not the row's; listings are ordered by it
+    @Column(name = "CREATED_AT", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "ORDER_STATUS", nullable = false, length = 50)
+    private OrderStatus orderStatus;
+
+    @Column(name = "TOTAL_AMOUNT", nullable = false, precision = 19, scale = 4)
+    private BigDecimal totalAmount;
+
+    @Column(name = "ITEM_COUNT", nullable = false) // Sum of the item quantities
+    private Integer itemCount;
+
+    @Column(name = "FIRST_PRODUCT_NAME")
+    private String firstProductName;
+
+    @Column(name = "UPDATED_AT", nullable = false)
+    private LocalDateTime updatedAt;
+}
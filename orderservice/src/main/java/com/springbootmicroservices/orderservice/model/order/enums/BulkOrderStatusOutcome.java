@@ -0,0 +1,8 @@
+package com.springbootmicroservices.orderservice.model.order.enums;
+
+public enum BulkOrderStatusOutcome {
+    UPDATED,   // Moved to the requested status
+    UNCHANGED, // Already had the requested status
+    REJECTED,  // Not an allowed transition from its current status
+    NOT_FOUND  // No order with this ID
+}
@@ -22,6 +22,24 @@ public enum OrderStatus {
         return this == DELIVERED || this == CANCELLED_BY_USER || this == CANCELLED_BY_ADMIN || this == REFUNDED || this == PAYMENT_FAILED;
     }
 
+    // The transitions an admin or a payment event may make; everything else is rejected
+    public boolean canTransitionTo(OrderStatus newStatus) {
+        return switch (this) {
+            case PENDING -> newStatus == SHIPPED || newStatus == CANCELLED;
+
+            // Stripe reports the outcome of the checkout; an admin can still ship or cancel directly
+            case PENDING_PAYMENT -> newStatus == CONFIRMED || newStatus == PAYMENT_FAILED
+                    || newStatus == SHIPPED || newStatus == CANCELLED;
+
+            case CONFIRMED -> newStatus == SHIPPED || newStatus == CANCELLED;
+
+            case SHIPPED -> newStatus == DELIVERED || newStatus == CANCELLED;
+
+            // This default case handles DELIVERED, CANCELLED, and any other states.
+            default -> false;
+        };
+    }
+
     public boolean canBeCancelledByUser() {
         return this == PENDING_PAYMENT || this == PENDING_CONFIRMATION || this == CONFIRMED;
     }
@@ -10,8 +10,10 @@ import com.springbootmicroservices.orderservice.model.order.dto.request.Shipping
 import com.springbootmicroservices.orderservice.model.order.dto.response.OrderHistoryItemResponse;
 import com.springbootmicroservices.orderservice.model.order.dto.response.OrderItemResponse;
 import com.springbootmicroservices.orderservice.model.order.dto.response.OrderResponse;
+import com.springbootmicroservices.orderservice.model.order.dto.response.OrderSummaryResponse;
 import com.springbootmicroservices.orderservice.model.order.entity.OrderEntity;
 import com.springbootmicroservices.orderservice.model.order.entity.OrderItemEntity;
+import com.springbootmicroservices.orderservice.model.order.entity.OrderSummaryEntity;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings; // This was correct
@@ -79,17 +81,22 @@ public interface OrderMapper {
     @Mapping(target = "orderNotes", ignore = true)
     OrderResponse orderEntityToOrderResponse(OrderEntity orderEntity);
 
-    // Mapping from OrderEntity to OrderHistoryItemResponse
+    // Mappings from the ORDER_SUMMARY read model used by the listings
     @Mappings({
+            @Mapping(source = "orderId", target = "id"),
             @Mapping(source = "createdAt", target = "orderDate"),
-            // Robust expression for itemCount, handles null items list and null quantity in item
-            @Mapping(target = "itemCount", expression = "java(orderEntity.getItems() == null ? 0 : orderEntity.getItems().stream().mapToInt(item -> item.getQuantity() == null ? 0 : item.getQuantity()).sum())"),
             @Mapping(source = "orderStatus", target = "status")
-            // Implicitly maps: id, totalAmount
+            // Implicitly maps: totalAmount, itemCount, firstProductName
     })
-    OrderHistoryItemResponse orderEntityToOrderHistoryItemResponse(OrderEntity orderEntity);
+    OrderHistoryItemResponse orderSummaryEntityToOrderHistoryItemResponse(OrderSummaryEntity orderSummaryEntity);
 
-    List<OrderHistoryItemResponse> orderEntitiesToOrderHistoryItemResponses(List<OrderEntity> orderEntities);
+    @Mappings({
+            @Mapping(source = "orderId", target = "id"),
+            @Mapping(source = "createdAt", target = "orderDate"),
+            @Mapping(source = "orderStatus", target = "status")
+            // Implicitly maps: userId, totalAmount, itemCount, firstProductName
+    })
+    OrderSummaryResponse orderSummaryEntityToOrderSummaryResponse(OrderSummaryEntity orderSummaryEntity);
 
 
     // --- Helper methods for JSON conversion of ShippingAddress ---
@@ -129,4 +136,31 @@ public interface OrderMapper {
             throw new RuntimeException("Mapping error: Could not convert JSON to ShippingAddressDto", e);
         }
     }
-}
\ No newline at end of file
+
+    // --- Helper methods for JSON conversion of the raw cart kept by the asynchronous order intake ---
+    // The cart is read back when the stale intake sweeper re-submits an order whose worker was lost
+
+    @Named("cartItemDtosToJson")
+    default String cartItemDtosToJson(List<CartItemDto> cartItemDtos) {
+        try {
+            return new ObjectMapper().writeValueAsString(cartItemDtos);
+        } catch (JsonProcessingException e) {
+            log.error("Error converting cart items to JSON string. Details: {}", e.getMessage());
+            throw new RuntimeException("Mapping error: Could not convert cart items to JSON", e);
+        }
+    }
+
+    @Named("jsonToCartItemDtos")
+    default List<CartItemDto> jsonToCartItemDtos(String json) {
+        if (json == null || json.isBlank()) {
+            return Collections.emptyList();
+        }
+        try {
+            ObjectMapper objectMapper = new ObjectMapper();
+            return objectMapper.readValue(json, objectMapper.getTypeFactory().constructCollectionType(List.class, CartItemDto.class));
+        } catch (IOException e) {
+            log.error("Error converting JSON string to cart items. Details: {}", e.getMessage());
+            throw new RuntimeException("Mapping error: Could not convert JSON to cart items", e);
+        }
+    }
+}
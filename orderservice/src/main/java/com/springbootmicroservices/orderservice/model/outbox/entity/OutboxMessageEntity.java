@@ -0,0 +1,57 @@
+package com.springbootmicroservices.orderservice.model.outbox.entity;
+
+import com.springbootmicroservices.orderservice.model.common.entity.BaseEntity;
+import com.springbootmicroservices.orderservice.model.outbox.enums.OutboxCommandType;
+import com.springbootmicroservices.orderservice.model.outbox.enums.OutboxMessageStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+// A command for productservice, written in the same transaction as the order change that caused it
+// and delivered afterwards by the OutboxDispatcher. The ID doubles as the idempotency key of the delivery.
+// No user token is stored: the dispatcher authenticates to productservice with the service credential.
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@Entity
+@Table(name = "OUTBOX", indexes = {
+        @Index(name = "IDX_OUTBOX_STATUS_NEXT_ATTEMPT_AT", columnList = "STATUS, NEXT_ATTEMPT_AT"),
+        @Index(name = "IDX_OUTBOX_ORDER_ID", columnList = "ORDER_ID")
+})
+public class OutboxMessageEntity extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "ID")
+    private String id;
+
+    @Column(name = "ORDER_ID", nullable = false, updatable = false)
+    private String orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "COMMAND_TYPE", nullable = false, updatable = false, length = 50)
+    private OutboxCommandType commandType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", nullable = false, length = 20)
+    private OutboxMessageStatus status;
+
+    @Column(name = "ATTEMPTS", nullable = false)
+    private int attempts;
+
+    // Also used as a lease: a claimed row is pushed into the future so no other dispatcher picks it up meanwhile
+    @Column(name = "NEXT_ATTEMPT_AT", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "LAST_ERROR", length = 1000)
+    private String lastError;
+
+    @Column(name = "PROCESSED_AT")
+    private LocalDateTime processedAt;
+}
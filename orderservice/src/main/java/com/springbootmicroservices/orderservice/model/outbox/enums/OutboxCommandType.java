@@ -0,0 +1,6 @@
+package com.springbootmicroservices.orderservice.model.outbox.enums;
+
+public enum OutboxCommandType {
+    CONFIRM_STOCK_HOLD, // The order shipped: productservice keeps the held stock for good
+    RELEASE_STOCK_HOLD  // The order was cancelled or never completed: productservice gives the held stock back
+}
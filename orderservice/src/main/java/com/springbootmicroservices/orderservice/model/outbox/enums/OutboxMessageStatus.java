@@ -0,0 +1,7 @@
+package com.springbootmicroservices.orderservice.model.outbox.enums;
+
+public enum OutboxMessageStatus {
+    PENDING, // Waiting for (re)delivery once NEXT_ATTEMPT_AT has passed
+    DONE,    // Delivered, or productservice had nothing left to do for it
+    FAILED   // Rejected for good or out of attempts; needs a look from an operator
+}
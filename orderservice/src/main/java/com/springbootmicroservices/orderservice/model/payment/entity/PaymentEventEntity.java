@@ -0,0 +1,54 @@
+package com.springbootmicroservices.orderservice.model.payment.entity;
+
+import com.springbootmicroservices.orderservice.model.payment.enums.PaymentEventStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Inbox row for one Stripe webhook event, stored raw as soon as its signature checks out.
+// The Stripe event ID is the primary key, so a redelivered event is stored only once.
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(exclude = "payload")
+@Entity
+@Table(
+        name = "PAYMENT_EVENT_INBOX",
+        indexes = @Index(name = "IDX_PAYMENT_EVENT_INBOX_STATUS_RECEIVED_AT", columnList = "STATUS, RECEIVED_AT")
+)
+public class PaymentEventEntity {
+
+    @Id
+    @Column(name = "EVENT_ID")
+    private String eventId;
+
+    @Column(name = "EVENT_TYPE", nullable = false, length = 100)
+    private String eventType;
+
+    @Column(name = "PAYLOAD", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", nullable = false, length = 16)
+    private PaymentEventStatus status;
+
+    @Column(name = "RECEIVED_AT", nullable = false)
+    private LocalDateTime receivedAt;
+
+    // Filled in by the processor once it has read the order reference from the payload
+    @Column(name = "ORDER_ID")
+    private String orderId;
+
+    // Failed attempts to apply the event on its own; see PaymentEventProcessor
+    @Column(name = "ATTEMPTS", nullable = false)
+    private int attempts;
+
+    @Column(name = "PROCESSED_AT")
+    private LocalDateTime processedAt;
+
+    @Column(name = "LAST_ERROR", length = 1000)
+    private String lastError;
+}
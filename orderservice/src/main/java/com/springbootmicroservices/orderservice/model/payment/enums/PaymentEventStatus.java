@@ -0,0 +1,8 @@
+package com.springbootmicroservices.orderservice.model.payment.enums;
+
+public enum PaymentEventStatus {
+    PENDING,   // Stored by the webhook, waiting for the PaymentEventProcessor
+    PROCESSED, // Its order status change was applied (or the order already had that status)
+    IGNORED,   // An event type without an order status change, or one without an order reference
+    FAILED     // The change was not allowed for the order's current status, or the order does not exist
+}
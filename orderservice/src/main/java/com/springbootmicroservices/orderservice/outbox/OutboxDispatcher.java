@@ -0,0 +1,210 @@
+package com.springbootmicroservices.orderservice.outbox;
+
+import com.springbootmicroservices.orderservice.client.ProductServiceClient;
+import com.springbootmicroservices.orderservice.config.OutboxConfigurationParameter;
+import com.springbootmicroservices.orderservice.config.ServiceCredentialConfigurationParameter;
+import com.springbootmicroservices.orderservice.model.outbox.entity.OutboxMessageEntity;
+import com.springbootmicroservices.orderservice.model.outbox.enums.OutboxMessageStatus;
+import com.springbootmicroservices.orderservice.repository.OutboxMessageRepository;
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Drains the OUTBOX table: each round claims a batch of due rows in one short transaction, delivers them to
+// productservice with no transaction open, and stores all outcomes in a second short transaction.
+// No DB connection is held while a call is in flight. Deliveries authenticate with the service credential,
+// so a command is deliverable however long after the user's request it is retried, or if no user request caused it.
+@Component
+@Slf4j
+public class OutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final ProductServiceClient productServiceClient;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxConfigurationParameter outboxConfigurationParameter;
+    private final ServiceCredentialConfigurationParameter serviceCredentialConfigurationParameter;
+    private final ThreadPoolTaskExecutor dispatchExecutor;
+
+    // order.outbox.messages{outcome} gives the dispatcher's throughput, order.outbox.batch.duration the cost of a round
+    private final Counter deliveredCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    public OutboxDispatcher(OutboxMessageRepository outboxMessageRepository,
+                            ProductServiceClient productServiceClient,
+                            TransactionTemplate transactionTemplate,
+                            OutboxConfigurationParameter outboxConfigurationParameter,
+                            ServiceCredentialConfigurationParameter serviceCredentialConfigurationParameter,
+                            MeterRegistry meterRegistry) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.productServiceClient = productServiceClient;
+        this.transactionTemplate = transactionTemplate;
+        this.outboxConfigurationParameter = outboxConfigurationParameter;
+        this.serviceCredentialConfigurationParameter = serviceCredentialConfigurationParameter;
+        if (!serviceCredentialConfigurationParameter.hasSecret()) {
+            log.error("OutboxDispatcher :: security.service-credential.secret is not set; stock hold commands stay PENDING until it is");
+        }
+
+        // Java 17 has no virtual threads, so deliveries run on a small fixed pool; a whole batch always fits in its queue
+        this.dispatchExecutor = new ThreadPoolTaskExecutor();
+        this.dispatchExecutor.setThreadNamePrefix("outbox-dispatch-");
+        this.dispatchExecutor.setCorePoolSize(outboxConfigurationParameter.getDispatchThreads());
+        this.dispatchExecutor.setMaxPoolSize(outboxConfigurationParameter.getDispatchThreads());
+        this.dispatchExecutor.setQueueCapacity(outboxConfigurationParameter.getBatchSize());
+        this.dispatchExecutor.setAllowCoreThreadTimeOut(true);
+        this.dispatchExecutor.initialize();
+
+        this.deliveredCounter = meterRegistry.counter("order.outbox.messages", "outcome", "delivered");
+        this.retriedCounter = meterRegistry.counter("order.outbox.messages", "outcome", "retried");
+        this.failedCounter = meterRegistry.counter("order.outbox.messages", "outcome", "failed");
+        this.batchTimer = Timer.builder("order.outbox.batch.duration")
+                .description("Time to claim, deliver and settle one batch of outbox messages")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatchExecutor.shutdown();
+    }
+
+    // Keeps taking batches while they come back full, so a backlog is drained without waiting for the next poll
+    @Scheduled(fixedDelayString = "${order.outbox.poll-interval-ms:500}")
+    public void dispatch() {
+        if (!serviceCredentialConfigurationParameter.hasSecret()) {
+            return; // Every delivery would be rejected and burn its attempts
+        }
+        int claimed;
+        do {
+            claimed = dispatchBatch();
+        } while (claimed == outboxConfigurationParameter.getBatchSize());
+    }
+
+    private int dispatchBatch() {
+        List<OutboxMessageEntity> batch = claim();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Timer.Sample sample = Timer.start();
+        Map<String, Outcome> outcomes = deliver(batch);
+        settle(outcomes);
+        sample.stop(batchTimer);
+        return batch.size();
+    }
+
+    // Pushing NEXT_ATTEMPT_AT out by the lease hides the rows from other dispatchers after this commit;
+    // if this instance dies mid-batch, the rows become due again once the lease runs out
+    private List<OutboxMessageEntity> claim() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxMessageEntity> due = outboxMessageRepository.findDueForUpdate(
+                    OutboxMessageStatus.PENDING, now, Limit.of(outboxConfigurationParameter.getBatchSize()));
+            LocalDateTime leaseEnd = now.plus(outboxConfigurationParameter.getLease());
+            due.forEach(message -> message.setNextAttemptAt(leaseEnd));
+            return due;
+        });
+    }
+
+    // A claim holds only the oldest pending command of each order, so its orders are delivered side by side;
+    // commands of one order written at the same instant still go one after the other, in the order they were claimed
+    private Map<String, Outcome> deliver(List<OutboxMessageEntity> batch) {
+        Map<String, List<OutboxMessageEntity>> byOrder = new LinkedHashMap<>();
+        batch.forEach(message -> byOrder.computeIfAbsent(message.getOrderId(), orderId -> new ArrayList<>()).add(message));
+
+        Map<String, Outcome> outcomes = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> deliveries = byOrder.values().stream()
+                .map(messages -> CompletableFuture.runAsync(
+                        () -> messages.forEach(message -> outcomes.put(message.getId(), deliver(message))), dispatchExecutor))
+                .toList();
+        CompletableFuture.allOf(deliveries.toArray(new CompletableFuture[0])).join();
+        return outcomes;
+    }
+
+    // The message ID is sent as the idempotency key, so productservice can recognise a redelivery of the same command
+    private Outcome deliver(OutboxMessageEntity message) {
+        String serviceName = serviceCredentialConfigurationParameter.getName();
+        String serviceSecret = serviceCredentialConfigurationParameter.getSecret();
+        try {
+            switch (message.getCommandType()) {
+                case CONFIRM_STOCK_HOLD ->
+                        productServiceClient.confirmStockHold(message.getOrderId(), serviceName, serviceSecret, message.getId());
+                case RELEASE_STOCK_HOLD ->
+                        productServiceClient.releaseStockHold(message.getOrderId(), serviceName, serviceSecret, message.getId());
+            }
+            return Outcome.DELIVERED;
+        } catch (FeignException.NotFound e) {
+            // Orders created before stock holds existed have none; there is nothing left to do
+            return Outcome.DELIVERED;
+        } catch (FeignException e) {
+            boolean clientError = e.status() >= 400 && e.status() < 500 && e.status() != 408 && e.status() != 429;
+            return new Outcome(clientError ? Result.REJECTED : Result.RETRY, "HTTP " + e.status() + ": " + e.getMessage());
+        } catch (RuntimeException e) {
+            return new Outcome(Result.RETRY, e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    private void settle(Map<String, Outcome> outcomes) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxMessageEntity> messages = outboxMessageRepository.findAllById(outcomes.keySet());
+            for (OutboxMessageEntity message : messages) {
+                Outcome outcome = outcomes.get(message.getId());
+                message.setAttempts(message.getAttempts() + 1);
+
+                if (outcome.result() == Result.DELIVERED) {
+                    finish(message, OutboxMessageStatus.DONE, null, now);
+                    deliveredCounter.increment();
+                } else if (outcome.result() == Result.RETRY && message.getAttempts() < outboxConfigurationParameter.getMaxAttempts()) {
+                    message.setLastError(truncate(outcome.error()));
+                    message.setNextAttemptAt(now.plus(backoff(message.getAttempts())));
+                    retriedCounter.increment();
+                } else {
+                    finish(message, OutboxMessageStatus.FAILED, outcome.error(), now);
+                    failedCounter.increment();
+                    log.error("OutboxDispatcher :: {} for Order ID {} failed after {} attempts and needs manual follow-up: {}",
+                            message.getCommandType(), message.getOrderId(), message.getAttempts(), outcome.error());
+                }
+            }
+        });
+    }
+
+    private static void finish(OutboxMessageEntity message, OutboxMessageStatus status, String error, LocalDateTime now) {
+        message.setStatus(status);
+        message.setLastError(truncate(error));
+        message.setProcessedAt(now);
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = outboxConfigurationParameter.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(outboxConfigurationParameter.getMaxBackoff()) > 0 ? outboxConfigurationParameter.getMaxBackoff() : delay;
+    }
+
+    private static String truncate(String error) {
+        return error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private enum Result { DELIVERED, RETRY, REJECTED }
+
+    private record Outcome(Result result, String error) {
+        static final Outcome DELIVERED = new Outcome(Result.DELIVERED, null);
+    }
+}
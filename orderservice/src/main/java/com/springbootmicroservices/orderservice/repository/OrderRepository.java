@@ -1,27 +1,79 @@
 package com.springbootmicroservices.orderservice.repository;
 
 import com.springbootmicroservices.orderservice.model.order.entity.OrderEntity;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import com.springbootmicroservices.orderservice.model.order.enums.OrderStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<OrderEntity, String>, JpaSpecificationExecutor<OrderEntity> {
 
-    // Find all orders for a specific user, ordered by creation date descending
-    List<OrderEntity> findByUserIdOrderByCreatedAtDesc(String userId);
-
-    // For paginated order history
-    Page<OrderEntity> findByUserIdOrderByCreatedAtDesc(String userId, Pageable pageable);
-
     // Find a specific order for a specific user (to ensure user can only access their own orders)
     Optional<OrderEntity> findByIdAndUserId(String orderId, String userId);
 
+    // The order and its items in one statement, for mapping a full OrderResponse
+    @EntityGraph(attributePaths = "items")
+    Optional<OrderEntity> findWithItemsById(String id);
+
+    // Orders accepted by the asynchronous intake whose last worker never finished them, e.g. because the instance restarted
+    @Query("select o.id from OrderEntity o where o.orderStatus = :status and o.intakeCartJson is not null " +
+            "and coalesce(o.intakeSubmittedAt, o.createdAt) < :submittedBefore")
+    List<String> findStaleIntakeOrderIds(@Param("status") OrderStatus status, @Param("submittedBefore") LocalDateTime submittedBefore);
+
+    // Hands a stale intake order to a new worker; 0 if another instance's sweeper got to it first or it has left PENDING
+    @Modifying
+    @Query("update OrderEntity o set o.intakeSubmittedAt = :now, o.intakeAttempts = coalesce(o.intakeAttempts, 1) + 1 " +
+            "where o.id = :id and o.orderStatus = :status and coalesce(o.intakeSubmittedAt, o.createdAt) < :submittedBefore")
+    int claimStaleIntakeOrder(@Param("id") String id,
+                              @Param("status") OrderStatus status,
+                              @Param("submittedBefore") LocalDateTime submittedBefore,
+                              @Param("now") LocalDateTime now);
+
+    // Current status per order of a bulk status run chunk, read without loading the entities. The rows stay
+    // locked until the chunk commits, so the status they are validated against is the one they are updated from.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o.id as id, o.orderStatus as orderStatus from OrderEntity o where o.id in :ids")
+    List<OrderStatusView> findStatusesForUpdateByIdIn(@Param("ids") Collection<String> ids);
+
+    // Next keyset chunk of a filtered bulk status run, ordered by ID and locked like the above
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o.id as id, o.orderStatus as orderStatus from OrderEntity o " +
+            "where o.orderStatus = :status and o.createdAt < :createdBefore and o.id > :afterId order by o.id")
+    List<OrderStatusView> findStatusesForUpdateByStatusAfterId(@Param("status") OrderStatus status,
+                                                               @Param("createdBefore") LocalDateTime createdBefore,
+                                                               @Param("afterId") String afterId,
+                                                               Limit limit);
+
+    // One statement per (current, new) status group. BaseEntity's callbacks do not run for bulk updates,
+    // so the audit columns are set here.
+    @Modifying
+    @Query("update OrderEntity o set o.orderStatus = :newStatus, o.updatedAt = :now, o.updatedBy = :updatedBy " +
+            "where o.id in :ids and o.orderStatus = :currentStatus")
+    int updateStatus(@Param("ids") Collection<String> ids,
+                     @Param("currentStatus") OrderStatus currentStatus,
+                     @Param("newStatus") OrderStatus newStatus,
+                     @Param("now") LocalDateTime now,
+                     @Param("updatedBy") String updatedBy);
+
+    interface OrderStatusView {
+        String getId();
+
+        OrderStatus getOrderStatus();
+    }
+
     // Optional: Find by paymentIntentId if needed for webhook processing or payment status checks
     Optional<OrderEntity> findByStripePaymentIntentId(String paymentIntentId);
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.springbootmicroservices.orderservice.repository;
+
+import com.springbootmicroservices.orderservice.model.order.entity.OrderSummaryEntity;
+import com.springbootmicroservices.orderservice.model.order.enums.OrderStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface OrderSummaryRepository extends JpaRepository<OrderSummaryEntity, String> {
+
+    // Keyset pages of a user's order history, newest first, straight off IDX_ORDER_SUMMARY_USER_ID_CREATED_AT.
+    // The order ID breaks ties between orders created in the same instant; no count query is run.
+    Window<OrderSummaryEntity> findByUserIdOrderByCreatedAtDescOrderIdDesc(String userId, ScrollPosition position, Limit limit);
+
+    // Keyset pages over all orders for the admin listing, off IDX_ORDER_SUMMARY_CREATED_AT
+    Window<OrderSummaryEntity> findAllByOrderByCreatedAtDescOrderIdDesc(ScrollPosition position, Limit limit);
+
+    // Status of many orders at once, after a bulk status run
+    @Modifying
+    @Query("update OrderSummaryEntity s set s.orderStatus = :status, s.updatedAt = :now where s.orderId in :orderIds")
+    int updateStatus(@Param("orderIds") Collection<String> orderIds,
+                     @Param("status") OrderStatus status,
+                     @Param("now") LocalDateTime now);
+
+    // Rebuild, step 1: keeps projection writes of concurrent order transactions waiting until the rebuild commits,
+    // while readers carry on with the old rows. PostgreSQL only.
+    @Modifying
+    @Query(value = "lock table ORDER_SUMMARY in exclusive mode", nativeQuery = true)
+    void lockForRebuild();
+
+    // Rebuild, step 2
+    @Modifying
+    @Query("delete from OrderSummaryEntity")
+    int deleteAllInBulk();
+
+    // Rebuild, step 3: one set-based pass over the source tables
+    @Modifying
+    @Query(value = "insert into ORDER_SUMMARY (ORDER_ID, USER_ID, CREATED_AT, ORDER_STATUS, TOTAL_AMOUNT, ITEM_COUNT, FIRST_PRODUCT_NAME, UPDATED_AT) " +
+            "select o.ID, o.USER_ID, o.CREATED_AT, o.ORDER_STATUS, o.TOTAL_AMOUNT, " +
+            "coalesce((select sum(i.QUANTITY) from ORDER_ITEMS i where i.ORDER_ID = o.ID), 0), " +
+            "(select i.PRODUCT_NAME from ORDER_ITEMS i where i.ORDER_ID = o.ID order by i.CREATED_AT, i.ID limit 1), " +
+            ":now from ORDERS o", nativeQuery = true)
+    int insertFromOrders(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,34 @@
+package com.springbootmicroservices.orderservice.repository;
+
+import com.springbootmicroservices.orderservice.model.outbox.entity.OutboxMessageEntity;
+import com.springbootmicroservices.orderservice.model.outbox.enums.OutboxMessageStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessageEntity, String> {
+
+    // Due rows through the (STATUS, NEXT_ATTEMPT_AT) index. Rows another dispatcher is claiming right now
+    // are skipped (lock timeout -2 is SKIP LOCKED), so several instances can drain the outbox side by side.
+    // A row waits while an older row of its order is still pending, even one backing off or leased elsewhere,
+    // so the commands of one order reach productservice in the order they were written.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select m from OutboxMessageEntity m where m.status = :status and m.nextAttemptAt <= :now"
+            + " and not exists (select e.id from OutboxMessageEntity e"
+            + " where e.orderId = m.orderId and e.status = :status and e.createdAt < m.createdAt)"
+            + " order by m.nextAttemptAt")
+    List<OutboxMessageEntity> findDueForUpdate(@Param("status") OutboxMessageStatus status,
+                                               @Param("now") LocalDateTime now,
+                                               Limit limit);
+}
@@ -0,0 +1,50 @@
+package com.springbootmicroservices.orderservice.repository;
+
+import com.springbootmicroservices.orderservice.model.payment.entity.PaymentEventEntity;
+import com.springbootmicroservices.orderservice.model.payment.enums.PaymentEventStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PaymentEventRepository extends JpaRepository<PaymentEventEntity, String> {
+
+    // A single insert; the EVENT_ID primary key drops a redelivered event on any instance without a prior read
+    @Transactional
+    @Modifying
+    @Query(value = "insert into PAYMENT_EVENT_INBOX (EVENT_ID, EVENT_TYPE, PAYLOAD, STATUS, ATTEMPTS, RECEIVED_AT) " +
+            "values (:eventId, :eventType, :payload, 'PENDING', 0, :now) on conflict (EVENT_ID) do nothing",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("eventId") String eventId,
+                       @Param("eventType") String eventType,
+                       @Param("payload") String payload,
+                       @Param("now") LocalDateTime now);
+
+    // Oldest pending events through the (STATUS, RECEIVED_AT) index; rows another processor holds are skipped
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from PaymentEventEntity e where e.status = :status order by e.receivedAt")
+    List<PaymentEventEntity> findPendingForUpdate(@Param("status") PaymentEventStatus status, Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from PaymentEventEntity e where e.eventId = :eventId and e.status = :status")
+    Optional<PaymentEventEntity> findByIdAndStatusForUpdate(@Param("eventId") String eventId, @Param("status") PaymentEventStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("delete from PaymentEventEntity e where e.status <> :pending and e.receivedAt < :receivedBefore")
+    int deleteSettledBefore(@Param("pending") PaymentEventStatus pending, @Param("receivedBefore") LocalDateTime receivedBefore);
+}
@@ -0,0 +1,23 @@
+package com.springbootmicroservices.orderservice.service;
+
+import com.springbootmicroservices.orderservice.model.common.IdempotentResponse;
+
+import java.util.Optional;
+
+public interface IdempotencyService {
+
+    // Empty while the key is unknown or its first request is still running
+    Optional<IdempotentResponse> findCompleted(String keyHash);
+
+    // True for exactly one caller per key across instances (or for whoever takes over an abandoned key);
+    // the winner executes the request and then completes or releases the key
+    boolean claim(String keyHash, String requestHash);
+
+    // Server errors and oversized responses are not stored, so a retry executes again
+    void complete(String keyHash, IdempotentResponse response);
+
+    void release(String keyHash);
+
+    int purgeExpired();
+
+}
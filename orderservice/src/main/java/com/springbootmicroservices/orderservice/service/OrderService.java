@@ -1,13 +1,17 @@
 package com.springbootmicroservices.orderservice.service;
 
+import com.springbootmicroservices.orderservice.model.order.dto.request.BulkOrderStatusUpdateRequest;
 import com.springbootmicroservices.orderservice.model.order.dto.request.CreateOrderRequest;
+import com.springbootmicroservices.orderservice.model.common.dto.response.CustomCursorPagingResponse;
+import com.springbootmicroservices.orderservice.model.order.dto.response.BulkOrderStatusResult;
 import com.springbootmicroservices.orderservice.model.order.dto.response.OrderHistoryItemResponse;
 import com.springbootmicroservices.orderservice.model.order.dto.response.OrderResponse;
+import com.springbootmicroservices.orderservice.model.order.dto.response.OrderSummaryResponse;
 import com.springbootmicroservices.orderservice.model.order.enums.OrderStatus;
-import org.springframework.data.domain.Page; // Alternative: Spring Data Page
-import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface OrderService {
 
@@ -22,11 +26,22 @@ public interface OrderService {
     OrderResponse createOrder(CreateOrderRequest createOrderRequest);
 
     /**
-     * Retrieves the order history for the currently authenticated user.
+     * Accepts a new order for asynchronous processing: only the cart is stored, as a PENDING order.
+     * An intake worker then prices it and holds its stock, moving it to PENDING_PAYMENT or CANCELLED.
      *
-     * @return A list of order summaries.
+     * @param createOrderRequest The request containing cart items and shipping address.
+     * @return The PENDING order, whose ID the client polls for the outcome.
      */
-    List<OrderHistoryItemResponse> getOrderHistoryForCurrentUser();
+    OrderResponse acceptOrder(CreateOrderRequest createOrderRequest);
+
+    /**
+     * Retrieves one page of the order history for the currently authenticated user, newest first.
+     *
+     * @param cursor The nextCursor of the previous page, or null for the first page.
+     * @param size The requested page size.
+     * @return The order summaries of the page and the cursor of the next one.
+     */
+    CustomCursorPagingResponse<OrderHistoryItemResponse> getOrderHistoryForCurrentUser(String cursor, int size);
 
     /**
      * Retrieves a specific order by its ID for the currently authenticated user.
@@ -47,8 +62,28 @@ public interface OrderService {
      */
     OrderResponse updateOrderStatus(String orderId, OrderStatus newStatus);
 
+    /**
+     * Applies status changes reported outside an admin request (e.g. Stripe payment events) with the
+     * transition rules of {@link #updateOrderStatus}, in the caller's transaction. Orders already in the
+     * requested status are left as they are; changes that are not allowed are skipped, not thrown.
+     *
+     * @param newStatusByOrderId The requested status per order ID.
+     * @return The reason per order ID whose change was skipped.
+     */
+    Map<String, String> applyStatusTransitions(Map<String, OrderStatus> newStatusByOrderId);
+
+    /**
+     * Applies many status changes at once (Admin only), given either as (orderId, newStatus) pairs or as a filter
+     * on the current status. Each change is validated with the transition rules of {@link #updateOrderStatus};
+     * the allowed ones are written as one update per (current, new) status group, a chunk of orders per transaction.
+     *
+     * @param request The explicit changes or the filter selecting the orders to change.
+     * @param chunkConsumer Receives the per-order results of each chunk once it has committed.
+     */
+    void bulkUpdateOrderStatus(BulkOrderStatusUpdateRequest request, Consumer<List<BulkOrderStatusResult>> chunkConsumer);
+
     // Optional: Method specifically for admin to get any order
     // OrderResponse getOrderByIdForAdmin(String orderId);
-    Page<OrderResponse> getAllOrdersForAdmin(Pageable pageable);
+    CustomCursorPagingResponse<OrderSummaryResponse> getAllOrdersForAdmin(String cursor, int size);
 
 }
\ No newline at end of file
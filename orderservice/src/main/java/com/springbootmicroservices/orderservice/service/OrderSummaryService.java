@@ -0,0 +1,15 @@
+package com.springbootmicroservices.orderservice.service;
+
+import com.springbootmicroservices.orderservice.model.order.entity.OrderEntity;
+
+public interface OrderSummaryService {
+
+    // Writes the full ORDER_SUMMARY row of an order (amount, item count, first product) as part of the caller's transaction
+    void project(OrderEntity order);
+
+    // Cheaper variant for changes that only touch the status; does not load the order's items
+    void projectStatus(OrderEntity order);
+
+    // Regenerates the whole projection from ORDERS and ORDER_ITEMS; returns the number of rows written
+    int rebuild();
+}
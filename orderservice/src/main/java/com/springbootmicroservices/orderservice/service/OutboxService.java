@@ -0,0 +1,14 @@
+package com.springbootmicroservices.orderservice.service;
+
+import com.springbootmicroservices.orderservice.model.outbox.enums.OutboxCommandType;
+
+import java.util.Collection;
+
+public interface OutboxService {
+
+    // Records a command for productservice as part of the caller's transaction; it is delivered after the commit
+    void enqueue(String orderId, OutboxCommandType commandType);
+
+    // The same command for many orders, e.g. from a bulk status run, written as one batch
+    void enqueueAll(Collection<String> orderIds, OutboxCommandType commandType);
+}
@@ -18,10 +18,12 @@ public interface PaymentService {
     String createStripeCheckoutSession(String orderId); // -- new -->
 
     /**
-     * Handles incoming webhook events from Stripe.
+     * Handles incoming webhook events from Stripe: verifies the signature and stores the raw event
+     * in the payment event inbox, once per event ID. The order status changes it carries are applied
+     * later, in batches, by the PaymentEventProcessor.
      *
      * @param payload The raw JSON payload from Stripe.
      * @param sigHeader The 'Stripe-Signature' header value.
      */
-    // void handleStripeWebhook(String payload, String sigHeader);
+    void handleStripeWebhook(String payload, String sigHeader);
 }
@@ -5,6 +5,12 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 
 public interface TokenService {
 
+    /**
+     * Request attribute under which the authentication filter stores the verified token's claims
+     * as a {@code Map<String, Object>}, so the token is not parsed again later in the request.
+     */
+    String CLAIMS_REQUEST_ATTRIBUTE = TokenService.class.getName() + ".CLAIMS";
+
     /**
      * Verifies the signature, expiration, and basic structure of the JWT.
      * Throws an exception if the token is invalid.
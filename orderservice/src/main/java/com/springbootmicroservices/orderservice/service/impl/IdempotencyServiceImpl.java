@@ -0,0 +1,109 @@
+package com.springbootmicroservices.orderservice.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.springbootmicroservices.orderservice.config.IdempotencyConfigurationParameter;
+import com.springbootmicroservices.orderservice.model.common.IdempotentResponse;
+import com.springbootmicroservices.orderservice.model.common.enums.IdempotencyRecordStatus;
+import com.springbootmicroservices.orderservice.repository.IdempotencyRecordRepository;
+import com.springbootmicroservices.orderservice.service.IdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+// Stored responses live in IDEMPOTENCY_RECORD so every instance sees them; a Caffeine cache in front answers
+// the quick retries that follow a client timeout without going to the database
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final IdempotencyConfigurationParameter idempotencyConfigurationParameter;
+    private final Cache<String, IdempotentResponse> completedResponses;
+
+    public IdempotencyServiceImpl(final IdempotencyRecordRepository idempotencyRecordRepository,
+                                  final IdempotencyConfigurationParameter idempotencyConfigurationParameter) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.idempotencyConfigurationParameter = idempotencyConfigurationParameter;
+        this.completedResponses = Caffeine.newBuilder()
+                .expireAfterWrite(idempotencyConfigurationParameter.getCacheTtl())
+                .maximumSize(idempotencyConfigurationParameter.getCacheMaximumSize())
+                .build();
+    }
+
+    @Override
+    public Optional<IdempotentResponse> findCompleted(final String keyHash) {
+
+        final IdempotentResponse cached = completedResponses.getIfPresent(keyHash);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        return idempotencyRecordRepository.findByKeyHashAndStatus(keyHash, IdempotencyRecordStatus.COMPLETED)
+                .filter(idempotencyRecord -> idempotencyRecord.getExpiresAt().isAfter(LocalDateTime.now()))
+                .map(idempotencyRecord -> {
+                    final IdempotentResponse response = new IdempotentResponse(
+                            idempotencyRecord.getRequestHash(),
+                            idempotencyRecord.getResponseStatus(),
+                            idempotencyRecord.getResponseContentType(),
+                            idempotencyRecord.getResponseBody() != null ? idempotencyRecord.getResponseBody() : new byte[0]
+                    );
+                    completedResponses.put(keyHash, response);
+                    return response;
+                });
+    }
+
+    @Override
+    public boolean claim(final String keyHash, final String requestHash) {
+
+        final LocalDateTime now = LocalDateTime.now();
+        if (idempotencyRecordRepository.insertIfAbsent(keyHash, requestHash, now,
+                now.plus(idempotencyConfigurationParameter.getRetention())) == 1) {
+            return true;
+        }
+
+        final boolean takenOver = idempotencyRecordRepository.takeOver(keyHash, requestHash, IdempotencyRecordStatus.IN_PROGRESS,
+                now, now.minus(idempotencyConfigurationParameter.getInFlightTimeout())) == 1;
+        if (takenOver) {
+            log.warn("Taking over abandoned idempotent request {}", keyHash);
+        }
+        return takenOver;
+    }
+
+    @Override
+    public void complete(final String keyHash, final IdempotentResponse response) {
+
+        if (response.status() >= 500 || response.body().length > idempotencyConfigurationParameter.getMaxResponseBytes()) {
+            release(keyHash);
+            return;
+        }
+
+        final int updated = idempotencyRecordRepository.complete(keyHash, IdempotencyRecordStatus.COMPLETED,
+                IdempotencyRecordStatus.IN_PROGRESS, response.status(), response.contentType(), response.body());
+        if (updated == 1) {
+            completedResponses.put(keyHash, response);
+        } else {
+            log.warn("Idempotent request {} was taken over before it completed; its response is not stored", keyHash);
+        }
+    }
+
+    @Override
+    public void release(final String keyHash) {
+        idempotencyRecordRepository.deleteByKeyHashAndStatus(keyHash, IdempotencyRecordStatus.IN_PROGRESS);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:600000}")
+    public int purgeExpired() {
+
+        final int deleted = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.debug("Purged {} expired idempotency records", deleted);
+        }
+        return deleted;
+    }
+
+}
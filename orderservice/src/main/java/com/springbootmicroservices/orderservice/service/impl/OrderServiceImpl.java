@@ -1,49 +1,112 @@
 package com.springbootmicroservices.orderservice.service.impl;
 
+import com.springbootmicroservices.orderservice.cache.OrderResponseCache;
 import com.springbootmicroservices.orderservice.client.ProductServiceClient;
+import com.springbootmicroservices.orderservice.config.OrderCreationConfigurationParameter;
+import com.springbootmicroservices.orderservice.config.OrderIntakeConfigurationParameter;
+import com.springbootmicroservices.orderservice.config.ServiceCredentialConfigurationParameter;
+import com.springbootmicroservices.orderservice.client.dto.ProductBatchDetailsDto;
+import com.springbootmicroservices.orderservice.client.dto.ProductBatchRequestDto;
 import com.springbootmicroservices.orderservice.client.dto.ProductDetailsDto;
-import com.springbootmicroservices.orderservice.client.dto.PurchaseQuantityDto;
+import com.springbootmicroservices.orderservice.client.dto.StockHoldRequestDto;
+import com.springbootmicroservices.orderservice.client.dto.StockHoldResultDto;
 import com.springbootmicroservices.orderservice.client.dto.CustomResponse; // Assuming this is your client-side DTO for the wrapper
 import com.springbootmicroservices.orderservice.exception.InsufficientStockException;
 import com.springbootmicroservices.orderservice.exception.InvalidOrderStatusException;
+import com.springbootmicroservices.orderservice.exception.OrderIntakeOverloadedException;
 import com.springbootmicroservices.orderservice.exception.OrderNotFoundException;
+import com.springbootmicroservices.orderservice.exception.ProductServiceUnavailableException;
+import com.springbootmicroservices.orderservice.intake.OrderIntakePipeline;
 import com.springbootmicroservices.orderservice.model.auth.enums.TokenClaims;
+import com.springbootmicroservices.orderservice.model.common.dto.response.CustomCursorPagingResponse;
+import com.springbootmicroservices.orderservice.model.order.dto.request.BulkOrderStatusUpdateRequest;
 import com.springbootmicroservices.orderservice.model.order.dto.request.CartItemDto;
 import com.springbootmicroservices.orderservice.model.order.dto.request.CreateOrderRequest;
+import com.springbootmicroservices.orderservice.model.order.dto.request.OrderStatusFilterDto;
+import com.springbootmicroservices.orderservice.model.order.dto.response.BulkOrderStatusResult;
 import com.springbootmicroservices.orderservice.model.order.dto.response.OrderHistoryItemResponse;
 import com.springbootmicroservices.orderservice.model.order.dto.response.OrderResponse;
+import com.springbootmicroservices.orderservice.model.order.dto.response.OrderSummaryResponse;
 import com.springbootmicroservices.orderservice.model.order.entity.OrderEntity;
 import com.springbootmicroservices.orderservice.model.order.entity.OrderItemEntity;
+import com.springbootmicroservices.orderservice.model.order.entity.OrderSummaryEntity;
+import com.springbootmicroservices.orderservice.model.order.enums.BulkOrderStatusOutcome;
 import com.springbootmicroservices.orderservice.model.order.enums.OrderStatus;
 import com.springbootmicroservices.orderservice.model.order.mapper.OrderMapper;
+import com.springbootmicroservices.orderservice.model.outbox.enums.OutboxCommandType;
 import com.springbootmicroservices.orderservice.repository.OrderRepository;
+import com.springbootmicroservices.orderservice.repository.OrderSummaryRepository;
 import com.springbootmicroservices.orderservice.service.OrderService;
+import com.springbootmicroservices.orderservice.service.OrderSummaryService;
+import com.springbootmicroservices.orderservice.service.OutboxService;
 import com.springbootmicroservices.orderservice.service.TokenService;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import feign.Request;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OrderServiceImpl implements OrderService {
 
+    // Upper bound for the page size of the keyset-paginated history and admin listing
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int BULK_STATUS_CHUNK_SIZE = 1000; // Orders per transaction of a bulk status run
+
     private final OrderRepository orderRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderSummaryService orderSummaryService;
     private final OrderMapper orderMapper;
     private final TokenService tokenService;
     private final ProductServiceClient productServiceClient;
+    private final ThreadPoolTaskExecutor productCallExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderCreationConfigurationParameter orderCreationConfigurationParameter;
+    private final OutboxService outboxService;
+    private final OrderIntakePipeline orderIntakePipeline;
+    private final OrderIntakeConfigurationParameter orderIntakeConfigurationParameter;
+    private final ServiceCredentialConfigurationParameter serviceCredentialConfigurationParameter;
+    private final OrderResponseCache orderResponseCache;
 
     // ... (getCurrentUserId and isCurrentUserAdmin methods are fine, keep them as they are) ...
     private String getCurrentUserId() {
@@ -72,41 +135,60 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    @Transactional
     public OrderResponse createOrder(CreateOrderRequest createOrderRequest) {
         String userId = getCurrentUserId();
         log.info("OrderServiceImpl :: createOrder initiated by User ID: {}", userId);
+        long deadline = System.nanoTime() + orderCreationConfigurationParameter.getDeadline().toNanos();
+
+        // All productservice calls run outside a transaction so no DB connection is held while waiting on the network
+        Map<String, ProductDetailsDto> productDetailsById = fetchProductDetails(createOrderRequest.getItems(), deadline);
 
         OrderEntity orderEntity = new OrderEntity();
         orderEntity.setUserId(userId);
         orderEntity.setOrderStatus(OrderStatus.PENDING);
         orderEntity.setShippingAddressJson(orderMapper.shippingAddressDtoToJson(createOrderRequest.getShippingAddress()));
 
+        addPricedItems(orderEntity, createOrderRequest.getItems(), productDetailsById);
+
+        OrderEntity savedOrder = transactionTemplate.execute(status -> saveAndProject(orderEntity));
+        log.info("Order entity (ID: {}) created with {} items and total amount: {}. Status: PENDING",
+                savedOrder.getId(), (savedOrder.getItems() != null ? savedOrder.getItems().size() : 0), savedOrder.getTotalAmount());
+
+        try {
+            holdStock(savedOrder, deadline);
+        } catch (RuntimeException e) {
+            log.warn("Order ID {} created, but stock could not be held for every item. Cancelling order. Error: {}",
+                    savedOrder.getId(), e.getMessage(), e);
+            // A rejected hold took nothing, but a timed-out or failed call may still have placed it
+            cancelOrder(savedOrder.getId(), !(e instanceof InsufficientStockException));
+            throw e;
+        }
+
+        // Priced and held, like an order finished by the intake worker: only now can a payment confirm (or fail) it
+        log.info("Stock held for Order ID {}. Status: PENDING_PAYMENT", savedOrder.getId());
+        return settlePendingOrder(savedOrder.getId(), OrderStatus.PENDING_PAYMENT, true)
+                .orElseGet(() -> orderMapper.orderEntityToOrderResponse(savedOrder));
+    }
+
+    // Saves the order and its ORDER_SUMMARY row in the caller's transaction
+    private OrderEntity saveAndProject(OrderEntity orderEntity) {
+        OrderEntity savedOrder = orderRepository.save(orderEntity);
+        orderSummaryService.project(savedOrder);
+        orderResponseCache.invalidateAfterCommit(savedOrder.getId());
+        return savedOrder;
+    }
+
+    // Prices every cart line with the current product data and adds it to the order, rejecting lines without enough stock
+    private void addPricedItems(OrderEntity orderEntity, List<CartItemDto> items, Map<String, ProductDetailsDto> productDetailsById) {
         BigDecimal calculatedTotalAmount = BigDecimal.ZERO;
         List<OrderItemEntity> newOrderItems = new ArrayList<>();
 
-        for (CartItemDto itemDto : createOrderRequest.getItems()) {
+        for (CartItemDto itemDto : items) {
             log.debug("Processing item for order: ProductId={}, Name='{}', Quantity={}",
                     itemDto.getProductId(), itemDto.getName(), itemDto.getQuantity());
 
-            ProductDetailsDto productDetails;
-            try {
-                // VVVVVV  THIS IS THE CORRECTED CALL VVVVVV
-                // It now expects CustomResponse<ProductDetailsDto> from the Feign client
-                CustomResponse<ProductDetailsDto> productResponseWrapper = productServiceClient.getProductDetails(itemDto.getProductId());
-
-                if (productResponseWrapper == null || !Boolean.TRUE.equals(productResponseWrapper.getIsSuccess()) || productResponseWrapper.getResponse() == null) {
-                    log.error("Failed to fetch product details for Product ID: {}. ProductService response was not successful or body was null.", itemDto.getProductId());
-                    throw new RuntimeException("Product details could not be retrieved for: " + itemDto.getName());
-                }
-                productDetails = productResponseWrapper.getResponse();
-                // ^^^^^^ END OF CORRECTION ^^^^^^
-            } catch (Exception e) {
-                log.error("Error fetching product details for Product ID: {}. Error: {}", itemDto.getProductId(), e.getMessage(), e);
-                throw new RuntimeException("Order creation failed: Could not retrieve product details for " + itemDto.getName() + ". Please try again later.", e);
-            }
+            ProductDetailsDto productDetails = productDetailsById.get(itemDto.getProductId());
 
-            // ... (rest of the validation and item creation logic is the same and looks good) ...
             if (productDetails.getAmount() == null || productDetails.getAmount() < itemDto.getQuantity()) {
                 log.warn("Insufficient stock for Product ID: {}. Name: '{}'. Available: {}, Requested: {}",
                         itemDto.getProductId(), productDetails.getName(), productDetails.getAmount(), itemDto.getQuantity());
@@ -131,38 +213,328 @@ public class OrderServiceImpl implements OrderService {
 
         orderEntity.setTotalAmount(calculatedTotalAmount);
         newOrderItems.forEach(orderEntity::addItem);
+    }
 
-        OrderEntity savedOrder = orderRepository.save(orderEntity);
-        log.info("Order entity (ID: {}) created with {} items and total amount: {}. Status: PENDING_PAYMENT",
-                savedOrder.getId(), (savedOrder.getItems() != null ? savedOrder.getItems().size() : 0), savedOrder.getTotalAmount());
+    @Override
+    public OrderResponse acceptOrder(CreateOrderRequest createOrderRequest) {
+        String userId = getCurrentUserId();
+        orderIntakePipeline.reserveSlot();
+
+        OrderEntity savedOrder;
+        try {
+            OrderEntity orderEntity = new OrderEntity();
+            orderEntity.setUserId(userId);
+            orderEntity.setOrderStatus(OrderStatus.PENDING);
+            orderEntity.setTotalAmount(BigDecimal.ZERO); // Known once the intake worker has priced the cart
+            orderEntity.setShippingAddressJson(orderMapper.shippingAddressDtoToJson(createOrderRequest.getShippingAddress()));
+            orderEntity.setIntakeCartJson(orderMapper.cartItemDtosToJson(createOrderRequest.getItems()));
+            orderEntity.setIntakeAttempts(1);
+            orderEntity.setIntakeSubmittedAt(LocalDateTime.now());
+            savedOrder = transactionTemplate.execute(status -> saveAndProject(orderEntity));
+        } catch (RuntimeException e) {
+            orderIntakePipeline.releaseSlot();
+            throw e;
+        }
+
+        // The request's own context is cleared when it completes, so the worker gets a copy of the authentication
+        SecurityContext callerContext = SecurityContextHolder.createEmptyContext();
+        callerContext.setAuthentication(SecurityContextHolder.getContext().getAuthentication());
+        String orderId = savedOrder.getId();
+        List<CartItemDto> items = createOrderRequest.getItems();
+        orderIntakePipeline.submit(orderId, callerContext, () -> processAcceptedOrder(orderId, items));
+
+        log.info("OrderServiceImpl :: Order ID {} accepted for asynchronous processing for User ID: {}", orderId, userId);
+        return orderMapper.orderEntityToOrderResponse(savedOrder);
+    }
+
+    // Intake worker: pricing, then the stock hold, each outside any transaction, like createOrder
+    private void processAcceptedOrder(String orderId, List<CartItemDto> items) {
+        long deadline = System.nanoTime() + orderCreationConfigurationParameter.getDeadline().toNanos();
+        boolean holdAttempted = false;
+        try {
+            Map<String, ProductDetailsDto> productDetailsById =
+                    orderIntakePipeline.recordStage("pricing", () -> fetchProductDetails(items, deadline));
+
+            OrderEntity pricedOrder = transactionTemplate.execute(status -> {
+                OrderEntity orderEntity = orderRepository.findById(orderId).orElse(null);
+                if (orderEntity == null || orderEntity.getOrderStatus() != OrderStatus.PENDING) {
+                    return null;
+                }
+                orderEntity.getItems().clear(); // A re-submitted order may have been priced by the worker that was lost
+                addPricedItems(orderEntity, items, productDetailsById);
+                return saveAndProject(orderEntity);
+            });
+            if (pricedOrder == null) {
+                log.info("OrderServiceImpl :: Accepted Order ID {} left PENDING before it was priced; skipping it", orderId);
+                return;
+            }
+
+            holdAttempted = true;
+            orderIntakePipeline.recordStage("reservation", () -> {
+                holdStock(pricedOrder, deadline);
+                return null;
+            });
+            finishIntake(orderId, OrderStatus.PENDING_PAYMENT, true);
+        } catch (RuntimeException e) {
+            log.warn("OrderServiceImpl :: Accepted Order ID {} could not be completed. Cancelling order. Error: {}", orderId, e.getMessage());
+            // A rejected hold took nothing, but a timed-out or failed call may still have placed it
+            finishIntake(orderId, OrderStatus.CANCELLED, holdAttempted && !(e instanceof InsufficientStockException));
+        }
+    }
+
+    private void finishIntake(String orderId, OrderStatus outcome, boolean stockMayBeHeld) {
+        settlePendingOrder(orderId, outcome, stockMayBeHeld);
+        orderIntakePipeline.recordCompletion(outcome.name().toLowerCase());
+    }
+
+    // Moves a PENDING order on once its stock is held (or could not be), and returns it as it then stands
+    private Optional<OrderResponse> settlePendingOrder(String orderId, OrderStatus outcome, boolean stockMayBeHeld) {
+        return transactionTemplate.execute(status -> orderRepository.findById(orderId).map(order -> {
+            if (order.getOrderStatus() == OrderStatus.PENDING) {
+                order.setOrderStatus(outcome);
+                order.setIntakeCartJson(null);
+                orderRepository.save(order);
+                orderSummaryService.projectStatus(order);
+                orderResponseCache.invalidateAfterCommit(orderId);
+                if (outcome == OrderStatus.CANCELLED && stockMayBeHeld) {
+                    outboxService.enqueue(orderId, OutboxCommandType.RELEASE_STOCK_HOLD);
+                }
+            } else if (order.getOrderStatus() == OrderStatus.CANCELLED && stockMayBeHeld) {
+                // Cancelled while the hold was being placed; that cancellation's release may have come too early
+                outboxService.enqueue(orderId, OutboxCommandType.RELEASE_STOCK_HOLD);
+            }
+            return orderMapper.orderEntityToOrderResponse(order);
+        }));
+    }
 
-        for (OrderItemEntity item : savedOrder.getItems()) {
+    // Accepted orders lost before a worker finished them (e.g. on restart) are handed to a new worker with their stored
+    // cart. The user's token is gone by then, so the worker calls productservice with the service credential; placing
+    // the hold again returns the one the lost worker may already have placed. A conditional update claims each order,
+    // so two instances never resume the same one, and an order lost max-attempts times is cancelled instead.
+    @Scheduled(fixedDelayString = "${order.intake.stale-check-interval-ms:60000}")
+    public void resubmitStaleIntakeOrders() {
+        LocalDateTime submittedBefore = LocalDateTime.now().minus(orderIntakeConfigurationParameter.getStaleAfter());
+        List<String> staleOrderIds = orderRepository.findStaleIntakeOrderIds(OrderStatus.PENDING, submittedBefore);
+        for (String orderId : staleOrderIds) {
             try {
-                log.info("Attempting to reduce stock for Product ID: {}, Quantity: {}", item.getProductId(), item.getQuantity());
-                // VVVVVV  THIS IS THE CORRECTED CALL VVVVVV
-                // The Feign client method now returns void. If it fails, it will throw an exception.
-                productServiceClient.reduceStock(item.getProductId(), new PurchaseQuantityDto(item.getQuantity()));
-                // ^^^^^^ END OF CORRECTION ^^^^^^
-                log.info("Stock reduction call successful for Product ID: {}", item.getProductId());
-            } catch (Exception e) {
-                log.error("CRITICAL: Order ID {} created, but failed to reduce stock for Product ID: {}. Error: {}. MANUAL INTERVENTION REQUIRED.",
-                        savedOrder.getId(), item.getProductId(), e.getMessage(), e);
-                throw new RuntimeException("Order creation partially failed: Could not update product stock for " + item.getProductName() +
-                        ". Order ID " + savedOrder.getId() + " might need reconciliation.", e);
+                orderIntakePipeline.reserveSlot();
+            } catch (OrderIntakeOverloadedException e) {
+                log.warn("OrderServiceImpl :: Intake is full; stale accepted orders are resumed on the next check");
+                return;
             }
+            OrderEntity claimedOrder = transactionTemplate.execute(status ->
+                    orderRepository.claimStaleIntakeOrder(orderId, OrderStatus.PENDING, submittedBefore, LocalDateTime.now()) == 1
+                            ? orderRepository.findById(orderId).orElse(null)
+                            : null);
+            if (claimedOrder == null) {
+                orderIntakePipeline.releaseSlot();
+                continue;
+            }
+            resubmit(claimedOrder);
         }
-        return orderMapper.orderEntityToOrderResponse(savedOrder);
+    }
+
+    private void resubmit(OrderEntity staleOrder) {
+        String orderId = staleOrder.getId();
+        List<CartItemDto> items = storedCartOf(staleOrder);
+        int attempt = staleOrder.getIntakeAttempts();
+        if (attempt > orderIntakeConfigurationParameter.getMaxAttempts() || items.isEmpty()
+                || !serviceCredentialConfigurationParameter.hasSecret()) {
+            orderIntakePipeline.releaseSlot();
+            log.warn("OrderServiceImpl :: Accepted Order ID {} is still PENDING after {} intake attempts and cannot be resumed. Cancelling order.",
+                    orderId, attempt - 1);
+            finishIntake(orderId, OrderStatus.CANCELLED, true);
+            return;
+        }
+
+        log.warn("OrderServiceImpl :: Accepted Order ID {} was lost by its intake worker. Re-submitting it (attempt {} of {}).",
+                orderId, attempt, orderIntakeConfigurationParameter.getMaxAttempts());
+        SecurityContext serviceContext = SecurityContextHolder.createEmptyContext();
+        serviceContext.setAuthentication(serviceCredentialConfigurationParameter.authentication());
+        orderIntakePipeline.submit(orderId, serviceContext, () -> processAcceptedOrder(orderId, items));
+    }
+
+    private List<CartItemDto> storedCartOf(OrderEntity orderEntity) {
+        try {
+            return orderMapper.jsonToCartItemDtos(orderEntity.getIntakeCartJson());
+        } catch (RuntimeException e) {
+            log.error("OrderServiceImpl :: Stored cart of Order ID {} is unreadable: {}", orderEntity.getId(), e.getMessage());
+            return List.of();
+        }
+    }
+
+    // Duplicate cart lines are collapsed and the distinct IDs fetched through the batch endpoint; carts larger than
+    // one batch are split and the batches sent in parallel
+    private Map<String, ProductDetailsDto> fetchProductDetails(List<CartItemDto> items, long deadline) {
+        Map<String, String> productNames = new LinkedHashMap<>();
+        items.forEach(item -> productNames.putIfAbsent(item.getProductId(), item.getName()));
+
+        List<String> productIds = new ArrayList<>(productNames.keySet());
+        int batchSize = orderCreationConfigurationParameter.getProductBatchSize();
+        List<CompletableFuture<ProductBatchDetailsDto>> lookups = new ArrayList<>();
+        for (int from = 0; from < productIds.size(); from += batchSize) {
+            List<String> batch = productIds.subList(from, Math.min(from + batchSize, productIds.size()));
+            lookups.add(submitProductCall(lookups, () -> fetchProductDetailsBatch(batch, deadline)));
+        }
+
+        awaitProductCalls(lookups, deadline, "Order creation failed: Product details could not be retrieved in time. Please try again later.");
+
+        Map<String, ProductDetailsDto> productDetailsById = new HashMap<>();
+        List<String> missingProductNames = new ArrayList<>();
+        for (CompletableFuture<ProductBatchDetailsDto> lookup : lookups) {
+            ProductBatchDetailsDto batchDetails = lookup.join();
+            if (batchDetails.getProducts() != null) {
+                productDetailsById.putAll(batchDetails.getProducts());
+            }
+        }
+        productNames.forEach((productId, productName) -> {
+            if (!productDetailsById.containsKey(productId)) {
+                missingProductNames.add(productName);
+            }
+        });
+        if (!missingProductNames.isEmpty()) {
+            log.warn("Order creation rejected: products not found in ProductService: {}", missingProductNames);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Order creation failed: The following products are no longer available: " + String.join(", ", missingProductNames));
+        }
+        return productDetailsById;
+    }
+
+    private ProductBatchDetailsDto fetchProductDetailsBatch(List<String> productIds, long deadline) {
+        try {
+            CustomResponse<ProductBatchDetailsDto> batchResponseWrapper =
+                    productServiceClient.getProductDetailsBatch(new ProductBatchRequestDto(productIds), timeoutsUntil(deadline));
+
+            if (batchResponseWrapper == null || !Boolean.TRUE.equals(batchResponseWrapper.getIsSuccess()) || batchResponseWrapper.getResponse() == null) {
+                log.error("Failed to fetch product details for Product IDs: {}. ProductService response was not successful or body was null.", productIds);
+                throw new RuntimeException("Product details could not be retrieved for " + productIds.size() + " products");
+            }
+            return batchResponseWrapper.getResponse();
+        } catch (Exception e) {
+            log.error("Error fetching product details for Product IDs: {}. Error: {}", productIds, e.getMessage(), e);
+            throw new RuntimeException("Order creation failed: Could not retrieve product details. Please try again later.", e);
+        }
+    }
+
+    // The whole order is held with one call; productservice takes all lines or none, so a failure leaves no stock behind.
+    // The hold keeps the stock aside only until it expires: an order whose checkout is abandoned gets its stock back
+    // without anyone having to cancel it, and only a successful payment (or shipping) confirms the hold for good.
+    private void holdStock(OrderEntity savedOrder, long deadline) {
+        List<StockHoldRequestDto.Line> lines = savedOrder.getItems().stream()
+                .map(item -> new StockHoldRequestDto.Line(item.getProductId(), item.getQuantity()))
+                .toList();
+
+        List<CompletableFuture<StockHoldResultDto>> hold = new ArrayList<>();
+        hold.add(submitProductCall(hold, () -> placeStockHold(savedOrder.getId(), lines, deadline)));
+        awaitProductCalls(hold, deadline, "Order creation failed: Product stock could not be reserved in time. Order ID " +
+                savedOrder.getId() + " might need reconciliation.");
+
+        StockHoldResultDto result = hold.get(0).join();
+        if (!result.isReserved()) {
+            String rejectedLines = result.getLines().stream()
+                    .filter(line -> !"RESERVED".equals(line.getStatus()) && !"ROLLED_BACK".equals(line.getStatus()))
+                    .map(line -> productNameOf(savedOrder, line.getProductId()) + " (" + line.getStatus() +
+                            ", available: " + (line.getAvailableAmount() != null ? line.getAvailableAmount().intValue() : 0) +
+                            ", requested: " + line.getRequestedQuantity() + ")")
+                    .distinct()
+                    .collect(Collectors.joining(", "));
+            log.warn("Stock hold for Order ID {} rejected: {}", savedOrder.getId(), rejectedLines);
+            throw new InsufficientStockException("Insufficient stock for: " + rejectedLines);
+        }
+        log.info("Stock held for Order ID {} ({} lines) until {}", savedOrder.getId(), lines.size(), result.getExpiresAt());
+    }
+
+    private StockHoldResultDto placeStockHold(String orderId, List<StockHoldRequestDto.Line> lines, long deadline) {
+        try {
+            CustomResponse<StockHoldResultDto> holdWrapper = productServiceClient.placeStockHold(
+                    new StockHoldRequestDto(orderId, orderCreationConfigurationParameter.getStockHoldTtl().toSeconds(), lines),
+                    timeoutsUntil(deadline));
+
+            if (holdWrapper == null || !Boolean.TRUE.equals(holdWrapper.getIsSuccess()) || holdWrapper.getResponse() == null) {
+                log.error("Stock hold for Order ID {} returned no result from ProductService.", orderId);
+                throw new RuntimeException("Stock hold returned no result");
+            }
+            return holdWrapper.getResponse();
+        } catch (Exception e) {
+            log.error("Failed to hold stock for Order ID {}. Error: {}", orderId, e.getMessage(), e);
+            throw new RuntimeException("Order creation failed: Could not update product stock. Order ID " + orderId +
+                    " might need reconciliation.", e);
+        }
+    }
+
+    private static String productNameOf(OrderEntity order, String productId) {
+        return order.getItems().stream()
+                .filter(item -> item.getProductId().equals(productId))
+                .map(OrderItemEntity::getProductName)
+                .findFirst()
+                .orElse(productId);
+    }
+
+    private <T> CompletableFuture<T> submitProductCall(Collection<? extends CompletableFuture<?>> alreadySubmitted, Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, productCallExecutor);
+        } catch (RejectedExecutionException e) {
+            alreadySubmitted.forEach(future -> future.cancel(true));
+            throw new ProductServiceUnavailableException("Order service is busy. Please try again later.", e);
+        }
+    }
+
+    // Waits for every call up to the shared deadline; on timeout the caller gets a 503 right away. Cancelling the futures
+    // does not interrupt a blocked Feign call, but each call's own read timeout ends at the same deadline (timeoutsUntil),
+    // so its product-call thread is free again by then instead of waiting on productservice for the default 60s
+    private void awaitProductCalls(Collection<? extends CompletableFuture<?>> calls, long deadline, String timeoutMessage) {
+        CompletableFuture<Void> all = CompletableFuture.allOf(calls.toArray(new CompletableFuture[0]));
+        try {
+            all.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            calls.forEach(call -> call.cancel(true));
+            throw new ProductServiceUnavailableException(timeoutMessage, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            calls.forEach(call -> call.cancel(true));
+            throw new ProductServiceUnavailableException(timeoutMessage, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    // Connect and read timeouts of a productservice call: whatever is left of the deadline, and at least 1ms, since Feign
+    // treats 0 as no timeout
+    private static Request.Options timeoutsUntil(long deadline) {
+        long remainingMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+        return new Request.Options(remainingMillis, TimeUnit.MILLISECONDS, remainingMillis, TimeUnit.MILLISECONDS, true);
+    }
+
+    private void cancelOrder(String orderId, boolean releaseStockHold) {
+        transactionTemplate.executeWithoutResult(status -> orderRepository.findById(orderId).ifPresent(order -> {
+            order.setOrderStatus(OrderStatus.CANCELLED);
+            orderRepository.save(order);
+            orderSummaryService.projectStatus(order);
+            orderResponseCache.invalidateAfterCommit(orderId);
+            if (releaseStockHold) {
+                outboxService.enqueue(orderId, OutboxCommandType.RELEASE_STOCK_HOLD);
+            }
+        }));
     }
 
     // ... (rest of the service implementation: getOrderHistoryForCurrentUser, getOrderByIdForCurrentUser, updateOrderStatus, getAllOrdersForAdmin) ...
     // These methods do not need changes based on the error.
     @Override
     @Transactional(readOnly = true)
-    public List<OrderHistoryItemResponse> getOrderHistoryForCurrentUser() {
+    public CustomCursorPagingResponse<OrderHistoryItemResponse> getOrderHistoryForCurrentUser(String cursor, int size) {
         String userId = getCurrentUserId();
-        log.info("OrderServiceImpl :: Fetching order history for User ID: {}", userId);
-        List<OrderEntity> orders = orderRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        return orderMapper.orderEntitiesToOrderHistoryItemResponses(orders);
+        log.info("OrderServiceImpl :: Fetching order history page for User ID: {}", userId);
+        int pageSize = toPageSize(size);
+        // Served from the ORDER_SUMMARY read model: one index-only query per page
+        Window<OrderSummaryEntity> page = orderSummaryRepository.findByUserIdOrderByCreatedAtDescOrderIdDesc(
+                userId, decodeCursor(cursor), Limit.of(pageSize));
+        List<OrderHistoryItemResponse> content = page.stream()
+                .map(orderMapper::orderSummaryEntityToOrderHistoryItemResponse)
+                .toList();
+        return toCursorPage(page, content, pageSize);
     }
 
     @Override
@@ -171,19 +543,20 @@ public class OrderServiceImpl implements OrderService {
         String userId = getCurrentUserId();
         log.info("OrderServiceImpl :: Fetching Order ID: {} for User ID: {}", orderId, userId);
 
-        OrderEntity orderEntity;
+        // Polled while an order waits for its payment, so the mapped order is cached and the owner checked in memory
+        OrderResponse orderResponse = orderResponseCache.get(orderId, id -> orderRepository.findWithItemsById(id)
+                .map(orderMapper::orderEntityToOrderResponse)
+                .orElse(null));
         if (isCurrentUserAdmin()) {
             log.debug("User {} is ADMIN, fetching Order ID: {} directly.", userId, orderId);
-            orderEntity = orderRepository.findById(orderId)
-                    .orElseThrow(() -> new OrderNotFoundException("Order not found with ID: " + orderId));
-        } else {
-            orderEntity = orderRepository.findByIdAndUserId(orderId, userId)
-                    .orElseThrow(() -> {
-                        log.warn("OrderServiceImpl :: Order not found or access denied for Order ID: {} and User ID: {}", orderId, userId);
-                        return new OrderNotFoundException("Order not found or you do not have permission to view it.");
-                    });
+            if (orderResponse == null) {
+                throw new OrderNotFoundException("Order not found with ID: " + orderId);
+            }
+        } else if (orderResponse == null || !userId.equals(orderResponse.getUserId())) {
+            log.warn("OrderServiceImpl :: Order not found or access denied for Order ID: {} and User ID: {}", orderId, userId);
+            throw new OrderNotFoundException("Order not found or you do not have permission to view it.");
         }
-        return orderMapper.orderEntityToOrderResponse(orderEntity);
+        return orderResponse;
     }
 
     // In OrderServiceImpl.java
@@ -205,37 +578,228 @@ public class OrderServiceImpl implements OrderService {
             return orderMapper.orderEntityToOrderResponse(orderEntity);
         }
 
-        // The state machine logic is correct and works with the enum directly.
-        boolean isValidTransition = switch (currentStatus) {
-            case PENDING, PENDING_PAYMENT ->
-                    newStatus == OrderStatus.SHIPPED || newStatus == OrderStatus.CANCELLED;
-
-            case SHIPPED ->
-                    newStatus == OrderStatus.DELIVERED || newStatus == OrderStatus.CANCELLED;
-
-            // This default case handles DELIVERED, CANCELLED, and any other states.
-            default -> false;
-        };
-
-        if (!isValidTransition) {
+        if (!currentStatus.canTransitionTo(newStatus)) {
             String errorMessage = "Cannot change order status from " + currentStatus + " to " + newStatus;
             log.error("Invalid status transition for Order ID: {}. {}", orderId, errorMessage);
             throw new InvalidOrderStatusException(errorMessage);
         }
 
         log.info("Updating status for Order ID {} from {} to {}", orderId, currentStatus, newStatus);
-        orderEntity.setOrderStatus(newStatus);
-        OrderEntity updatedOrder = orderRepository.save(orderEntity);
+        OrderEntity updatedOrder = transition(orderEntity, newStatus);
 
         log.info("Order ID: {} status successfully updated to: {}", orderId, newStatus);
         return orderMapper.orderEntityToOrderResponse(updatedOrder);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<String, String> applyStatusTransitions(Map<String, OrderStatus> newStatusByOrderId) {
+        Map<String, String> rejected = new LinkedHashMap<>();
+        Map<String, OrderEntity> orders = orderRepository.findAllById(newStatusByOrderId.keySet()).stream()
+                .collect(Collectors.toMap(OrderEntity::getId, Function.identity()));
+
+        newStatusByOrderId.forEach((orderId, newStatus) -> {
+            OrderEntity orderEntity = orders.get(orderId);
+            if (orderEntity == null) {
+                rejected.put(orderId, "Order not found with ID: " + orderId);
+            } else if (orderEntity.getOrderStatus() != newStatus) {
+                if (orderEntity.getOrderStatus().canTransitionTo(newStatus)) {
+                    transition(orderEntity, newStatus);
+                } else {
+                    rejected.put(orderId, "Cannot change order status from " + orderEntity.getOrderStatus() + " to " + newStatus);
+                }
+            }
+        });
+        log.info("OrderServiceImpl :: Applied {} of {} status changes", newStatusByOrderId.size() - rejected.size(), newStatusByOrderId.size());
+        return rejected;
+    }
+
+    @Override
+    public void bulkUpdateOrderStatus(BulkOrderStatusUpdateRequest request, Consumer<List<BulkOrderStatusResult>> chunkConsumer) {
+        String updatedBy = getCurrentUserId();
+        long start = System.nanoTime();
+        int total = 0;
+
+        if (request.getFilter() != null) {
+            OrderStatusFilterDto filter = request.getFilter();
+            LocalDateTime createdBefore = filter.getCreatedBefore() != null ? filter.getCreatedBefore() : LocalDateTime.now();
+            log.info("OrderServiceImpl :: Bulk status run moving {} orders created before {} to {}",
+                    filter.getCurrentStatus(), createdBefore, filter.getNewStatus());
+            String afterId = "";
+            List<BulkOrderStatusResult> results;
+            do {
+                String chunkAfterId = afterId;
+                results = transactionTemplate.execute(status -> {
+                    Map<String, OrderStatus> currentStatusByOrderId = toStatusMap(orderRepository.findStatusesForUpdateByStatusAfterId(
+                            filter.getCurrentStatus(), createdBefore, chunkAfterId, Limit.of(BULK_STATUS_CHUNK_SIZE)));
+                    Map<String, OrderStatus> newStatusByOrderId = new LinkedHashMap<>();
+                    currentStatusByOrderId.keySet().forEach(orderId -> newStatusByOrderId.put(orderId, filter.getNewStatus()));
+                    return applyBulkStatusChunk(newStatusByOrderId, currentStatusByOrderId, updatedBy);
+                });
+                if (!results.isEmpty()) {
+                    afterId = results.get(results.size() - 1).getOrderId();
+                    total += results.size();
+                    chunkConsumer.accept(results);
+                }
+            } while (results.size() == BULK_STATUS_CHUNK_SIZE);
+        } else {
+            // A later change of the same order replaces an earlier one
+            Map<String, OrderStatus> newStatusByOrderId = new LinkedHashMap<>();
+            request.getUpdates().forEach(update -> newStatusByOrderId.put(update.getOrderId(), update.getNewStatus()));
+            log.info("OrderServiceImpl :: Bulk status run over {} listed orders", newStatusByOrderId.size());
+            List<String> orderIds = new ArrayList<>(newStatusByOrderId.keySet());
+            for (int from = 0; from < orderIds.size(); from += BULK_STATUS_CHUNK_SIZE) {
+                Map<String, OrderStatus> chunk = new LinkedHashMap<>();
+                orderIds.subList(from, Math.min(from + BULK_STATUS_CHUNK_SIZE, orderIds.size()))
+                        .forEach(orderId -> chunk.put(orderId, newStatusByOrderId.get(orderId)));
+                List<BulkOrderStatusResult> results = transactionTemplate.execute(status -> applyBulkStatusChunk(
+                        chunk, toStatusMap(orderRepository.findStatusesForUpdateByIdIn(chunk.keySet())), updatedBy));
+                total += results.size();
+                chunkConsumer.accept(results);
+            }
+        }
+        log.info("OrderServiceImpl :: Bulk status run settled {} orders in {} ms", total, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Validates one chunk against the statuses locked by the caller's transaction and writes the allowed changes
+    // with one update per (current, new) status group, followed by their summary rows and stock commands
+    private List<BulkOrderStatusResult> applyBulkStatusChunk(Map<String, OrderStatus> newStatusByOrderId,
+                                                             Map<String, OrderStatus> currentStatusByOrderId,
+                                                             String updatedBy) {
+        LocalDateTime now = LocalDateTime.now();
+        List<BulkOrderStatusResult> results = new ArrayList<>(newStatusByOrderId.size());
+        Map<StatusChange, List<String>> orderIdsByChange = new LinkedHashMap<>();
+
+        newStatusByOrderId.forEach((orderId, newStatus) -> {
+            OrderStatus currentStatus = currentStatusByOrderId.get(orderId);
+            BulkOrderStatusResult.BulkOrderStatusResultBuilder result = BulkOrderStatusResult.builder()
+                    .orderId(orderId)
+                    .previousStatus(currentStatus)
+                    .newStatus(newStatus);
+            if (currentStatus == null) {
+                result.outcome(BulkOrderStatusOutcome.NOT_FOUND).reason("Order not found with ID: " + orderId);
+            } else if (currentStatus == newStatus) {
+                result.outcome(BulkOrderStatusOutcome.UNCHANGED);
+            } else if (!currentStatus.canTransitionTo(newStatus)) {
+                result.outcome(BulkOrderStatusOutcome.REJECTED).reason("Cannot change order status from " + currentStatus + " to " + newStatus);
+            } else {
+                result.outcome(BulkOrderStatusOutcome.UPDATED);
+                orderIdsByChange.computeIfAbsent(new StatusChange(currentStatus, newStatus), change -> new ArrayList<>()).add(orderId);
+            }
+            results.add(result.build());
+        });
+
+        orderIdsByChange.forEach((change, orderIds) -> {
+            int updated = orderRepository.updateStatus(orderIds, change.currentStatus(), change.newStatus(), now, updatedBy);
+            if (updated != orderIds.size()) {
+                // Cannot happen while the rows are locked; rolls the chunk back rather than report wrong results
+                throw new IllegalStateException("Expected to update " + orderIds.size() + " orders from "
+                        + change.currentStatus() + " but updated " + updated);
+            }
+            if (orderSummaryRepository.updateStatus(orderIds, change.newStatus(), now) != orderIds.size()) {
+                projectMissingSummaries(orderIds);
+            }
+            orderResponseCache.invalidateAfterCommit(orderIds);
+            OutboxCommandType stockCommand = stockCommandFor(change.currentStatus(), change.newStatus());
+            if (stockCommand != null) {
+                outboxService.enqueueAll(orderIds, stockCommand);
+            }
+        });
+        return results;
+    }
+
+    // Orders written before the projection existed get their summary row here, as projectStatus does
+    private void projectMissingSummaries(List<String> orderIds) {
+        Set<String> projected = orderSummaryRepository.findAllById(orderIds).stream()
+                .map(OrderSummaryEntity::getOrderId)
+                .collect(Collectors.toSet());
+        orderRepository.findAllById(orderIds.stream().filter(orderId -> !projected.contains(orderId)).toList())
+                .forEach(orderSummaryService::project);
+    }
+
+    private static Map<String, OrderStatus> toStatusMap(List<OrderRepository.OrderStatusView> views) {
+        Map<String, OrderStatus> statusByOrderId = new LinkedHashMap<>();
+        views.forEach(view -> statusByOrderId.put(view.getId(), view.getOrderStatus()));
+        return statusByOrderId;
+    }
+
+    private record StatusChange(OrderStatus currentStatus, OrderStatus newStatus) {
+    }
+
+    // Until it is paid for, an order only holds its stock: a successful payment (or shipping an order that never
+    // reported one) takes it for good, a failed payment or a cancellation gives it back. A confirmed order is already
+    // taken, so shipping it sends nothing and cancelling it returns its stock. Shipped stock is gone either way.
+    // The command commits together with the status and is delivered by the outbox dispatcher.
+    private static OutboxCommandType stockCommandFor(OrderStatus currentStatus, OrderStatus newStatus) {
+        boolean holding = currentStatus == OrderStatus.PENDING || currentStatus == OrderStatus.PENDING_PAYMENT;
+        if (holding && (newStatus == OrderStatus.CONFIRMED || newStatus == OrderStatus.SHIPPED)) {
+            return OutboxCommandType.CONFIRM_STOCK_HOLD;
+        }
+        if (holding && newStatus == OrderStatus.PAYMENT_FAILED) {
+            return OutboxCommandType.RELEASE_STOCK_HOLD;
+        }
+        if ((holding || currentStatus == OrderStatus.CONFIRMED) && newStatus == OrderStatus.CANCELLED) {
+            return OutboxCommandType.RELEASE_STOCK_HOLD;
+        }
+        return null;
+    }
+
+    // Changes the status of an order whose transition was already validated, in the caller's transaction
+    private OrderEntity transition(OrderEntity orderEntity, OrderStatus newStatus) {
+        OutboxCommandType stockCommand = stockCommandFor(orderEntity.getOrderStatus(), newStatus);
+        if (stockCommand != null) {
+            outboxService.enqueue(orderEntity.getId(), stockCommand);
+        }
+
+        orderEntity.setOrderStatus(newStatus);
+        OrderEntity updatedOrder = orderRepository.save(orderEntity);
+        orderSummaryService.projectStatus(updatedOrder);
+        orderResponseCache.invalidateAfterCommit(updatedOrder.getId());
+        return updatedOrder;
+    }
+
     @Override
     @Transactional(readOnly = true)
-    public Page<OrderResponse> getAllOrdersForAdmin(Pageable pageable) {
-        log.info("OrderServiceImpl :: Admin fetching all orders with pagination: {}", pageable);
-        Page<OrderEntity> orderEntityPage = orderRepository.findAll(pageable);
-        return orderEntityPage.map(orderMapper::orderEntityToOrderResponse);
+    public CustomCursorPagingResponse<OrderSummaryResponse> getAllOrdersForAdmin(String cursor, int size) {
+        log.info("OrderServiceImpl :: Admin fetching orders page of size {}", size);
+        int pageSize = toPageSize(size);
+        Window<OrderSummaryEntity> page = orderSummaryRepository.findAllByOrderByCreatedAtDescOrderIdDesc(decodeCursor(cursor), Limit.of(pageSize));
+        List<OrderSummaryResponse> content = page.stream().map(orderMapper::orderSummaryEntityToOrderSummaryResponse).toList();
+        return toCursorPage(page, content, pageSize);
+    }
+
+    private static int toPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    // A cursor is the (createdAt, id) keyset of the last order on the previous page, Base64URL-encoded
+    private static ScrollPosition decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String[] keyset = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("createdAt", LocalDateTime.parse(keyset[0]));
+            keys.put("orderId", keyset[1]);
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page cursor");
+        }
+    }
+
+    private static <T> CustomCursorPagingResponse<T> toCursorPage(Window<OrderSummaryEntity> page, List<T> content, int pageSize) {
+        String nextCursor = null;
+        if (page.hasNext() && !page.isEmpty()) {
+            OrderSummaryEntity last = page.getContent().get(page.size() - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((last.getCreatedAt() + "|" + last.getOrderId()).getBytes(StandardCharsets.UTF_8));
+        }
+        return CustomCursorPagingResponse.<T>builder()
+                .content(content)
+                .pageSize(pageSize)
+                .hasNextPage(nextCursor != null)
+                .nextCursor(nextCursor)
+                .build();
     }
 }
\ No newline at end of file
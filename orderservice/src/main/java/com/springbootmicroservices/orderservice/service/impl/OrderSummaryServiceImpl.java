@@ -0,0 +1,64 @@
+package com.springbootmicroservices.orderservice.service.impl;
+
+import com.springbootmicroservices.orderservice.model.order.entity.OrderEntity;
+import com.springbootmicroservices.orderservice.model.order.entity.OrderItemEntity;
+import com.springbootmicroservices.orderservice.model.order.entity.OrderSummaryEntity;
+import com.springbootmicroservices.orderservice.repository.OrderSummaryRepository;
+import com.springbootmicroservices.orderservice.service.OrderSummaryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderSummaryServiceImpl implements OrderSummaryService {
+
+    private final OrderSummaryRepository orderSummaryRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY) // The row must commit or roll back together with the order
+    public void project(OrderEntity order) {
+        OrderSummaryEntity summary = orderSummaryRepository.findById(order.getId())
+                .orElseGet(() -> OrderSummaryEntity.builder()
+                        .orderId(order.getId())
+                        .userId(order.getUserId())
+                        .createdAt(order.getCreatedAt())
+                        .build());
+
+        List<OrderItemEntity> items = order.getItems() != null ? order.getItems() : List.of();
+        summary.setOrderStatus(order.getOrderStatus());
+        summary.setTotalAmount(order.getTotalAmount());
+        summary.setItemCount(items.stream().map(OrderItemEntity::getQuantity).filter(Objects::nonNull).mapToInt(Integer::intValue).sum());
+        summary.setFirstProductName(items.isEmpty() ? null : items.get(0).getProductName());
+        summary.setUpdatedAt(LocalDateTime.now());
+        orderSummaryRepository.save(summary);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void projectStatus(OrderEntity order) {
+        orderSummaryRepository.findById(order.getId()).ifPresentOrElse(summary -> {
+            summary.setOrderStatus(order.getOrderStatus());
+            summary.setUpdatedAt(LocalDateTime.now());
+        }, () -> project(order)); // Orders written before the projection existed, until the next rebuild
+    }
+
+    @Override
+    @Transactional
+    public int rebuild() {
+        long start = System.nanoTime();
+        orderSummaryRepository.lockForRebuild();
+        int deleted = orderSummaryRepository.deleteAllInBulk();
+        int written = orderSummaryRepository.insertFromOrders(LocalDateTime.now());
+        log.info("OrderSummaryServiceImpl :: Rebuilt ORDER_SUMMARY: {} rows replaced by {} in {} ms",
+                deleted, written, (System.nanoTime() - start) / 1_000_000);
+        return written;
+    }
+}
@@ -0,0 +1,54 @@
+package com.springbootmicroservices.orderservice.service.impl;
+
+import com.springbootmicroservices.orderservice.cache.OrderResponseCache;
+import com.springbootmicroservices.orderservice.model.outbox.entity.OutboxMessageEntity;
+import com.springbootmicroservices.orderservice.model.outbox.enums.OutboxCommandType;
+import com.springbootmicroservices.orderservice.model.outbox.enums.OutboxMessageStatus;
+import com.springbootmicroservices.orderservice.repository.OutboxMessageRepository;
+import com.springbootmicroservices.orderservice.service.OutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final OrderResponseCache orderResponseCache; // A queued command always belongs to a change of its order
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY) // Only meaningful together with the order change it belongs to
+    public void enqueue(String orderId, OutboxCommandType commandType) {
+        outboxMessageRepository.save(message(orderId, commandType, LocalDateTime.now()));
+        orderResponseCache.invalidateAfterCommit(orderId);
+        log.debug("OutboxServiceImpl :: Queued {} for Order ID {}", commandType, orderId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(Collection<String> orderIds, OutboxCommandType commandType) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxMessageRepository.saveAll(orderIds.stream()
+                .map(orderId -> message(orderId, commandType, now))
+                .toList());
+        orderResponseCache.invalidateAfterCommit(orderIds);
+        log.debug("OutboxServiceImpl :: Queued {} for {} orders", commandType, orderIds.size());
+    }
+
+    private static OutboxMessageEntity message(String orderId, OutboxCommandType commandType, LocalDateTime now) {
+        return OutboxMessageEntity.builder()
+                .orderId(orderId)
+                .commandType(commandType)
+                .status(OutboxMessageStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .build();
+    }
+}
@@ -1,23 +1,33 @@
 package com.springbootmicroservices.orderservice.service.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springbootmicroservices.orderservice.config.PaymentWebhookConfigurationParameter;
 import com.springbootmicroservices.orderservice.exception.OrderNotFoundException;
 import com.springbootmicroservices.orderservice.exception.PaymentProcessingException;
 import com.springbootmicroservices.orderservice.model.order.dto.request.PaymentRequestDto;
 import com.springbootmicroservices.orderservice.model.order.dto.response.PaymentResponse;
 import com.springbootmicroservices.orderservice.model.order.entity.OrderEntity;
 import com.springbootmicroservices.orderservice.repository.OrderRepository;
+import com.springbootmicroservices.orderservice.repository.PaymentEventRepository;
 import com.springbootmicroservices.orderservice.service.PaymentService;
 import com.stripe.Stripe;
+import com.stripe.exception.SignatureVerificationException;
 import com.stripe.exception.StripeException;
 import com.stripe.model.checkout.Session;
+import com.stripe.net.Webhook;
 import com.stripe.param.checkout.SessionCreateParams;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -27,6 +37,9 @@ import java.util.stream.Collectors;
 public class PaymentServiceImpl implements PaymentService {
 
     private final OrderRepository orderRepository;
+    private final PaymentEventRepository paymentEventRepository;
+    private final PaymentWebhookConfigurationParameter paymentWebhookConfigurationParameter;
+    private final ObjectMapper objectMapper;
 
     // The Stripe secret key is now hardcoded as requested.
 
@@ -91,4 +104,39 @@ public class PaymentServiceImpl implements PaymentService {
             throw new PaymentProcessingException("Could not create Stripe payment session.");
         }
     }
+
+    // Only the signature check and one insert happen while Stripe waits; the status change is applied by the PaymentEventProcessor
+    @Override
+    public void handleStripeWebhook(String payload, String sigHeader) {
+        if (!paymentWebhookConfigurationParameter.hasSecret()) {
+            log.error("Stripe webhook received, but stripe.webhook-secret is not configured. Rejecting it so Stripe retries later.");
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Stripe webhook is not configured.");
+        }
+
+        try {
+            Webhook.Signature.verifyHeader(payload, sigHeader, paymentWebhookConfigurationParameter.getSecret(),
+                    paymentWebhookConfigurationParameter.getTolerance().toSeconds());
+        } catch (SignatureVerificationException e) {
+            log.warn("Stripe webhook signature verification failed: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid Stripe signature.");
+        }
+
+        JsonNode event;
+        try {
+            event = objectMapper.readTree(payload);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Stripe webhook payload is not valid JSON.");
+        }
+        String eventId = event.path("id").asText("");
+        String eventType = event.path("type").asText("");
+        if (eventId.isBlank() || eventType.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Stripe webhook payload has no event id or type.");
+        }
+
+        if (paymentEventRepository.insertIfAbsent(eventId, eventType, payload, LocalDateTime.now()) == 1) {
+            log.debug("Stripe event {} ({}) stored in the payment event inbox.", eventId, eventType);
+        } else {
+            log.debug("Stripe event {} ({}) was already received. Ignoring the redelivery.", eventId, eventType);
+        }
+    }
 }
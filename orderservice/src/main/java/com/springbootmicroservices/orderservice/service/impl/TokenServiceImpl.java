@@ -1,11 +1,13 @@
 package com.springbootmicroservices.orderservice.service.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.springbootmicroservices.orderservice.config.TokenConfigurationParameter;
 import com.springbootmicroservices.orderservice.model.auth.enums.TokenClaims; // Your enum
 import com.springbootmicroservices.orderservice.service.TokenService;
 import io.jsonwebtoken.*; // Includes Claims, Jws, JwtException, ExpiredJwtException, etc.
 import io.jsonwebtoken.security.SignatureException;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -16,31 +18,61 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class TokenServiceImpl implements TokenService {
 
-    private final TokenConfigurationParameter tokenConfigurationParameter;
+    private final JwtParser jwtParser;
+
+    // Verified token hash -> parsed token; an entry never outlives the token's exp
+    private final Cache<String, Jws<Claims>> verifiedTokens;
+
+    public TokenServiceImpl(final TokenConfigurationParameter tokenConfigurationParameter) {
+        // Parsers built by JwtParserBuilder are immutable and safe to share across request threads
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(tokenConfigurationParameter.getPublicKey())
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(tokenConfigurationParameter.getVerifiedTokenCacheSize())
+                .expireAfter(new UntilTokenExpiry(tokenConfigurationParameter.getVerifiedTokenCacheTtl()))
+                .build();
+    }
 
     private Jws<Claims> parseAndValidateJws(String jwt) {
         if (jwt == null || jwt.isBlank()) {
             log.warn("JWT string is null or empty.");
             throw new BadCredentialsException("JWT token cannot be null or empty.");
         }
+
+        String tokenHash = hash(jwt);
+        Jws<Claims> cached = verifiedTokens.getIfPresent(tokenHash);
+        if (cached != null && isUnexpired(cached.getBody())) {
+            return cached;
+        }
+
+        Jws<Claims> claimsJws = verify(jwt);
+        if (isUnexpired(claimsJws.getBody())) {
+            verifiedTokens.put(tokenHash, claimsJws);
+        }
+        return claimsJws;
+    }
+
+    private Jws<Claims> verify(String jwt) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(tokenConfigurationParameter.getPublicKey())
-                    .build()
-                    .parseClaimsJws(jwt);
+            return jwtParser.parseClaimsJws(jwt);
         } catch (ExpiredJwtException e) {
             log.warn("JWT token is expired. Token Snippet: [{}...], Details: {}", jwt.substring(0, Math.min(jwt.length(), 20)), e.getMessage());
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Token has expired.", e);
@@ -62,6 +94,41 @@ public class TokenServiceImpl implements TokenService {
         }
     }
 
+    // Only tokens carrying exp are remembered, so a cached entry can never be served past its expiry
+    private static boolean isUnexpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.toInstant().isAfter(Instant.now());
+    }
+
+    private static String hash(String jwt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(jwt.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record UntilTokenExpiry(Duration maxTtl) implements Expiry<String, Jws<Claims>> {
+
+        @Override
+        public long expireAfterCreate(String key, Jws<Claims> value, long currentTime) {
+            Duration untilExpiry = Duration.between(Instant.now(), value.getBody().getExpiration().toInstant());
+            Duration ttl = untilExpiry.compareTo(maxTtl) < 0 ? untilExpiry : maxTtl;
+            return Math.max(ttl.toNanos(), 0L);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jws<Claims> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jws<Claims> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
     @Override
     public void validateToken(final String jwt) {
         parseAndValidateJws(jwt);
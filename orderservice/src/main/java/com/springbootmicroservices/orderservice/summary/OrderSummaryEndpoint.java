@@ -0,0 +1,24 @@
+package com.springbootmicroservices.orderservice.summary;
+
+import com.springbootmicroservices.orderservice.service.OrderSummaryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Rebuild command for the ORDER_SUMMARY read model: POST /actuator/ordersummary on the internal management port.
+// Needed after deploying the projection on an existing database, or whenever it is suspected to have drifted.
+@Component
+@Endpoint(id = "ordersummary")
+@RequiredArgsConstructor
+public class OrderSummaryEndpoint {
+
+    private final OrderSummaryService orderSummaryService;
+
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        return Map.of("rows", orderSummaryService.rebuild());
+    }
+}
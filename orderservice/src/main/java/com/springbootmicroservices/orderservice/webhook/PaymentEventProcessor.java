@@ -0,0 +1,260 @@
+package com.springbootmicroservices.orderservice.webhook;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springbootmicroservices.orderservice.config.PaymentWebhookConfigurationParameter;
+import com.springbootmicroservices.orderservice.model.order.enums.OrderStatus;
+import com.springbootmicroservices.orderservice.model.payment.entity.PaymentEventEntity;
+import com.springbootmicroservices.orderservice.model.payment.enums.PaymentEventStatus;
+import com.springbootmicroservices.orderservice.repository.PaymentEventRepository;
+import com.springbootmicroservices.orderservice.service.OrderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Drains the PAYMENT_EVENT_INBOX: each round locks a batch of pending Stripe events, applies the order status
+// changes they carry through OrderService#applyStatusTransitions and settles the events, all in one transaction.
+// If that transaction fails, its events are applied again one transaction each, so one event that keeps failing
+// is counted against its own ATTEMPTS and ends FAILED instead of holding back the inbox.
+@Component
+@Slf4j
+public class PaymentEventProcessor {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final PaymentEventRepository paymentEventRepository;
+    private final OrderService orderService;
+    private final TransactionTemplate transactionTemplate;
+    private final PaymentWebhookConfigurationParameter paymentWebhookConfigurationParameter;
+    private final ObjectMapper objectMapper;
+
+    // order.payment.events{outcome} gives the sustained events per second, order.payment.events.batch.duration the cost of a round
+    private final Counter processedCounter;
+    private final Counter ignoredCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    public PaymentEventProcessor(PaymentEventRepository paymentEventRepository,
+                                 OrderService orderService,
+                                 TransactionTemplate transactionTemplate,
+                                 PaymentWebhookConfigurationParameter paymentWebhookConfigurationParameter,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry) {
+        this.paymentEventRepository = paymentEventRepository;
+        this.orderService = orderService;
+        this.transactionTemplate = transactionTemplate;
+        this.paymentWebhookConfigurationParameter = paymentWebhookConfigurationParameter;
+        this.objectMapper = objectMapper;
+
+        this.processedCounter = meterRegistry.counter("order.payment.events", "outcome", "processed");
+        this.ignoredCounter = meterRegistry.counter("order.payment.events", "outcome", "ignored");
+        this.failedCounter = meterRegistry.counter("order.payment.events", "outcome", "failed");
+        this.batchTimer = Timer.builder("order.payment.events.batch.duration")
+                .description("Time to apply and settle one batch of Stripe webhook events")
+                .register(meterRegistry);
+    }
+
+    // Keeps taking batches while they come back full, so a burst of webhooks is drained without waiting for the next poll
+    @Scheduled(fixedDelayString = "${stripe.webhook.poll-interval-ms:250}")
+    public void process() {
+        int processed;
+        do {
+            processed = processBatch();
+        } while (processed == paymentWebhookConfigurationParameter.getBatchSize());
+    }
+
+    @Scheduled(fixedDelayString = "${stripe.webhook.purge-interval-ms:3600000}")
+    public void purgeSettled() {
+        LocalDateTime receivedBefore = LocalDateTime.now().minus(paymentWebhookConfigurationParameter.getRetention());
+        int purged = paymentEventRepository.deleteSettledBefore(PaymentEventStatus.PENDING, receivedBefore);
+        if (purged > 0) {
+            log.debug("PaymentEventProcessor :: Purged {} settled payment events", purged);
+        }
+    }
+
+    int processBatch() {
+        Timer.Sample sample = Timer.start();
+        List<PaymentEventEntity> batch;
+        try {
+            batch = transactionTemplate.execute(status -> {
+                List<PaymentEventEntity> pending = paymentEventRepository.findPendingForUpdate(
+                        PaymentEventStatus.PENDING, Limit.of(paymentWebhookConfigurationParameter.getBatchSize()));
+                if (!pending.isEmpty()) {
+                    apply(pending, LocalDateTime.now());
+                }
+                return pending;
+            });
+        } catch (RuntimeException e) {
+            log.warn("PaymentEventProcessor :: Batch failed, applying its events one at a time: {}", e.getMessage());
+            batch = processOneByOne();
+        }
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        // Counted once the events have committed
+        batch.forEach(event -> outcomeCounter(event.getStatus()).increment());
+        sample.stop(batchTimer);
+        return batch.size();
+    }
+
+    // Returns the events settled here. Once an event of an order fails, the later events of that order wait for the
+    // next round, so an order's events are still applied in arrival order.
+    private List<PaymentEventEntity> processOneByOne() {
+        List<PaymentEventEntity> settled = new ArrayList<>();
+        try {
+            List<String> eventIds = transactionTemplate.execute(status -> paymentEventRepository.findPendingForUpdate(
+                            PaymentEventStatus.PENDING, Limit.of(paymentWebhookConfigurationParameter.getBatchSize()))
+                    .stream()
+                    .map(PaymentEventEntity::getEventId)
+                    .toList());
+            Set<String> heldBackOrderIds = new HashSet<>();
+
+            for (String eventId : eventIds) {
+                try {
+                    PaymentEventEntity event = transactionTemplate.execute(status -> paymentEventRepository
+                            .findByIdAndStatusForUpdate(eventId, PaymentEventStatus.PENDING)
+                            .filter(pending -> !heldBackOrderIds.contains(readChange(pending).orderId()))
+                            .map(pending -> {
+                                apply(List.of(pending), LocalDateTime.now());
+                                return pending;
+                            })
+                            .orElse(null));
+                    if (event != null) {
+                        settled.add(event);
+                    }
+                } catch (RuntimeException e) {
+                    PaymentEventEntity event = recordFailedAttempt(eventId, e);
+                    if (event == null) {
+                        continue;
+                    }
+                    if (event.getStatus() == PaymentEventStatus.FAILED) {
+                        settled.add(event);
+                    }
+                    String orderId = readChange(event).orderId();
+                    if (orderId != null) {
+                        heldBackOrderIds.add(orderId);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("PaymentEventProcessor :: Events stay pending for the next round: {}", e.getMessage(), e);
+        }
+        return settled;
+    }
+
+    private PaymentEventEntity recordFailedAttempt(String eventId, RuntimeException failure) {
+        return transactionTemplate.execute(status -> paymentEventRepository
+                .findByIdAndStatusForUpdate(eventId, PaymentEventStatus.PENDING)
+                .map(event -> {
+                    event.setAttempts(event.getAttempts() + 1);
+                    String error = failure.getClass().getSimpleName() + ": " + failure.getMessage();
+                    if (event.getAttempts() >= paymentWebhookConfigurationParameter.getMaxAttempts()) {
+                        settle(event, PaymentEventStatus.FAILED, error, LocalDateTime.now());
+                        log.error("PaymentEventProcessor :: Stripe event {} failed {} times and needs manual follow-up: {}",
+                                eventId, event.getAttempts(), error, failure);
+                    } else {
+                        event.setLastError(truncate(error));
+                        log.warn("PaymentEventProcessor :: Stripe event {} failed on attempt {}: {}", eventId, event.getAttempts(), error);
+                    }
+                    return event;
+                })
+                .orElse(null));
+    }
+
+    // Events of the same order are applied in the order Stripe's deliveries arrived: the first event of every order
+    // forms the first round of status changes, the second event the next round, and so on.
+    private void apply(List<PaymentEventEntity> batch, LocalDateTime now) {
+        List<Map<String, PaymentEventEntity>> rounds = new ArrayList<>();
+        Map<String, Integer> eventsPerOrder = new LinkedHashMap<>();
+        Map<PaymentEventEntity, OrderStatus> newStatusByEvent = new LinkedHashMap<>();
+
+        for (PaymentEventEntity event : batch) {
+            PaymentEventChange change = readChange(event);
+            if (change.error() != null) {
+                settle(event, PaymentEventStatus.FAILED, change.error(), now);
+                continue;
+            }
+            event.setOrderId(change.orderId());
+            if (change.newStatus() == null) {
+                settle(event, PaymentEventStatus.IGNORED, null, now);
+                continue;
+            }
+            int round = eventsPerOrder.merge(change.orderId(), 1, Integer::sum) - 1;
+            if (round == rounds.size()) {
+                rounds.add(new LinkedHashMap<>());
+            }
+            rounds.get(round).put(change.orderId(), event);
+            newStatusByEvent.put(event, change.newStatus());
+        }
+
+        for (Map<String, PaymentEventEntity> round : rounds) {
+            Map<String, OrderStatus> newStatusByOrderId = new LinkedHashMap<>();
+            round.forEach((orderId, event) -> newStatusByOrderId.put(orderId, newStatusByEvent.get(event)));
+
+            Map<String, String> rejected = orderService.applyStatusTransitions(newStatusByOrderId);
+            round.forEach((orderId, event) -> {
+                String reason = rejected.get(orderId);
+                if (reason != null) {
+                    log.warn("PaymentEventProcessor :: Stripe event {} for Order ID {} not applied: {}", event.getEventId(), orderId, reason);
+                }
+                settle(event, reason == null ? PaymentEventStatus.PROCESSED : PaymentEventStatus.FAILED, reason, now);
+            });
+        }
+    }
+
+    // Checkout sessions carry the order ID in their metadata (see PaymentServiceImpl#createStripeCheckoutSession)
+    private PaymentEventChange readChange(PaymentEventEntity event) {
+        JsonNode session;
+        try {
+            session = objectMapper.readTree(event.getPayload()).path("data").path("object");
+        } catch (JsonProcessingException e) {
+            return new PaymentEventChange(null, null, "Unreadable payload: " + e.getOriginalMessage());
+        }
+
+        OrderStatus newStatus = switch (event.getEventType()) {
+            // A completed checkout may still be waiting for a delayed payment method; that one reports again later
+            case "checkout.session.completed" ->
+                    "unpaid".equals(session.path("payment_status").asText()) ? null : OrderStatus.CONFIRMED;
+            case "checkout.session.async_payment_succeeded" -> OrderStatus.CONFIRMED;
+            case "checkout.session.async_payment_failed" -> OrderStatus.PAYMENT_FAILED;
+            default -> null;
+        };
+        String orderId = session.path("metadata").path("orderId").asText("");
+        return new PaymentEventChange(orderId.isBlank() ? null : orderId, orderId.isBlank() ? null : newStatus, null);
+    }
+
+    private void settle(PaymentEventEntity event, PaymentEventStatus status, String error, LocalDateTime now) {
+        event.setStatus(status);
+        event.setLastError(truncate(error));
+        event.setProcessedAt(now);
+    }
+
+    private static String truncate(String error) {
+        return error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private Counter outcomeCounter(PaymentEventStatus status) {
+        return switch (status) {
+            case PROCESSED -> processedCounter;
+            case IGNORED -> ignoredCounter;
+            default -> failedCounter;
+        };
+    }
+
+    private record PaymentEventChange(String orderId, OrderStatus newStatus, String error) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.springbootmicroservices.orderservice.accesslog;
+
+import com.springbootmicroservices.orderservice.config.AccessLogConfigurationParameter;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sampling, runtime switching and header redaction of the access log
+class AccessLogTest {
+
+    private final AccessLog accessLog = new AccessLog(new AccessLogConfigurationParameter(
+            true, 0.0, List.of("/api/v1/orders/admin/**=1.0"), 4096));
+
+    @Test
+    void successfulRequests_followRouteRate_andErrorsAreAlwaysLogged() {
+        assertTrue(accessLog.shouldLog("/api/v1/orders/admin/all", false));
+        assertFalse(accessLog.shouldLog("/api/v1/orders/history", false));
+        assertTrue(accessLog.shouldLog("/api/v1/orders/history", true));
+    }
+
+    @Test
+    void runtimeUpdate_overridesConfiguredRoutes_untilReset() {
+        accessLog.update(null, "/api/v1/orders/admin/all", 0.0);
+        assertFalse(accessLog.shouldLog("/api/v1/orders/admin/all", false));
+        assertTrue(accessLog.shouldLog("/api/v1/orders/admin/other", false));
+
+        accessLog.update(false, null, null);
+        assertFalse(accessLog.shouldLog("/api/v1/orders/history", true));
+
+        accessLog.reset();
+        assertTrue(accessLog.isEnabled());
+        assertTrue(accessLog.shouldLog("/api/v1/orders/admin/all", false));
+    }
+
+    @Test
+    void redact_hidesCredentials_andKeepsOtherHeaders() {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        headers.put("authorization", List.of("Bearer secret"));
+        headers.put("Content-Type", List.of("application/json"));
+
+        Map<String, String> redacted = AccessLog.redact(headers);
+
+        assertEquals("[REDACTED]", redacted.get("authorization"));
+        assertEquals("application/json", redacted.get("Content-Type"));
+    }
+
+    @Test
+    void redact_hidesTheServiceCredentialSecret_andKeepsTheServiceName() {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        headers.put("x-service-secret", List.of("service-secret"));
+        headers.put("X-Service-Name", List.of("orderservice"));
+
+        Map<String, String> redacted = AccessLog.redact(headers);
+
+        assertEquals("[REDACTED]", redacted.get("x-service-secret"));
+        assertEquals("orderservice", redacted.get("X-Service-Name"));
+    }
+}
@@ -0,0 +1,88 @@
+package com.springbootmicroservices.orderservice.filter;
+
+import com.springbootmicroservices.orderservice.config.TrustedEdgeConfigurationParameter;
+import com.springbootmicroservices.orderservice.model.auth.enums.IdentityHeader;
+import com.springbootmicroservices.orderservice.service.TokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Trusted-edge identity headers are used when valid; anything malformed or expired falls back to verifying the JWT
+class CustomBearerTokenAuthenticationFilterTest {
+
+    private static final String JWT = "header.payload.signature";
+    private static final String SECRET = "edge-secret";
+
+    private TokenService tokenService;
+    private CustomBearerTokenAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        tokenService = mock(TokenService.class);
+        filter = new CustomBearerTokenAuthenticationFilter(tokenService, new TrustedEdgeConfigurationParameter(true, SECRET));
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validIdentityHeaders_areTrustedWithoutVerifyingTheToken() throws Exception {
+        MockHttpServletRequest request = request(String.valueOf(Instant.now().plusSeconds(600).getEpochSecond()));
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals("user-1", ((Jwt) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).getClaimAsString("userId"));
+        verifyNoInteractions(tokenService);
+    }
+
+    @Test
+    void malformedExpiry_fallsBackToVerifyingTheToken() throws Exception {
+        when(tokenService.getAuthentication(JWT)).thenReturn(verified());
+
+        filter.doFilter(request("not-a-number"), new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(tokenService).getAuthentication(JWT);
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void expiredIdentityHeaders_fallBackToVerifyingTheToken() throws Exception {
+        when(tokenService.getAuthentication(JWT)).thenReturn(verified());
+
+        filter.doFilter(request(String.valueOf(Instant.now().minusSeconds(60).getEpochSecond())),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(tokenService).getAuthentication(JWT);
+    }
+
+    private static MockHttpServletRequest request(String expiresAt) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + JWT);
+        request.addHeader(IdentityHeader.EDGE_SECRET.getValue(), SECRET);
+        request.addHeader(IdentityHeader.USER_ID.getValue(), "user-1");
+        request.addHeader(IdentityHeader.USER_TYPE.getValue(), "USER");
+        request.addHeader(IdentityHeader.EXPIRES_AT.getValue(), expiresAt);
+        return request;
+    }
+
+    private static UsernamePasswordAuthenticationToken verified() {
+        Jwt principal = Jwt.withTokenValue(JWT).header("alg", "RS256").claim("userId", "user-1").build();
+        return new UsernamePasswordAuthenticationToken(principal, null, List.of());
+    }
+}
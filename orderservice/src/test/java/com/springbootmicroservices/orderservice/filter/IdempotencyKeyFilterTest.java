@@ -0,0 +1,255 @@
+package com.springbootmicroservices.orderservice.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springbootmicroservices.orderservice.config.IdempotencyConfigurationParameter;
+import com.springbootmicroservices.orderservice.model.auth.enums.TokenClaims;
+import com.springbootmicroservices.orderservice.model.common.entity.IdempotencyRecordEntity;
+import com.springbootmicroservices.orderservice.model.common.enums.IdempotencyRecordStatus;
+import com.springbootmicroservices.orderservice.repository.IdempotencyRecordRepository;
+import com.springbootmicroservices.orderservice.service.impl.IdempotencyServiceImpl;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+// POST /api/v1/orders with an Idempotency-Key, through the filter and the real IdempotencyServiceImpl. The repository
+// is a map standing in for IDEMPOTENCY_RECORD, shared by two filters the way two instances share the table.
+class IdempotencyKeyFilterTest {
+
+    private static final String ORDERS_URI = "/api/v1/orders";
+    private static final String CART = "{\"items\":[{\"productId\":\"product-1\",\"quantity\":2}]}";
+    private static final String OTHER_CART = "{\"items\":[{\"productId\":\"product-1\",\"quantity\":3}]}";
+
+    private final Map<String, IdempotencyRecordEntity> records = new ConcurrentHashMap<>();
+    private final AtomicInteger createdOrders = new AtomicInteger();
+    private final AtomicInteger recordLookups = new AtomicInteger();
+
+    private IdempotencyConfigurationParameter idempotencyConfigurationParameter;
+    private IdempotencyKeyFilter filter;
+    private ExecutorService requests;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyConfigurationParameter = new IdempotencyConfigurationParameter(List.of(ORDERS_URI), Duration.ofHours(24),
+                Duration.ofMinutes(10), 100, Duration.ofSeconds(5), 65536);
+        filter = instance();
+        requests = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        requests.shutdownNow();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void retryOfACreatedOrder_isReplayedWithoutCreatingAnotherOrder() throws Exception {
+        MockHttpServletResponse first = asUser("user-1", () -> send(filter, "key-1", CART, this::createOrder));
+        FilterChain retryChain = mock(FilterChain.class);
+
+        MockHttpServletResponse retry = asUser("user-1", () -> send(filter, "key-1", CART, retryChain));
+
+        verifyNoInteractions(retryChain);
+        assertEquals(1, createdOrders.get());
+        assertEquals(HttpStatus.CREATED.value(), retry.getStatus());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, retry.getContentType());
+        assertEquals("true", retry.getHeader(IdempotencyKeyFilter.IDEMPOTENT_REPLAYED_HEADER));
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertNull(first.getHeader(IdempotencyKeyFilter.IDEMPOTENT_REPLAYED_HEADER));
+    }
+
+    @Test
+    void keyReusedForAnotherCart_isRejectedWith422WithoutCreatingAnOrder() throws Exception {
+        asUser("user-1", () -> send(filter, "key-1", CART, this::createOrder));
+        FilterChain reuseChain = mock(FilterChain.class);
+
+        MockHttpServletResponse reuse = asUser("user-1", () -> send(filter, "key-1", OTHER_CART, reuseChain));
+
+        verifyNoInteractions(reuseChain);
+        assertEquals(1, createdOrders.get());
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY.value(), reuse.getStatus());
+    }
+
+    @Test
+    void duplicateWhileTheFirstIsRunning_waitsForItAndReplaysItsOrder() throws Exception {
+        assertConcurrentDuplicateIsReplayed(filter);
+    }
+
+    @Test
+    void duplicateOnAnotherInstanceWhileTheFirstIsRunning_pollsTheRecordAndReplaysItsOrder() throws Exception {
+        assertConcurrentDuplicateIsReplayed(instance());
+    }
+
+    @Test
+    void sameKeyFromAnotherUser_createsItsOwnOrder() throws Exception {
+        MockHttpServletResponse first = asUser("user-1", () -> send(filter, "key-1", CART, this::createOrder));
+
+        MockHttpServletResponse other = asUser("user-2", () -> send(filter, "key-1", CART, this::createOrder));
+
+        assertEquals(2, createdOrders.get());
+        assertNull(other.getHeader(IdempotencyKeyFilter.IDEMPOTENT_REPLAYED_HEADER));
+        assertNotEquals(first.getContentAsString(), other.getContentAsString());
+    }
+
+    @Test
+    void failedCreation_isNotStored_soTheRetryCreatesTheOrder() throws Exception {
+        MockHttpServletResponse failed = asUser("user-1", () -> send(filter, "key-1", CART, (request, servletResponse) ->
+                ((HttpServletResponse) servletResponse).setStatus(HttpStatus.SERVICE_UNAVAILABLE.value())));
+
+        MockHttpServletResponse retry = asUser("user-1", () -> send(filter, "key-1", CART, this::createOrder));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), failed.getStatus());
+        assertEquals(HttpStatus.CREATED.value(), retry.getStatus());
+        assertEquals(1, createdOrders.get());
+        assertEquals(IdempotencyRecordStatus.COMPLETED, records.values().iterator().next().getStatus());
+    }
+
+    private void assertConcurrentDuplicateIsReplayed(IdempotencyKeyFilter duplicateFilter) throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        FilterChain duplicateChain = mock(FilterChain.class);
+
+        Future<MockHttpServletResponse> first = requests.submit(() -> asUser("user-1", () ->
+                send(filter, "key-1", CART, (request, servletResponse) -> {
+                    firstStarted.countDown();
+                    try {
+                        releaseFirst.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    createOrder(request, servletResponse);
+                })));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        Future<MockHttpServletResponse> duplicate = requests.submit(() -> asUser("user-1", () ->
+                send(duplicateFilter, "key-1", CART, duplicateChain)));
+        // The first request looked the key up once; a second lookup means the duplicate arrived while it is running
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (recordLookups.get() < 2 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        releaseFirst.countDown();
+
+        MockHttpServletResponse firstResponse = first.get(5, TimeUnit.SECONDS);
+        MockHttpServletResponse duplicateResponse = duplicate.get(5, TimeUnit.SECONDS);
+
+        verifyNoInteractions(duplicateChain);
+        assertTrue(recordLookups.get() >= 2);
+        assertEquals(1, createdOrders.get());
+        assertEquals(HttpStatus.CREATED.value(), duplicateResponse.getStatus());
+        assertEquals(firstResponse.getContentAsString(), duplicateResponse.getContentAsString());
+        assertEquals("true", duplicateResponse.getHeader(IdempotencyKeyFilter.IDEMPOTENT_REPLAYED_HEADER));
+    }
+
+    // Stands in for OrderController: every call creates a new order
+    private void createOrder(ServletRequest request, ServletResponse servletResponse) throws IOException {
+        assertTrue(StreamUtils.copyToString(request.getInputStream(), StandardCharsets.UTF_8).startsWith("{\"items\""));
+        HttpServletResponse response = (HttpServletResponse) servletResponse;
+        response.setStatus(HttpStatus.CREATED.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(("{\"isSuccess\":true,\"response\":{\"id\":\"order-" + createdOrders.incrementAndGet() +
+                "\",\"orderStatus\":\"PENDING\"}}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MockHttpServletResponse send(IdempotencyKeyFilter filter, String idempotencyKey, String body,
+                                                FilterChain filterChain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", ORDERS_URI);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        request.addHeader(IdempotencyKeyFilter.IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, filterChain);
+        return response;
+    }
+
+    private static <T> T asUser(String userId, Callable<T> work) throws Exception {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .claim(TokenClaims.USER_ID.getValue(), userId)
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(jwt, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        try {
+            return work.call();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    // A filter with its own service, and so its own in-memory cache, over the shared records
+    private IdempotencyKeyFilter instance() {
+        return new IdempotencyKeyFilter(new IdempotencyServiceImpl(repository(), idempotencyConfigurationParameter),
+                idempotencyConfigurationParameter, new ObjectMapper());
+    }
+
+    private IdempotencyRecordRepository repository() {
+        IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+        when(repository.insertIfAbsent(anyString(), anyString(), any(), any())).thenAnswer(invocation ->
+                records.putIfAbsent(invocation.getArgument(0), IdempotencyRecordEntity.builder()
+                        .keyHash(invocation.getArgument(0))
+                        .requestHash(invocation.getArgument(1))
+                        .status(IdempotencyRecordStatus.IN_PROGRESS)
+                        .lockedAt(invocation.getArgument(2))
+                        .expiresAt(invocation.getArgument(3))
+                        .build()) == null ? 1 : 0);
+        when(repository.findByKeyHashAndStatus(anyString(), any())).thenAnswer(invocation -> {
+            recordLookups.incrementAndGet();
+            return Optional.ofNullable(records.get(invocation.<String>getArgument(0)))
+                    .filter(idempotencyRecord -> idempotencyRecord.getStatus() == invocation.getArgument(1));
+        });
+        when(repository.complete(anyString(), any(), any(), anyInt(), any(), any())).thenAnswer(invocation -> {
+            IdempotencyRecordEntity completed = records.computeIfPresent(invocation.getArgument(0), (keyHash, idempotencyRecord) -> {
+                if (idempotencyRecord.getStatus() != invocation.getArgument(2)) {
+                    return idempotencyRecord;
+                }
+                return IdempotencyRecordEntity.builder()
+                        .keyHash(keyHash)
+                        .requestHash(idempotencyRecord.getRequestHash())
+                        .status(invocation.getArgument(1))
+                        .responseStatus(invocation.getArgument(3))
+                        .responseContentType(invocation.getArgument(4))
+                        .responseBody(invocation.getArgument(5))
+                        .lockedAt(idempotencyRecord.getLockedAt())
+                        .expiresAt(idempotencyRecord.getExpiresAt())
+                        .build();
+            });
+            return completed != null && completed.getStatus() == invocation.getArgument(1) ? 1 : 0;
+        });
+        when(repository.deleteByKeyHashAndStatus(anyString(), any())).thenAnswer(invocation ->
+                records.computeIfPresent(invocation.getArgument(0), (keyHash, idempotencyRecord) ->
+                        idempotencyRecord.getStatus() == invocation.getArgument(1) ? null : idempotencyRecord) == null ? 1 : 0);
+        return repository;
+    }
+}
@@ -0,0 +1,148 @@
+package com.springbootmicroservices.orderservice.outbox;
+
+import com.springbootmicroservices.orderservice.client.ProductServiceClient;
+import com.springbootmicroservices.orderservice.config.OutboxConfigurationParameter;
+import com.springbootmicroservices.orderservice.config.ServiceCredentialConfigurationParameter;
+import com.springbootmicroservices.orderservice.model.outbox.entity.OutboxMessageEntity;
+import com.springbootmicroservices.orderservice.model.outbox.enums.OutboxCommandType;
+import com.springbootmicroservices.orderservice.model.outbox.enums.OutboxMessageStatus;
+import com.springbootmicroservices.orderservice.repository.OutboxMessageRepository;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// Runs the claim query against real rows: a command waits while an older command of its order is still pending,
+// across dispatcher rounds and not only within one batch
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "security.service-credential.secret=service-secret"
+})
+@Import({OutboxDispatcher.class, OutboxConfigurationParameter.class, ServiceCredentialConfigurationParameter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxDispatcherOrderingTest {
+
+    @Configuration
+    @EntityScan(basePackages = "com.springbootmicroservices.orderservice.model")
+    @EnableJpaRepositories(basePackages = "com.springbootmicroservices.orderservice.repository")
+    static class JpaConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private ProductServiceClient productServiceClient;
+
+    @AfterEach
+    void tearDown() {
+        outboxMessageRepository.deleteAll();
+    }
+
+    @Test
+    void laterCommand_waitsUntilTheFailedOlderCommandOfItsOrderIsDelivered() {
+        OutboxMessageEntity confirm = save("order-1", OutboxCommandType.CONFIRM_STOCK_HOLD, LocalDateTime.now().minusSeconds(2));
+        OutboxMessageEntity release = save("order-1", OutboxCommandType.RELEASE_STOCK_HOLD, LocalDateTime.now().minusSeconds(1));
+        OutboxMessageEntity otherOrder = save("order-2", OutboxCommandType.RELEASE_STOCK_HOLD, LocalDateTime.now().minusSeconds(1));
+        when(productServiceClient.confirmStockHold(any(), any(), any(), any()))
+                .thenThrow(feignException(503))
+                .thenReturn(null);
+
+        // The confirm fails and backs off; the release of the same order is not claimed, another order's is
+        outboxDispatcher.dispatch();
+
+        assertEquals(1, reload(confirm).getAttempts());
+        assertEquals(OutboxMessageStatus.PENDING, reload(release).getStatus());
+        assertEquals(0, reload(release).getAttempts());
+        assertEquals(OutboxMessageStatus.DONE, reload(otherOrder).getStatus());
+        verify(productServiceClient, never()).releaseStockHold(eq("order-1"), any(), any(), any());
+
+        // Once the backoff runs out the confirm is delivered, and only after that the release
+        makeDue(confirm);
+        outboxDispatcher.dispatch();
+        outboxDispatcher.dispatch();
+
+        assertEquals(OutboxMessageStatus.DONE, reload(confirm).getStatus());
+        assertEquals(OutboxMessageStatus.DONE, reload(release).getStatus());
+        var inOrder = inOrder(productServiceClient);
+        inOrder.verify(productServiceClient, times(2)).confirmStockHold(eq("order-1"), any(), any(), eq(confirm.getId()));
+        inOrder.verify(productServiceClient).releaseStockHold(eq("order-1"), any(), any(), eq(release.getId()));
+    }
+
+    // CREATED_AT is stamped on persist, so it is moved afterwards to give the commands of one order a fixed order
+    private OutboxMessageEntity save(String orderId, OutboxCommandType commandType, LocalDateTime createdAt) {
+        OutboxMessageEntity message = outboxMessageRepository.save(OutboxMessageEntity.builder()
+                .orderId(orderId)
+                .commandType(commandType)
+                .status(OutboxMessageStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(createdAt)
+                .build());
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createNativeQuery("update OUTBOX set CREATED_AT = :createdAt where ID = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", message.getId())
+                .executeUpdate());
+        return message;
+    }
+
+    private void makeDue(OutboxMessageEntity message) {
+        OutboxMessageEntity stored = reload(message);
+        stored.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxMessageRepository.save(stored);
+    }
+
+    private OutboxMessageEntity reload(OutboxMessageEntity message) {
+        return outboxMessageRepository.findById(message.getId()).orElseThrow();
+    }
+
+    private static FeignException feignException(int status) {
+        Request request = Request.create(Request.HttpMethod.POST, "/api/v1/products/stock/holds", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        return FeignException.errorStatus("ProductServiceClient#confirmStockHold", Response.builder()
+                .status(status)
+                .reason("status " + status)
+                .request(request)
+                .headers(Map.of())
+                .build());
+    }
+}
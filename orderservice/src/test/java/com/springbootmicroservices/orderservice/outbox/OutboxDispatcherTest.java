@@ -0,0 +1,218 @@
+package com.springbootmicroservices.orderservice.outbox;
+
+import com.springbootmicroservices.orderservice.client.ProductServiceClient;
+import com.springbootmicroservices.orderservice.config.OutboxConfigurationParameter;
+import com.springbootmicroservices.orderservice.config.ServiceCredentialConfigurationParameter;
+import com.springbootmicroservices.orderservice.model.outbox.entity.OutboxMessageEntity;
+import com.springbootmicroservices.orderservice.model.outbox.enums.OutboxCommandType;
+import com.springbootmicroservices.orderservice.model.outbox.enums.OutboxMessageStatus;
+import com.springbootmicroservices.orderservice.repository.OutboxMessageRepository;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// Claims due rows under a lease, delivers them with the service credential and settles each outcome:
+// done, retried with exponential backoff, or failed for good
+class OutboxDispatcherTest {
+
+    private static final String SECRET = "service-secret";
+    private static final Duration LEASE = Duration.ofSeconds(60);
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(4);
+    private static final int MAX_ATTEMPTS = 5;
+
+    private OutboxMessageRepository outboxMessageRepository;
+    private ProductServiceClient productServiceClient;
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        outboxMessageRepository = mock(OutboxMessageRepository.class);
+        productServiceClient = mock(ProductServiceClient.class);
+        dispatcher = dispatcher(SECRET);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void dueMessages_areLeasedWhileInFlight_andDeliveredWithTheServiceCredential() {
+        OutboxMessageEntity message = message("m-1", OutboxCommandType.CONFIRM_STOCK_HOLD, 0);
+        stubDue(message);
+        AtomicReference<LocalDateTime> leasedUntil = new AtomicReference<>();
+        when(productServiceClient.confirmStockHold(any(), any(), any(), any())).thenAnswer(invocation -> {
+            leasedUntil.set(message.getNextAttemptAt());
+            return null;
+        });
+        LocalDateTime before = LocalDateTime.now();
+
+        dispatcher.dispatch();
+
+        verify(productServiceClient).confirmStockHold("order-m-1", "orderservice", SECRET, "m-1");
+        assertFalse(leasedUntil.get().isBefore(before.plus(LEASE)));
+        assertEquals(OutboxMessageStatus.DONE, message.getStatus());
+        assertEquals(1, message.getAttempts());
+        assertNotNull(message.getProcessedAt());
+        assertNull(message.getLastError());
+    }
+
+    @Test
+    void transientFailure_isRetriedAfterExponentialBackoff() {
+        OutboxMessageEntity message = message("m-1", OutboxCommandType.RELEASE_STOCK_HOLD, 2);
+        stubDue(message);
+        when(productServiceClient.releaseStockHold(any(), any(), any(), any())).thenThrow(feignException(503));
+        LocalDateTime before = LocalDateTime.now();
+
+        dispatcher.dispatch();
+
+        // Third attempt: 1s doubled twice
+        assertEquals(OutboxMessageStatus.PENDING, message.getStatus());
+        assertEquals(3, message.getAttempts());
+        assertFalse(message.getNextAttemptAt().isBefore(before.plusSeconds(4)));
+        assertTrue(message.getNextAttemptAt().isBefore(before.plusSeconds(5)));
+        assertTrue(message.getLastError().startsWith("HTTP 503"));
+    }
+
+    @Test
+    void backoff_isCappedAtTheMaximum() {
+        OutboxMessageEntity message = message("m-1", OutboxCommandType.RELEASE_STOCK_HOLD, MAX_ATTEMPTS - 2);
+        stubDue(message);
+        when(productServiceClient.releaseStockHold(any(), any(), any(), any())).thenThrow(new IllegalStateException("connection reset"));
+        LocalDateTime before = LocalDateTime.now();
+
+        dispatcher.dispatch();
+
+        // Fourth attempt would wait 8s; the cap keeps it at 4s
+        assertEquals(OutboxMessageStatus.PENDING, message.getStatus());
+        assertFalse(message.getNextAttemptAt().isBefore(before.plus(MAX_BACKOFF)));
+        assertTrue(message.getNextAttemptAt().isBefore(before.plus(MAX_BACKOFF).plusSeconds(1)));
+    }
+
+    @Test
+    void rejectedCommand_failsWithoutRetry() {
+        OutboxMessageEntity message = message("m-1", OutboxCommandType.CONFIRM_STOCK_HOLD, 0);
+        stubDue(message);
+        when(productServiceClient.confirmStockHold(any(), any(), any(), any())).thenThrow(feignException(409));
+
+        dispatcher.dispatch();
+
+        assertEquals(OutboxMessageStatus.FAILED, message.getStatus());
+        assertEquals(1, message.getAttempts());
+        assertNotNull(message.getProcessedAt());
+    }
+
+    @Test
+    void lastAttempt_failsWhenStillTransient() {
+        OutboxMessageEntity message = message("m-1", OutboxCommandType.CONFIRM_STOCK_HOLD, MAX_ATTEMPTS - 1);
+        stubDue(message);
+        when(productServiceClient.confirmStockHold(any(), any(), any(), any())).thenThrow(feignException(503));
+
+        dispatcher.dispatch();
+
+        assertEquals(OutboxMessageStatus.FAILED, message.getStatus());
+        assertEquals(MAX_ATTEMPTS, message.getAttempts());
+    }
+
+    @Test
+    void missingHold_countsAsDelivered() {
+        OutboxMessageEntity message = message("m-1", OutboxCommandType.RELEASE_STOCK_HOLD, 0);
+        stubDue(message);
+        when(productServiceClient.releaseStockHold(any(), any(), any(), any())).thenThrow(feignException(404));
+
+        dispatcher.dispatch();
+
+        assertEquals(OutboxMessageStatus.DONE, message.getStatus());
+    }
+
+    @Test
+    void commandsOfOneOrder_areDeliveredInClaimOrder() {
+        OutboxMessageEntity confirm = message("m-1", OutboxCommandType.CONFIRM_STOCK_HOLD, 0);
+        OutboxMessageEntity release = message("m-2", OutboxCommandType.RELEASE_STOCK_HOLD, 0);
+        release.setOrderId(confirm.getOrderId());
+        stubDue(confirm, release);
+
+        dispatcher.dispatch();
+
+        var inOrder = inOrder(productServiceClient);
+        inOrder.verify(productServiceClient).confirmStockHold(eq(confirm.getOrderId()), any(), any(), eq("m-1"));
+        inOrder.verify(productServiceClient).releaseStockHold(eq(confirm.getOrderId()), any(), any(), eq("m-2"));
+    }
+
+    @Test
+    void withoutServiceCredential_nothingIsClaimed() {
+        dispatcher.shutdown();
+        dispatcher = dispatcher("");
+
+        dispatcher.dispatch();
+
+        verifyNoInteractions(outboxMessageRepository, productServiceClient);
+    }
+
+    private OutboxDispatcher dispatcher(String secret) {
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(new SimpleTransactionStatus()));
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(new SimpleTransactionStatus());
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        OutboxConfigurationParameter configuration =
+                new OutboxConfigurationParameter(10, 2, LEASE, MAX_ATTEMPTS, INITIAL_BACKOFF, MAX_BACKOFF);
+        return new OutboxDispatcher(outboxMessageRepository, productServiceClient, transactionTemplate, configuration,
+                new ServiceCredentialConfigurationParameter("orderservice", secret), new SimpleMeterRegistry());
+    }
+
+    // The first claim returns the messages, the next one finds nothing due; settling loads the same rows
+    private void stubDue(OutboxMessageEntity... messages) {
+        when(outboxMessageRepository.findDueForUpdate(eq(OutboxMessageStatus.PENDING), any(), any(Limit.class)))
+                .thenReturn(List.of(messages), List.of());
+        when(outboxMessageRepository.findAllById(any())).thenReturn(List.of(messages));
+    }
+
+    private static OutboxMessageEntity message(String id, OutboxCommandType commandType, int attempts) {
+        return OutboxMessageEntity.builder()
+                .id(id)
+                .orderId("order-" + id)
+                .commandType(commandType)
+                .status(OutboxMessageStatus.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static FeignException feignException(int status) {
+        Request request = Request.create(Request.HttpMethod.POST, "/api/v1/products/stock/holds", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        return FeignException.errorStatus("ProductServiceClient#stockHold", Response.builder()
+                .status(status)
+                .reason("status " + status)
+                .request(request)
+                .headers(Map.of())
+                .build());
+    }
+}
@@ -0,0 +1,283 @@
+package com.springbootmicroservices.orderservice.service.impl;
+
+import com.springbootmicroservices.orderservice.cache.OrderResponseCache;
+import com.springbootmicroservices.orderservice.client.ProductServiceClient;
+import com.springbootmicroservices.orderservice.config.OrderCreationConfigurationParameter;
+import com.springbootmicroservices.orderservice.config.OrderIntakeConfigurationParameter;
+import com.springbootmicroservices.orderservice.config.ServiceCredentialConfigurationParameter;
+import com.springbootmicroservices.orderservice.intake.OrderIntakePipeline;
+import com.springbootmicroservices.orderservice.model.auth.enums.TokenClaims;
+import com.springbootmicroservices.orderservice.model.order.dto.request.BulkOrderStatusUpdateRequest;
+import com.springbootmicroservices.orderservice.model.order.dto.request.OrderStatusChangeDto;
+import com.springbootmicroservices.orderservice.model.order.dto.request.OrderStatusFilterDto;
+import com.springbootmicroservices.orderservice.model.order.dto.response.BulkOrderStatusResult;
+import com.springbootmicroservices.orderservice.model.order.entity.OrderEntity;
+import com.springbootmicroservices.orderservice.model.order.entity.OrderSummaryEntity;
+import com.springbootmicroservices.orderservice.model.order.enums.BulkOrderStatusOutcome;
+import com.springbootmicroservices.orderservice.model.order.enums.OrderStatus;
+import com.springbootmicroservices.orderservice.model.order.mapper.OrderMapperImpl;
+import com.springbootmicroservices.orderservice.model.outbox.entity.OutboxMessageEntity;
+import com.springbootmicroservices.orderservice.model.outbox.enums.OutboxCommandType;
+import com.springbootmicroservices.orderservice.repository.OutboxMessageRepository;
+import com.springbootmicroservices.orderservice.service.TokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs bulk status changes against a real Hibernate session: per-order outcomes, the summary rows and stock
+// commands written with them, and (with -Pbenchmark) the throughput of a filtered run over 100k orders
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import({OrderServiceImpl.class, OrderSummaryServiceImpl.class, OrderMapperImpl.class, OutboxServiceImpl.class})
+class OrderServiceImplBulkStatusTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderServiceImplBulkStatusTest.class);
+
+    private static final int THROUGHPUT_ORDERS = 100_000;
+
+    @Configuration
+    @EntityScan(basePackages = "com.springbootmicroservices.orderservice.model")
+    @EnableJpaRepositories(basePackages = "com.springbootmicroservices.orderservice.repository")
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private OrderSummaryServiceImpl orderSummaryService;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private TokenService tokenService;
+
+    @MockitoBean
+    private ProductServiceClient productServiceClient;
+
+    @MockitoBean
+    private ThreadPoolTaskExecutor productCallExecutor;
+
+    @MockitoBean
+    private OrderCreationConfigurationParameter orderCreationConfigurationParameter;
+
+    @MockitoBean
+    private OrderIntakePipeline orderIntakePipeline;
+
+    @MockitoBean
+    private OrderIntakeConfigurationParameter orderIntakeConfigurationParameter;
+
+    @MockitoBean
+    private ServiceCredentialConfigurationParameter serviceCredentialConfigurationParameter;
+
+    @MockitoBean
+    private OrderResponseCache orderResponseCache;
+
+    @BeforeEach
+    void setUp() {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .claim(TokenClaims.USER_ID.getValue(), "admin-1")
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(jwt, null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void bulkUpdateOrderStatus_ShouldReportEveryOrder_AndWriteSummariesAndStockCommandsOfTheUpdatedOnes() {
+        String shipped = saveOrder(OrderStatus.PENDING_PAYMENT, true);
+        String cancelled = saveOrder(OrderStatus.CONFIRMED, true);
+        String delivered = saveOrder(OrderStatus.DELIVERED, true);
+        String confirmed = saveOrder(OrderStatus.CONFIRMED, true);
+        String unprojected = saveOrder(OrderStatus.PENDING_PAYMENT, false);
+        String fulfilled = saveOrder(OrderStatus.CONFIRMED, true);
+        String declined = saveOrder(OrderStatus.PENDING_PAYMENT, true);
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        List<BulkOrderStatusResult> results = new ArrayList<>();
+        orderService.bulkUpdateOrderStatus(BulkOrderStatusUpdateRequest.builder()
+                .updates(List.of(
+                        change(shipped, OrderStatus.SHIPPED),
+                        change(cancelled, OrderStatus.CANCELLED),
+                        change(delivered, OrderStatus.PENDING),
+                        change(confirmed, OrderStatus.CONFIRMED),
+                        change("missing", OrderStatus.SHIPPED),
+                        change(unprojected, OrderStatus.SHIPPED),
+                        change(fulfilled, OrderStatus.SHIPPED),
+                        change(declined, OrderStatus.PAYMENT_FAILED)))
+                .build(), results::addAll);
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        assertEquals(List.of(shipped, cancelled, delivered, confirmed, "missing", unprojected, fulfilled, declined),
+                results.stream().map(BulkOrderStatusResult::getOrderId).toList());
+        assertEquals(List.of(BulkOrderStatusOutcome.UPDATED, BulkOrderStatusOutcome.UPDATED, BulkOrderStatusOutcome.REJECTED,
+                        BulkOrderStatusOutcome.UNCHANGED, BulkOrderStatusOutcome.NOT_FOUND, BulkOrderStatusOutcome.UPDATED,
+                        BulkOrderStatusOutcome.UPDATED, BulkOrderStatusOutcome.UPDATED),
+                results.stream().map(BulkOrderStatusResult::getOutcome).toList());
+        assertEquals("Cannot change order status from DELIVERED to PENDING", results.get(2).getReason());
+        assertEquals(OrderStatus.PENDING_PAYMENT, results.get(0).getPreviousStatus());
+
+        OrderEntity shippedOrder = testEntityManager.find(OrderEntity.class, shipped);
+        assertEquals(OrderStatus.SHIPPED, shippedOrder.getOrderStatus());
+        assertEquals("admin-1", shippedOrder.getUpdatedBy());
+        assertEquals(OrderStatus.CANCELLED, testEntityManager.find(OrderEntity.class, cancelled).getOrderStatus());
+        assertEquals(OrderStatus.DELIVERED, testEntityManager.find(OrderEntity.class, delivered).getOrderStatus());
+        assertEquals(OrderStatus.SHIPPED, testEntityManager.find(OrderSummaryEntity.class, shipped).getOrderStatus());
+        assertEquals(OrderStatus.CANCELLED, testEntityManager.find(OrderSummaryEntity.class, cancelled).getOrderStatus());
+        assertEquals(OrderStatus.SHIPPED, testEntityManager.find(OrderSummaryEntity.class, unprojected).getOrderStatus());
+
+        // A confirmed order already took its stock when it was paid for, so shipping it sends nothing
+        Map<String, OutboxCommandType> commands = outboxMessageRepository.findAll().stream()
+                .collect(Collectors.toMap(OutboxMessageEntity::getOrderId, OutboxMessageEntity::getCommandType));
+        assertEquals(Map.of(shipped, OutboxCommandType.CONFIRM_STOCK_HOLD,
+                cancelled, OutboxCommandType.RELEASE_STOCK_HOLD,
+                unprojected, OutboxCommandType.CONFIRM_STOCK_HOLD,
+                declined, OutboxCommandType.RELEASE_STOCK_HOLD), commands);
+    }
+
+    // A fulfilment run ships paid orders long after their holds would have expired; it must not try to confirm them
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void bulkUpdateOrderStatus_ByFilter_ShouldShipConfirmedOrdersWithoutStockCommands_AndReleaseCancelledOnes() {
+        try {
+            seedOrders(3, OrderStatus.CONFIRMED);
+            seedOrders(2, OrderStatus.PENDING_PAYMENT);
+
+            updateByFilter(OrderStatus.CONFIRMED, OrderStatus.SHIPPED);
+            assertEquals(3, count("select count(*) from ORDERS where ORDER_STATUS = 'SHIPPED'"));
+            assertEquals(0, count("select count(*) from OUTBOX"));
+
+            updateByFilter(OrderStatus.PENDING_PAYMENT, OrderStatus.CANCELLED);
+            assertEquals(2, count("select count(*) from OUTBOX where COMMAND_TYPE = 'RELEASE_STOCK_HOLD'"));
+            assertEquals(2, count("select count(*) from OUTBOX"));
+        } finally {
+            jdbcTemplate.update("delete from OUTBOX");
+            jdbcTemplate.update("delete from ORDER_SUMMARY");
+            jdbcTemplate.update("delete from ORDERS");
+        }
+    }
+
+    // Outside the test transaction, so every chunk commits on its own as it does behind the endpoint
+    @Test
+    @Tag("benchmark")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void bulkUpdateOrderStatus_ShouldShipAHundredThousandOrdersByFilter_AndReportTheThroughput() {
+        try {
+            seedOrders(THROUGHPUT_ORDERS, OrderStatus.PENDING_PAYMENT);
+            int[] chunks = new int[1];
+            int[] updated = new int[1];
+
+            long start = System.nanoTime();
+            orderService.bulkUpdateOrderStatus(BulkOrderStatusUpdateRequest.builder()
+                    .filter(OrderStatusFilterDto.builder()
+                            .currentStatus(OrderStatus.PENDING_PAYMENT)
+                            .newStatus(OrderStatus.SHIPPED)
+                            .build())
+                    .build(), results -> {
+                chunks[0]++;
+                updated[0] += (int) results.stream().filter(result -> result.getOutcome() == BulkOrderStatusOutcome.UPDATED).count();
+            });
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            log.info("OrderServiceImplBulkStatusTest :: {} orders in {} chunks in {} s, {} orders/s",
+                    THROUGHPUT_ORDERS, chunks[0], String.format("%.2f", seconds), String.format("%.0f", THROUGHPUT_ORDERS / seconds));
+            assertEquals(THROUGHPUT_ORDERS, updated[0]);
+            assertEquals(THROUGHPUT_ORDERS, count("select count(*) from ORDERS where ORDER_STATUS = 'SHIPPED'"));
+            assertEquals(THROUGHPUT_ORDERS, count("select count(*) from ORDER_SUMMARY where ORDER_STATUS = 'SHIPPED'"));
+            assertEquals(THROUGHPUT_ORDERS, count("select count(*) from OUTBOX where COMMAND_TYPE = 'CONFIRM_STOCK_HOLD'"));
+        } finally {
+            jdbcTemplate.update("delete from OUTBOX");
+            jdbcTemplate.update("delete from ORDER_SUMMARY");
+            jdbcTemplate.update("delete from ORDERS");
+        }
+    }
+
+    private String saveOrder(OrderStatus status, boolean project) {
+        OrderEntity order = OrderEntity.builder()
+                .userId("user-1")
+                .totalAmount(BigDecimal.valueOf(60))
+                .orderStatus(status)
+                .build();
+        testEntityManager.persist(order);
+        if (project) {
+            orderSummaryService.project(order);
+        }
+        return order.getId();
+    }
+
+    private void seedOrders(int orders, OrderStatus status) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now().minusDays(1));
+        List<Object[]> rows = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            rows.add(new Object[]{UUID.randomUUID().toString(), "user-" + (i % 1000), BigDecimal.valueOf(60), status.name(), createdAt});
+        }
+        jdbcTemplate.batchUpdate("insert into ORDERS (ID, USER_ID, TOTAL_AMOUNT, ORDER_STATUS, CREATED_AT, UPDATED_AT) " +
+                "values (?, ?, ?, ?, ?, ?)", rows.stream().map(row -> new Object[]{row[0], row[1], row[2], row[3], row[4], row[4]}).toList());
+        jdbcTemplate.batchUpdate("insert into ORDER_SUMMARY (ORDER_ID, USER_ID, CREATED_AT, ORDER_STATUS, TOTAL_AMOUNT, ITEM_COUNT, UPDATED_AT) " +
+                "values (?, ?, ?, ?, ?, 0, ?)", rows.stream().map(row -> new Object[]{row[0], row[1], row[4], row[3], row[2], row[4]}).toList());
+    }
+
+    private void updateByFilter(OrderStatus currentStatus, OrderStatus newStatus) {
+        orderService.bulkUpdateOrderStatus(BulkOrderStatusUpdateRequest.builder()
+                .filter(OrderStatusFilterDto.builder()
+                        .currentStatus(currentStatus)
+                        .newStatus(newStatus)
+                        .build())
+                .build(), results -> {
+        });
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private static OrderStatusChangeDto change(String orderId, OrderStatus newStatus) {
+        return OrderStatusChangeDto.builder().orderId(orderId).newStatus(newStatus).build();
+    }
+}
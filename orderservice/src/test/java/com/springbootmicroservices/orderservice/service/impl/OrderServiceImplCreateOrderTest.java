@@ -0,0 +1,347 @@
+package com.springbootmicroservices.orderservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.springbootmicroservices.orderservice.cache.OrderResponseCache;
+import com.springbootmicroservices.orderservice.client.ProductServiceClient;
+import com.springbootmicroservices.orderservice.client.dto.CustomResponse;
+import com.springbootmicroservices.orderservice.client.dto.ProductBatchDetailsDto;
+import com.springbootmicroservices.orderservice.client.dto.ProductBatchRequestDto;
+import com.springbootmicroservices.orderservice.client.dto.ProductDetailsDto;
+import com.springbootmicroservices.orderservice.client.dto.StockHoldResultDto;
+import com.springbootmicroservices.orderservice.config.OrderCreationConfigurationParameter;
+import com.springbootmicroservices.orderservice.config.OrderIntakeConfigurationParameter;
+import com.springbootmicroservices.orderservice.config.PaymentWebhookConfigurationParameter;
+import com.springbootmicroservices.orderservice.config.ProductCallExecutorConfig;
+import com.springbootmicroservices.orderservice.config.ServiceCredentialConfigurationParameter;
+import com.springbootmicroservices.orderservice.exception.GlobalExceptionHandler;
+import com.springbootmicroservices.orderservice.exception.ProductServiceUnavailableException;
+import com.springbootmicroservices.orderservice.intake.OrderIntakePipeline;
+import com.springbootmicroservices.orderservice.model.auth.enums.TokenClaims;
+import com.springbootmicroservices.orderservice.model.common.CustomError;
+import com.springbootmicroservices.orderservice.model.order.dto.request.CartItemDto;
+import com.springbootmicroservices.orderservice.model.order.dto.request.CreateOrderRequest;
+import com.springbootmicroservices.orderservice.model.order.dto.request.ShippingAddressDto;
+import com.springbootmicroservices.orderservice.model.order.dto.response.OrderResponse;
+import com.springbootmicroservices.orderservice.model.order.entity.OrderEntity;
+import com.springbootmicroservices.orderservice.model.order.enums.OrderStatus;
+import com.springbootmicroservices.orderservice.model.order.mapper.OrderMapperImpl;
+import com.springbootmicroservices.orderservice.model.outbox.enums.OutboxCommandType;
+import com.springbootmicroservices.orderservice.model.payment.entity.PaymentEventEntity;
+import com.springbootmicroservices.orderservice.model.payment.enums.PaymentEventStatus;
+import com.springbootmicroservices.orderservice.repository.OrderRepository;
+import com.springbootmicroservices.orderservice.repository.OrderSummaryRepository;
+import com.springbootmicroservices.orderservice.repository.PaymentEventRepository;
+import com.springbootmicroservices.orderservice.service.OutboxService;
+import com.springbootmicroservices.orderservice.service.TokenService;
+import com.springbootmicroservices.orderservice.webhook.PaymentEventProcessor;
+import feign.Request;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// Runs createOrder against a real Hibernate session and product-call executor: the parallel batch lookups, the shared
+// deadline (and the Feign timeouts tied to it), the 503 when the product-call executor is full, and the payment that
+// follows a created order.
+// Outside a test transaction, as createOrder commits the order before it places the hold.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({OrderServiceImpl.class, OrderSummaryServiceImpl.class, OrderMapperImpl.class, ProductCallExecutorConfig.class,
+        PaymentEventProcessor.class, PaymentWebhookConfigurationParameter.class})
+class OrderServiceImplCreateOrderTest {
+
+    private static final String USER_ID = "user-1";
+    private static final Duration DEADLINE = Duration.ofMillis(500);
+    private static final int BATCH_SIZE = 2;
+
+    @Configuration
+    @EntityScan(basePackages = "com.springbootmicroservices.orderservice.model")
+    @EnableJpaRepositories(basePackages = "com.springbootmicroservices.orderservice.repository")
+    static class JpaConfig {
+
+        // Two product-call threads and one queued call, so a cart of four batches finds the executor full
+        @Bean
+        OrderCreationConfigurationParameter orderCreationConfigurationParameter() {
+            return new OrderCreationConfigurationParameter(DEADLINE, 2, 1, BATCH_SIZE, Duration.ofMinutes(30));
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Autowired
+    private PaymentEventProcessor paymentEventProcessor;
+
+    @Autowired
+    private PaymentEventRepository paymentEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private TokenService tokenService;
+
+    @MockitoBean
+    private ProductServiceClient productServiceClient;
+
+    @MockitoBean
+    private OutboxService outboxService;
+
+    @MockitoBean
+    private OrderResponseCache orderResponseCache;
+
+    @MockitoBean
+    private OrderIntakePipeline orderIntakePipeline;
+
+    @MockitoBean
+    private OrderIntakeConfigurationParameter orderIntakeConfigurationParameter;
+
+    @MockitoBean
+    private ServiceCredentialConfigurationParameter serviceCredentialConfigurationParameter;
+
+    // Released at the end of every test, so productservice calls left blocking free their threads
+    private final CountDownLatch productService = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .claim(TokenClaims.USER_ID.getValue(), USER_ID)
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(jwt, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        when(productServiceClient.placeStockHold(any(), any())).thenReturn(success(new StockHoldResultDto("order", true,
+                "ACTIVE", LocalDateTime.now().plusMinutes(30), List.of())));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productService.countDown();
+        SecurityContextHolder.clearContext();
+        paymentEventRepository.deleteAll();
+        orderSummaryRepository.deleteAll();
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    void createOrder_ShouldLookUpDistinctProductsInParallelBatches_WithTimeoutsWithinTheDeadline() {
+        CountDownLatch bothBatchesInFlight = new CountDownLatch(2);
+        List<ProductBatchRequestDto> batches = Collections.synchronizedList(new ArrayList<>());
+        List<Request.Options> timeouts = Collections.synchronizedList(new ArrayList<>());
+        when(productServiceClient.getProductDetailsBatch(any(), any())).thenAnswer(invocation -> {
+            ProductBatchRequestDto batch = invocation.getArgument(0);
+            batches.add(batch);
+            timeouts.add(invocation.getArgument(1));
+            bothBatchesInFlight.countDown();
+            // Only returns once the other batch is in flight too, i.e. the batches are not sent one after the other
+            assertTrue(bothBatchesInFlight.await(5, TimeUnit.SECONDS));
+            return success(details(batch.getProductIds()));
+        });
+
+        // Four distinct products, one of them in two cart lines
+        List<CartItemDto> items = new ArrayList<>(items(4));
+        items.add(item("product-0"));
+        OrderResponse order = orderService.createOrder(request(items));
+
+        assertEquals(OrderStatus.PENDING_PAYMENT, order.getOrderStatus());
+        assertEquals(0, BigDecimal.valueOf(50).compareTo(order.getTotalAmount()));
+        assertEquals(2, batches.size());
+        Set<String> lookedUp = new HashSet<>();
+        batches.forEach(batch -> {
+            assertTrue(batch.getProductIds().size() <= BATCH_SIZE);
+            lookedUp.addAll(batch.getProductIds());
+        });
+        assertEquals(Set.of("product-0", "product-1", "product-2", "product-3"), lookedUp);
+        timeouts.forEach(options -> {
+            assertTrue(options.readTimeoutMillis() > 0);
+            assertTrue(options.readTimeoutMillis() <= DEADLINE.toMillis());
+        });
+        verify(productServiceClient).placeStockHold(any(), any());
+    }
+
+    @Test
+    void createOrder_ShouldLeaveTheOrderAwaitingPayment_SoACompletedCheckoutConfirmsItAndItsHold() throws IOException {
+        when(productServiceClient.getProductDetailsBatch(any(), any())).thenAnswer(invocation ->
+                success(details(((ProductBatchRequestDto) invocation.getArgument(0)).getProductIds())));
+
+        String orderId = orderService.createOrder(request(items(1))).getId();
+        assertEquals(OrderStatus.PENDING_PAYMENT, orderRepository.findById(orderId).orElseThrow().getOrderStatus());
+        assertEquals(OrderStatus.PENDING_PAYMENT, orderSummaryRepository.findById(orderId).orElseThrow().getOrderStatus());
+
+        String eventId = receiveCompletedCheckout(orderId);
+        paymentEventProcessor.process();
+
+        assertEquals(OrderStatus.CONFIRMED, orderRepository.findById(orderId).orElseThrow().getOrderStatus());
+        assertEquals(PaymentEventStatus.PROCESSED, paymentEventRepository.findById(eventId).orElseThrow().getStatus());
+        verify(outboxService).enqueue(orderId, OutboxCommandType.CONFIRM_STOCK_HOLD);
+    }
+
+    @Test
+    void createOrder_WhenProductServiceDoesNotAnswerInTime_ShouldFailAtTheDeadlineWithoutStoringAnOrder() {
+        List<Request.Options> timeouts = Collections.synchronizedList(new ArrayList<>());
+        when(productServiceClient.getProductDetailsBatch(any(), any())).thenAnswer(invocation -> {
+            timeouts.add(invocation.getArgument(1));
+            productService.await(5, TimeUnit.SECONDS);
+            return success(details(((ProductBatchRequestDto) invocation.getArgument(0)).getProductIds()));
+        });
+
+        long started = System.nanoTime();
+        assertThrows(ProductServiceUnavailableException.class, () -> orderService.createOrder(request(items(1))));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).compareTo(DEADLINE.multipliedBy(4)) < 0);
+        assertEquals(0, orderRepository.count());
+        // The blocked call gives up by itself at the deadline too, rather than after Feign's default 60s read timeout
+        assertEquals(1, timeouts.size());
+        assertTrue(timeouts.get(0).readTimeoutMillis() <= DEADLINE.toMillis());
+        verify(productServiceClient, never()).placeStockHold(any(), any());
+    }
+
+    @Test
+    void createOrder_WhenTheHoldIsNotPlacedInTime_ShouldCancelTheOrderAndReleaseTheHold() {
+        when(productServiceClient.getProductDetailsBatch(any(), any())).thenAnswer(invocation ->
+                success(details(((ProductBatchRequestDto) invocation.getArgument(0)).getProductIds())));
+        List<Request.Options> timeouts = Collections.synchronizedList(new ArrayList<>());
+        when(productServiceClient.placeStockHold(any(), any())).thenAnswer(invocation -> {
+            timeouts.add(invocation.getArgument(1));
+            productService.await(5, TimeUnit.SECONDS);
+            return success(new StockHoldResultDto("order", true, "ACTIVE", LocalDateTime.now().plusMinutes(30), List.of()));
+        });
+
+        assertThrows(ProductServiceUnavailableException.class, () -> orderService.createOrder(request(items(1))));
+
+        OrderEntity cancelled = orderRepository.findAll().get(0);
+        assertEquals(OrderStatus.CANCELLED, cancelled.getOrderStatus());
+        verify(outboxService).enqueue(cancelled.getId(), OutboxCommandType.RELEASE_STOCK_HOLD);
+        // Only what the lookups left of the deadline
+        assertTrue(timeouts.get(0).readTimeoutMillis() < DEADLINE.toMillis());
+    }
+
+    @Test
+    void createOrder_WhenTheProductCallExecutorIsFull_ShouldAnswer503WithoutStoringAnOrder() {
+        when(productServiceClient.getProductDetailsBatch(any(), any())).thenAnswer(invocation -> {
+            productService.await(5, TimeUnit.SECONDS);
+            return success(details(((ProductBatchRequestDto) invocation.getArgument(0)).getProductIds()));
+        });
+
+        // Four batches: two running, one queued, the last rejected
+        ProductServiceUnavailableException busy = assertThrows(ProductServiceUnavailableException.class,
+                () -> orderService.createOrder(request(items(4 * BATCH_SIZE))));
+
+        assertEquals(0, orderRepository.count());
+        ResponseEntity<CustomError> response = new GlobalExceptionHandler().handleProductServiceUnavailableException(busy);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    }
+
+    // Stores the recorded Stripe payload for the order in the inbox, as the webhook does
+    private String receiveCompletedCheckout(String orderId) throws IOException {
+        String payload = new ClassPathResource("stripe/checkout.session.completed.json").getContentAsString(StandardCharsets.UTF_8)
+                .replace("{{orderId}}", orderId);
+        ObjectNode event = (ObjectNode) objectMapper.readTree(payload);
+        String eventId = "evt_" + UUID.randomUUID().toString().replace("-", "");
+        event.put("id", eventId);
+        paymentEventRepository.save(PaymentEventEntity.builder()
+                .eventId(eventId)
+                .eventType(event.path("type").asText())
+                .payload(objectMapper.writeValueAsString(event))
+                .status(PaymentEventStatus.PENDING)
+                .receivedAt(LocalDateTime.now())
+                .build());
+        return eventId;
+    }
+
+    private static List<CartItemDto> items(int distinctProducts) {
+        return IntStream.range(0, distinctProducts).mapToObj(i -> item("product-" + i)).toList();
+    }
+
+    private static CartItemDto item(String productId) {
+        return CartItemDto.builder()
+                .productId(productId)
+                .name(productId)
+                .quantity(1)
+                .unitPrice(BigDecimal.TEN)
+                .build();
+    }
+
+    private static CreateOrderRequest request(List<CartItemDto> items) {
+        return CreateOrderRequest.builder()
+                .items(items)
+                .shippingAddress(ShippingAddressDto.builder()
+                        .street("1 Main St")
+                        .city("Springfield")
+                        .state("IL")
+                        .postalCode("62701")
+                        .country("US")
+                        .build())
+                .build();
+    }
+
+    private static ProductBatchDetailsDto details(List<String> productIds) {
+        Map<String, ProductDetailsDto> products = new LinkedHashMap<>();
+        productIds.forEach(productId ->
+                products.put(productId, new ProductDetailsDto(productId, productId, BigDecimal.TEN, 100, "electronics")));
+        return new ProductBatchDetailsDto(products, List.of());
+    }
+
+    private static <T> CustomResponse<T> success(T response) {
+        CustomResponse<T> wrapper = new CustomResponse<>();
+        wrapper.setIsSuccess(true);
+        wrapper.setResponse(response);
+        return wrapper;
+    }
+}
@@ -0,0 +1,346 @@
+package com.springbootmicroservices.orderservice.service.impl;
+
+import com.springbootmicroservices.orderservice.cache.OrderResponseCache;
+import com.springbootmicroservices.orderservice.client.ProductServiceClient;
+import com.springbootmicroservices.orderservice.client.dto.CustomResponse;
+import com.springbootmicroservices.orderservice.client.dto.ProductBatchDetailsDto;
+import com.springbootmicroservices.orderservice.client.dto.ProductDetailsDto;
+import com.springbootmicroservices.orderservice.client.dto.StockHoldResultDto;
+import com.springbootmicroservices.orderservice.config.OrderCreationConfigurationParameter;
+import com.springbootmicroservices.orderservice.config.OrderIntakeConfigurationParameter;
+import com.springbootmicroservices.orderservice.config.ProductCallExecutorConfig;
+import com.springbootmicroservices.orderservice.config.ServiceCredentialConfigurationParameter;
+import com.springbootmicroservices.orderservice.exception.GlobalExceptionHandler;
+import com.springbootmicroservices.orderservice.exception.OrderIntakeOverloadedException;
+import com.springbootmicroservices.orderservice.intake.OrderIntakePipeline;
+import com.springbootmicroservices.orderservice.model.auth.enums.TokenClaims;
+import com.springbootmicroservices.orderservice.model.common.CustomError;
+import com.springbootmicroservices.orderservice.model.order.dto.request.CartItemDto;
+import com.springbootmicroservices.orderservice.model.order.dto.request.CreateOrderRequest;
+import com.springbootmicroservices.orderservice.model.order.dto.request.ShippingAddressDto;
+import com.springbootmicroservices.orderservice.model.order.dto.response.OrderResponse;
+import com.springbootmicroservices.orderservice.model.order.entity.OrderEntity;
+import com.springbootmicroservices.orderservice.model.order.enums.OrderStatus;
+import com.springbootmicroservices.orderservice.model.order.mapper.OrderMapperImpl;
+import com.springbootmicroservices.orderservice.model.outbox.enums.OutboxCommandType;
+import com.springbootmicroservices.orderservice.repository.OrderRepository;
+import com.springbootmicroservices.orderservice.repository.OrderSummaryRepository;
+import com.springbootmicroservices.orderservice.service.OutboxService;
+import com.springbootmicroservices.orderservice.service.TokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// Runs the asynchronous order intake end to end against a real Hibernate session and intake pipeline: accepting an
+// order, turning orders away when the pipeline is full, the outcomes of the intake worker, and the stale intake sweeper.
+// Outside a test transaction, as the worker commits its own transactions on another thread.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({OrderServiceImpl.class, OrderSummaryServiceImpl.class, OrderMapperImpl.class, OrderIntakePipeline.class,
+        OrderCreationConfigurationParameter.class, ProductCallExecutorConfig.class})
+class OrderServiceImplIntakeTest {
+
+    private static final String USER_ID = "user-1";
+    private static final String PRODUCT_ID = "product-1";
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(7);
+    private static final Duration STALE_AFTER = Duration.ofMinutes(10);
+    private static final int MAX_ATTEMPTS = 2;
+
+    @Configuration
+    @EntityScan(basePackages = "com.springbootmicroservices.orderservice.model")
+    @EnableJpaRepositories(basePackages = "com.springbootmicroservices.orderservice.repository")
+    static class JpaConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        // One worker and one queued order, so a third order finds the pipeline full
+        @Bean
+        OrderIntakeConfigurationParameter orderIntakeConfigurationParameter() {
+            return new OrderIntakeConfigurationParameter(true, 1, 1, RETRY_AFTER, STALE_AFTER, MAX_ATTEMPTS);
+        }
+
+        @Bean
+        ServiceCredentialConfigurationParameter serviceCredentialConfigurationParameter() {
+            return new ServiceCredentialConfigurationParameter("orderservice", "service-secret");
+        }
+    }
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private TokenService tokenService;
+
+    @MockitoBean
+    private ProductServiceClient productServiceClient;
+
+    @MockitoBean
+    private OutboxService outboxService;
+
+    @MockitoBean
+    private OrderResponseCache orderResponseCache;
+
+    @BeforeEach
+    void setUp() {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .claim(TokenClaims.USER_ID.getValue(), USER_ID)
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(jwt, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        when(productServiceClient.getProductDetailsBatch(any(), any())).thenReturn(success(new ProductBatchDetailsDto(
+                Map.of(PRODUCT_ID, new ProductDetailsDto(PRODUCT_ID, "Keyboard", BigDecimal.valueOf(25), 10, "electronics")),
+                List.of())));
+    }
+
+    @AfterEach
+    void tearDown() {
+        awaitIdlePipeline();
+        SecurityContextHolder.clearContext();
+        orderSummaryRepository.deleteAll();
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    void acceptOrder_ShouldStoreThePendingOrderWithItsCart_AndPriceAndHoldItInTheBackground() {
+        when(productServiceClient.placeStockHold(any(), any())).thenReturn(success(hold(true)));
+
+        OrderResponse accepted = orderService.acceptOrder(request(2));
+
+        assertEquals(OrderStatus.PENDING, accepted.getOrderStatus());
+        assertEquals(0, BigDecimal.ZERO.compareTo(accepted.getTotalAmount()));
+
+        OrderEntity finished = awaitIntake(accepted.getId());
+        assertEquals(OrderStatus.PENDING_PAYMENT, finished.getOrderStatus());
+        assertEquals(0, BigDecimal.valueOf(50).compareTo(finished.getTotalAmount()));
+        assertNull(finished.getIntakeCartJson());
+        assertEquals(1, finished.getIntakeAttempts());
+        assertEquals(1, itemCount(accepted.getId()));
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void acceptOrder_WhenThePipelineIsFull_ShouldStoreNothing_AndAnswer503WithRetryAfter() throws InterruptedException {
+        CountDownLatch pricing = new CountDownLatch(1);
+        CountDownLatch productService = new CountDownLatch(1);
+        when(productServiceClient.getProductDetailsBatch(any(), any())).thenAnswer(invocation -> {
+            pricing.countDown();
+            productService.await(5, TimeUnit.SECONDS);
+            return success(new ProductBatchDetailsDto(Map.of(), List.of()));
+        });
+
+        try {
+            orderService.acceptOrder(request(1)); // Taken by the only worker, which waits for productservice
+            assertTrue(pricing.await(5, TimeUnit.SECONDS));
+            orderService.acceptOrder(request(1)); // Queued
+            long ordersBefore = orderRepository.count();
+            double rejectedBefore = meterRegistry.counter("order.intake.rejected").count();
+
+            OrderIntakeOverloadedException overloaded =
+                    assertThrows(OrderIntakeOverloadedException.class, () -> orderService.acceptOrder(request(1)));
+
+            assertEquals(ordersBefore, orderRepository.count());
+            assertEquals(rejectedBefore + 1, meterRegistry.counter("order.intake.rejected").count());
+            ResponseEntity<CustomError> response = new GlobalExceptionHandler().handleOrderIntakeOverloadedException(overloaded);
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+            assertEquals("7", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        } finally {
+            productService.countDown();
+        }
+        orderRepository.findAll().forEach(order -> awaitIntake(order.getId()));
+    }
+
+    @Test
+    void intakeWorker_WhenStockIsShort_ShouldCancelTheOrderWithoutReleasingAnything() {
+        when(productServiceClient.placeStockHold(any(), any())).thenReturn(success(hold(false)));
+
+        OrderEntity finished = awaitIntake(orderService.acceptOrder(request(2)).getId());
+
+        assertEquals(OrderStatus.CANCELLED, finished.getOrderStatus());
+        assertNull(finished.getIntakeCartJson());
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void intakeWorker_WhenTheHoldCallFails_ShouldCancelTheOrderAndReleaseWhatMayHaveBeenHeld() {
+        when(productServiceClient.placeStockHold(any(), any())).thenThrow(new IllegalStateException("connection reset"));
+
+        String orderId = orderService.acceptOrder(request(2)).getId();
+        OrderEntity finished = awaitIntake(orderId);
+
+        assertEquals(OrderStatus.CANCELLED, finished.getOrderStatus());
+        verify(outboxService).enqueue(orderId, OutboxCommandType.RELEASE_STOCK_HOLD);
+    }
+
+    @Test
+    void intakeWorker_WhenPricingFails_ShouldCancelTheOrderWithoutReleasingAnything() {
+        when(productServiceClient.getProductDetailsBatch(any(), any())).thenThrow(new IllegalStateException("connection reset"));
+
+        OrderEntity finished = awaitIntake(orderService.acceptOrder(request(2)).getId());
+
+        assertEquals(OrderStatus.CANCELLED, finished.getOrderStatus());
+        verify(productServiceClient, never()).placeStockHold(any(), any());
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void resubmitStaleIntakeOrders_ShouldResumeALostOrderFromItsStoredCart_UnderTheServiceCredential() {
+        AtomicReference<Authentication> holdAuthentication = new AtomicReference<>();
+        when(productServiceClient.placeStockHold(any(), any())).thenAnswer(invocation -> {
+            holdAuthentication.set(SecurityContextHolder.getContext().getAuthentication());
+            return success(hold(true));
+        });
+        String orderId = saveLostOrder(1);
+
+        orderService.resubmitStaleIntakeOrders();
+
+        OrderEntity finished = awaitIntake(orderId);
+        assertEquals(OrderStatus.PENDING_PAYMENT, finished.getOrderStatus());
+        assertEquals(2, finished.getIntakeAttempts());
+        assertEquals(0, BigDecimal.valueOf(75).compareTo(finished.getTotalAmount()));
+        assertEquals(1, itemCount(orderId));
+        assertEquals("orderservice", holdAuthentication.get().getPrincipal());
+        assertEquals(ServiceCredentialConfigurationParameter.SERVICE_AUTHORITY,
+                holdAuthentication.get().getAuthorities().iterator().next().getAuthority());
+
+        // Handed to a worker just now, so it is not stale any more
+        orderService.resubmitStaleIntakeOrders();
+        verify(productServiceClient, times(1)).placeStockHold(any(), any());
+    }
+
+    @Test
+    void resubmitStaleIntakeOrders_WhenTheOrderWasLostTooOften_ShouldCancelItAndReleaseItsHold() {
+        String orderId = saveLostOrder(MAX_ATTEMPTS);
+
+        orderService.resubmitStaleIntakeOrders();
+
+        OrderEntity cancelled = orderRepository.findById(orderId).orElseThrow();
+        assertEquals(OrderStatus.CANCELLED, cancelled.getOrderStatus());
+        assertNull(cancelled.getIntakeCartJson());
+        verify(outboxService).enqueue(orderId, OutboxCommandType.RELEASE_STOCK_HOLD);
+        verifyNoInteractions(productServiceClient);
+    }
+
+    private CreateOrderRequest request(int quantity) {
+        return CreateOrderRequest.builder()
+                .items(List.of(CartItemDto.builder()
+                        .productId(PRODUCT_ID)
+                        .name("Keyboard")
+                        .quantity(quantity)
+                        .unitPrice(BigDecimal.valueOf(25))
+                        .build()))
+                .shippingAddress(ShippingAddressDto.builder()
+                        .street("1 Main St")
+                        .city("Springfield")
+                        .state("IL")
+                        .postalCode("62701")
+                        .country("US")
+                        .build())
+                .build();
+    }
+
+    // An accepted order whose worker died: still PENDING with its cart, handed to a worker long ago
+    private String saveLostOrder(int attempts) {
+        String orderId = transactionTemplate.execute(status -> orderRepository.save(OrderEntity.builder()
+                .userId(USER_ID)
+                .totalAmount(BigDecimal.ZERO)
+                .orderStatus(OrderStatus.PENDING)
+                .intakeCartJson(new OrderMapperImpl().cartItemDtosToJson(request(3).getItems()))
+                .intakeAttempts(attempts)
+                .build()).getId());
+        jdbcTemplate.update("update ORDERS set INTAKE_SUBMITTED_AT = ? where ID = ?",
+                Timestamp.valueOf(LocalDateTime.now().minus(STALE_AFTER).minusMinutes(1)), orderId);
+        return orderId;
+    }
+
+    private OrderEntity awaitIntake(String orderId) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        OrderEntity order;
+        do {
+            order = orderRepository.findById(orderId).orElseThrow();
+            if (order.getOrderStatus() != OrderStatus.PENDING) {
+                return order;
+            }
+            Thread.onSpinWait();
+        } while (System.nanoTime() < deadline);
+        return fail("Order " + orderId + " is still PENDING");
+    }
+
+    // A worker gives its slot back just after committing the outcome, so the next test could find the pipeline still full
+    private void awaitIdlePipeline() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("order.intake.in.flight").gauge().value() > 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private long itemCount(String orderId) {
+        return jdbcTemplate.queryForObject("select count(*) from ORDER_ITEMS where ORDER_ID = ?", Long.class, orderId);
+    }
+
+    private static StockHoldResultDto hold(boolean reserved) {
+        return new StockHoldResultDto("order", reserved, reserved ? "ACTIVE" : null, LocalDateTime.now().plusMinutes(30),
+                List.of(new StockHoldResultDto.Line(PRODUCT_ID, 2, reserved ? "RESERVED" : "INSUFFICIENT_STOCK", BigDecimal.ONE)));
+    }
+
+    private static <T> CustomResponse<T> success(T response) {
+        CustomResponse<T> wrapper = new CustomResponse<>();
+        wrapper.setIsSuccess(true);
+        wrapper.setResponse(response);
+        return wrapper;
+    }
+}
@@ -0,0 +1,236 @@
+package com.springbootmicroservices.orderservice.service.impl;
+
+import com.springbootmicroservices.orderservice.cache.OrderResponseCache;
+import com.springbootmicroservices.orderservice.client.ProductServiceClient;
+import com.springbootmicroservices.orderservice.config.OrderCreationConfigurationParameter;
+import com.springbootmicroservices.orderservice.config.OrderIntakeConfigurationParameter;
+import com.springbootmicroservices.orderservice.config.ServiceCredentialConfigurationParameter;
+import com.springbootmicroservices.orderservice.intake.OrderIntakePipeline;
+import com.springbootmicroservices.orderservice.model.auth.enums.TokenClaims;
+import com.springbootmicroservices.orderservice.model.common.dto.response.CustomCursorPagingResponse;
+import com.springbootmicroservices.orderservice.model.order.dto.response.OrderHistoryItemResponse;
+import com.springbootmicroservices.orderservice.model.order.dto.response.OrderSummaryResponse;
+import com.springbootmicroservices.orderservice.model.order.entity.OrderEntity;
+import com.springbootmicroservices.orderservice.model.order.entity.OrderItemEntity;
+import com.springbootmicroservices.orderservice.model.order.entity.OrderSummaryEntity;
+import com.springbootmicroservices.orderservice.model.order.enums.OrderStatus;
+import com.springbootmicroservices.orderservice.model.order.mapper.OrderMapperImpl;
+import com.springbootmicroservices.orderservice.service.OutboxService;
+import com.springbootmicroservices.orderservice.service.TokenService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the ORDER_SUMMARY projection and the paged reads from it against a real Hibernate session,
+// counting the SQL statements each page costs
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({OrderServiceImpl.class, OrderSummaryServiceImpl.class, OrderMapperImpl.class})
+class OrderServiceImplPagingTest {
+
+    private static final String USER_ID = "user-1";
+    private static final String OTHER_USER_ID = "user-2";
+    private static final int USER_ORDERS = 25;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Configuration
+    @EntityScan(basePackages = "com.springbootmicroservices.orderservice.model")
+    @EnableJpaRepositories(basePackages = "com.springbootmicroservices.orderservice.repository")
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private OrderSummaryServiceImpl orderSummaryService;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private TokenService tokenService;
+
+    @MockitoBean
+    private ProductServiceClient productServiceClient;
+
+    @MockitoBean
+    private ThreadPoolTaskExecutor productCallExecutor;
+
+    @MockitoBean
+    private OrderCreationConfigurationParameter orderCreationConfigurationParameter;
+
+    @MockitoBean
+    private OutboxService outboxService;
+
+    @MockitoBean
+    private OrderIntakePipeline orderIntakePipeline;
+
+    @MockitoBean
+    private OrderIntakeConfigurationParameter orderIntakeConfigurationParameter;
+
+    @MockitoBean
+    private ServiceCredentialConfigurationParameter serviceCredentialConfigurationParameter;
+
+    @MockitoBean
+    private OrderResponseCache orderResponseCache;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < USER_ORDERS; i++) {
+            save(order(USER_ID));
+        }
+        save(order(OTHER_USER_ID));
+        save(order(OTHER_USER_ID));
+        // Start every read from an empty persistence context, as a real request does
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getOrderHistoryForCurrentUser_ShouldLoadEachPageWithOneStatement() {
+        authenticate(USER_ID, "ROLE_USER");
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            statistics.clear();
+            CustomCursorPagingResponse<OrderHistoryItemResponse> page = orderService.getOrderHistoryForCurrentUser(cursor, 10);
+            testEntityManager.clear();
+
+            // Only the keyset query on ORDER_SUMMARY, however many orders are on the page
+            assertEquals(1, statistics.getPrepareStatementCount());
+            page.getContent().forEach(item -> assertEquals(ITEMS_PER_ORDER * 2, item.getItemCount()));
+            page.getContent().forEach(item -> assertEquals("Product 0", item.getFirstProductName()));
+            page.getContent().forEach(item -> seen.add(item.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(USER_ORDERS, seen.size());
+        assertEquals(USER_ORDERS, new HashSet<>(seen).size());
+    }
+
+    @Test
+    void getOrderHistoryForCurrentUser_ShouldReturnOnlyTheCurrentUsersOrdersNewestFirst() {
+        authenticate(OTHER_USER_ID, "ROLE_USER");
+
+        CustomCursorPagingResponse<OrderHistoryItemResponse> page = orderService.getOrderHistoryForCurrentUser(null, 10);
+
+        assertEquals(2, page.getContent().size());
+        assertFalse(page.getHasNextPage());
+        assertNull(page.getNextCursor());
+        assertFalse(page.getContent().get(0).getOrderDate().isBefore(page.getContent().get(1).getOrderDate()));
+    }
+
+    @Test
+    void getAllOrdersForAdmin_ShouldLoadEachPageWithOneStatement() {
+        authenticate("admin-1", "ROLE_ADMIN");
+
+        Set<String> seen = new HashSet<>();
+        String cursor = null;
+        do {
+            statistics.clear();
+            CustomCursorPagingResponse<OrderSummaryResponse> page = orderService.getAllOrdersForAdmin(cursor, 10);
+            testEntityManager.clear();
+
+            assertEquals(1, statistics.getPrepareStatementCount());
+            page.getContent().forEach(order -> assertEquals(ITEMS_PER_ORDER * 2, order.getItemCount()));
+            page.getContent().forEach(order -> seen.add(order.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(USER_ORDERS + 2, seen.size());
+    }
+
+    @Test
+    void projectStatus_ShouldUpdateTheSummaryWithoutLoadingItems() {
+        OrderEntity order = testEntityManager.getEntityManager()
+                .createQuery("select o from OrderEntity o where o.userId = :userId", OrderEntity.class)
+                .setParameter("userId", OTHER_USER_ID)
+                .setMaxResults(1)
+                .getSingleResult();
+        order.setOrderStatus(OrderStatus.SHIPPED);
+
+        orderSummaryService.projectStatus(order);
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        assertFalse(Hibernate.isInitialized(order.getItems()));
+        assertEquals(OrderStatus.SHIPPED, testEntityManager.find(OrderSummaryEntity.class, order.getId()).getOrderStatus());
+    }
+
+    private void save(OrderEntity order) {
+        testEntityManager.persist(order);
+        orderSummaryService.project(order);
+    }
+
+    private static OrderEntity order(String userId) {
+        OrderEntity order = OrderEntity.builder()
+                .userId(userId)
+                .totalAmount(BigDecimal.valueOf(60))
+                .orderStatus(OrderStatus.PENDING_PAYMENT)
+                .build();
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            order.addItem(OrderItemEntity.builder()
+                    .productId("product-" + i)
+                    .productName("Product " + i)
+                    .quantity(2)
+                    .unitPrice(BigDecimal.TEN)
+                    .totalPrice(BigDecimal.valueOf(20))
+                    .build());
+        }
+        return order;
+    }
+
+    private static void authenticate(String userId, String role) {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .claim(TokenClaims.USER_ID.getValue(), userId)
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(jwt, null, List.of(new SimpleGrantedAuthority(role))));
+    }
+}
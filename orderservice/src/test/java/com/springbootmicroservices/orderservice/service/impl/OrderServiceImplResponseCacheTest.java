@@ -0,0 +1,229 @@
+package com.springbootmicroservices.orderservice.service.impl;
+
+import com.springbootmicroservices.orderservice.cache.OrderResponseCache;
+import com.springbootmicroservices.orderservice.client.ProductServiceClient;
+import com.springbootmicroservices.orderservice.config.OrderCreationConfigurationParameter;
+import com.springbootmicroservices.orderservice.config.OrderIntakeConfigurationParameter;
+import com.springbootmicroservices.orderservice.config.ServiceCredentialConfigurationParameter;
+import com.springbootmicroservices.orderservice.config.OrderResponseCacheConfigurationParameter;
+import com.springbootmicroservices.orderservice.exception.OrderNotFoundException;
+import com.springbootmicroservices.orderservice.intake.OrderIntakePipeline;
+import com.springbootmicroservices.orderservice.model.auth.enums.TokenClaims;
+import com.springbootmicroservices.orderservice.model.order.dto.response.OrderResponse;
+import com.springbootmicroservices.orderservice.model.order.entity.OrderEntity;
+import com.springbootmicroservices.orderservice.model.order.entity.OrderItemEntity;
+import com.springbootmicroservices.orderservice.model.order.enums.OrderStatus;
+import com.springbootmicroservices.orderservice.model.order.mapper.OrderMapperImpl;
+import com.springbootmicroservices.orderservice.repository.OrderRepository;
+import com.springbootmicroservices.orderservice.repository.OrderSummaryRepository;
+import com.springbootmicroservices.orderservice.service.OutboxService;
+import com.springbootmicroservices.orderservice.service.TokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Polls orders through the OrderResponse cache against a real Hibernate session. Runs outside a test transaction,
+// as the cache is only invalidated once the writing transaction has committed.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({OrderServiceImpl.class, OrderSummaryServiceImpl.class, OrderMapperImpl.class,
+        OrderResponseCache.class, OrderResponseCacheConfigurationParameter.class})
+class OrderServiceImplResponseCacheTest {
+
+    private static final String USER_ID = "user-1";
+
+    @Configuration
+    @EntityScan(basePackages = "com.springbootmicroservices.orderservice.model")
+    @EnableJpaRepositories(basePackages = "com.springbootmicroservices.orderservice.repository")
+    static class JpaConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private OrderSummaryServiceImpl orderSummaryService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private TokenService tokenService;
+
+    @MockitoBean
+    private ProductServiceClient productServiceClient;
+
+    @MockitoBean
+    private ThreadPoolTaskExecutor productCallExecutor;
+
+    @MockitoBean
+    private OrderCreationConfigurationParameter orderCreationConfigurationParameter;
+
+    @MockitoBean
+    private OutboxService outboxService;
+
+    @MockitoBean
+    private OrderIntakePipeline orderIntakePipeline;
+
+    @MockitoBean
+    private OrderIntakeConfigurationParameter orderIntakeConfigurationParameter;
+
+    @MockitoBean
+    private ServiceCredentialConfigurationParameter serviceCredentialConfigurationParameter;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        orderSummaryRepository.deleteAll();
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    void getOrderByIdForCurrentUser_ShouldAnswerRepeatedPollsFromTheCache_AndKeepTheOwnerCheck() {
+        String orderId = saveOrder();
+        authenticate(USER_ID, "ROLE_USER");
+
+        statistics.clear();
+        OrderResponse first = orderService.getOrderByIdForCurrentUser(orderId);
+        // The order and its items in one statement
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(2, first.getItems().size());
+
+        statistics.clear();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(OrderStatus.PENDING_PAYMENT, orderService.getOrderByIdForCurrentUser(orderId).getOrderStatus());
+        }
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        authenticate("user-2", "ROLE_USER");
+        assertThrows(OrderNotFoundException.class, () -> orderService.getOrderByIdForCurrentUser(orderId));
+        authenticate("admin-1", "ROLE_ADMIN");
+        assertEquals(USER_ID, orderService.getOrderByIdForCurrentUser(orderId).getUserId());
+        assertThrows(OrderNotFoundException.class, () -> orderService.getOrderByIdForCurrentUser("missing"));
+    }
+
+    @Test
+    void getOrderByIdForCurrentUser_ShouldSeeStatusChanges_OnceTheirTransactionCommits() {
+        String orderId = saveOrder();
+        authenticate("admin-1", "ROLE_ADMIN");
+        orderService.getOrderByIdForCurrentUser(orderId);
+
+        // A rolled back change leaves the cached order in place
+        transactionTemplate.executeWithoutResult(status -> {
+            orderService.applyStatusTransitions(Map.of(orderId, OrderStatus.CONFIRMED));
+            status.setRollbackOnly();
+        });
+        statistics.clear();
+        assertEquals(OrderStatus.PENDING_PAYMENT, orderService.getOrderByIdForCurrentUser(orderId).getOrderStatus());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // The payment webhook path
+        transactionTemplate.executeWithoutResult(status ->
+                orderService.applyStatusTransitions(Map.of(orderId, OrderStatus.CONFIRMED)));
+        assertEquals(OrderStatus.CONFIRMED, orderService.getOrderByIdForCurrentUser(orderId).getOrderStatus());
+
+        orderService.updateOrderStatus(orderId, OrderStatus.SHIPPED);
+        assertEquals(OrderStatus.SHIPPED, orderService.getOrderByIdForCurrentUser(orderId).getOrderStatus());
+    }
+
+    @Test
+    void getOrderByIdForCurrentUser_ShouldReportTheHitRatioAndLoadLatency() {
+        String orderId = saveOrder();
+        authenticate(USER_ID, "ROLE_USER");
+        double hitsBefore = meterRegistry.get("cache.gets").tags("cache", "orderResponses", "result", "hit").functionCounter().count();
+        long loadsBefore = meterRegistry.get("order.response.cache.load.duration").timer().count();
+
+        for (int i = 0; i < 4; i++) {
+            orderService.getOrderByIdForCurrentUser(orderId);
+        }
+
+        assertEquals(3, meterRegistry.get("cache.gets").tags("cache", "orderResponses", "result", "hit").functionCounter().count() - hitsBefore);
+        assertEquals(1, meterRegistry.get("order.response.cache.load.duration").timer().count() - loadsBefore);
+        assertTrue(meterRegistry.get("order.response.cache.hit.ratio").gauge().value() > 0);
+    }
+
+    private String saveOrder() {
+        return transactionTemplate.execute(status -> {
+            OrderEntity order = OrderEntity.builder()
+                    .userId(USER_ID)
+                    .totalAmount(BigDecimal.valueOf(40))
+                    .orderStatus(OrderStatus.PENDING_PAYMENT)
+                    .build();
+            for (int i = 0; i < 2; i++) {
+                order.addItem(OrderItemEntity.builder()
+                        .productId("product-" + i)
+                        .productName("Product " + i)
+                        .quantity(2)
+                        .unitPrice(BigDecimal.TEN)
+                        .totalPrice(BigDecimal.valueOf(20))
+                        .build());
+            }
+            OrderEntity savedOrder = orderRepository.save(order);
+            orderSummaryService.project(savedOrder);
+            return savedOrder.getId();
+        });
+    }
+
+    private static void authenticate(String userId, String role) {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .claim(TokenClaims.USER_ID.getValue(), userId)
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(jwt, null, List.of(new SimpleGrantedAuthority(role))));
+    }
+}
@@ -0,0 +1,89 @@
+package com.springbootmicroservices.orderservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springbootmicroservices.orderservice.config.PaymentWebhookConfigurationParameter;
+import com.springbootmicroservices.orderservice.repository.OrderRepository;
+import com.springbootmicroservices.orderservice.repository.PaymentEventRepository;
+import com.stripe.net.Webhook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// Signature checks and inbox storage of the Stripe webhook, fed with recorded payloads
+class PaymentServiceImplTest {
+
+    private static final String SECRET = "whsec_test_secret";
+
+    private PaymentEventRepository paymentEventRepository;
+    private PaymentServiceImpl paymentService;
+    private String payload;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        paymentEventRepository = mock(PaymentEventRepository.class);
+        paymentService = paymentService(SECRET);
+        payload = new ClassPathResource("stripe/checkout.session.completed.json")
+                .getContentAsString(StandardCharsets.UTF_8)
+                .replace("{{orderId}}", "order-1");
+    }
+
+    @Test
+    void handleStripeWebhook_ShouldStoreTheEvent_WhenTheSignatureIsValid() throws Exception {
+        when(paymentEventRepository.insertIfAbsent(anyString(), anyString(), anyString(), any())).thenReturn(1);
+
+        paymentService.handleStripeWebhook(payload, sign(payload, Instant.now()));
+
+        verify(paymentEventRepository).insertIfAbsent(eq("evt_1RZrA2BOUTLq4QBiK3xQ7mVd"), eq("checkout.session.completed"), eq(payload), any());
+    }
+
+    @Test
+    void handleStripeWebhook_ShouldRejectAlteredPayloads_AndStaleSignatures() throws Exception {
+        String altered = payload.replace("\"paid\"", "\"unpaid\"");
+        String signature = sign(payload, Instant.now());
+        String stale = sign(payload, Instant.now().minus(Duration.ofMinutes(10)));
+
+        ResponseStatusException alteredException = assertThrows(ResponseStatusException.class,
+                () -> paymentService.handleStripeWebhook(altered, signature));
+        ResponseStatusException staleException = assertThrows(ResponseStatusException.class,
+                () -> paymentService.handleStripeWebhook(payload, stale));
+
+        assertEquals(HttpStatus.BAD_REQUEST, alteredException.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, staleException.getStatusCode());
+        verifyNoInteractions(paymentEventRepository);
+    }
+
+    @Test
+    void handleStripeWebhook_ShouldAskStripeToRetry_WhenNoSecretIsConfigured() throws Exception {
+        PaymentServiceImpl unconfigured = paymentService("");
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> unconfigured.handleStripeWebhook(payload, sign(payload, Instant.now())));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+        verifyNoInteractions(paymentEventRepository);
+    }
+
+    private PaymentServiceImpl paymentService(String secret) {
+        PaymentWebhookConfigurationParameter configuration =
+                new PaymentWebhookConfigurationParameter(secret, Duration.ofMinutes(5), 200, 5, Duration.ofDays(30));
+        return new PaymentServiceImpl(mock(OrderRepository.class), paymentEventRepository, configuration, new ObjectMapper());
+    }
+
+    // Same scheme as Stripe's Stripe-Signature header: t=<timestamp>,v1=HMAC-SHA256(secret, "<timestamp>.<payload>")
+    private static String sign(String payload, Instant timestamp) throws Exception {
+        long seconds = timestamp.getEpochSecond();
+        return "t=" + seconds + ",v1=" + Webhook.Util.computeHmacSha256(SECRET, seconds + "." + payload);
+    }
+}
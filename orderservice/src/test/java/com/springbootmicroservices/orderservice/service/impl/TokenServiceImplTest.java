@@ -0,0 +1,99 @@
+package com.springbootmicroservices.orderservice.service.impl;
+
+import com.springbootmicroservices.orderservice.config.TokenConfigurationParameter;
+import com.springbootmicroservices.orderservice.model.auth.enums.TokenClaims;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Verifies that a token is RSA-verified once and then served from the verified-token cache,
+// while invalid and expired tokens are still rejected
+class TokenServiceImplTest {
+
+    private static final KeyPair KEY_PAIR = generateKeyPair();
+
+    private TokenServiceImpl tokenService;
+
+    @BeforeEach
+    void setUp() {
+        TokenConfigurationParameter tokenConfigurationParameter = mock(TokenConfigurationParameter.class);
+        when(tokenConfigurationParameter.getPublicKey()).thenReturn(KEY_PAIR.getPublic());
+        when(tokenConfigurationParameter.getVerifiedTokenCacheSize()).thenReturn(100L);
+        when(tokenConfigurationParameter.getVerifiedTokenCacheTtl()).thenReturn(Duration.ofMinutes(5));
+        tokenService = new TokenServiceImpl(tokenConfigurationParameter);
+    }
+
+    @Test
+    void reusedToken_isVerifiedOnce_andServedFromCache() {
+        String jwt = token(KEY_PAIR.getPrivate(), Instant.now().plusSeconds(600));
+
+        UsernamePasswordAuthenticationToken authentication = tokenService.getAuthentication(jwt);
+        Claims first = tokenService.getAllClaims(jwt);
+        Claims second = tokenService.getAllClaims(jwt);
+
+        assertSame(first, second);
+        assertEquals("user-1", tokenService.getUserIdFromToken(jwt));
+        assertEquals("jti-1", tokenService.getJtiFromToken(jwt));
+        assertEquals("user-1", ((Jwt) authentication.getPrincipal()).getClaimAsString(TokenClaims.USER_ID.getValue()));
+        assertTrue(authentication.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    @Test
+    void tokenSignedWithAnotherKey_isRejected() {
+        String jwt = token(generateKeyPair().getPrivate(), Instant.now().plusSeconds(600));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> tokenService.validateToken(jwt));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatusCode());
+    }
+
+    @Test
+    void expiredToken_isRejected() {
+        String jwt = token(KEY_PAIR.getPrivate(), Instant.now().minusSeconds(60));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> tokenService.getAuthentication(jwt));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatusCode());
+    }
+
+    private static String token(PrivateKey privateKey, Instant expiresAt) {
+        return Jwts.builder()
+                .setHeaderParam("typ", "JWT")
+                .setId("jti-1")
+                .setIssuedAt(Date.from(Instant.now().minusSeconds(60)))
+                .setExpiration(Date.from(expiresAt))
+                .claim(TokenClaims.USER_ID.getValue(), "user-1")
+                .claim(TokenClaims.USER_TYPE.getValue(), "user")
+                .signWith(privateKey, SignatureAlgorithm.RS256)
+                .compact();
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
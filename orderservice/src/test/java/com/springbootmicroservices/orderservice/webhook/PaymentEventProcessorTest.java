@@ -0,0 +1,284 @@
+package com.springbootmicroservices.orderservice.webhook;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.springbootmicroservices.orderservice.cache.OrderResponseCache;
+import com.springbootmicroservices.orderservice.client.ProductServiceClient;
+import com.springbootmicroservices.orderservice.config.OrderCreationConfigurationParameter;
+import com.springbootmicroservices.orderservice.config.OrderIntakeConfigurationParameter;
+import com.springbootmicroservices.orderservice.config.ServiceCredentialConfigurationParameter;
+import com.springbootmicroservices.orderservice.config.PaymentWebhookConfigurationParameter;
+import com.springbootmicroservices.orderservice.intake.OrderIntakePipeline;
+import com.springbootmicroservices.orderservice.model.order.entity.OrderEntity;
+import com.springbootmicroservices.orderservice.model.order.entity.OrderSummaryEntity;
+import com.springbootmicroservices.orderservice.model.order.enums.OrderStatus;
+import com.springbootmicroservices.orderservice.model.order.mapper.OrderMapperImpl;
+import com.springbootmicroservices.orderservice.model.outbox.enums.OutboxCommandType;
+import com.springbootmicroservices.orderservice.model.payment.entity.PaymentEventEntity;
+import com.springbootmicroservices.orderservice.model.payment.enums.PaymentEventStatus;
+import com.springbootmicroservices.orderservice.repository.PaymentEventRepository;
+import com.springbootmicroservices.orderservice.service.OutboxService;
+import com.springbootmicroservices.orderservice.service.TokenService;
+import com.springbootmicroservices.orderservice.service.impl.OrderServiceImpl;
+import com.springbootmicroservices.orderservice.service.impl.OrderSummaryServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+// Applies recorded Stripe webhook payloads from the inbox to real orders and (with -Pbenchmark) reports the sustained event rate
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "stripe.webhook.batch-size=200",
+        "stripe.webhook.max-attempts=3"
+})
+@Import({PaymentEventProcessor.class, PaymentWebhookConfigurationParameter.class,
+        OrderServiceImpl.class, OrderSummaryServiceImpl.class, OrderMapperImpl.class})
+class PaymentEventProcessorTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentEventProcessorTest.class);
+
+    private static final int THROUGHPUT_ORDERS = 2000;
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Configuration
+    @EntityScan(basePackages = "com.springbootmicroservices.orderservice.model")
+    @EnableJpaRepositories(basePackages = "com.springbootmicroservices.orderservice.repository")
+    static class JpaConfig {
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private PaymentEventProcessor paymentEventProcessor;
+
+    @Autowired
+    private PaymentEventRepository paymentEventRepository;
+
+    @Autowired
+    private OrderSummaryServiceImpl orderSummaryService;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private TokenService tokenService;
+
+    @MockitoBean
+    private ProductServiceClient productServiceClient;
+
+    @MockitoBean
+    private ThreadPoolTaskExecutor productCallExecutor;
+
+    @MockitoBean
+    private OrderCreationConfigurationParameter orderCreationConfigurationParameter;
+
+    @MockitoBean
+    private OutboxService outboxService;
+
+    @MockitoBean
+    private OrderIntakePipeline orderIntakePipeline;
+
+    @MockitoBean
+    private OrderIntakeConfigurationParameter orderIntakeConfigurationParameter;
+
+    @MockitoBean
+    private ServiceCredentialConfigurationParameter serviceCredentialConfigurationParameter;
+
+    @MockitoBean
+    private OrderResponseCache orderResponseCache;
+
+    @Test
+    void process_ShouldConfirmPaidOrders_FailDeclinedOnes_AndIgnoreOtherEvents() throws IOException {
+        String paidOrderId = saveOrder();
+        String declinedOrderId = saveOrder();
+        String paid = receive("checkout.session.completed.json", paidOrderId);
+        String declined = receive("checkout.session.async_payment_failed.json", declinedOrderId);
+        String other = receive("payment_intent.succeeded.json", null);
+
+        paymentEventProcessor.process();
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        assertEquals(OrderStatus.CONFIRMED, testEntityManager.find(OrderEntity.class, paidOrderId).getOrderStatus());
+        assertEquals(OrderStatus.CONFIRMED, testEntityManager.find(OrderSummaryEntity.class, paidOrderId).getOrderStatus());
+        assertEquals(OrderStatus.PAYMENT_FAILED, testEntityManager.find(OrderEntity.class, declinedOrderId).getOrderStatus());
+        assertEquals(PaymentEventStatus.PROCESSED, event(paid).getStatus());
+        assertEquals(PaymentEventStatus.PROCESSED, event(declined).getStatus());
+        assertEquals(PaymentEventStatus.IGNORED, event(other).getStatus());
+        assertNotNull(event(paid).getProcessedAt());
+        // The paid order keeps its stock for good, the declined one gives it back right away
+        verify(outboxService).enqueue(paidOrderId, OutboxCommandType.CONFIRM_STOCK_HOLD);
+        verify(outboxService).enqueue(declinedOrderId, OutboxCommandType.RELEASE_STOCK_HOLD);
+        verifyNoMoreInteractions(outboxService);
+    }
+
+    @Test
+    void process_ShouldApplyEventsOfOneOrderInArrivalOrder_AndRecordDisallowedChanges() throws IOException {
+        String orderId = saveOrder();
+        String paid = receive("checkout.session.completed.json", orderId);
+        String declinedAfterwards = receive("checkout.session.async_payment_failed.json", orderId);
+
+        paymentEventProcessor.process();
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        // The order is confirmed first, after which a payment failure is no longer a valid change
+        assertEquals(OrderStatus.CONFIRMED, testEntityManager.find(OrderEntity.class, orderId).getOrderStatus());
+        assertEquals(PaymentEventStatus.PROCESSED, event(paid).getStatus());
+        assertEquals(PaymentEventStatus.FAILED, event(declinedAfterwards).getStatus());
+        assertEquals("Cannot change order status from CONFIRMED to PAYMENT_FAILED", event(declinedAfterwards).getLastError());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void process_ShouldApplyTheRestOfAFailedBatch_AndFailAnEventThatKeepsFailingOnItsOwn() throws IOException {
+        String stuckOrderId = transactionTemplate.execute(status -> saveOrder());
+        String healthyOrderId = transactionTemplate.execute(status -> saveOrder());
+        String stuck = receive("checkout.session.completed.json", stuckOrderId);
+        String healthy = receive("checkout.session.completed.json", healthyOrderId);
+        doThrow(new IllegalStateException("outbox unavailable")).when(outboxService).enqueue(eq(stuckOrderId), any());
+
+        try {
+            // The batch fails as a whole; applied one at a time, only the stuck event fails
+            paymentEventProcessor.process();
+
+            assertEquals(PaymentEventStatus.PROCESSED, paymentEventRepository.findById(healthy).orElseThrow().getStatus());
+            assertEquals(OrderStatus.CONFIRMED, orderStatus(healthyOrderId));
+            PaymentEventEntity afterFirstRound = paymentEventRepository.findById(stuck).orElseThrow();
+            assertEquals(PaymentEventStatus.PENDING, afterFirstRound.getStatus());
+            assertEquals(1, afterFirstRound.getAttempts());
+
+            // Every round counts one more attempt, until the event is given up
+            for (int round = 2; round <= MAX_ATTEMPTS; round++) {
+                paymentEventProcessor.process();
+            }
+
+            PaymentEventEntity givenUp = paymentEventRepository.findById(stuck).orElseThrow();
+            assertEquals(PaymentEventStatus.FAILED, givenUp.getStatus());
+            assertEquals(MAX_ATTEMPTS, givenUp.getAttempts());
+            assertEquals("IllegalStateException: outbox unavailable", givenUp.getLastError());
+            assertEquals(OrderStatus.PENDING_PAYMENT, orderStatus(stuckOrderId));
+        } finally {
+            paymentEventRepository.deleteAllById(List.of(stuck, healthy));
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void process_ShouldDrainABurstOfEvents_AndReportTheSustainedRate() throws IOException {
+        List<String> orderIds = new ArrayList<>();
+        for (int i = 0; i < THROUGHPUT_ORDERS; i++) {
+            orderIds.add(saveOrder());
+        }
+        for (String orderId : orderIds) {
+            receive("checkout.session.completed.json", orderId);
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+        double processedBefore = meterRegistry.counter("order.payment.events", "outcome", "processed").count();
+        long batchesBefore = meterRegistry.timer("order.payment.events.batch.duration").count();
+
+        long start = System.nanoTime();
+        paymentEventProcessor.process();
+        testEntityManager.flush();
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        testEntityManager.clear();
+
+        log.info("PaymentEventProcessorTest :: {} events in {} s, {} events/s",
+                THROUGHPUT_ORDERS, String.format("%.2f", seconds), String.format("%.0f", THROUGHPUT_ORDERS / seconds));
+        assertEquals(THROUGHPUT_ORDERS, meterRegistry.counter("order.payment.events", "outcome", "processed").count() - processedBefore);
+        // Full batches of 200; the empty round that ends the drain is not timed
+        assertEquals(THROUGHPUT_ORDERS / 200, meterRegistry.timer("order.payment.events.batch.duration").count() - batchesBefore);
+        orderIds.forEach(orderId ->
+                assertEquals(OrderStatus.CONFIRMED, testEntityManager.find(OrderSummaryEntity.class, orderId).getOrderStatus()));
+    }
+
+    private String saveOrder() {
+        OrderEntity order = OrderEntity.builder()
+                .userId("user-1")
+                .totalAmount(BigDecimal.valueOf(60))
+                .orderStatus(OrderStatus.PENDING_PAYMENT)
+                .build();
+        testEntityManager.persist(order);
+        orderSummaryService.project(order);
+        return order.getId();
+    }
+
+    // Stores a recorded payload the way the webhook does, with a fresh event ID and the given order in its metadata
+    private String receive(String recording, String orderId) throws IOException {
+        String payload = new ClassPathResource("stripe/" + recording).getContentAsString(StandardCharsets.UTF_8);
+        if (orderId != null) {
+            payload = payload.replace("{{orderId}}", orderId);
+        }
+        ObjectNode event = (ObjectNode) objectMapper.readTree(payload);
+        String eventId = "evt_" + UUID.randomUUID().toString().replace("-", "");
+        event.put("id", eventId);
+
+        paymentEventRepository.save(PaymentEventEntity.builder()
+                .eventId(eventId)
+                .eventType(event.path("type").asText())
+                .payload(objectMapper.writeValueAsString(event))
+                .status(PaymentEventStatus.PENDING)
+                .receivedAt(LocalDateTime.now())
+                .build());
+        return eventId;
+    }
+
+    private OrderStatus orderStatus(String orderId) {
+        return transactionTemplate.execute(status -> testEntityManager.find(OrderEntity.class, orderId).getOrderStatus());
+    }
+
+    private PaymentEventEntity event(String eventId) {
+        return testEntityManager.find(PaymentEventEntity.class, eventId);
+    }
+}
@@ -0,0 +1,25 @@
+package com.springbootmicroservices.productservice.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.net.URI;
+
+/**
+ * Feign client for the API gateway's internal management port.
+ * Used to purge the gateway's edge response cache when catalog data changes.
+ */
+// The management port is not registered in Eureka, so the client is addressed by URL; each call names the instance
+@FeignClient(name = "apigateway", url = "${gateway.management-url}", path = "/actuator/responsecache")
+public interface ApiGatewayClient {
+
+    /**
+     * Purges cached responses of one gateway instance whose key starts with the given prefix.
+     * Corresponds to: DELETE {managementUrl}/actuator/responsecache?prefix={prefix}
+     * @param managementUrl The management URL of the gateway instance, replacing the configured default
+     * @param prefix The cache key prefix to purge, e.g. /api/v1/products/{productId}?
+     */
+    @DeleteMapping
+    void purgeResponseCache(URI managementUrl, @RequestParam("prefix") String prefix);
+}
@@ -0,0 +1,52 @@
+package com.springbootmicroservices.productservice.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Configuration class named {@link CacheControlConfig} that marks the public product read endpoints as cacheable.
+ * Without it every response carries Spring Security's default {@code no-store}, so the API gateway's
+ * edge cache could never keep them. Spring Security leaves an existing {@code Cache-Control} header untouched.
+ */
+@Configuration
+public class CacheControlConfig implements WebMvcConfigurer {
+
+    private final CacheControl publicCacheControl;
+
+    public CacheControlConfig(@Value("${product.cache-control.max-age:30s}") final Duration maxAge) {
+        this.publicCacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    /**
+     * Registers the interceptor for the public GET product endpoints.
+     *
+     * @param registry the interceptor registry
+     */
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+                    @Override
+                    public boolean preHandle(@NonNull final HttpServletRequest request,
+                                             @NonNull final HttpServletResponse response,
+                                             @NonNull final Object handler) {
+                        if (HttpMethod.GET.matches(request.getMethod())) {
+                            response.setHeader(HttpHeaders.CACHE_CONTROL, publicCacheControl.getHeaderValue());
+                        }
+                        return true;
+                    }
+                })
+                .addPathPatterns("/api/v1/products", "/api/v1/products/*", "/api/v1/products/category/*");
+    }
+
+}
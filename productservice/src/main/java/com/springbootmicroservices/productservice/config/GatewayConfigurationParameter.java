@@ -0,0 +1,39 @@
+package com.springbootmicroservices.productservice.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Configuration class named {@link GatewayConfigurationParameter} for reaching the API gateway instances
+ * whose edge response caches productservice purges.
+ */
+@Getter
+@Configuration
+public class GatewayConfigurationParameter {
+
+    // Every gateway instance keeps its own cache, so each management URL is purged
+    private final List<URI> managementUrls;
+
+    // Purges waiting for a free thread; further ones are dropped and left to the cache TTL
+    private final int purgeQueueCapacity;
+
+    public GatewayConfigurationParameter(@Value("${gateway.management-urls:${gateway.management-url}}") final List<URI> managementUrls,
+                                         @Value("${gateway.purge-queue-capacity:1000}") final int purgeQueueCapacity) {
+
+        if (managementUrls.isEmpty()) {
+            throw new IllegalStateException("gateway.management-urls must name at least one gateway management URL");
+        }
+        if (purgeQueueCapacity < 1) {
+            throw new IllegalStateException("gateway.purge-queue-capacity must be positive");
+        }
+
+        this.managementUrls = List.copyOf(managementUrls);
+        this.purgeQueueCapacity = purgeQueueCapacity;
+
+    }
+
+}
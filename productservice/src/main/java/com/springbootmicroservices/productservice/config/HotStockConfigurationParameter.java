@@ -0,0 +1,28 @@
+package com.springbootmicroservices.productservice.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Configuration named {@link HotStockConfigurationParameter} for the in-memory stock of hot products.
+ */
+@Getter
+@Configuration
+public class HotStockConfigurationParameter {
+
+    // Number of independent counters each hot product's stock is split across; 0 means one per CPU
+    private final int shards;
+
+    // Directory of the append-only journal used to recover stock sold from memory but not yet flushed
+    private final Path journalDirectory;
+
+    public HotStockConfigurationParameter(@Value("${product.hot-stock.shards:0}") final int shards,
+                                          @Value("${product.hot-stock.journal-directory:./data/hot-stock}") final String journalDirectory) {
+        this.shards = shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+        this.journalDirectory = Path.of(journalDirectory);
+    }
+
+}
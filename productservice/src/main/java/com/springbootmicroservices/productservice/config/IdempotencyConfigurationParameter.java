@@ -0,0 +1,58 @@
+package com.springbootmicroservices.productservice.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration named {@link IdempotencyConfigurationParameter} for requests deduplicated by their
+ * {@code Idempotency-Key} header.
+ */
+@Getter
+@Configuration
+public class IdempotencyConfigurationParameter {
+
+    // POST paths (Ant patterns) that honour the header
+    private final List<String> paths;
+
+    // How long a stored response is replayed; keys older than this execute again
+    private final Duration retention;
+
+    // Lifetime of a response in the in-memory front cache, bounded by the retention
+    private final Duration cacheTtl;
+
+    private final long cacheMaximumSize;
+
+    // How long a duplicate waits for the first request, and after which an unfinished first request counts as abandoned
+    private final Duration inFlightTimeout;
+
+    // Larger responses are not stored, so the table stays compact
+    private final int maxResponseBytes;
+
+    public IdempotencyConfigurationParameter(@Value("${idempotency.paths:/api/v1/products/*/purchase}") final List<String> paths,
+                                             @Value("${idempotency.retention:24h}") final Duration retention,
+                                             @Value("${idempotency.cache-ttl:10m}") final Duration cacheTtl,
+                                             @Value("${idempotency.cache-maximum-size:10000}") final long cacheMaximumSize,
+                                             @Value("${idempotency.in-flight-timeout:30s}") final Duration inFlightTimeout,
+                                             @Value("${idempotency.max-response-bytes:65536}") final int maxResponseBytes) {
+        if (retention.isNegative() || retention.isZero() || cacheTtl.isNegative() || cacheTtl.isZero()) {
+            throw new IllegalArgumentException("idempotency.retention and idempotency.cache-ttl must be positive");
+        }
+        if (inFlightTimeout.isNegative() || inFlightTimeout.isZero()) {
+            throw new IllegalArgumentException("idempotency.in-flight-timeout must be positive");
+        }
+        if (cacheMaximumSize < 1 || maxResponseBytes < 1) {
+            throw new IllegalArgumentException("idempotency.cache-maximum-size and idempotency.max-response-bytes must be positive");
+        }
+        this.paths = List.copyOf(paths);
+        this.retention = retention;
+        this.cacheTtl = cacheTtl.compareTo(retention) < 0 ? cacheTtl : retention;
+        this.cacheMaximumSize = cacheMaximumSize;
+        this.inFlightTimeout = inFlightTimeout;
+        this.maxResponseBytes = maxResponseBytes;
+    }
+
+}
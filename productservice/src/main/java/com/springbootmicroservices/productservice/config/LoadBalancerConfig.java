@@ -0,0 +1,36 @@
+package com.springbootmicroservices.productservice.config;
+
+import com.springbootmicroservices.productservice.loadbalancer.InstanceLoadRegistry;
+import com.springbootmicroservices.productservice.loadbalancer.LoadRecordingLifecycle;
+import com.springbootmicroservices.productservice.loadbalancer.PeakEwmaLoadBalancerConfiguration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration class named {@link LoadBalancerConfig} making Feign clients resolve service instances with
+ * the peak-EWMA power-of-two-choices balancer instead of round robin.
+ * Set {@code load-balancer.strategy} to {@code round-robin} to fall back to the Spring Cloud default.
+ */
+@Configuration
+@ConditionalOnProperty(name = "load-balancer.strategy", havingValue = "peak-ewma", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+
+    @Bean
+    public InstanceLoadRegistry instanceLoadRegistry(
+            @Value("${load-balancer.peak-ewma.decay-time:10s}") final Duration decayTime,
+            @Value("${load-balancer.peak-ewma.failure-penalty:1s}") final Duration failurePenalty) {
+        return new InstanceLoadRegistry(decayTime, failurePenalty);
+    }
+
+    @Bean
+    public LoadRecordingLifecycle loadRecordingLifecycle(final InstanceLoadRegistry instanceLoadRegistry) {
+        return new LoadRecordingLifecycle(instanceLoadRegistry);
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.springbootmicroservices.productservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration class named {@link SchedulingConfig} that enables the background jobs of productservice,
+ * such as the write-behind flush of hot product stock.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
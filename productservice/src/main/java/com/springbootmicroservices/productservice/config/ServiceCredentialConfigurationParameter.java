@@ -0,0 +1,46 @@
+package com.springbootmicroservices.productservice.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Configuration class named {@link ServiceCredentialConfigurationParameter} for calls from other services
+ * that act for no user, such as the stock hold commands delivered by orderservice's outbox.
+ * Must match {@code security.service-credential.secret} of the calling service.
+ */
+@Getter
+@Configuration
+public class ServiceCredentialConfigurationParameter {
+
+    private final byte[] secret;
+
+    public ServiceCredentialConfigurationParameter(@Value("${security.service-credential.secret:}") final String secret) {
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Tells whether service calls are accepted at all.
+     *
+     * @return true if a secret is configured
+     */
+    public boolean hasSecret() {
+        return secret.length > 0;
+    }
+
+    /**
+     * Checks the secret sent by a calling service using a constant-time comparison.
+     *
+     * @param candidate the secret taken from the request
+     * @return true if a secret is configured and it matches
+     */
+    public boolean isTrustedSecret(final String candidate) {
+        return hasSecret() && StringUtils.hasText(candidate)
+                && MessageDigest.isEqual(secret, candidate.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.springbootmicroservices.productservice.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration named {@link StockHoldConfigurationParameter} for stock kept aside until a purchase completes.
+ */
+@Getter
+@Configuration
+public class StockHoldConfigurationParameter {
+
+    // Lifetime of a hold when the caller does not ask for one
+    private final Duration defaultTtl;
+
+    // Upper bound for a requested lifetime, so a hold can never keep stock away from other buyers indefinitely
+    private final Duration maxTtl;
+
+    // Expired holds released per sweeper transaction
+    private final int sweepBatchSize;
+
+    public StockHoldConfigurationParameter(@Value("${product.stock-hold.default-ttl:30m}") final Duration defaultTtl,
+                                           @Value("${product.stock-hold.max-ttl:24h}") final Duration maxTtl,
+                                           @Value("${product.stock-hold.sweep-batch-size:200}") final int sweepBatchSize) {
+        if (defaultTtl.isNegative() || defaultTtl.isZero() || maxTtl.compareTo(defaultTtl) < 0) {
+            throw new IllegalArgumentException("product.stock-hold.default-ttl must be positive and not exceed max-ttl");
+        }
+        if (sweepBatchSize < 1) {
+            throw new IllegalArgumentException("product.stock-hold.sweep-batch-size must be positive");
+        }
+        this.defaultTtl = defaultTtl;
+        this.maxTtl = maxTtl;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.springbootmicroservices.productservice.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Configuration class named {@link TrustedEdgeConfigurationParameter} for trusted-edge mode.
+ * When enabled, identity headers forwarded by the API gateway are trusted instead of asking userservice
+ * to authenticate the token again. Must match {@code gateway.trusted-edge} on the gateway.
+ */
+@Getter
+@Configuration
+public class TrustedEdgeConfigurationParameter {
+
+    private final boolean enabled;
+    private final byte[] secret;
+
+    public TrustedEdgeConfigurationParameter(@Value("${security.trusted-edge.enabled:false}") final boolean enabled,
+                                             @Value("${security.trusted-edge.secret:}") final String secret) {
+
+        if (enabled && !StringUtils.hasText(secret)) {
+            throw new IllegalStateException("security.trusted-edge.secret must be set when trusted-edge mode is enabled");
+        }
+
+        this.enabled = enabled;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+
+    }
+
+    /**
+     * Checks the edge secret sent by the gateway using a constant-time comparison.
+     *
+     * @param candidate the secret taken from the request
+     * @return true if it matches the configured secret
+     */
+    public boolean isTrustedSecret(final String candidate) {
+        return candidate != null && MessageDigest.isEqual(secret, candidate.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.springbootmicroservices.productservice.controller;
+
+import com.springbootmicroservices.productservice.model.common.dto.response.CustomResponse;
+import com.springbootmicroservices.productservice.model.product.dto.response.HotStockStatusResponse;
+import com.springbootmicroservices.productservice.service.HotStockService;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.validator.constraints.UUID;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller named {@link HotStockController} for switching products to in-memory stock for flash sales.
+ * All endpoints require ADMIN authority and act on the instance that receives the request; each instance that
+ * should sell a hot product takes its own share of the stock.
+ */
+@RestController
+@RequestMapping("/api/v1/products/admin/hot-stock")
+@RequiredArgsConstructor
+@Validated
+@PreAuthorize("hasAuthority('ROLE_ADMIN')")
+public class HotStockController {
+
+    private final HotStockService hotStockService;
+
+    /**
+     * Lists the products whose stock is served from memory.
+     *
+     * @return a {@link CustomResponse} containing the state of every hot product
+     */
+    @GetMapping
+    public CustomResponse<List<HotStockStatusResponse>> getHotProducts() {
+        return CustomResponse.successOf(hotStockService.getStatuses());
+    }
+
+    /**
+     * Switches a product to in-memory stock on this instance.
+     *
+     * @param productId the ID of the product
+     * @param quantity  the share of the stock to take into memory; all stock not yet shared out if absent
+     * @return a {@link CustomResponse} containing the hot stock state of the product
+     */
+    @PutMapping("/{productId}")
+    public CustomResponse<HotStockStatusResponse> enableHotStock(@PathVariable @UUID final String productId,
+                                                                 @RequestParam(required = false) @Positive final Integer quantity) {
+        return CustomResponse.successOf(hotStockService.enable(productId, quantity));
+    }
+
+    /**
+     * Switches a product back to database stock once everything sold from memory has been written.
+     *
+     * @param productId the ID of the product
+     * @return a {@link CustomResponse} indicating success
+     */
+    @DeleteMapping("/{productId}")
+    public CustomResponse<Void> disableHotStock(@PathVariable @UUID final String productId) {
+        hotStockService.disable(productId);
+        return CustomResponse.SUCCESS;
+    }
+
+}
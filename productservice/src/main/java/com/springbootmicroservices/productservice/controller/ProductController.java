@@ -5,24 +5,34 @@ import com.springbootmicroservices.productservice.model.common.CustomPaging;
 import com.springbootmicroservices.productservice.model.common.dto.response.CustomPagingResponse;
 import com.springbootmicroservices.productservice.model.common.dto.response.CustomResponse;
 import com.springbootmicroservices.productservice.model.product.Product;
+import com.springbootmicroservices.productservice.model.product.dto.request.ProductBatchRequest;
 import com.springbootmicroservices.productservice.model.product.dto.request.ProductCreateRequest;
 import com.springbootmicroservices.productservice.model.product.dto.request.ProductPagingRequest;
 import com.springbootmicroservices.productservice.model.product.dto.request.ProductUpdateRequest;
+import com.springbootmicroservices.productservice.model.product.dto.request.StockHoldRequest;
+import com.springbootmicroservices.productservice.model.product.dto.request.StockReservationRequest;
+import com.springbootmicroservices.productservice.model.product.dto.response.ProductBatchResponse;
 import com.springbootmicroservices.productservice.model.product.dto.response.ProductResponse;
+import com.springbootmicroservices.productservice.model.product.dto.response.StockHoldResponse;
+import com.springbootmicroservices.productservice.model.product.dto.response.StockReservationResponse;
 import com.springbootmicroservices.productservice.model.product.mapper.CustomPageToCustomPagingResponseMapper;
 import com.springbootmicroservices.productservice.model.product.mapper.ProductToProductResponseMapper;
 import com.springbootmicroservices.productservice.service.ProductCreateService;
 import com.springbootmicroservices.productservice.service.ProductDeleteService;
 import com.springbootmicroservices.productservice.service.ProductReadService;
+import com.springbootmicroservices.productservice.service.ProductStockService;
 import com.springbootmicroservices.productservice.service.ProductUpdateService;
 import com.springbootmicroservices.productservice.model.product.dto.request.PurchaseRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import org.hibernate.validator.constraints.UUID;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.math.BigDecimal;
 
 /**
@@ -39,6 +49,7 @@ public class ProductController {
     private final ProductReadService productReadService;
     private final ProductUpdateService productUpdateService;
     private final ProductDeleteService productDeleteService;
+    private final ProductStockService productStockService;
 
     private final ProductToProductResponseMapper productToProductResponseMapper = ProductToProductResponseMapper.initialize();
 
@@ -76,6 +87,33 @@ public class ProductController {
         return CustomResponse.successOf(productResponse);
     }
 
+    /**
+     * Retrieves several products in one call. Requires authenticated user.
+     * Used by other services that would otherwise call {@link #getProductById(String)} once per product.
+     *
+     * @param productBatchRequest the request payload containing up to {@value ProductBatchRequest#MAX_PRODUCT_IDS} product IDs
+     * @return a {@link CustomResponse} containing the found products keyed by ID and the IDs that were not found
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("isAuthenticated()")
+    public CustomResponse<ProductBatchResponse> getProductsByIds(@RequestBody @Valid final ProductBatchRequest productBatchRequest) {
+
+        final Map<String, Product> productsById = productReadService.getProductsByIds(productBatchRequest.getProductIds());
+
+        final Map<String, ProductResponse> productResponses = new LinkedHashMap<>();
+        productsById.forEach((productId, product) -> productResponses.put(productId, productToProductResponseMapper.map(product)));
+
+        final List<String> missingProductIds = productBatchRequest.getProductIds().stream()
+                .distinct()
+                .filter(productId -> !productsById.containsKey(productId))
+                .toList();
+
+        return CustomResponse.successOf(ProductBatchResponse.builder()
+                .products(productResponses)
+                .missingProductIds(missingProductIds)
+                .build());
+    }
+
     /**
      * Retrieves a paginated list of products based on the paging request. Publicly accessible.
      *
@@ -177,4 +215,56 @@ public class ProductController {
         final ProductResponse productResponse = productToProductResponseMapper.map(updatedProduct);
         return CustomResponse.successOf(productResponse);
     }
-}
\ No newline at end of file
+
+    /**
+     * Reserves stock for several products at once. Requires authenticated user.
+     * Either every line is reserved or none is; the response reports the outcome of each line in both cases.
+     *
+     * @param stockReservationRequest the request payload containing the products and quantities to reserve
+     * @return a {@link CustomResponse} containing whether the reservation succeeded and the per-line results
+     */
+    @PostMapping("/stock/reservations")
+    @PreAuthorize("isAuthenticated()")
+    public CustomResponse<StockReservationResponse> reserveStock(
+            @RequestBody @Valid final StockReservationRequest stockReservationRequest
+    ) {
+        return CustomResponse.successOf(productStockService.reserveStock(stockReservationRequest));
+    }
+
+    /**
+     * Keeps stock aside for several products until the hold is confirmed, released or expires. Requires authenticated user.
+     * Either every line is held or none is; the response reports the outcome of each line in both cases.
+     *
+     * @param stockHoldRequest the request payload containing the hold reference, optional lifetime, products and quantities
+     * @return a {@link CustomResponse} containing the hold and the per-line results
+     */
+    @PostMapping("/stock/holds")
+    @PreAuthorize("isAuthenticated()")
+    public CustomResponse<StockHoldResponse> placeStockHold(@RequestBody @Valid final StockHoldRequest stockHoldRequest) {
+        return CustomResponse.successOf(productStockService.placeHold(stockHoldRequest));
+    }
+
+    /**
+     * Makes the stock of an active hold permanently taken. Requires the orderservice credential or an admin.
+     *
+     * @param reference the reference the hold was placed with
+     * @return a {@link CustomResponse} containing the confirmed hold
+     */
+    @PostMapping("/stock/holds/{reference}/confirm")
+    @PreAuthorize("hasAnyAuthority('ROLE_SERVICE', 'ROLE_ADMIN')")
+    public CustomResponse<StockHoldResponse> confirmStockHold(@PathVariable @NotBlank final String reference) {
+        return CustomResponse.successOf(productStockService.confirmHold(reference));
+    }
+
+    /**
+     * Gives the stock of an active or confirmed hold back to the products. Requires the orderservice credential or an admin.
+     *
+     * @param reference the reference the hold was placed with
+     * @return a {@link CustomResponse} containing the released hold
+     */
+    @DeleteMapping("/stock/holds/{reference}")
+    @PreAuthorize("hasAnyAuthority('ROLE_SERVICE', 'ROLE_ADMIN')")
+    public CustomResponse<StockHoldResponse> releaseStockHold(@PathVariable @NotBlank final String reference) {
+        return CustomResponse.successOf(productStockService.releaseHold(reference));
+    }
+}
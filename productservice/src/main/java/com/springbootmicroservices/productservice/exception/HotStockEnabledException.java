@@ -0,0 +1,21 @@
+package com.springbootmicroservices.productservice.exception;
+
+import java.io.Serial;
+
+/**
+ * Exception class thrown when a change would bypass the in-memory stock of a product in hot mode.
+ */
+public class HotStockEnabledException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 6118437520944380177L;
+
+    /**
+     * Constructs a new HotStockEnabledException with a specific detail message.
+     *
+     * @param message the full detail message.
+     */
+    public HotStockEnabledException(final String message) {
+        super(message);
+    }
+}
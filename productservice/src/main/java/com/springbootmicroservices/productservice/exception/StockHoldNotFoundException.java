@@ -0,0 +1,21 @@
+package com.springbootmicroservices.productservice.exception;
+
+import java.io.Serial;
+
+/**
+ * Exception class thrown when no stock hold exists with the given reference.
+ */
+public class StockHoldNotFoundException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 2184790613057342811L;
+
+    /**
+     * Constructs a new StockHoldNotFoundException with a specific detail message.
+     *
+     * @param message the full detail message.
+     */
+    public StockHoldNotFoundException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.springbootmicroservices.productservice.exception;
+
+import java.io.Serial;
+
+/**
+ * Exception class thrown when a stock hold cannot make the requested transition from its current state.
+ */
+public class StockHoldStateException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = -3409127733512981466L;
+
+    /**
+     * Constructs a new StockHoldStateException with a specific detail message.
+     *
+     * @param message the full detail message.
+     */
+    public StockHoldStateException(final String message) {
+        super(message);
+    }
+}
@@ -1,8 +1,12 @@
 package com.springbootmicroservices.productservice.filter;
 
 import com.springbootmicroservices.productservice.client.UserServiceClient;
+import com.springbootmicroservices.productservice.config.ServiceCredentialConfigurationParameter;
+import com.springbootmicroservices.productservice.config.TrustedEdgeConfigurationParameter;
 import com.springbootmicroservices.productservice.model.auth.JwtRecord;
 import com.springbootmicroservices.productservice.model.auth.Token;
+import com.springbootmicroservices.productservice.model.auth.enums.IdentityHeader;
+import com.springbootmicroservices.productservice.model.auth.enums.TokenClaims;
 import feign.FeignException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -14,24 +18,36 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.List;
 
 /**
  * Custom filter named {@link CustomBearerTokenAuthenticationFilter} for handling Bearer token authentication in HTTP requests.
  * This filter extracts the Bearer token from the Authorization header,
  * validates it, and sets the authentication context if the token is valid.
+ * In trusted-edge mode the identity forwarded by the API gateway is used directly, without a call to userservice.
+ * Calls from other services that act for no user are authenticated by the shared service credential instead.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class CustomBearerTokenAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String SERVICE_USER_TYPE = "SERVICE";
+    private static final String SERVICE_TOKEN_PREFIX = "service:";
+
     private final UserServiceClient userServiceClient;
+    private final TrustedEdgeConfigurationParameter trustedEdgeConfigurationParameter;
+    private final ServiceCredentialConfigurationParameter serviceCredentialConfigurationParameter;
 
     /**
      * Processes the incoming HTTP request and performs Bearer token authentication.
@@ -55,6 +71,14 @@ public class CustomBearerTokenAuthenticationFilter extends OncePerRequestFilter
 
         log.debug("CustomBearerTokenAuthenticationFilter: Request received for URI: {}", httpServletRequest.getRequestURI());
 
+        // Calls from other services that act for no user carry the service credential instead of a token
+        final UsernamePasswordAuthenticationToken serviceAuthentication = getAuthenticationFromServiceCredential(httpServletRequest);
+        if (serviceAuthentication != null) {
+            SecurityContextHolder.getContext().setAuthentication(serviceAuthentication);
+            filterChain.doFilter(httpServletRequest, httpServletResponse);
+            return;
+        }
+
         final String authorizationHeader = httpServletRequest.getHeader(HttpHeaders.AUTHORIZATION);
 
         if (Token.isBearerToken(authorizationHeader)) {
@@ -65,8 +89,13 @@ public class CustomBearerTokenAuthenticationFilter extends OncePerRequestFilter
                 // userServiceClient.validateToken(jwt);
                 log.debug("Token validation succeeded for request: {}", httpServletRequest.getRequestURI());
 
-                // Get the authentication object
-                final UsernamePasswordAuthenticationToken authentication = userServiceClient.getAuthentication(jwt);
+                // Use the identity verified by the gateway when available, otherwise ask userservice
+                UsernamePasswordAuthenticationToken authentication = trustedEdgeConfigurationParameter.isEnabled()
+                        ? getAuthenticationFromIdentityHeaders(httpServletRequest, jwt)
+                        : null;
+                if (authentication == null) {
+                    authentication = userServiceClient.getAuthentication(jwt);
+                }
 
                 // Set authentication to SecurityContextHolder
                 SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -90,4 +119,100 @@ public class CustomBearerTokenAuthenticationFilter extends OncePerRequestFilter
         filterChain.doFilter(httpServletRequest, httpServletResponse);
     }
 
-}
\ No newline at end of file
+    /**
+     * Builds the authentication of a calling service from its service credential headers.
+     * The principal carries the service name as user ID and email, so auditing fields name the service.
+     *
+     * @param httpServletRequest the HTTP request
+     * @return the authentication, or {@code null} if the request carries no valid service credential
+     */
+    private UsernamePasswordAuthenticationToken getAuthenticationFromServiceCredential(final HttpServletRequest httpServletRequest) {
+
+        final String serviceName = httpServletRequest.getHeader(IdentityHeader.SERVICE_NAME.getValue());
+        if (!StringUtils.hasText(serviceName)) {
+            return null;
+        }
+
+        if (!serviceCredentialConfigurationParameter.isTrustedSecret(httpServletRequest.getHeader(IdentityHeader.SERVICE_SECRET.getValue()))) {
+            log.warn("Service {} sent an untrusted service credential for request: {}", serviceName, httpServletRequest.getRequestURI());
+            return null;
+        }
+
+        final Jwt principal = Jwt.withTokenValue(SERVICE_TOKEN_PREFIX + serviceName)
+                .header(TokenClaims.ALGORITHM.getValue(), "none")
+                .claim(TokenClaims.USER_ID.getValue(), serviceName)
+                .claim(TokenClaims.USER_TYPE.getValue(), SERVICE_USER_TYPE)
+                .claim(TokenClaims.USER_EMAIL.getValue(), serviceName)
+                .build();
+
+        return new UsernamePasswordAuthenticationToken(principal, null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + SERVICE_USER_TYPE)));
+
+    }
+
+    /**
+     * Builds the authentication from the identity headers forwarded by the API gateway.
+     * The principal has the same shape as the one returned by userservice, so the rest of the service is unaffected.
+     *
+     * @param httpServletRequest the HTTP request
+     * @param jwt the raw bearer token, kept as the principal's token value
+     * @return the authentication, or {@code null} if the request does not carry valid, unexpired trusted identity headers
+     */
+    private UsernamePasswordAuthenticationToken getAuthenticationFromIdentityHeaders(final HttpServletRequest httpServletRequest,
+                                                                                     final String jwt) {
+
+        final String userId = httpServletRequest.getHeader(IdentityHeader.USER_ID.getValue());
+        if (!StringUtils.hasText(userId)) {
+            return null;
+        }
+
+        if (!trustedEdgeConfigurationParameter.isTrustedSecret(httpServletRequest.getHeader(IdentityHeader.EDGE_SECRET.getValue()))) {
+            log.warn("Identity headers with an untrusted edge secret for request: {}", httpServletRequest.getRequestURI());
+            return null;
+        }
+
+        final String expiresAtHeader = httpServletRequest.getHeader(IdentityHeader.EXPIRES_AT.getValue());
+        Instant expiresAt = null;
+        if (StringUtils.hasText(expiresAtHeader)) {
+            try {
+                expiresAt = Instant.ofEpochSecond(Long.parseLong(expiresAtHeader.trim()));
+            } catch (NumberFormatException | DateTimeException e) {
+                log.warn("Malformed {} header for request: {}", IdentityHeader.EXPIRES_AT.getValue(), httpServletRequest.getRequestURI());
+                return null;
+            }
+        }
+        if (expiresAt != null && expiresAt.isBefore(Instant.now())) {
+            // userservice gives the authoritative answer, and rejects the token if it really expired
+            return null;
+        }
+
+        final String userType = httpServletRequest.getHeader(IdentityHeader.USER_TYPE.getValue());
+        final String userEmail = httpServletRequest.getHeader(IdentityHeader.USER_EMAIL.getValue());
+        final String jti = httpServletRequest.getHeader(IdentityHeader.JWT_ID.getValue());
+
+        final Jwt.Builder principal = Jwt.withTokenValue(jwt)
+                .header(TokenClaims.ALGORITHM.getValue(), "RS256")
+                .header(TokenClaims.TYP.getValue(), "JWT")
+                .claim(TokenClaims.USER_ID.getValue(), userId);
+        if (expiresAt != null) {
+            principal.expiresAt(expiresAt);
+        }
+        if (userType != null) {
+            principal.claim(TokenClaims.USER_TYPE.getValue(), userType);
+        }
+        if (userEmail != null) {
+            principal.claim(TokenClaims.USER_EMAIL.getValue(), userEmail);
+        }
+        if (jti != null) {
+            principal.claim(TokenClaims.JWT_ID.getValue(), jti);
+        }
+
+        final List<SimpleGrantedAuthority> authorities = userType != null
+                ? List.of(new SimpleGrantedAuthority("ROLE_" + userType.toUpperCase()))
+                : List.of();
+
+        return new UsernamePasswordAuthenticationToken(principal.build(), null, authorities);
+
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.springbootmicroservices.productservice.listener;
+
+import com.springbootmicroservices.productservice.client.ApiGatewayClient;
+import com.springbootmicroservices.productservice.config.GatewayConfigurationParameter;
+import com.springbootmicroservices.productservice.model.product.event.ProductChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.net.URI;
+
+/**
+ * Listener named {@link ProductChangedEventListener} that keeps caches outside productservice in sync
+ * with product changes.
+ * It runs only after the change has committed, so a concurrent read cannot re-cache the old data.
+ * Only the changed product's own responses are purged. Product lists and search results, as well as stock-only
+ * changes, are left to the short {@code product.cache-control.max-age} the gateway caches them with.
+ */
+@Slf4j
+@Component
+public class ProductChangedEventListener {
+
+    // Gateway cache keys are the path followed by '?' and the sorted query, so this matches one product and nothing else
+    private static final String PRODUCT_KEY_FORMAT = "/api/v1/products/%s?";
+
+    private final ApiGatewayClient apiGatewayClient;
+    private final GatewayConfigurationParameter gatewayConfigurationParameter;
+    private final ThreadPoolTaskExecutor purgeExecutor;
+
+    public ProductChangedEventListener(final ApiGatewayClient apiGatewayClient,
+                                       final GatewayConfigurationParameter gatewayConfigurationParameter) {
+        this.apiGatewayClient = apiGatewayClient;
+        this.gatewayConfigurationParameter = gatewayConfigurationParameter;
+
+        // The gateways are called off the committing thread, one instance after the other
+        this.purgeExecutor = new ThreadPoolTaskExecutor();
+        this.purgeExecutor.setThreadNamePrefix("gateway-purge-");
+        this.purgeExecutor.setCorePoolSize(1);
+        this.purgeExecutor.setMaxPoolSize(1);
+        this.purgeExecutor.setQueueCapacity(gatewayConfigurationParameter.getPurgeQueueCapacity());
+        this.purgeExecutor.setAllowCoreThreadTimeOut(true);
+        this.purgeExecutor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purgeExecutor.shutdown();
+    }
+
+    /**
+     * Queues the purge of the changed product's cached responses on every gateway instance.
+     *
+     * @param event the product change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void purgeGatewayResponseCache(final ProductChangedEvent event) {
+        final String prefix = PRODUCT_KEY_FORMAT.formatted(event.productId());
+        try {
+            purgeExecutor.execute(() -> gatewayConfigurationParameter.getManagementUrls()
+                    .forEach(managementUrl -> purge(managementUrl, prefix, event.productId())));
+        } catch (TaskRejectedException e) {
+            log.warn("Gateway purge queue is full; cached responses of product {} expire on their own TTL", event.productId());
+        }
+    }
+
+    private void purge(final URI managementUrl, final String prefix, final String productId) {
+        try {
+            apiGatewayClient.purgeResponseCache(managementUrl, prefix);
+        } catch (Exception e) {
+            // Cached entries still expire on their own TTL, so this only delays visibility of the change
+            log.warn("Failed to purge gateway {} response cache after change of product {}: {}", managementUrl, productId, e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.springbootmicroservices.productservice.listener;
+
+import com.springbootmicroservices.productservice.client.SearchServiceClient;
+import com.springbootmicroservices.productservice.model.product.Product;
+import com.springbootmicroservices.productservice.model.product.event.ProductStockChangedEvent;
+import com.springbootmicroservices.productservice.model.product.mapper.ListProductEntityToListProductMapper;
+import com.springbootmicroservices.productservice.model.product.mapper.ProductToIndexableProductDtoMapper;
+import com.springbootmicroservices.productservice.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Listener named {@link ProductStockIndexListener} that pushes new stock levels to the search index.
+ * It runs after the stock change has committed, so the row locks taken by the change are already released
+ * while the search service is called.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductStockIndexListener {
+
+    private final ProductRepository productRepository;
+    private final SearchServiceClient searchServiceClient;
+
+    private final ListProductEntityToListProductMapper listProductEntityToListProductMapper =
+            ListProductEntityToListProductMapper.initialize();
+
+    /**
+     * Re-indexes every product whose stock changed, reading the committed stock levels.
+     *
+     * @param event the stock change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void reindexProducts(final ProductStockChangedEvent event) {
+        final List<Product> products = listProductEntityToListProductMapper
+                .toProductList(productRepository.findAllById(event.productIds()));
+
+        for (Product product : products) {
+            try {
+                searchServiceClient.indexProduct(ProductToIndexableProductDtoMapper.INSTANCE.productToIndexableProductDto(product));
+            } catch (Exception e) {
+                log.error("CRITICAL: Failed to index stock change of product {}. Search index is now out of sync.", product.getId(), e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.springbootmicroservices.productservice.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-client load-balancer configuration named {@link PeakEwmaLoadBalancerConfiguration}, registered as the
+ * default for every service through {@code @LoadBalancerClients}.
+ * It is deliberately not annotated with {@code @Configuration}: it is instantiated inside each client's child
+ * context and must not be picked up by component scanning of the main context.
+ */
+public class PeakEwmaLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(
+            final Environment environment,
+            final LoadBalancerClientFactory loadBalancerClientFactory,
+            final InstanceLoadRegistry instanceLoadRegistry) {
+
+        final String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new PeakEwmaLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId,
+                instanceLoadRegistry
+        );
+
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.springbootmicroservices.productservice.model.auth.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Enum representing the internal headers the API gateway sets in trusted-edge mode after verifying a JWT.
+ * The gateway strips these headers from client requests; {@link #EDGE_SECRET} proves a request came through it.
+ * {@link #SERVICE_NAME} and {@link #SERVICE_SECRET} are sent by other services on calls that act for no user.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum IdentityHeader {
+
+    EDGE_SECRET("X-Edge-Secret"),
+    USER_ID("X-Auth-User-Id"),
+    USER_TYPE("X-Auth-User-Type"),
+    USER_EMAIL("X-Auth-User-Email"),
+    JWT_ID("X-Auth-Jti"),
+    EXPIRES_AT("X-Auth-Expires-At"),
+    SERVICE_NAME("X-Service-Name"),
+    SERVICE_SECRET("X-Service-Secret");
+
+    private final String value;
+
+}
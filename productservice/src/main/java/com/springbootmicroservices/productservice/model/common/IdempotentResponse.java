@@ -0,0 +1,12 @@
+package com.springbootmicroservices.productservice.model.common;
+
+/**
+ * The stored response of an idempotent request as {@link IdempotentResponse}, replayed byte for byte to duplicates.
+ *
+ * @param requestHash SHA-256 of the body of the request that produced the response
+ * @param status      HTTP status code
+ * @param contentType content type of the body, may be {@code null}
+ * @param body        raw response body
+ */
+public record IdempotentResponse(String requestHash, int status, String contentType, byte[] body) {
+}
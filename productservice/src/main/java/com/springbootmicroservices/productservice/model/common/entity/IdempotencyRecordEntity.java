@@ -0,0 +1,55 @@
+package com.springbootmicroservices.productservice.model.common.entity;
+
+import com.springbootmicroservices.productservice.model.common.enums.IdempotencyRecordStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents a persistent entity for the outcome of a request sent with an {@code Idempotency-Key} header
+ * as {@link IdempotencyRecordEntity}. Deliberately compact: one row per key holding the hashes needed to
+ * recognise a duplicate and the raw response needed to replay it.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "IDEMPOTENCY_RECORD",
+        indexes = @Index(name = "IDX_IDEMPOTENCY_RECORD_EXPIRES_AT", columnList = "EXPIRES_AT")
+)
+public class IdempotencyRecordEntity {
+
+    // SHA-256 of the caller, method, path and key, so the same key sent by two users never collides
+    @Id
+    @Column(name = "KEY_HASH", length = 64)
+    private String keyHash;
+
+    // SHA-256 of the request body, to reject a key reused for a different payload
+    @Column(name = "REQUEST_HASH", length = 64, nullable = false)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", length = 16, nullable = false)
+    private IdempotencyRecordStatus status;
+
+    @Column(name = "RESPONSE_STATUS")
+    private Integer responseStatus;
+
+    @Column(name = "RESPONSE_CONTENT_TYPE")
+    private String responseContentType;
+
+    @Column(name = "RESPONSE_BODY")
+    private byte[] responseBody;
+
+    // When execution started; an IN_PROGRESS row older than the in-flight timeout belongs to a crashed instance
+    @Column(name = "LOCKED_AT", nullable = false)
+    private LocalDateTime lockedAt;
+
+    @Column(name = "EXPIRES_AT", nullable = false)
+    private LocalDateTime expiresAt;
+
+}
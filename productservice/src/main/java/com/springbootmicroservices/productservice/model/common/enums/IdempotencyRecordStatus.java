@@ -0,0 +1,14 @@
+package com.springbootmicroservices.productservice.model.common.enums;
+
+/**
+ * Lifecycle state of a stored idempotent request as {@link IdempotencyRecordStatus}.
+ */
+public enum IdempotencyRecordStatus {
+
+    /** The first request with the key is being executed; duplicates wait for its response. */
+    IN_PROGRESS,
+
+    /** The response of the first request is stored and replayed for every duplicate. */
+    COMPLETED
+
+}
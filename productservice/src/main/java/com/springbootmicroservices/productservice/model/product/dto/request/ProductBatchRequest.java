@@ -0,0 +1,30 @@
+package com.springbootmicroservices.productservice.model.product.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.validator.constraints.UUID;
+
+import java.util.List;
+
+/**
+ * Represents a request named {@link ProductBatchRequest} to look up several products in one call.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchRequest {
+
+    public static final int MAX_PRODUCT_IDS = 500;
+
+    @NotEmpty(message = "At least one product ID is required")
+    @Size(max = MAX_PRODUCT_IDS, message = "At most " + MAX_PRODUCT_IDS + " product IDs can be requested at once")
+    private List<@UUID String> productIds;
+
+}
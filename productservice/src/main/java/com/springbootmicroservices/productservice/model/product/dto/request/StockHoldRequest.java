@@ -0,0 +1,39 @@
+package com.springbootmicroservices.productservice.model.product.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Represents a request named {@link StockHoldRequest} to keep stock aside for several products until
+ * the hold is confirmed, released or expires. Either every line is held or none is.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHoldRequest {
+
+    @NotBlank(message = "Hold reference is required")
+    @Size(max = 64, message = "Hold reference must be at most 64 characters")
+    private String reference;
+
+    // Optional; the configured default is used when absent and the configured maximum caps longer values
+    @Positive(message = "Hold TTL must be positive")
+    private Long ttlSeconds;
+
+    @NotEmpty(message = "At least one hold line is required")
+    @Size(max = StockReservationRequest.MAX_LINES, message = "At most " + StockReservationRequest.MAX_LINES + " lines can be held at once")
+    private List<@Valid StockReservationLineRequest> lines;
+
+}
@@ -0,0 +1,29 @@
+package com.springbootmicroservices.productservice.model.product.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.validator.constraints.UUID;
+
+/**
+ * Represents one product and quantity of a {@link StockReservationRequest} as {@link StockReservationLineRequest}.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationLineRequest {
+
+    @NotNull(message = "Product ID is required")
+    @UUID
+    private String productId;
+
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private int quantity;
+
+}
@@ -0,0 +1,31 @@
+package com.springbootmicroservices.productservice.model.product.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Represents a request named {@link StockReservationRequest} to take stock for several products at once.
+ * Either every line is reserved or none is.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationRequest {
+
+    public static final int MAX_LINES = 500;
+
+    @NotEmpty(message = "At least one reservation line is required")
+    @Size(max = MAX_LINES, message = "At most " + MAX_LINES + " lines can be reserved at once")
+    private List<@Valid StockReservationLineRequest> lines;
+
+}
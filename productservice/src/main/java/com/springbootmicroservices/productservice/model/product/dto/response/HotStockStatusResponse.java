@@ -0,0 +1,25 @@
+package com.springbootmicroservices.productservice.model.product.dto.response;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Represents the state of a product served from in-memory stock as {@link HotStockStatusResponse}.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotStockStatusResponse {
+
+    private String productId;
+    private BigDecimal availableAmount;
+
+    // Stock sold from memory that the next write-behind flush still has to apply to the database
+    private BigDecimal pendingFlushAmount;
+
+    private int shards;
+
+}
@@ -0,0 +1,22 @@
+package com.springbootmicroservices.productservice.model.product.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents the response named {@link ProductBatchResponse} of a batch product lookup:
+ * the details of every product that was found, keyed by ID, and the IDs that do not exist.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchResponse {
+
+    private Map<String, ProductResponse> products;
+    private List<String> missingProductIds;
+
+}
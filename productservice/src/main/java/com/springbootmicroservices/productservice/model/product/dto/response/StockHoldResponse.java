@@ -0,0 +1,31 @@
+package com.springbootmicroservices.productservice.model.product.dto.response;
+
+import com.springbootmicroservices.productservice.model.product.enums.StockHoldStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Represents the response named {@link StockHoldResponse} describing a stock hold.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHoldResponse {
+
+    private String reference;
+
+    // False when placing the hold failed; the lines then tell which products lacked stock
+    private boolean reserved;
+
+    // Null when placing the hold failed
+    private StockHoldStatus status;
+    private LocalDateTime expiresAt;
+
+    // Per-line outcome of placing the hold; empty when the hold is confirmed or released
+    private List<StockReservationLineResponse> lines;
+
+}
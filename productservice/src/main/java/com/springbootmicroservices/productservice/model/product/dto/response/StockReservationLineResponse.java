@@ -0,0 +1,25 @@
+package com.springbootmicroservices.productservice.model.product.dto.response;
+
+import com.springbootmicroservices.productservice.model.product.enums.StockReservationStatus;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Represents the outcome of one line of a stock reservation as {@link StockReservationLineResponse}.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationLineResponse {
+
+    private String productId;
+    private int requestedQuantity;
+    private StockReservationStatus status;
+
+    // Stock left after the reservation when reserved, otherwise the stock that was available; null if the product does not exist
+    private BigDecimal availableAmount;
+
+}
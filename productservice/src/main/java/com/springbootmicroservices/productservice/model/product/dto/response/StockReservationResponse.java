@@ -0,0 +1,21 @@
+package com.springbootmicroservices.productservice.model.product.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Represents the response named {@link StockReservationResponse} of a batch stock reservation,
+ * with one result per requested line in request order.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationResponse {
+
+    private boolean reserved;
+    private List<StockReservationLineResponse> lines;
+
+}
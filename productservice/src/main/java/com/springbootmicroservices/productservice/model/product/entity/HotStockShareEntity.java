@@ -0,0 +1,53 @@
+package com.springbootmicroservices.productservice.model.product.entity;
+
+import com.springbootmicroservices.productservice.model.common.entity.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+
+/**
+ * Represents a persistent entity for the part of a product's stock that one instance serves from memory
+ * as {@link HotStockShareEntity}. The share is subtracted from {@link ProductEntity#getAmount()} when hot mode
+ * is enabled, so the shares of several instances and the database stock never overlap.
+ */
+@Getter
+@Setter
+@SuperBuilder
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "HOT_STOCK_SHARE",
+        uniqueConstraints = @UniqueConstraint(name = "UK_HOT_STOCK_SHARE_PRODUCT_INSTANCE", columnNames = {"PRODUCT_ID", "INSTANCE_ID"})
+)
+public class HotStockShareEntity extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "ID")
+    private String id;
+
+    @Column(name = "PRODUCT_ID", nullable = false)
+    private String productId;
+
+    // Identifier of the instance's hot stock journal, stable across restarts of that instance
+    @Column(name = "INSTANCE_ID", nullable = false)
+    private String instanceId;
+
+    // Stock of the share not yet sold, as of the last write-behind flush
+    @Column(
+            name = "AMOUNT",
+            precision = 24,
+            scale = 4,
+            nullable = false
+    )
+    private BigDecimal amount;
+
+    // Highest entry of the instance's journal already applied to AMOUNT, so a journal replay after a crash never applies an entry twice
+    @Column(name = "JOURNAL_SEQ", nullable = false)
+    private Long journalSeq;
+
+}
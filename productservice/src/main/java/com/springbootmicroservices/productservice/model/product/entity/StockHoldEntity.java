@@ -0,0 +1,52 @@
+package com.springbootmicroservices.productservice.model.product.entity;
+
+import com.springbootmicroservices.productservice.model.common.entity.BaseEntity;
+import com.springbootmicroservices.productservice.model.product.enums.StockHoldStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents a persistent entity for the stock of one product kept aside by a hold as {@link StockHoldEntity}.
+ * The quantity is already subtracted from {@link ProductEntity#getAmount()} while the hold is active,
+ * so stock reads never need to look at this table.
+ */
+@Getter
+@Setter
+@SuperBuilder
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "STOCK_HOLD",
+        uniqueConstraints = @UniqueConstraint(name = "UK_STOCK_HOLD_REFERENCE_PRODUCT", columnNames = {"REFERENCE", "PRODUCT_ID"}),
+        indexes = @Index(name = "IDX_STOCK_HOLD_STATUS_EXPIRES_AT", columnList = "STATUS, EXPIRES_AT")
+)
+public class StockHoldEntity extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "ID")
+    private String id;
+
+    // Caller's identifier of the hold, e.g. the order ID; shared by the rows of all products in the hold
+    @Column(name = "REFERENCE", nullable = false)
+    private String reference;
+
+    @Column(name = "PRODUCT_ID", nullable = false)
+    private String productId;
+
+    @Column(name = "QUANTITY", nullable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", nullable = false)
+    private StockHoldStatus status;
+
+    @Column(name = "EXPIRES_AT", nullable = false)
+    private LocalDateTime expiresAt;
+
+}
@@ -0,0 +1,17 @@
+package com.springbootmicroservices.productservice.model.product.enums;
+
+/**
+ * Outcome of taking stock from the in-memory counter of a hot product as {@link HotStockReservationResult}.
+ */
+public enum HotStockReservationResult {
+
+    /** The product is not in hot mode; the stock has to be taken from the database. */
+    NOT_HOT,
+
+    /** The quantity was taken from memory and journaled. */
+    RESERVED,
+
+    /** The product is in hot mode but does not have enough stock left. */
+    INSUFFICIENT_STOCK
+
+}
@@ -0,0 +1,20 @@
+package com.springbootmicroservices.productservice.model.product.enums;
+
+/**
+ * Lifecycle state of a stock hold as {@link StockHoldStatus}.
+ */
+public enum StockHoldStatus {
+
+    /** The stock is taken from the product and kept aside until the hold expires. */
+    ACTIVE,
+
+    /** The purchase was paid for; the stock stays taken unless the order is cancelled before it ships. */
+    CONFIRMED,
+
+    /** The hold was given up, or its order cancelled, and its stock returned to the product. */
+    RELEASED,
+
+    /** The hold ran past its expiry and the sweeper returned its stock to the product; a late confirm takes it again. */
+    EXPIRED
+
+}
@@ -0,0 +1,20 @@
+package com.springbootmicroservices.productservice.model.product.enums;
+
+/**
+ * Outcome of a single line of a stock reservation as {@link StockReservationStatus}.
+ */
+public enum StockReservationStatus {
+
+    /** The stock was decremented and the reservation committed. */
+    RESERVED,
+
+    /** There was enough stock, but another line failed, so nothing was reserved. */
+    ROLLED_BACK,
+
+    /** The product does not have enough stock left. */
+    INSUFFICIENT_STOCK,
+
+    /** No product exists with the given ID. */
+    PRODUCT_NOT_FOUND
+
+}
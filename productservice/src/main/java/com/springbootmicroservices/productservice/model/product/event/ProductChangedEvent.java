@@ -0,0 +1,10 @@
+package com.springbootmicroservices.productservice.model.product.event;
+
+/**
+ * Application event named {@link ProductChangedEvent} published whenever a product is created, updated or deleted.
+ * Listeners react after the surrounding transaction has committed.
+ *
+ * @param productId the id of the changed product
+ */
+public record ProductChangedEvent(String productId) {
+}
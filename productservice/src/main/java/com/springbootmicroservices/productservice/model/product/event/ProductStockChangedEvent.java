@@ -0,0 +1,13 @@
+package com.springbootmicroservices.productservice.model.product.event;
+
+import java.util.Collection;
+
+/**
+ * Application event named {@link ProductStockChangedEvent} published when the stock of one or more products
+ * was changed by a purchase or reservation.
+ * Listeners react after the surrounding transaction has committed, so no database lock is held while they run.
+ *
+ * @param productIds the ids of the products whose stock changed
+ */
+public record ProductStockChangedEvent(Collection<String> productIds) {
+}
@@ -0,0 +1,38 @@
+package com.springbootmicroservices.productservice.repository;
+
+import com.springbootmicroservices.productservice.model.product.entity.HotStockShareEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface HotStockShareRepository extends JpaRepository<HotStockShareEntity, String> {
+
+    boolean existsByProductId(String productId);
+
+    List<HotStockShareEntity> findByInstanceId(String instanceId);
+
+    Optional<HotStockShareEntity> findByProductIdAndInstanceId(String productId, String instanceId);
+
+    // Write-behind flush of one instance's share: applies the stock sold from memory up to the given entry of that
+    // instance's journal. The row is left alone when the entry was applied before or the share does not cover the
+    // quantity, so callers must treat a returned count of 0 as a failed flush.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update HotStockShareEntity s set s.amount = s.amount - :quantity, s.journalSeq = :journalSeq, s.updatedAt = :updatedAt " +
+            "where s.productId = :productId and s.instanceId = :instanceId " +
+            "and s.journalSeq < :journalSeq and s.amount >= :quantity")
+    int applyFlush(@Param("productId") String productId,
+                   @Param("instanceId") String instanceId,
+                   @Param("quantity") BigDecimal quantity,
+                   @Param("journalSeq") long journalSeq,
+                   @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("select max(s.journalSeq) from HotStockShareEntity s where s.instanceId = :instanceId")
+    Optional<Long> findMaxJournalSeq(@Param("instanceId") String instanceId);
+
+}
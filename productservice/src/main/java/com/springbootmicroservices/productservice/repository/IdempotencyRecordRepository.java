@@ -0,0 +1,63 @@
+package com.springbootmicroservices.productservice.repository;
+
+import com.springbootmicroservices.productservice.model.common.entity.IdempotencyRecordEntity;
+import com.springbootmicroservices.productservice.model.common.enums.IdempotencyRecordStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecordEntity, String> {
+
+    Optional<IdempotencyRecordEntity> findByKeyHashAndStatus(String keyHash, IdempotencyRecordStatus status);
+
+    // Claims the key with a single insert; the primary key decides between concurrent first requests on any instance
+    @Transactional
+    @Modifying
+    @Query(value = "insert into IDEMPOTENCY_RECORD (KEY_HASH, REQUEST_HASH, STATUS, LOCKED_AT, EXPIRES_AT) " +
+            "values (:keyHash, :requestHash, 'IN_PROGRESS', :now, :expiresAt) on conflict (KEY_HASH) do nothing",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("keyHash") String keyHash,
+                       @Param("requestHash") String requestHash,
+                       @Param("now") LocalDateTime now,
+                       @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Takes over a key whose first request was abandoned, e.g. because its instance went down mid-request
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecordEntity r set r.requestHash = :requestHash, r.lockedAt = :now " +
+            "where r.keyHash = :keyHash and r.status = :status and r.lockedAt < :lockedBefore")
+    int takeOver(@Param("keyHash") String keyHash,
+                 @Param("requestHash") String requestHash,
+                 @Param("status") IdempotencyRecordStatus status,
+                 @Param("now") LocalDateTime now,
+                 @Param("lockedBefore") LocalDateTime lockedBefore);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecordEntity r set r.status = :completed, r.responseStatus = :responseStatus, " +
+            "r.responseContentType = :contentType, r.responseBody = :body " +
+            "where r.keyHash = :keyHash and r.status = :inProgress")
+    int complete(@Param("keyHash") String keyHash,
+                 @Param("completed") IdempotencyRecordStatus completed,
+                 @Param("inProgress") IdempotencyRecordStatus inProgress,
+                 @Param("responseStatus") int responseStatus,
+                 @Param("contentType") String contentType,
+                 @Param("body") byte[] body);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecordEntity r where r.keyHash = :keyHash and r.status = :status")
+    int deleteByKeyHashAndStatus(@Param("keyHash") String keyHash, @Param("status") IdempotencyRecordStatus status);
+
+    // Served from the EXPIRES_AT index
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecordEntity r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+}
@@ -4,8 +4,15 @@ package com.springbootmicroservices.productservice.repository;
 import com.springbootmicroservices.productservice.model.product.entity.ProductEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor; // Add this
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.Optional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ProductRepository extends JpaRepository<ProductEntity, String>, JpaSpecificationExecutor<ProductEntity> { // Implement JpaSpecificationExecutor
@@ -14,4 +21,28 @@ public interface ProductRepository extends JpaRepository<ProductEntity, String>,
     List<ProductEntity> findByCategory(String category);
     Optional<ProductEntity> findByNameAndIdNot(String name, String id);
 
+    // Conditional decrement: the row is only changed when enough stock is left, so the returned row count
+    // tells whether the stock was taken without a separate read. The row stays locked until the transaction ends.
+    // Products with a hot stock share on any instance are skipped: their stock is sold from memory while hot.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update ProductEntity p set p.amount = p.amount - :quantity, p.updatedAt = :updatedAt " +
+            "where p.id = :productId and p.amount >= :quantity " +
+            "and not exists (select s.id from HotStockShareEntity s where s.productId = p.id)")
+    int decrementAmountIfAvailable(@Param("productId") String productId,
+                                   @Param("quantity") BigDecimal quantity,
+                                   @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update ProductEntity p set p.amount = p.amount + :quantity, p.updatedAt = :updatedAt where p.id = :productId")
+    int incrementAmount(@Param("productId") String productId,
+                        @Param("quantity") BigDecimal quantity,
+                        @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from ProductEntity p where p.id = :productId")
+    Optional<ProductEntity> findByIdForUpdate(@Param("productId") String productId);
+
+    @Query("select p.amount from ProductEntity p where p.id = :productId")
+    Optional<BigDecimal> findAmountById(@Param("productId") String productId);
+
 }
\ No newline at end of file
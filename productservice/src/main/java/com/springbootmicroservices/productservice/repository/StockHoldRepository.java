@@ -0,0 +1,37 @@
+package com.springbootmicroservices.productservice.repository;
+
+import com.springbootmicroservices.productservice.model.product.entity.StockHoldEntity;
+import com.springbootmicroservices.productservice.model.product.enums.StockHoldStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StockHoldRepository extends JpaRepository<StockHoldEntity, String> {
+
+    boolean existsByReference(String reference);
+
+    List<StockHoldEntity> findByReference(String reference);
+
+    // Rows of one hold, locked and in product ID order so stock is given back in the same order it is taken
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from StockHoldEntity h where h.reference = :reference order by h.productId")
+    List<StockHoldEntity> findByReferenceForUpdate(@Param("reference") String reference);
+
+    // Oldest expired holds, served from the (STATUS, EXPIRES_AT) index. Rows locked by a concurrent confirm or release
+    // are skipped (lock timeout -2 is SKIP LOCKED), so several sweepers can work through the backlog side by side.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select h from StockHoldEntity h where h.status = :status and h.expiresAt <= :now order by h.expiresAt")
+    List<StockHoldEntity> findExpiredForUpdate(@Param("status") StockHoldStatus status,
+                                               @Param("now") LocalDateTime now,
+                                               Limit limit);
+
+}
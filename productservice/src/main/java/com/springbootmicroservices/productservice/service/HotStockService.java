@@ -0,0 +1,83 @@
+package com.springbootmicroservices.productservice.service;
+
+import com.springbootmicroservices.productservice.model.product.dto.response.HotStockStatusResponse;
+import com.springbootmicroservices.productservice.model.product.enums.HotStockReservationResult;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service interface named {@link HotStockService} for serving the stock of flash-sale products from memory.
+ */
+public interface HotStockService {
+
+    /**
+     * Switches a product to hot mode on this instance: a share of its stock is taken out of the database and loaded
+     * into in-memory counters that serve this instance's reservations until the mode is disabled.
+     * Other instances may take shares of their own; the shares never overlap.
+     *
+     * @param productId The ID of the product.
+     * @param quantity  The size of the share, or {@code null} for all stock not yet shared out.
+     * @return The hot stock state of the product.
+     */
+    HotStockStatusResponse enable(final String productId, final Integer quantity);
+
+    /**
+     * Switches a product back to database stock on this instance, after applying everything sold from memory
+     * and handing the unsold rest of the share back to the database.
+     *
+     * @param productId The ID of the product.
+     */
+    void disable(final String productId);
+
+    /**
+     * Retrieves the state of every product in hot mode.
+     *
+     * @return The hot stock states.
+     */
+    List<HotStockStatusResponse> getStatuses();
+
+    /**
+     * Takes stock from memory if the product is in hot mode.
+     *
+     * @param productId The ID of the product.
+     * @param quantity  The quantity to take.
+     * @return Whether the stock was taken, or {@link HotStockReservationResult#NOT_HOT} if the database has to be used.
+     */
+    HotStockReservationResult tryReserve(final String productId, final int quantity);
+
+    /**
+     * Gives back stock taken by {@link #tryReserve(String, int)}, e.g. when the surrounding reservation failed.
+     *
+     * @param productId The ID of the product.
+     * @param quantity  The quantity to give back.
+     */
+    void release(final String productId, final int quantity);
+
+    /**
+     * Retrieves the stock left in memory for a product in hot mode.
+     *
+     * @param productId The ID of the product.
+     * @return The available stock, or empty if the product is not in hot mode.
+     */
+    Optional<BigDecimal> getAvailableAmount(final String productId);
+
+    /**
+     * Tells whether a product's stock is currently served from memory of this instance.
+     *
+     * @param productId The ID of the product.
+     * @return {@code true} if the product is in hot mode.
+     */
+    boolean isHot(final String productId);
+
+    /**
+     * Tells whether any instance holds a share of a product's stock in memory. While one does, the product's stock
+     * is only sold from memory and the database stock must not be sold or overwritten.
+     *
+     * @param productId The ID of the product.
+     * @return {@code true} if the product is in hot mode on at least one instance.
+     */
+    boolean isHotOnAnyInstance(final String productId);
+
+}
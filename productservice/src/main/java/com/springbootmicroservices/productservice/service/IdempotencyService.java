@@ -0,0 +1,54 @@
+package com.springbootmicroservices.productservice.service;
+
+import com.springbootmicroservices.productservice.model.common.IdempotentResponse;
+
+import java.util.Optional;
+
+/**
+ * Service interface named {@link IdempotencyService} for storing the first response of requests sent with an
+ * {@code Idempotency-Key} header, shared by all instances of the service.
+ */
+public interface IdempotencyService {
+
+    /**
+     * Looks up the stored response of a key, first in memory and then in the database.
+     *
+     * @param keyHash The hash identifying the caller, endpoint and key.
+     * @return The stored response, or empty if the key is unknown or its first request has not finished yet.
+     */
+    Optional<IdempotentResponse> findCompleted(final String keyHash);
+
+    /**
+     * Claims a key for execution. Exactly one caller across all instances wins the claim of a new key;
+     * a key whose first request was abandoned past the in-flight timeout can be claimed again.
+     *
+     * @param keyHash The hash identifying the caller, endpoint and key.
+     * @param requestHash The hash of the request body.
+     * @return {@code true} if the caller must execute the request and then {@link #complete} or {@link #release} it.
+     */
+    boolean claim(final String keyHash, final String requestHash);
+
+    /**
+     * Stores the response of a claimed key so duplicates replay it. Server errors and responses above the size limit
+     * are not stored; the key is released instead, so a retry executes again.
+     *
+     * @param keyHash The hash identifying the caller, endpoint and key.
+     * @param response The response produced by the first request.
+     */
+    void complete(final String keyHash, final IdempotentResponse response);
+
+    /**
+     * Gives up a claimed key without storing a response.
+     *
+     * @param keyHash The hash identifying the caller, endpoint and key.
+     */
+    void release(final String keyHash);
+
+    /**
+     * Deletes the stored responses past their retention.
+     *
+     * @return The number of deleted responses.
+     */
+    int purgeExpired();
+
+}
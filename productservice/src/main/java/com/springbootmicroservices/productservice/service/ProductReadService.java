@@ -3,7 +3,9 @@ package com.springbootmicroservices.productservice.service;
 import com.springbootmicroservices.productservice.model.common.CustomPage;
 import com.springbootmicroservices.productservice.model.product.Product;
 import com.springbootmicroservices.productservice.model.product.dto.request.ProductPagingRequest;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service interface named {@link ProductReadService} for reading products.
@@ -20,6 +22,14 @@ public interface ProductReadService {
 
     List<Product> getProductsByCategory(String category);
 
+    /**
+     * Retrieves several products by their IDs with a single query.
+     *
+     * @param productIds The IDs of the products to retrieve; duplicates are ignored.
+     * @return The found products keyed by ID, in the order the IDs were given. Unknown IDs are absent.
+     */
+    Map<String, Product> getProductsByIds(final Collection<String> productIds);
+
 
     /**
      * Retrieves a page of products based on the paging request criteria.
@@ -0,0 +1,56 @@
+package com.springbootmicroservices.productservice.service;
+
+import com.springbootmicroservices.productservice.model.product.dto.request.StockHoldRequest;
+import com.springbootmicroservices.productservice.model.product.dto.request.StockReservationRequest;
+import com.springbootmicroservices.productservice.model.product.dto.response.StockHoldResponse;
+import com.springbootmicroservices.productservice.model.product.dto.response.StockReservationResponse;
+
+/**
+ * Service interface named {@link ProductStockService} for taking product stock in bulk.
+ */
+public interface ProductStockService {
+
+    /**
+     * Reserves stock for every line of the request in a single transaction.
+     * Either all lines are reserved or none is; the outcome of each line is reported either way.
+     *
+     * @param stockReservationRequest The products and quantities to reserve.
+     * @return The overall outcome and one result per requested line.
+     */
+    StockReservationResponse reserveStock(final StockReservationRequest stockReservationRequest);
+
+    /**
+     * Takes stock for every line of the request like {@link #reserveStock(StockReservationRequest)}, but only for a
+     * limited time: unless the hold is confirmed before it expires, its stock is returned to the products.
+     *
+     * @param stockHoldRequest The reference, lifetime, products and quantities of the hold.
+     * @return The hold with one result per requested line; not reserved if any line failed.
+     */
+    StockHoldResponse placeHold(final StockHoldRequest stockHoldRequest);
+
+    /**
+     * Makes the stock of a hold permanently taken. Confirming a confirmed hold changes nothing; confirming an expired
+     * hold takes its stock again, or fails if that stock is no longer available.
+     *
+     * @param reference The reference the hold was placed with.
+     * @return The confirmed hold.
+     */
+    StockHoldResponse confirmHold(final String reference);
+
+    /**
+     * Returns the stock of an active or confirmed hold to the products, e.g. for an order cancelled before it shipped.
+     * Releasing a released or expired hold changes nothing.
+     *
+     * @param reference The reference the hold was placed with.
+     * @return The released hold.
+     */
+    StockHoldResponse releaseHold(final String reference);
+
+    /**
+     * Returns the stock of holds that expired without being confirmed or released.
+     *
+     * @return The number of hold lines released.
+     */
+    int releaseExpiredHolds();
+
+}
@@ -0,0 +1,451 @@
+package com.springbootmicroservices.productservice.service.impl;
+
+import com.springbootmicroservices.productservice.config.HotStockConfigurationParameter;
+import com.springbootmicroservices.productservice.exception.HotStockEnabledException;
+import com.springbootmicroservices.productservice.exception.ProductNotFoundException;
+import com.springbootmicroservices.productservice.model.product.dto.response.HotStockStatusResponse;
+import com.springbootmicroservices.productservice.model.product.entity.HotStockShareEntity;
+import com.springbootmicroservices.productservice.model.product.entity.ProductEntity;
+import com.springbootmicroservices.productservice.model.product.enums.HotStockReservationResult;
+import com.springbootmicroservices.productservice.model.product.event.ProductStockChangedEvent;
+import com.springbootmicroservices.productservice.repository.HotStockShareRepository;
+import com.springbootmicroservices.productservice.repository.ProductRepository;
+import com.springbootmicroservices.productservice.service.HotStockService;
+import com.springbootmicroservices.productservice.stock.HotStockJournal;
+import com.springbootmicroservices.productservice.stock.StripedStockCounter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service implementation named {@link HotStockServiceImpl} for serving the stock of flash-sale products from memory.
+ * <p>
+ * Enabling hot mode moves a share of the product's stock out of the database row into a {@link HotStockShareEntity}
+ * owned by this instance, so shares taken by several instances never overlap and none of them can sell stock another
+ * one holds. While any share exists the database stock of the product is not sold at all.
+ * <p>
+ * Reservations of a hot product only touch its {@link StripedStockCounter} and append to the {@link HotStockJournal};
+ * the share row is brought up to date by a periodic write-behind flush that subtracts the stock sold since the
+ * previous flush. On startup, journal entries left over from a crash are re-applied to this instance's shares and
+ * the unsold rest of each share goes back to the product: hot mode is not restored after a restart.
+ */
+@Slf4j
+@Service
+public class HotStockServiceImpl implements HotStockService {
+
+    private final ProductRepository productRepository;
+    private final HotStockShareRepository hotStockShareRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final HotStockJournal journal;
+    private final int shards;
+
+    private final Map<String, HotProduct> hotProducts = new ConcurrentHashMap<>();
+
+    // Owner of this instance's hot stock shares, read from the journal directory on startup
+    private String instanceId;
+
+    // Serialises flushes with disabling, so a disabled product's stock is in the database before it is read from there
+    private final Object flushLock = new Object();
+
+    public HotStockServiceImpl(final ProductRepository productRepository,
+                               final HotStockShareRepository hotStockShareRepository,
+                               final TransactionTemplate transactionTemplate,
+                               final ApplicationEventPublisher applicationEventPublisher,
+                               final HotStockConfigurationParameter hotStockConfigurationParameter) throws IOException {
+        this(productRepository, hotStockShareRepository, transactionTemplate, applicationEventPublisher,
+                new HotStockJournal(hotStockConfigurationParameter.getJournalDirectory()), hotStockConfigurationParameter.getShards());
+    }
+
+    HotStockServiceImpl(final ProductRepository productRepository,
+                        final HotStockShareRepository hotStockShareRepository,
+                        final TransactionTemplate transactionTemplate,
+                        final ApplicationEventPublisher applicationEventPublisher,
+                        final HotStockJournal journal,
+                        final int shards) {
+        this.productRepository = productRepository;
+        this.hotStockShareRepository = hotStockShareRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.journal = journal;
+        this.shards = shards;
+    }
+
+    /**
+     * Opens the journal, applies any stock sold from memory that had not been flushed before the last shutdown
+     * to this instance's shares, and hands the unsold rest of every share back to its product.
+     * A share the journal cannot be applied to is left in place, together with the journal, for the next start.
+     *
+     * @throws IOException if the journal cannot be read
+     */
+    @PostConstruct
+    public void recover() throws IOException {
+        instanceId = journal.instanceId();
+        journal.open(hotStockShareRepository.findMaxJournalSeq(instanceId).orElse(0L));
+
+        final Map<String, List<HotStockJournal.Entry>> entriesByProductId = new TreeMap<>();
+        journal.readAll().forEach(entry -> entriesByProductId.computeIfAbsent(entry.productId(), id -> new ArrayList<>()).add(entry));
+
+        final List<String> unrecovered = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            final LocalDateTime now = LocalDateTime.now();
+            final List<String> returned = new ArrayList<>();
+            hotStockShareRepository.findByInstanceId(instanceId).stream()
+                    .sorted(Comparator.comparing(HotStockShareEntity::getProductId))
+                    .forEach(share -> {
+                        final String productId = share.getProductId();
+                        // Entries up to the stored sequence were flushed before the crash
+                        long quantity = 0;
+                        long lastSequence = 0;
+                        for (HotStockJournal.Entry entry : entriesByProductId.getOrDefault(productId, List.of())) {
+                            if (entry.sequence() > share.getJournalSeq()) {
+                                quantity += entry.quantity();
+                                lastSequence = entry.sequence();
+                            }
+                        }
+                        if (lastSequence > 0) {
+                            log.warn("Recovering {} units of unflushed hot stock for product {}", quantity, productId);
+                            if (hotStockShareRepository.applyFlush(productId, instanceId, BigDecimal.valueOf(quantity), lastSequence, now) == 0) {
+                                unrecovered.add(productId);
+                                return;
+                            }
+                        }
+                        final BigDecimal unsold = share.getAmount().subtract(BigDecimal.valueOf(quantity));
+                        hotStockShareRepository.deleteById(share.getId());
+                        productRepository.incrementAmount(productId, unsold, now);
+                        returned.add(productId);
+                    });
+            if (!returned.isEmpty()) {
+                log.info("Handed the unsold hot stock shares of {} products back to the database", returned.size());
+                applicationEventPublisher.publishEvent(new ProductStockChangedEvent(returned));
+            }
+        });
+
+        if (!unrecovered.isEmpty()) {
+            // The journal is kept so the next start retries; until then the shares' stock stays out of sale
+            log.error("Hot stock journal of instance {} could not be applied to the shares of products {}", instanceId, unrecovered);
+            return;
+        }
+        journal.delete(journal.rotate());
+    }
+
+    @Override
+    public HotStockStatusResponse enable(final String productId, final Integer quantity) {
+        synchronized (flushLock) {
+            final HotProduct existing = hotProducts.get(productId);
+            if (existing != null) {
+                return toStatus(productId, existing);
+            }
+
+            // The row lock makes a purchase that is already writing the row finish first, so the share is taken from what it left
+            final HotProduct hotProduct = transactionTemplate.execute(status -> {
+                final ProductEntity product = productRepository.findByIdForUpdate(productId)
+                        .orElseThrow(() -> new ProductNotFoundException("With given productID = " + productId));
+                if (hotStockShareRepository.findByProductIdAndInstanceId(productId, instanceId).isPresent()) {
+                    throw new HotStockEnabledException("Hot stock share of product " + productId + " from an earlier run of this instance has not been recovered");
+                }
+
+                final BigDecimal amount = Optional.ofNullable(product.getAmount()).orElse(BigDecimal.ZERO);
+                final long unshared = Math.max(0, amount.longValue());
+                final long share = quantity != null ? Math.min(quantity, unshared) : unshared;
+
+                product.setAmount(amount.subtract(BigDecimal.valueOf(share)));
+                productRepository.save(product);
+                hotStockShareRepository.save(HotStockShareEntity.builder()
+                        .productId(productId)
+                        .instanceId(instanceId)
+                        .amount(BigDecimal.valueOf(share))
+                        .journalSeq(journal.lastSequence())
+                        .build());
+                return new HotProduct(new StripedStockCounter(share, shards));
+            });
+            hotProducts.put(productId, hotProduct);
+
+            log.info("Hot stock mode enabled for product {} with a share of {} units over {} shards",
+                    productId, hotProduct.counter.available(), shards);
+            return toStatus(productId, hotProduct);
+        }
+    }
+
+    @Override
+    public void disable(final String productId) {
+        synchronized (flushLock) {
+            final HotProduct hotProduct = hotProducts.get(productId);
+            if (hotProduct == null) {
+                return;
+            }
+            synchronized (journal) {
+                hotProduct.closed = true;
+            }
+            flushPending();
+
+            if (hotProduct.pending != 0) {
+                // The flush failed; stay in hot mode rather than let the database serve stock that was already sold
+                synchronized (journal) {
+                    hotProduct.closed = false;
+                }
+                throw new HotStockEnabledException("Hot stock of product " + productId + " could not be flushed, hot mode is still enabled");
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    // Product row first, like enabling, so the two cannot deadlock
+                    productRepository.findByIdForUpdate(productId);
+                    hotStockShareRepository.findByProductIdAndInstanceId(productId, instanceId).ifPresent(share -> {
+                        if (share.getAmount().longValue() != hotProduct.counter.available()) {
+                            log.warn("Hot stock share of product {} holds {} units while {} are left in memory, returning the share",
+                                    productId, share.getAmount(), hotProduct.counter.available());
+                        }
+                        hotStockShareRepository.delete(share);
+                        productRepository.incrementAmount(productId, share.getAmount(), LocalDateTime.now());
+                    });
+                    applicationEventPublisher.publishEvent(new ProductStockChangedEvent(List.of(productId)));
+                });
+            } catch (RuntimeException e) {
+                synchronized (journal) {
+                    hotProduct.closed = false;
+                }
+                throw e;
+            }
+            hotProducts.remove(productId);
+            log.info("Hot stock mode disabled for product {}", productId);
+        }
+    }
+
+    @Override
+    public List<HotStockStatusResponse> getStatuses() {
+        return hotProducts.entrySet().stream()
+                .map(entry -> toStatus(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    @Override
+    public HotStockReservationResult tryReserve(final String productId, final int quantity) {
+        final HotProduct hotProduct = hotProducts.get(productId);
+        if (hotProduct == null) {
+            return HotStockReservationResult.NOT_HOT;
+        }
+        if (!hotProduct.counter.tryTake(quantity)) {
+            return hotProduct.closed ? awaitDisabled() : HotStockReservationResult.INSUFFICIENT_STOCK;
+        }
+
+        synchronized (journal) {
+            if (!hotProduct.closed) {
+                journal(productId, hotProduct, quantity);
+                return HotStockReservationResult.RESERVED;
+            }
+        }
+        hotProduct.counter.give(quantity);
+        return awaitDisabled();
+    }
+
+    @Override
+    public void release(final String productId, final int quantity) {
+        final HotProduct hotProduct = hotProducts.get(productId);
+        if (hotProduct != null) {
+            synchronized (journal) {
+                if (!hotProduct.closed) {
+                    journal(productId, hotProduct, -quantity);
+                    hotProduct.counter.give(quantity);
+                    return;
+                }
+            }
+        }
+        // The product left hot mode after the stock was taken, and the rest of its share is back in the database
+        synchronized (flushLock) {
+            transactionTemplate.executeWithoutResult(status ->
+                    productRepository.incrementAmount(productId, BigDecimal.valueOf(quantity), LocalDateTime.now()));
+        }
+    }
+
+    @Override
+    public Optional<BigDecimal> getAvailableAmount(final String productId) {
+        final HotProduct hotProduct = hotProducts.get(productId);
+        if (hotProduct == null || hotProduct.closed) {
+            return Optional.empty();
+        }
+        return Optional.of(BigDecimal.valueOf(hotProduct.counter.available()));
+    }
+
+    @Override
+    public boolean isHot(final String productId) {
+        return hotProducts.containsKey(productId);
+    }
+
+    @Override
+    public boolean isHotOnAnyInstance(final String productId) {
+        return hotProducts.containsKey(productId) || hotStockShareRepository.existsByProductId(productId);
+    }
+
+    /**
+     * Write-behind flush: applies the stock sold from memory since the previous flush to this instance's shares
+     * in one transaction, then deletes the journal segments that are now covered by the database.
+     */
+    @Scheduled(fixedDelayString = "${product.hot-stock.flush-interval-ms:200}")
+    public void flush() {
+        if (hotProducts.isEmpty()) {
+            return;
+        }
+        synchronized (flushLock) {
+            flushPending();
+        }
+    }
+
+    /**
+     * Applies the remaining stock changes and closes the journal on shutdown.
+     *
+     * @throws IOException if the journal cannot be closed
+     */
+    @PreDestroy
+    public void shutdown() throws IOException {
+        synchronized (flushLock) {
+            flushPending();
+        }
+        journal.close();
+    }
+
+    private void flushPending() {
+        final Map<String, FlushedChange> changes = new TreeMap<>();
+        final List<Path> flushedSegments;
+
+        synchronized (journal) {
+            hotProducts.forEach((productId, hotProduct) -> {
+                if (hotProduct.pending != 0) {
+                    changes.put(productId, new FlushedChange(hotProduct, hotProduct.pending, hotProduct.lastSequence));
+                    hotProduct.pending = 0;
+                }
+            });
+            if (changes.isEmpty()) {
+                return;
+            }
+            try {
+                flushedSegments = journal.rotate();
+            } catch (IOException e) {
+                restore(changes);
+                log.error("Could not rotate the hot stock journal, flush postponed", e);
+                return;
+            }
+        }
+
+        final Map<String, FlushedChange> unapplied = new TreeMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                final LocalDateTime now = LocalDateTime.now();
+                final List<String> soldOut = new ArrayList<>();
+                changes.forEach((productId, change) -> {
+                    if (hotStockShareRepository.applyFlush(productId, instanceId, BigDecimal.valueOf(change.quantity()),
+                            change.lastSequence(), now) == 0) {
+                        unapplied.put(productId, change);
+                        return;
+                    }
+                    final HotProduct hotProduct = change.hotProduct();
+                    if (hotProduct.counter.available() == 0 && !hotProduct.soldOutAnnounced) {
+                        soldOut.add(productId);
+                    } else if (hotProduct.counter.available() > 0) {
+                        hotProduct.soldOutAnnounced = false;
+                    }
+                });
+                // Search results and cached pages only need to learn when a hot product sells out
+                if (!soldOut.isEmpty()) {
+                    applicationEventPublisher.publishEvent(new ProductStockChangedEvent(soldOut));
+                }
+                soldOut.forEach(productId -> changes.get(productId).hotProduct().soldOutAnnounced = true);
+            });
+        } catch (RuntimeException e) {
+            // The journal segments stay on disk, and the next flush retries with the same and any newer entries
+            restore(changes);
+            log.error("Hot stock flush of {} products failed, will retry", changes.size(), e);
+            return;
+        }
+
+        if (!unapplied.isEmpty()) {
+            // A missing share, a replayed sequence or more sold than the share holds: keep the journal and retry, never drop the sale
+            restore(unapplied);
+            log.error("Hot stock flush matched no share of instance {} for products {}, will retry", instanceId, unapplied.keySet());
+            return;
+        }
+
+        journal.delete(flushedSegments);
+        log.debug("Flushed hot stock of {} products", changes.size());
+    }
+
+    private void restore(final Map<String, FlushedChange> changes) {
+        synchronized (journal) {
+            changes.values().forEach(change -> {
+                change.hotProduct().pending += change.quantity();
+                change.hotProduct().lastSequence = Math.max(change.hotProduct().lastSequence, change.lastSequence());
+            });
+        }
+    }
+
+    // Called with the journal lock held, so the entry and the pending amount always move together
+    private void journal(final String productId, final HotProduct hotProduct, final long quantity) {
+        try {
+            hotProduct.lastSequence = journal.append(productId, quantity);
+            hotProduct.pending += quantity;
+        } catch (IOException e) {
+            if (quantity > 0) {
+                hotProduct.counter.give(quantity);
+            }
+            throw new UncheckedIOException("Could not journal hot stock change of product " + productId, e);
+        }
+    }
+
+    // A product being disabled is served from the database once its last flush has finished
+    private HotStockReservationResult awaitDisabled() {
+        synchronized (flushLock) {
+            return HotStockReservationResult.NOT_HOT;
+        }
+    }
+
+    private HotStockStatusResponse toStatus(final String productId, final HotProduct hotProduct) {
+        final long pending;
+        synchronized (journal) {
+            pending = hotProduct.pending;
+        }
+        return HotStockStatusResponse.builder()
+                .productId(productId)
+                .availableAmount(BigDecimal.valueOf(hotProduct.counter.available()))
+                .pendingFlushAmount(BigDecimal.valueOf(pending))
+                .shards(hotProduct.counter.shards())
+                .build();
+    }
+
+    private static final class HotProduct {
+
+        private final StripedStockCounter counter;
+
+        // Guarded by the journal lock
+        private long pending;
+        private long lastSequence;
+        private volatile boolean closed;
+
+        // Only touched by the flush, which is serialised by the flush lock
+        private boolean soldOutAnnounced;
+
+        private HotProduct(final StripedStockCounter counter) {
+            this.counter = counter;
+        }
+    }
+
+    private record FlushedChange(HotProduct hotProduct, long quantity, long lastSequence) {
+    }
+
+}
@@ -0,0 +1,142 @@
+package com.springbootmicroservices.productservice.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.springbootmicroservices.productservice.config.IdempotencyConfigurationParameter;
+import com.springbootmicroservices.productservice.model.common.IdempotentResponse;
+import com.springbootmicroservices.productservice.model.common.enums.IdempotencyRecordStatus;
+import com.springbootmicroservices.productservice.repository.IdempotencyRecordRepository;
+import com.springbootmicroservices.productservice.service.IdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Service implementation named {@link IdempotencyServiceImpl} keeping stored responses in the
+ * {@code IDEMPOTENCY_RECORD} table behind a Caffeine cache. The table makes a key visible to every instance;
+ * the cache answers the retries that follow a timeout within seconds without a database round trip.
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final IdempotencyConfigurationParameter idempotencyConfigurationParameter;
+    private final Cache<String, IdempotentResponse> completedResponses;
+
+    public IdempotencyServiceImpl(final IdempotencyRecordRepository idempotencyRecordRepository,
+                                  final IdempotencyConfigurationParameter idempotencyConfigurationParameter) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.idempotencyConfigurationParameter = idempotencyConfigurationParameter;
+        this.completedResponses = Caffeine.newBuilder()
+                .expireAfterWrite(idempotencyConfigurationParameter.getCacheTtl())
+                .maximumSize(idempotencyConfigurationParameter.getCacheMaximumSize())
+                .build();
+    }
+
+    /**
+     * Looks up the stored response of a key, caching a response found in the database.
+     *
+     * @param keyHash The hash identifying the caller, endpoint and key.
+     * @return The stored response, or empty if the key is unknown or still in progress.
+     */
+    @Override
+    public Optional<IdempotentResponse> findCompleted(final String keyHash) {
+
+        final IdempotentResponse cached = completedResponses.getIfPresent(keyHash);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        return idempotencyRecordRepository.findByKeyHashAndStatus(keyHash, IdempotencyRecordStatus.COMPLETED)
+                .filter(idempotencyRecord -> idempotencyRecord.getExpiresAt().isAfter(LocalDateTime.now()))
+                .map(idempotencyRecord -> {
+                    final IdempotentResponse response = new IdempotentResponse(
+                            idempotencyRecord.getRequestHash(),
+                            idempotencyRecord.getResponseStatus(),
+                            idempotencyRecord.getResponseContentType(),
+                            idempotencyRecord.getResponseBody() != null ? idempotencyRecord.getResponseBody() : new byte[0]
+                    );
+                    completedResponses.put(keyHash, response);
+                    return response;
+                });
+    }
+
+    /**
+     * Claims a key with a conditional insert, or takes over an in-progress key locked longer than the in-flight timeout.
+     *
+     * @param keyHash The hash identifying the caller, endpoint and key.
+     * @param requestHash The hash of the request body.
+     * @return {@code true} if the caller won the claim.
+     */
+    @Override
+    public boolean claim(final String keyHash, final String requestHash) {
+
+        final LocalDateTime now = LocalDateTime.now();
+        if (idempotencyRecordRepository.insertIfAbsent(keyHash, requestHash, now,
+                now.plus(idempotencyConfigurationParameter.getRetention())) == 1) {
+            return true;
+        }
+
+        final boolean takenOver = idempotencyRecordRepository.takeOver(keyHash, requestHash, IdempotencyRecordStatus.IN_PROGRESS,
+                now, now.minus(idempotencyConfigurationParameter.getInFlightTimeout())) == 1;
+        if (takenOver) {
+            log.warn("Taking over abandoned idempotent request {}", keyHash);
+        }
+        return takenOver;
+    }
+
+    /**
+     * Stores the response of a claimed key in the table and the cache, or releases the key if the response
+     * must not be replayed.
+     *
+     * @param keyHash The hash identifying the caller, endpoint and key.
+     * @param response The response produced by the first request.
+     */
+    @Override
+    public void complete(final String keyHash, final IdempotentResponse response) {
+
+        if (response.status() >= 500 || response.body().length > idempotencyConfigurationParameter.getMaxResponseBytes()) {
+            release(keyHash);
+            return;
+        }
+
+        final int updated = idempotencyRecordRepository.complete(keyHash, IdempotencyRecordStatus.COMPLETED,
+                IdempotencyRecordStatus.IN_PROGRESS, response.status(), response.contentType(), response.body());
+        if (updated == 1) {
+            completedResponses.put(keyHash, response);
+        } else {
+            log.warn("Idempotent request {} was taken over before it completed; its response is not stored", keyHash);
+        }
+    }
+
+    /**
+     * Deletes the in-progress row of a key so the next request with it executes again.
+     *
+     * @param keyHash The hash identifying the caller, endpoint and key.
+     */
+    @Override
+    public void release(final String keyHash) {
+        idempotencyRecordRepository.deleteByKeyHashAndStatus(keyHash, IdempotencyRecordStatus.IN_PROGRESS);
+    }
+
+    /**
+     * Deletes expired rows on a fixed delay. Cached responses expire on their own, well before the rows do.
+     *
+     * @return The number of deleted rows.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:600000}")
+    public int purgeExpired() {
+
+        final int deleted = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.debug("Purged {} expired idempotency records", deleted);
+        }
+        return deleted;
+    }
+
+}
@@ -6,6 +6,7 @@ import com.springbootmicroservices.productservice.exception.ProductAlreadyExistE
 import com.springbootmicroservices.productservice.model.product.Product;
 import com.springbootmicroservices.productservice.model.product.dto.request.ProductCreateRequest;
 import com.springbootmicroservices.productservice.model.product.entity.ProductEntity;
+import com.springbootmicroservices.productservice.model.product.event.ProductChangedEvent;
 import com.springbootmicroservices.productservice.model.product.mapper.ProductCreateRequestToProductEntityMapper;
 import com.springbootmicroservices.productservice.model.product.mapper.ProductEntityToProductMapper;
 import com.springbootmicroservices.productservice.model.product.mapper.ProductToIndexableProductDtoMapper;
@@ -13,6 +14,7 @@ import com.springbootmicroservices.productservice.repository.ProductRepository;
 import com.springbootmicroservices.productservice.service.ProductCreateService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -22,6 +24,7 @@ public class ProductCreateServiceImpl implements ProductCreateService {
 
     private final ProductRepository productRepository;
     private final SearchServiceClient searchServiceClient;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     private final ProductCreateRequestToProductEntityMapper productCreateRequestToProductEntityMapper =
             ProductCreateRequestToProductEntityMapper.initialize();
@@ -46,6 +49,8 @@ public class ProductCreateServiceImpl implements ProductCreateService {
             log.error("CRITICAL: Failed to index new product {}. Search index is now out of sync.", createdProduct.getId(), e);
         }
 
+        applicationEventPublisher.publishEvent(new ProductChangedEvent(createdProduct.getId()));
+
         return createdProduct;
     }
 
@@ -1,12 +1,16 @@
 package com.springbootmicroservices.productservice.service.impl;
 
 import com.springbootmicroservices.productservice.client.SearchServiceClient;
+import com.springbootmicroservices.productservice.exception.HotStockEnabledException;
 import com.springbootmicroservices.productservice.exception.ProductNotFoundException;
 import com.springbootmicroservices.productservice.model.product.entity.ProductEntity;
+import com.springbootmicroservices.productservice.model.product.event.ProductChangedEvent;
 import com.springbootmicroservices.productservice.repository.ProductRepository;
+import com.springbootmicroservices.productservice.service.HotStockService;
 import com.springbootmicroservices.productservice.service.ProductDeleteService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,10 +21,16 @@ public class ProductDeleteServiceImpl implements ProductDeleteService {
 
     private final ProductRepository productRepository;
     private final SearchServiceClient searchServiceClient;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final HotStockService hotStockService;
 
     @Override
     @Transactional
     public void deleteProductById(String productId) {
+        if (hotStockService.isHotOnAnyInstance(productId)) {
+            throw new HotStockEnabledException("Product " + productId + " is in hot stock mode; disable it before deleting the product.");
+        }
+
         // Find the entity first to ensure it exists before we do anything.
         ProductEntity productEntityToBeDelete = productRepository
                 .findById(productId)
@@ -39,5 +49,7 @@ public class ProductDeleteServiceImpl implements ProductDeleteService {
             // If this fails, the DB has already been updated. Log a critical error for reconciliation.
             log.error("CRITICAL: Product {} was deleted from DB, but failed to be deleted from search index. A ghost document may exist.", productId, e);
         }
+
+        applicationEventPublisher.publishEvent(new ProductChangedEvent(productId));
     }
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import com.springbootmicroservices.productservice.model.product.entity.ProductEn
 import com.springbootmicroservices.productservice.model.product.mapper.ListProductEntityToListProductMapper;
 import com.springbootmicroservices.productservice.model.product.mapper.ProductEntityToProductMapper;
 import com.springbootmicroservices.productservice.repository.ProductRepository;
+import com.springbootmicroservices.productservice.service.HotStockService;
 import com.springbootmicroservices.productservice.service.ProductReadService;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -19,7 +20,16 @@ import org.springframework.stereotype.Service;
 import org.springframework.data.domain.Pageable;
 
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service implementation named {@link ProductReadServiceImpl} for reading products.
@@ -30,6 +40,7 @@ public class ProductReadServiceImpl implements ProductReadService {
 
 
     private final ProductRepository productRepository;
+    private final HotStockService hotStockService;
 
     private final ProductEntityToProductMapper productEntityToProductMapper = ProductEntityToProductMapper.initialize();
 
@@ -50,7 +61,7 @@ public class ProductReadServiceImpl implements ProductReadService {
                 .findById(productId)
                 .orElseThrow(() -> new ProductNotFoundException("With given productID = " + productId));
 
-        return productEntityToProductMapper.map(productEntityFromDB);
+        return withHotStock(productEntityToProductMapper.map(productEntityFromDB));
     }
 
 
@@ -125,4 +136,35 @@ public class ProductReadServiceImpl implements ProductReadService {
         return listProductEntityToListProductMapper.toProductList(productEntities);
     }
 
+    /**
+     * Retrieves several products by their IDs with a single {@code findAllById} query.
+     *
+     * @param productIds The IDs of the products to retrieve; duplicates are ignored.
+     * @return The found products keyed by ID, in the order the IDs were given. Unknown IDs are absent.
+     */
+    @Override
+    public Map<String, Product> getProductsByIds(Collection<String> productIds) {
+
+        final Set<String> distinctProductIds = new LinkedHashSet<>(productIds);
+
+        final Map<String, ProductEntity> productEntitiesById = productRepository.findAllById(distinctProductIds).stream()
+                .collect(Collectors.toMap(ProductEntity::getId, Function.identity()));
+
+        final Map<String, Product> productsById = new LinkedHashMap<>();
+        distinctProductIds.forEach(productId -> {
+            final ProductEntity productEntity = productEntitiesById.get(productId);
+            if (productEntity != null) {
+                productsById.put(productId, withHotStock(productEntityToProductMapper.map(productEntity)));
+            }
+        });
+        return productsById;
+    }
+
+    // For a product in hot mode on this instance the row only holds the stock not shared out, so the share left in memory is added
+    private Product withHotStock(final Product product) {
+        hotStockService.getAvailableAmount(product.getId()).ifPresent(inMemory ->
+                product.setAmount(Optional.ofNullable(product.getAmount()).orElse(BigDecimal.ZERO).add(inMemory)));
+        return product;
+    }
+
 }
@@ -0,0 +1,422 @@
+package com.springbootmicroservices.productservice.service.impl;
+
+import com.springbootmicroservices.productservice.config.StockHoldConfigurationParameter;
+import com.springbootmicroservices.productservice.exception.HotStockEnabledException;
+import com.springbootmicroservices.productservice.exception.StockHoldNotFoundException;
+import com.springbootmicroservices.productservice.exception.StockHoldStateException;
+import com.springbootmicroservices.productservice.model.product.dto.request.StockHoldRequest;
+import com.springbootmicroservices.productservice.model.product.dto.request.StockReservationLineRequest;
+import com.springbootmicroservices.productservice.model.product.dto.request.StockReservationRequest;
+import com.springbootmicroservices.productservice.model.product.dto.response.StockHoldResponse;
+import com.springbootmicroservices.productservice.model.product.dto.response.StockReservationLineResponse;
+import com.springbootmicroservices.productservice.model.product.dto.response.StockReservationResponse;
+import com.springbootmicroservices.productservice.model.product.entity.StockHoldEntity;
+import com.springbootmicroservices.productservice.model.product.enums.HotStockReservationResult;
+import com.springbootmicroservices.productservice.model.product.enums.StockHoldStatus;
+import com.springbootmicroservices.productservice.model.product.enums.StockReservationStatus;
+import com.springbootmicroservices.productservice.model.product.event.ProductStockChangedEvent;
+import com.springbootmicroservices.productservice.repository.ProductRepository;
+import com.springbootmicroservices.productservice.repository.StockHoldRepository;
+import com.springbootmicroservices.productservice.service.HotStockService;
+import com.springbootmicroservices.productservice.service.ProductStockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Service implementation named {@link ProductStockServiceImpl} for taking product stock in bulk,
+ * either for good or as holds that expire unless confirmed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductStockServiceImpl implements ProductStockService {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final HotStockService hotStockService;
+    private final StockHoldRepository stockHoldRepository;
+    private final StockHoldConfigurationParameter stockHoldConfigurationParameter;
+
+    /**
+     * Reserves stock for every line of the request in a single transaction.
+     * Quantities are summed per product and the products are decremented in ascending ID order with
+     * conditional updates, so two overlapping reservations always lock rows in the same order and cannot deadlock.
+     * If any product lacks stock or does not exist, the transaction is rolled back.
+     *
+     * @param stockReservationRequest The products and quantities to reserve.
+     * @return The overall outcome and one result per requested line, in request order.
+     */
+    @Override
+    public StockReservationResponse reserveStock(final StockReservationRequest stockReservationRequest) {
+
+        final Reservation reservation = take(stockReservationRequest.getLines(), quantitiesByProductId -> { });
+
+        return StockReservationResponse.builder()
+                .reserved(reservation.reserved())
+                .lines(reservation.lines())
+                .build();
+    }
+
+    /**
+     * Takes the stock of a hold exactly like {@link #reserveStock(StockReservationRequest)} and records one
+     * {@link StockHoldEntity} per product in the same transaction. Because the stock leaves the product's amount
+     * up front, available-stock reads stay a single row lookup and never have to subtract active holds.
+     * Placing the same hold again while it is active returns it unchanged, so a caller that lost the first answer
+     * can retry; any other request under a used reference is refused.
+     *
+     * @param stockHoldRequest The reference, lifetime, products and quantities of the hold.
+     * @return The hold with one result per requested line; not reserved if any line failed.
+     */
+    @Override
+    public StockHoldResponse placeHold(final StockHoldRequest stockHoldRequest) {
+
+        final String reference = stockHoldRequest.getReference();
+        if (stockHoldRepository.existsByReference(reference)) {
+            return replayHold(stockHoldRequest);
+        }
+
+        final LocalDateTime expiresAt = LocalDateTime.now().plus(ttlOf(stockHoldRequest));
+
+        final Reservation reservation = take(stockHoldRequest.getLines(), quantitiesByProductId ->
+                stockHoldRepository.saveAll(quantitiesByProductId.entrySet().stream()
+                        .map(entry -> StockHoldEntity.builder()
+                                .reference(reference)
+                                .productId(entry.getKey())
+                                .quantity(entry.getValue())
+                                .status(StockHoldStatus.ACTIVE)
+                                .expiresAt(expiresAt)
+                                .build())
+                        .toList()));
+
+        return StockHoldResponse.builder()
+                .reference(reference)
+                .reserved(reservation.reserved())
+                .status(reservation.reserved() ? StockHoldStatus.ACTIVE : null)
+                .expiresAt(reservation.reserved() ? expiresAt : null)
+                .lines(reservation.lines())
+                .build();
+    }
+
+    /**
+     * Confirms a hold. A hold the sweeper has already expired takes its stock again, so a late confirm never
+     * over-sells; it is rejected only if that stock has been sold in the meantime, or if the hold was released.
+     *
+     * @param reference The reference the hold was placed with.
+     * @return The confirmed hold.
+     */
+    @Override
+    public StockHoldResponse confirmHold(final String reference) {
+
+        return transactionTemplate.execute(status -> {
+            final List<StockHoldEntity> holds = lockHold(reference);
+            final StockHoldEntity hold = holds.get(0);
+
+            if (hold.getStatus() == StockHoldStatus.CONFIRMED) {
+                return toHoldResponse(hold);
+            }
+            if (hold.getStatus() == StockHoldStatus.RELEASED) {
+                throw new StockHoldStateException("Stock hold " + reference + " has been released and can no longer be confirmed");
+            }
+            if (hold.getStatus() == StockHoldStatus.EXPIRED) {
+                final List<StockReservationLineRequest> lines = holds.stream()
+                        .map(entity -> StockReservationLineRequest.builder()
+                                .productId(entity.getProductId())
+                                .quantity(entity.getQuantity())
+                                .build())
+                        .toList();
+                if (!take(lines, quantities -> { }).reserved()) {
+                    throw new StockHoldStateException("Stock hold " + reference
+                            + " has expired and its stock has been sold since, so it can no longer be confirmed");
+                }
+                log.warn("Stock hold {} was confirmed after it expired; its stock was taken again", reference);
+            }
+
+            // An active hold past its expiry still has its stock until the sweeper returns it, so it is confirmed as is
+            holds.forEach(entity -> entity.setStatus(StockHoldStatus.CONFIRMED));
+            stockHoldRepository.saveAll(holds);
+            log.info("Confirmed stock hold {} for {} products", reference, holds.size());
+            return toHoldResponse(hold);
+        });
+    }
+
+    /**
+     * Releases an active or confirmed hold and returns its stock to the products.
+     *
+     * @param reference The reference the hold was placed with.
+     * @return The released hold.
+     */
+    @Override
+    public StockHoldResponse releaseHold(final String reference) {
+
+        final Map<String, Integer> toMemory = new TreeMap<>();
+
+        final StockHoldResponse response = transactionTemplate.execute(status -> {
+            final List<StockHoldEntity> holds = lockHold(reference);
+            final StockHoldEntity hold = holds.get(0);
+
+            if (hold.getStatus() == StockHoldStatus.ACTIVE || hold.getStatus() == StockHoldStatus.CONFIRMED) {
+                returnStock(holds, StockHoldStatus.RELEASED, toMemory);
+                log.info("Released stock hold {} for {} products", reference, holds.size());
+            }
+            return toHoldResponse(hold);
+        });
+
+        toMemory.forEach(hotStockService::release);
+        return response;
+    }
+
+    /**
+     * Background sweeper: releases expired holds in batches of the configured size, one transaction per batch,
+     * oldest expiry first, until a batch comes back short.
+     *
+     * @return The number of hold lines released.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${product.stock-hold.sweep-interval-ms:5000}")
+    public int releaseExpiredHolds() {
+
+        final int batchSize = stockHoldConfigurationParameter.getSweepBatchSize();
+        int released = 0;
+        int batchReleased;
+        do {
+            batchReleased = releaseExpiredBatch(batchSize);
+            released += batchReleased;
+        } while (batchReleased == batchSize);
+
+        if (released > 0) {
+            log.info("Released {} expired stock hold lines", released);
+        }
+        return released;
+    }
+
+    private int releaseExpiredBatch(final int batchSize) {
+
+        final Map<String, Integer> toMemory = new TreeMap<>();
+
+        final Integer released = transactionTemplate.execute(status -> {
+            final List<StockHoldEntity> expired = stockHoldRepository
+                    .findExpiredForUpdate(StockHoldStatus.ACTIVE, LocalDateTime.now(), Limit.of(batchSize));
+            if (!expired.isEmpty()) {
+                returnStock(expired, StockHoldStatus.EXPIRED, toMemory);
+            }
+            return expired.size();
+        });
+
+        toMemory.forEach(hotStockService::release);
+        return released;
+    }
+
+    /**
+     * Takes the stock of all lines or none of them. {@code onTaken} runs inside the transaction once every product
+     * has been decremented and receives the summed quantities in product ID order; if it throws, nothing is taken.
+     */
+    private Reservation take(final List<StockReservationLineRequest> requestedLines,
+                             final Consumer<Map<String, Integer>> onTaken) {
+
+        final Map<String, Integer> quantitiesByProductId = new TreeMap<>();
+        requestedLines.forEach(line -> quantitiesByProductId.merge(line.getProductId(), line.getQuantity(), Integer::sum));
+
+        // Hot products are served from memory, which the transaction cannot roll back, so their stock is given back by hand
+        final Map<String, Integer> takenFromMemory = new HashMap<>();
+
+        final Map<String, ProductOutcome> outcomes;
+        try {
+            outcomes = transactionTemplate.execute(status -> {
+                final Map<String, ProductOutcome> outcomesByProductId = new HashMap<>();
+                final LocalDateTime now = LocalDateTime.now();
+                boolean allReserved = true;
+
+                for (Map.Entry<String, Integer> entry : quantitiesByProductId.entrySet()) {
+                    final ProductOutcome outcome = reserve(entry.getKey(), entry.getValue(), now, takenFromMemory);
+                    allReserved &= outcome.status() == StockReservationStatus.RESERVED;
+                    outcomesByProductId.put(entry.getKey(), outcome);
+                }
+
+                if (!allReserved) {
+                    status.setRollbackOnly();
+                    releaseFromMemory(takenFromMemory);
+                    outcomesByProductId.replaceAll((productId, outcome) -> outcome.status() == StockReservationStatus.RESERVED
+                            ? new ProductOutcome(StockReservationStatus.ROLLED_BACK, restoredAmount(outcome, quantitiesByProductId.get(productId)))
+                            : outcome);
+                    return outcomesByProductId;
+                }
+
+                onTaken.accept(quantitiesByProductId);
+
+                final List<String> changedInDatabase = quantitiesByProductId.keySet().stream()
+                        .filter(productId -> !takenFromMemory.containsKey(productId))
+                        .toList();
+                if (!changedInDatabase.isEmpty()) {
+                    applicationEventPublisher.publishEvent(new ProductStockChangedEvent(changedInDatabase));
+                }
+                return outcomesByProductId;
+            });
+        } catch (RuntimeException e) {
+            releaseFromMemory(takenFromMemory);
+            throw e;
+        }
+
+        final boolean reserved = outcomes.values().stream()
+                .allMatch(outcome -> outcome.status() == StockReservationStatus.RESERVED);
+
+        if (reserved) {
+            log.info("Reserved stock for {} products", quantitiesByProductId.size());
+        } else {
+            log.info("Stock reservation for {} products rejected: {}", quantitiesByProductId.size(), outcomes);
+        }
+
+        final List<StockReservationLineResponse> lines = requestedLines.stream()
+                .map(line -> toLineResponse(line, outcomes.get(line.getProductId())))
+                .toList();
+
+        return new Reservation(reserved, lines);
+    }
+
+    private ProductOutcome reserve(final String productId, final int quantity, final LocalDateTime now,
+                                   final Map<String, Integer> takenFromMemory) {
+
+        final HotStockReservationResult hotStockResult = hotStockService.tryReserve(productId, quantity);
+        if (hotStockResult == HotStockReservationResult.RESERVED) {
+            takenFromMemory.put(productId, quantity);
+            return new ProductOutcome(StockReservationStatus.RESERVED, hotStockService.getAvailableAmount(productId).orElse(null));
+        }
+        if (hotStockResult == HotStockReservationResult.INSUFFICIENT_STOCK) {
+            return new ProductOutcome(StockReservationStatus.INSUFFICIENT_STOCK, hotStockService.getAvailableAmount(productId).orElse(null));
+        }
+
+        if (productRepository.decrementAmountIfAvailable(productId, BigDecimal.valueOf(quantity), now) == 1) {
+            final BigDecimal remaining = productRepository.findAmountById(productId).orElse(null);
+            return new ProductOutcome(StockReservationStatus.RESERVED, remaining);
+        }
+
+        final Optional<BigDecimal> available = productRepository.findAmountById(productId);
+        if (available.isPresent() && hotStockService.isHotOnAnyInstance(productId)) {
+            // Rolls the whole reservation back; stock already taken from memory is given back by the caller
+            throw new HotStockEnabledException("Product " + productId + " is in hot stock mode and is only sold by the instances holding its stock.");
+        }
+        return available
+                .map(amount -> new ProductOutcome(StockReservationStatus.INSUFFICIENT_STOCK, amount))
+                .orElseGet(() -> new ProductOutcome(StockReservationStatus.PRODUCT_NOT_FOUND, null));
+    }
+
+    private static BigDecimal restoredAmount(final ProductOutcome outcome, final int quantity) {
+        return outcome.availableAmount() != null ? outcome.availableAmount().add(BigDecimal.valueOf(quantity)) : null;
+    }
+
+    private void releaseFromMemory(final Map<String, Integer> takenFromMemory) {
+        takenFromMemory.forEach(hotStockService::release);
+        takenFromMemory.clear();
+    }
+
+    private List<StockHoldEntity> lockHold(final String reference) {
+        final List<StockHoldEntity> holds = stockHoldRepository.findByReferenceForUpdate(reference);
+        if (holds.isEmpty()) {
+            throw new StockHoldNotFoundException("Stock hold not found with reference: " + reference);
+        }
+        return holds;
+    }
+
+    /**
+     * Moves the given active holds to {@code newStatus} and gives their stock back, products in ascending ID order
+     * like {@link #take(List, Consumer)}. Stock of hot products is collected in {@code toMemory} and must be released
+     * by the caller after the commit: memory cannot be rolled back, so a failed commit must not have touched it.
+     * A crash between the commit and that release under-sells the stock until an admin corrects it, never over-sells it.
+     */
+    private void returnStock(final List<StockHoldEntity> holds, final StockHoldStatus newStatus,
+                             final Map<String, Integer> toMemory) {
+
+        final Map<String, Integer> quantitiesByProductId = new TreeMap<>();
+        holds.forEach(hold -> {
+            hold.setStatus(newStatus);
+            quantitiesByProductId.merge(hold.getProductId(), hold.getQuantity(), Integer::sum);
+        });
+        stockHoldRepository.saveAll(holds);
+
+        final LocalDateTime now = LocalDateTime.now();
+        final List<String> changedInDatabase = new ArrayList<>();
+        quantitiesByProductId.forEach((productId, quantity) -> {
+            if (hotStockService.isHot(productId)) {
+                toMemory.merge(productId, quantity, Integer::sum);
+            } else {
+                productRepository.incrementAmount(productId, BigDecimal.valueOf(quantity), now);
+                changedInDatabase.add(productId);
+            }
+        });
+
+        if (!changedInDatabase.isEmpty()) {
+            applicationEventPublisher.publishEvent(new ProductStockChangedEvent(changedInDatabase));
+        }
+    }
+
+    private Duration ttlOf(final StockHoldRequest stockHoldRequest) {
+        if (stockHoldRequest.getTtlSeconds() == null) {
+            return stockHoldConfigurationParameter.getDefaultTtl();
+        }
+        final Duration requested = Duration.ofSeconds(stockHoldRequest.getTtlSeconds());
+        final Duration max = stockHoldConfigurationParameter.getMaxTtl();
+        return requested.compareTo(max) > 0 ? max : requested;
+    }
+
+    private StockHoldResponse replayHold(final StockHoldRequest stockHoldRequest) {
+
+        final String reference = stockHoldRequest.getReference();
+        final Map<String, Integer> requested = new TreeMap<>();
+        stockHoldRequest.getLines().forEach(line -> requested.merge(line.getProductId(), line.getQuantity(), Integer::sum));
+
+        final List<StockHoldEntity> holds = stockHoldRepository.findByReference(reference);
+        final Map<String, Integer> held = new TreeMap<>();
+        holds.forEach(hold -> held.put(hold.getProductId(), hold.getQuantity()));
+
+        final boolean active = !holds.isEmpty() && holds.stream().allMatch(hold ->
+                hold.getStatus() == StockHoldStatus.ACTIVE && hold.getExpiresAt().isAfter(LocalDateTime.now()));
+        if (!active || !held.equals(requested)) {
+            throw new StockHoldStateException("A stock hold already exists with reference: " + reference);
+        }
+
+        log.info("Stock hold {} was already placed; returning it", reference);
+        return toHoldResponse(holds.get(0));
+    }
+
+    private static StockHoldResponse toHoldResponse(final StockHoldEntity hold) {
+        return StockHoldResponse.builder()
+                .reference(hold.getReference())
+                .reserved(true)
+                .status(hold.getStatus())
+                .expiresAt(hold.getExpiresAt())
+                .lines(List.of())
+                .build();
+    }
+
+    private static StockReservationLineResponse toLineResponse(final StockReservationLineRequest line, final ProductOutcome outcome) {
+        return StockReservationLineResponse.builder()
+                .productId(line.getProductId())
+                .requestedQuantity(line.getQuantity())
+                .status(outcome.status())
+                .availableAmount(outcome.availableAmount())
+                .build();
+    }
+
+    private record ProductOutcome(StockReservationStatus status, BigDecimal availableAmount) {
+    }
+
+    private record Reservation(boolean reserved, List<StockReservationLineResponse> lines) {
+    }
+
+}
@@ -2,22 +2,32 @@ package com.springbootmicroservices.productservice.service.impl;
 
 import com.springbootmicroservices.productservice.client.SearchServiceClient;
 import com.springbootmicroservices.productservice.client.dto.IndexableProductDto;
+import com.springbootmicroservices.productservice.exception.HotStockEnabledException;
 import com.springbootmicroservices.productservice.exception.InsufficientStockException;
 import com.springbootmicroservices.productservice.exception.ProductAlreadyExistException;
 import com.springbootmicroservices.productservice.exception.ProductNotFoundException;
 import com.springbootmicroservices.productservice.model.product.Product;
 import com.springbootmicroservices.productservice.model.product.dto.request.ProductUpdateRequest;
 import com.springbootmicroservices.productservice.model.product.entity.ProductEntity;
+import com.springbootmicroservices.productservice.model.product.enums.HotStockReservationResult;
+import com.springbootmicroservices.productservice.model.product.event.ProductChangedEvent;
+import com.springbootmicroservices.productservice.model.product.event.ProductStockChangedEvent;
 import com.springbootmicroservices.productservice.model.product.mapper.ProductEntityToProductMapper;
 import com.springbootmicroservices.productservice.model.product.mapper.ProductToIndexableProductDtoMapper;
 import com.springbootmicroservices.productservice.model.product.mapper.ProductUpdateRequestToProductEntityMapper;
 import com.springbootmicroservices.productservice.repository.ProductRepository;
+import com.springbootmicroservices.productservice.service.HotStockService;
 import com.springbootmicroservices.productservice.service.ProductUpdateService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -25,6 +35,8 @@ public class ProductUpdateServiceImpl implements ProductUpdateService {
 
     private final ProductRepository productRepository;
     private final SearchServiceClient searchServiceClient;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final HotStockService hotStockService;
 
     private final ProductUpdateRequestToProductEntityMapper productUpdateRequestToProductEntityMapper =
             ProductUpdateRequestToProductEntityMapper.initialize();
@@ -34,6 +46,11 @@ public class ProductUpdateServiceImpl implements ProductUpdateService {
     @Override
     @Transactional
     public Product updateProductById(String productId, ProductUpdateRequest productUpdateRequest) {
+        if (hotStockService.isHotOnAnyInstance(productId)) {
+            // The request carries an absolute stock amount, which would overwrite stock sold from memory but not yet flushed
+            throw new HotStockEnabledException("Product " + productId + " is in hot stock mode; disable it before updating the product.");
+        }
+
         productRepository.findByNameAndIdNot(productUpdateRequest.getName(), productId).ifPresent(p -> {
             throw new ProductAlreadyExistException("Another product with name = " + productUpdateRequest.getName() + " already exists.");
         });
@@ -48,10 +65,16 @@ public class ProductUpdateServiceImpl implements ProductUpdateService {
 
         // --- NEW: Push updated product to search index ---
         indexProductInSearchService(updatedProduct);
+        applicationEventPublisher.publishEvent(new ProductChangedEvent(updatedProduct.getId()));
 
         return updatedProduct;
     }
 
+    /**
+     * Takes the purchased quantity from the product's stock with a single conditional update,
+     * so concurrent purchases can neither oversell nor overwrite each other's decrement.
+     * The search index is refreshed after commit by the {@link ProductStockChangedEvent} listeners.
+     */
     @Override
     @Transactional
     public Product processPurchase(final String productId, final int quantityToPurchase) {
@@ -59,25 +82,52 @@ public class ProductUpdateServiceImpl implements ProductUpdateService {
             throw new IllegalArgumentException("Quantity to purchase must be positive.");
         }
 
-        ProductEntity productEntity = productRepository.findById(productId)
-                .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + productId));
+        final HotStockReservationResult hotStockResult = hotStockService.tryReserve(productId, quantityToPurchase);
+        if (hotStockResult == HotStockReservationResult.RESERVED || hotStockResult == HotStockReservationResult.INSUFFICIENT_STOCK) {
+            return processHotPurchase(productId, quantityToPurchase, hotStockResult);
+        }
+
+        final int updatedRows = productRepository.decrementAmountIfAvailable(
+                productId, BigDecimal.valueOf(quantityToPurchase), LocalDateTime.now());
 
-        if (productEntity.getAmount() == null || productEntity.getAmount().intValue() < quantityToPurchase) {
+        if (updatedRows == 0) {
+            // Only the failure path reads the row, to tell a missing product from an exhausted or hot one
+            ProductEntity productEntity = productRepository.findById(productId)
+                    .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + productId));
+            if (hotStockService.isHotOnAnyInstance(productId)) {
+                throw new HotStockEnabledException("Product " + productId + " is in hot stock mode and is only sold by the instances holding its stock.");
+            }
             throw new InsufficientStockException("Insufficient stock for product: " + productEntity.getName() +
                     ". Available: " + (productEntity.getAmount() != null ? productEntity.getAmount().intValue() : 0) +
                     ", Requested: " + quantityToPurchase);
         }
 
-        productEntity.setAmount(productEntity.getAmount().subtract(java.math.BigDecimal.valueOf(quantityToPurchase)));
-        ProductEntity updatedProductEntity = productRepository.save(productEntity);
+        ProductEntity updatedProductEntity = productRepository.findById(productId)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + productId));
         final Product updatedProduct = productEntityToProductMapper.map(updatedProductEntity);
 
-        // --- NEW: Update search index with new stock amount ---
-        indexProductInSearchService(updatedProduct);
+        applicationEventPublisher.publishEvent(new ProductStockChangedEvent(List.of(productId)));
 
         return updatedProduct;
     }
 
+    // Stock of a hot product is taken from memory; the row is only read for the response and reflects the last flush
+    private Product processHotPurchase(final String productId, final int quantityToPurchase, final HotStockReservationResult hotStockResult) {
+        final ProductEntity productEntity = productRepository.findById(productId)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + productId));
+        final BigDecimal available = hotStockService.getAvailableAmount(productId).orElse(productEntity.getAmount());
+
+        if (hotStockResult == HotStockReservationResult.INSUFFICIENT_STOCK) {
+            throw new InsufficientStockException("Insufficient stock for product: " + productEntity.getName() +
+                    ". Available: " + (available != null ? available.intValue() : 0) +
+                    ", Requested: " + quantityToPurchase);
+        }
+
+        final Product purchasedProduct = productEntityToProductMapper.map(productEntity);
+        purchasedProduct.setAmount(available);
+        return purchasedProduct;
+    }
+
     // Helper method to keep the indexing logic DRY (Don't Repeat Yourself)
     private void indexProductInSearchService(Product product) {
         try {
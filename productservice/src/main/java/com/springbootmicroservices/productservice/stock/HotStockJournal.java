@@ -0,0 +1,202 @@
+package com.springbootmicroservices.productservice.stock;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Local append-only journal named {@link HotStockJournal} of the stock taken from in-memory hot product counters.
+ * Every reservation is appended before it is acknowledged, so stock sold between two write-behind flushes
+ * can be re-applied to the instance's hot stock shares after a crash.
+ * The journal is split into segments; a segment is rotated out on each flush and deleted once its entries
+ * have reached the database.
+ */
+@Slf4j
+public final class HotStockJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "hot-stock-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String INSTANCE_ID_FILE = "instance-id";
+
+    private final Path directory;
+    private FileChannel segment;
+    private Path segmentPath;
+    private long sequence;
+
+    /**
+     * One journaled stock change.
+     *
+     * @param sequence  the position in the journal, increasing across segments and restarts
+     * @param productId the product whose stock changed
+     * @param quantity  the quantity taken; negative when stock was given back
+     */
+    public record Entry(long sequence, String productId, long quantity) {
+    }
+
+    public HotStockJournal(final Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * Identifies the instance that writes this journal. The ID is created on first use and kept next to the segments,
+     * so an instance that restarts on the same directory recovers the hot stock shares it held before.
+     *
+     * @return the instance ID
+     * @throws IOException if the ID cannot be read or stored
+     */
+    public synchronized String instanceId() throws IOException {
+        final Path path = directory.resolve(INSTANCE_ID_FILE);
+        if (Files.exists(path)) {
+            final String instanceId = Files.readString(path, StandardCharsets.US_ASCII).trim();
+            if (!instanceId.isEmpty()) {
+                return instanceId;
+            }
+        }
+        final String instanceId = UUID.randomUUID().toString();
+        Files.writeString(path, instanceId, StandardCharsets.US_ASCII);
+        return instanceId;
+    }
+
+    /**
+     * Reads every entry of every segment on disk, in journal order. A torn last line left by a crash is skipped.
+     *
+     * @return the journaled entries
+     * @throws IOException if a segment cannot be read
+     */
+    public synchronized List<Entry> readAll() throws IOException {
+        final List<Entry> entries = new ArrayList<>();
+        for (Path path : segments()) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.US_ASCII)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    final String[] parts = line.split(" ");
+                    if (parts.length != 3) {
+                        log.warn("Skipping malformed hot stock journal line in {}: '{}'", path.getFileName(), line);
+                        continue;
+                    }
+                    try {
+                        entries.add(new Entry(Long.parseLong(parts[0]), parts[1], Long.parseLong(parts[2])));
+                    } catch (NumberFormatException e) {
+                        log.warn("Skipping malformed hot stock journal line in {}: '{}'", path.getFileName(), line);
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Starts a fresh segment for new entries. Sequences continue after the given value and after every entry on disk.
+     *
+     * @param lastKnownSequence the highest sequence known to have been used, e.g. the highest one applied to the database
+     * @throws IOException if the segment cannot be created
+     */
+    public synchronized void open(final long lastKnownSequence) throws IOException {
+        long highest = lastKnownSequence;
+        for (Entry entry : readAll()) {
+            highest = Math.max(highest, entry.sequence());
+        }
+        this.sequence = highest;
+        openSegment();
+    }
+
+    /**
+     * Appends a stock change. The write reaches the OS page cache before this returns, so it survives a crash
+     * of the process; {@link #force()} makes it survive a crash of the machine.
+     *
+     * @param productId the product whose stock changed
+     * @param quantity  the quantity taken; negative when stock was given back
+     * @return the sequence of the new entry
+     * @throws IOException if the entry cannot be written
+     */
+    public synchronized long append(final String productId, final long quantity) throws IOException {
+        final long next = sequence + 1;
+        final ByteBuffer line = ByteBuffer.wrap((next + " " + productId + " " + quantity + "\n").getBytes(StandardCharsets.US_ASCII));
+        while (line.hasRemaining()) {
+            segment.write(line);
+        }
+        sequence = next;
+        return next;
+    }
+
+    /**
+     * Flushes the current segment to the storage device.
+     *
+     * @throws IOException if the segment cannot be flushed
+     */
+    public synchronized void force() throws IOException {
+        segment.force(false);
+    }
+
+    /**
+     * Closes the current segment and starts a new one. The returned segments hold every entry appended so far
+     * and may be deleted once those entries are in the database.
+     *
+     * @return the segments that are no longer written to
+     * @throws IOException if the segments cannot be switched
+     */
+    public synchronized List<Path> rotate() throws IOException {
+        segment.force(false);
+        segment.close();
+        openSegment();
+        return segments().stream().filter(path -> !path.equals(segmentPath)).toList();
+    }
+
+    /**
+     * Deletes segments whose entries have all been applied to the database.
+     *
+     * @param paths the segments to delete
+     */
+    public void delete(final List<Path> paths) {
+        for (Path path : paths) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Could not delete flushed hot stock journal segment {}: {}", path, e.getMessage());
+            }
+        }
+    }
+
+    public synchronized long lastSequence() {
+        return sequence;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (segment != null) {
+            segment.force(false);
+            segment.close();
+        }
+    }
+
+    private void openSegment() throws IOException {
+        segmentPath = directory.resolve(SEGMENT_PREFIX + String.format("%020d", sequence + 1) + SEGMENT_SUFFIX);
+        segment = FileChannel.open(segmentPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    // Segment names carry the first sequence they may contain, zero-padded so name order is journal order
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> {
+                        final String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+}
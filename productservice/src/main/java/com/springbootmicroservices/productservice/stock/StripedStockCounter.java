@@ -0,0 +1,108 @@
+package com.springbootmicroservices.productservice.stock;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free stock counter named {@link StripedStockCounter} for a single hot product.
+ * The stock is pre-split into per-shard allocations, each on its own cache line, and every thread
+ * takes from its home shard first, so concurrent purchases rarely contend on the same memory word.
+ * Only when no single shard can cover a request are the shards consolidated under a lock.
+ */
+public final class StripedStockCounter {
+
+    // 8 longs = 64 bytes, so neighbouring shards never share a cache line
+    private static final int STRIDE = 8;
+
+    private final int shards;
+    private final AtomicLongArray cells;
+
+    /**
+     * Creates a counter and spreads the initial stock evenly across the shards.
+     *
+     * @param initialStock the stock to serve from memory
+     * @param shards       the number of shards
+     */
+    public StripedStockCounter(final long initialStock, final int shards) {
+        if (initialStock < 0 || shards < 1) {
+            throw new IllegalArgumentException("initialStock must be >= 0 and shards >= 1");
+        }
+        this.shards = shards;
+        this.cells = new AtomicLongArray(shards * STRIDE);
+        final long allocation = initialStock / shards;
+        final long remainder = initialStock % shards;
+        for (int shard = 0; shard < shards; shard++) {
+            cells.set(shard * STRIDE, allocation + (shard < remainder ? 1 : 0));
+        }
+    }
+
+    /**
+     * Takes the given quantity if enough stock is left.
+     *
+     * @param quantity the quantity to take, at least 1
+     * @return {@code true} if the quantity was taken
+     */
+    public boolean tryTake(final long quantity) {
+        final int home = homeShard();
+        for (int i = 0; i < shards; i++) {
+            if (tryTakeFrom((home + i) % shards, quantity)) {
+                return true;
+            }
+        }
+        return takeAcrossShards(home, quantity);
+    }
+
+    /**
+     * Puts stock back, e.g. when a reservation is rolled back.
+     *
+     * @param quantity the quantity to return
+     */
+    public void give(final long quantity) {
+        cells.addAndGet(homeShard() * STRIDE, quantity);
+    }
+
+    /**
+     * Returns the stock left. The value is exact only when no take or give is in flight.
+     *
+     * @return the sum of all shards
+     */
+    public long available() {
+        long sum = 0;
+        for (int shard = 0; shard < shards; shard++) {
+            sum += cells.get(shard * STRIDE);
+        }
+        return sum;
+    }
+
+    public int shards() {
+        return shards;
+    }
+
+    private boolean tryTakeFrom(final int shard, final long quantity) {
+        final int index = shard * STRIDE;
+        long current = cells.get(index);
+        while (current >= quantity) {
+            if (cells.compareAndSet(index, current, current - quantity)) {
+                return true;
+            }
+            current = cells.get(index);
+        }
+        return false;
+    }
+
+    // Slow path: drain every shard and serve the request from the combined stock. Serialised so two
+    // consolidations cannot hide stock from each other; the remainder is parked on the caller's home shard.
+    private synchronized boolean takeAcrossShards(final int home, final long quantity) {
+        long drained = 0;
+        for (int shard = 0; shard < shards; shard++) {
+            drained += cells.getAndSet(shard * STRIDE, 0);
+        }
+        final boolean taken = drained >= quantity;
+        cells.addAndGet(home * STRIDE, taken ? drained - quantity : drained);
+        return taken;
+    }
+
+    private int homeShard() {
+        return (int) (Thread.currentThread().threadId() % shards);
+    }
+
+}
@@ -9,6 +9,7 @@ import com.springbootmicroservices.productservice.model.product.dto.request.Prod
 import com.springbootmicroservices.productservice.service.ProductCreateService;
 import com.springbootmicroservices.productservice.service.ProductDeleteService;
 import com.springbootmicroservices.productservice.service.ProductReadService;
+import com.springbootmicroservices.productservice.service.ProductStockService;
 import com.springbootmicroservices.productservice.service.ProductUpdateService;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -38,6 +39,8 @@ class ProductControllerTest extends AbstractRestControllerTest {
     @MockBean
     private ProductUpdateService productUpdateService;
     @MockBean
+    private ProductStockService productStockService;
+    @MockBean
     private ProductDeleteService productDeleteService;
 
     @Test
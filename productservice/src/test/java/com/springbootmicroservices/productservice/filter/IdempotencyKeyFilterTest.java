@@ -0,0 +1,215 @@
+package com.springbootmicroservices.productservice.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.springbootmicroservices.productservice.base.AbstractBaseServiceTest;
+import com.springbootmicroservices.productservice.config.IdempotencyConfigurationParameter;
+import com.springbootmicroservices.productservice.model.common.IdempotentResponse;
+import com.springbootmicroservices.productservice.service.IdempotencyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IdempotencyKeyFilterTest extends AbstractBaseServiceTest {
+
+    private static final String PURCHASE_URI = "/api/v1/products/0b6c9a5e-1a1b-4c2d-8e3f-000000000001/purchase";
+    private static final String BODY = "{\"quantity\":2}";
+    private static final byte[] RESPONSE = "{\"isSuccess\":true,\"response\":{\"amount\":8}}".getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private IdempotencyConfigurationParameter idempotencyConfigurationParameter;
+
+    private IdempotencyKeyFilter idempotencyKeyFilter;
+
+    @BeforeEach
+    void setUp() {
+        when(idempotencyConfigurationParameter.getPaths()).thenReturn(List.of("/api/v1/products/*/purchase"));
+        when(idempotencyConfigurationParameter.getInFlightTimeout()).thenReturn(Duration.ofSeconds(5));
+        idempotencyKeyFilter = new IdempotencyKeyFilter(idempotencyService, idempotencyConfigurationParameter,
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    void doFilter_WhenKeyIsNew_ShouldExecuteOnceAndStoreTheResponse() throws Exception {
+
+        // Given
+        when(idempotencyService.findCompleted(anyString())).thenReturn(Optional.empty());
+        when(idempotencyService.claim(anyString(), anyString())).thenReturn(true);
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        idempotencyKeyFilter.doFilter(purchaseRequest("key-1", BODY), response, (request, servletResponse) -> {
+            assertEquals(BODY, StreamUtils.copyToString(request.getInputStream(), StandardCharsets.UTF_8));
+            writeProductResponse((HttpServletResponse) servletResponse);
+        });
+
+        // Then
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertArrayEquals(RESPONSE, response.getContentAsByteArray());
+
+        final ArgumentCaptor<IdempotentResponse> stored = ArgumentCaptor.forClass(IdempotentResponse.class);
+        verify(idempotencyService).complete(anyString(), stored.capture());
+        assertEquals(HttpStatus.OK.value(), stored.getValue().status());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, stored.getValue().contentType());
+        assertArrayEquals(RESPONSE, stored.getValue().body());
+    }
+
+    @Test
+    void doFilter_WhenKeyIsCompleted_ShouldReplayTheStoredResponseWithoutExecuting() throws Exception {
+
+        // Given
+        final String requestHash = firstRequestHash("key-1", BODY);
+        when(idempotencyService.findCompleted(anyString()))
+                .thenReturn(Optional.of(new IdempotentResponse(requestHash, 200, MediaType.APPLICATION_JSON_VALUE, RESPONSE)));
+        final FilterChain filterChain = mock(FilterChain.class);
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        idempotencyKeyFilter.doFilter(purchaseRequest("key-1", BODY), response, filterChain);
+
+        // Then
+        verifyNoInteractions(filterChain);
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getContentType());
+        assertEquals("true", response.getHeader(IdempotencyKeyFilter.IDEMPOTENT_REPLAYED_HEADER));
+        assertArrayEquals(RESPONSE, response.getContentAsByteArray());
+    }
+
+    @Test
+    void doFilter_WhenKeyWasUsedForAnotherBody_ShouldRejectWithoutExecuting() throws Exception {
+
+        // Given
+        final String requestHash = firstRequestHash("key-1", BODY);
+        when(idempotencyService.findCompleted(anyString()))
+                .thenReturn(Optional.of(new IdempotentResponse(requestHash, 200, MediaType.APPLICATION_JSON_VALUE, RESPONSE)));
+        final FilterChain filterChain = mock(FilterChain.class);
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        idempotencyKeyFilter.doFilter(purchaseRequest("key-1", "{\"quantity\":3}"), response, filterChain);
+
+        // Then
+        verifyNoInteractions(filterChain);
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY.value(), response.getStatus());
+    }
+
+    @Test
+    void doFilter_WhenDuplicateArrivesWhileFirstIsRunning_ShouldWaitAndReplayTheFirstResponse() throws Exception {
+
+        // Given
+        when(idempotencyService.findCompleted(anyString())).thenReturn(Optional.empty());
+        when(idempotencyService.claim(anyString(), anyString())).thenReturn(true);
+        final CountDownLatch firstStarted = new CountDownLatch(1);
+        final CountDownLatch releaseFirst = new CountDownLatch(1);
+        final FilterChain duplicateChain = mock(FilterChain.class);
+        final MockHttpServletResponse firstResponse = new MockHttpServletResponse();
+        final MockHttpServletResponse duplicateResponse = new MockHttpServletResponse();
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+        try {
+            // When
+            final Future<?> first = executorService.submit(() -> {
+                idempotencyKeyFilter.doFilter(purchaseRequest("key-1", BODY), firstResponse, (request, servletResponse) -> {
+                    firstStarted.countDown();
+                    try {
+                        releaseFirst.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    }
+                    writeProductResponse((HttpServletResponse) servletResponse);
+                });
+                return null;
+            });
+            assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+            final Future<?> duplicate = executorService.submit(() -> {
+                idempotencyKeyFilter.doFilter(purchaseRequest("key-1", BODY), duplicateResponse, duplicateChain);
+                return null;
+            });
+            releaseFirst.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            duplicate.get(5, TimeUnit.SECONDS);
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        // Then
+        verifyNoInteractions(duplicateChain);
+        verify(idempotencyService, times(1)).claim(anyString(), anyString());
+        assertArrayEquals(RESPONSE, firstResponse.getContentAsByteArray());
+        assertArrayEquals(RESPONSE, duplicateResponse.getContentAsByteArray());
+    }
+
+    @Test
+    void doFilter_WhenRequestHasNoKey_ShouldPassThrough() throws Exception {
+
+        // Given
+        final MockHttpServletRequest request = purchaseRequest(null, BODY);
+        final FilterChain filterChain = mock(FilterChain.class);
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        idempotencyKeyFilter.doFilter(request, response, filterChain);
+
+        // Then
+        verify(filterChain).doFilter(eq(request), any());
+        verifyNoInteractions(idempotencyService);
+    }
+
+    private MockHttpServletRequest purchaseRequest(final String idempotencyKey, final String body) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", PURCHASE_URI);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        if (idempotencyKey != null) {
+            request.addHeader(IdempotencyKeyFilter.IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        }
+        return request;
+    }
+
+    // Runs the key through the filter once to learn the request hash it stores
+    private String firstRequestHash(final String idempotencyKey, final String body) throws Exception {
+        final IdempotencyService recorder = mock(IdempotencyService.class);
+        when(recorder.findCompleted(anyString())).thenReturn(Optional.empty());
+        when(recorder.claim(anyString(), anyString())).thenReturn(true);
+        new IdempotencyKeyFilter(recorder, idempotencyConfigurationParameter, new ObjectMapper())
+                .doFilter(purchaseRequest(idempotencyKey, body), new MockHttpServletResponse(),
+                        (request, servletResponse) -> writeProductResponse((HttpServletResponse) servletResponse));
+        final ArgumentCaptor<IdempotentResponse> stored = ArgumentCaptor.forClass(IdempotentResponse.class);
+        verify(recorder).complete(anyString(), stored.capture());
+        return stored.getValue().requestHash();
+    }
+
+    private static void writeProductResponse(final HttpServletResponse httpServletResponse) throws IOException {
+        httpServletResponse.setStatus(HttpStatus.OK.value());
+        httpServletResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        httpServletResponse.getOutputStream().write(RESPONSE);
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.springbootmicroservices.productservice.listener;
+
+import com.springbootmicroservices.productservice.base.AbstractBaseServiceTest;
+import com.springbootmicroservices.productservice.client.ApiGatewayClient;
+import com.springbootmicroservices.productservice.config.GatewayConfigurationParameter;
+import com.springbootmicroservices.productservice.model.product.event.ProductChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ProductChangedEventListenerTest extends AbstractBaseServiceTest {
+
+    private static final URI GATEWAY_A = URI.create("http://gateway-a:1190");
+    private static final URI GATEWAY_B = URI.create("http://gateway-b:1190");
+
+    @Mock
+    private ApiGatewayClient apiGatewayClient;
+
+    private ProductChangedEventListener productChangedEventListener;
+
+    @BeforeEach
+    void setUp() {
+        productChangedEventListener = new ProductChangedEventListener(apiGatewayClient,
+                new GatewayConfigurationParameter(List.of(GATEWAY_A, GATEWAY_B), 10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productChangedEventListener.shutdown();
+    }
+
+    @Test
+    void purgeGatewayResponseCache_ShouldPurgeOnlyTheChangedProductOnEveryGateway() {
+        // When
+        productChangedEventListener.purgeGatewayResponseCache(new ProductChangedEvent("product-1"));
+
+        // Then
+        verify(apiGatewayClient, timeout(1000)).purgeResponseCache(GATEWAY_A, "/api/v1/products/product-1?");
+        verify(apiGatewayClient, timeout(1000)).purgeResponseCache(GATEWAY_B, "/api/v1/products/product-1?");
+        verifyNoMoreInteractions(apiGatewayClient);
+    }
+
+    @Test
+    void purgeGatewayResponseCache_ShouldNotWaitForTheGateways() throws InterruptedException {
+        // Given
+        CountDownLatch gatewayResponds = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            gatewayResponds.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(apiGatewayClient).purgeResponseCache(any(), any());
+
+        // When
+        long start = System.nanoTime();
+        productChangedEventListener.purgeGatewayResponseCache(new ProductChangedEvent("product-1"));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        gatewayResponds.countDown();
+
+        // Then
+        assertTrue(elapsedMillis < 1000);
+        verify(apiGatewayClient, timeout(1000)).purgeResponseCache(eq(GATEWAY_B), any());
+    }
+
+    @Test
+    void purgeGatewayResponseCache_WhenOneGatewayFails_ShouldStillPurgeTheOthers() {
+        // Given
+        doThrow(new IllegalStateException("connection refused")).when(apiGatewayClient).purgeResponseCache(eq(GATEWAY_A), any());
+
+        // When
+        productChangedEventListener.purgeGatewayResponseCache(new ProductChangedEvent("product-1"));
+
+        // Then
+        verify(apiGatewayClient, timeout(1000)).purgeResponseCache(GATEWAY_B, "/api/v1/products/product-1?");
+    }
+
+}
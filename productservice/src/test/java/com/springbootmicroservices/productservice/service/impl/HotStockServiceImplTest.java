@@ -0,0 +1,249 @@
+package com.springbootmicroservices.productservice.service.impl;
+
+import com.springbootmicroservices.productservice.base.AbstractBaseServiceTest;
+import com.springbootmicroservices.productservice.exception.HotStockEnabledException;
+import com.springbootmicroservices.productservice.model.product.entity.HotStockShareEntity;
+import com.springbootmicroservices.productservice.model.product.entity.ProductEntity;
+import com.springbootmicroservices.productservice.model.product.enums.HotStockReservationResult;
+import com.springbootmicroservices.productservice.model.product.event.ProductStockChangedEvent;
+import com.springbootmicroservices.productservice.repository.HotStockShareRepository;
+import com.springbootmicroservices.productservice.repository.ProductRepository;
+import com.springbootmicroservices.productservice.stock.HotStockJournal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class HotStockServiceImplTest extends AbstractBaseServiceTest {
+
+    private static final String PRODUCT_ID = "0b6c9a5e-1a1b-4c2d-8e3f-000000000001";
+
+    @TempDir
+    Path journalDirectory;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private HotStockShareRepository hotStockShareRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private HotStockServiceImpl hotStockService;
+
+    private String instanceId;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(new SimpleTransactionStatus()));
+        doAnswer(invocation -> {
+            invocation.<Consumer<SimpleTransactionStatus>>getArgument(0).accept(new SimpleTransactionStatus());
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(productRepository.findByIdForUpdate(PRODUCT_ID))
+                .thenReturn(Optional.of(ProductEntity.builder().id(PRODUCT_ID).amount(BigDecimal.valueOf(5)).build()));
+        when(hotStockShareRepository.applyFlush(any(), any(), any(), anyLong(), any())).thenReturn(1);
+
+        hotStockService = newService();
+        hotStockService.recover();
+        instanceId = new HotStockJournal(journalDirectory).instanceId();
+    }
+
+    @Test
+    void tryReserve_WhenProductIsNotHot_ShouldLeaveItToTheDatabase() {
+        // When
+        HotStockReservationResult result = hotStockService.tryReserve(PRODUCT_ID, 1);
+
+        // Then
+        assertEquals(HotStockReservationResult.NOT_HOT, result);
+        assertFalse(hotStockService.isHot(PRODUCT_ID));
+    }
+
+    @Test
+    void enable_ShouldMoveADisjointShareOutOfTheDatabase() {
+        // When
+        hotStockService.enable(PRODUCT_ID, 3);
+
+        // Then: 3 units move to this instance's share, 2 stay in the row for other instances
+        ArgumentCaptor<ProductEntity> product = ArgumentCaptor.forClass(ProductEntity.class);
+        verify(productRepository).save(product.capture());
+        assertEquals(BigDecimal.valueOf(2), product.getValue().getAmount());
+
+        ArgumentCaptor<HotStockShareEntity> share = ArgumentCaptor.forClass(HotStockShareEntity.class);
+        verify(hotStockShareRepository).save(share.capture());
+        assertEquals(instanceId, share.getValue().getInstanceId());
+        assertEquals(BigDecimal.valueOf(3), share.getValue().getAmount());
+        assertEquals(Optional.of(BigDecimal.valueOf(3)), hotStockService.getAvailableAmount(PRODUCT_ID));
+    }
+
+    @Test
+    void enable_WhenAShareOfAnEarlierRunIsUnrecovered_ShouldRefuse() {
+        // Given
+        when(hotStockShareRepository.findByProductIdAndInstanceId(PRODUCT_ID, instanceId))
+                .thenReturn(Optional.of(HotStockShareEntity.builder().productId(PRODUCT_ID).build()));
+
+        // When & Then
+        assertThrows(HotStockEnabledException.class, () -> hotStockService.enable(PRODUCT_ID, null));
+        assertFalse(hotStockService.isHot(PRODUCT_ID));
+    }
+
+    @Test
+    void tryReserve_WhenHot_ShouldServeFromMemoryAndFlushTheSoldQuantityToTheShare() {
+        // Given
+        hotStockService.enable(PRODUCT_ID, null);
+
+        // When
+        assertEquals(HotStockReservationResult.RESERVED, hotStockService.tryReserve(PRODUCT_ID, 3));
+        assertEquals(HotStockReservationResult.INSUFFICIENT_STOCK, hotStockService.tryReserve(PRODUCT_ID, 3));
+        hotStockService.release(PRODUCT_ID, 1);
+        hotStockService.flush();
+
+        // Then: 3 taken, 1 given back, in journal entries 1 and 2
+        assertEquals(Optional.of(BigDecimal.valueOf(3)), hotStockService.getAvailableAmount(PRODUCT_ID));
+        verify(hotStockShareRepository).applyFlush(eq(PRODUCT_ID), eq(instanceId), eq(BigDecimal.valueOf(2)), eq(2L), any());
+        verify(productRepository, never()).decrementAmountIfAvailable(any(), any(), any());
+    }
+
+    @Test
+    void flush_WhenProductSellsOut_ShouldAnnounceItOnce() {
+        // Given
+        hotStockService.enable(PRODUCT_ID, null);
+        hotStockService.tryReserve(PRODUCT_ID, 5);
+
+        // When
+        hotStockService.flush();
+        hotStockService.flush();
+
+        // Then
+        verify(applicationEventPublisher, times(1)).publishEvent(new ProductStockChangedEvent(List.of(PRODUCT_ID)));
+    }
+
+    @Test
+    void flush_WhenDatabaseFails_ShouldRetryTheSameQuantityOnTheNextFlush() {
+        // Given
+        hotStockService.enable(PRODUCT_ID, null);
+        hotStockService.tryReserve(PRODUCT_ID, 2);
+        when(hotStockShareRepository.applyFlush(any(), any(), any(), anyLong(), any()))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(1);
+
+        // When
+        hotStockService.flush();
+        hotStockService.flush();
+
+        // Then
+        verify(hotStockShareRepository, times(2)).applyFlush(eq(PRODUCT_ID), eq(instanceId), eq(BigDecimal.valueOf(2)), eq(1L), any());
+    }
+
+    @Test
+    void flush_WhenNoShareRowIsUpdated_ShouldKeepTheSaleAndTheJournalForTheNextFlush() throws IOException {
+        // Given
+        hotStockService.enable(PRODUCT_ID, null);
+        hotStockService.tryReserve(PRODUCT_ID, 2);
+        when(hotStockShareRepository.applyFlush(any(), any(), any(), anyLong(), any())).thenReturn(0, 1);
+
+        // When
+        hotStockService.flush();
+
+        // Then
+        assertFalse(new HotStockJournal(journalDirectory).readAll().isEmpty());
+        assertEquals(BigDecimal.valueOf(2), hotStockService.getStatuses().get(0).getPendingFlushAmount());
+
+        // When
+        hotStockService.flush();
+
+        // Then
+        verify(hotStockShareRepository, times(2)).applyFlush(eq(PRODUCT_ID), eq(instanceId), eq(BigDecimal.valueOf(2)), eq(1L), any());
+        assertEquals(BigDecimal.ZERO, hotStockService.getStatuses().get(0).getPendingFlushAmount());
+    }
+
+    @Test
+    void disable_ShouldFlushAndHandTheUnsoldShareBackToTheDatabase() {
+        // Given
+        HotStockShareEntity share = HotStockShareEntity.builder()
+                .id("share").productId(PRODUCT_ID).instanceId(instanceId).amount(BigDecimal.valueOf(4)).journalSeq(1L).build();
+        when(hotStockShareRepository.findByProductIdAndInstanceId(PRODUCT_ID, instanceId))
+                .thenReturn(Optional.empty(), Optional.of(share));
+        hotStockService.enable(PRODUCT_ID, null);
+        hotStockService.tryReserve(PRODUCT_ID, 1);
+
+        // When
+        hotStockService.disable(PRODUCT_ID);
+
+        // Then
+        verify(hotStockShareRepository).applyFlush(eq(PRODUCT_ID), eq(instanceId), eq(BigDecimal.ONE), eq(1L), any());
+        verify(hotStockShareRepository).delete(share);
+        verify(productRepository).incrementAmount(eq(PRODUCT_ID), eq(BigDecimal.valueOf(4)), any());
+        assertEquals(HotStockReservationResult.NOT_HOT, hotStockService.tryReserve(PRODUCT_ID, 1));
+    }
+
+    @Test
+    void recover_ShouldApplyNewerJournalEntriesToTheShareAndReturnTheRest() throws IOException {
+        // Given: entry 1 reached the share before the crash, entries 2 and 3 did not
+        hotStockService.enable(PRODUCT_ID, null);
+        hotStockService.tryReserve(PRODUCT_ID, 1);
+        hotStockService.tryReserve(PRODUCT_ID, 2);
+        hotStockService.tryReserve(PRODUCT_ID, 1);
+        when(hotStockShareRepository.findByInstanceId(instanceId)).thenReturn(List.of(HotStockShareEntity.builder()
+                .id("share").productId(PRODUCT_ID).instanceId(instanceId).amount(BigDecimal.valueOf(4)).journalSeq(1L).build()));
+
+        // When: a new instance starts on the same journal
+        HotStockServiceImpl restarted = newService();
+        restarted.recover();
+
+        // Then: 3 more units were sold, the 1 unit left goes back to the product
+        verify(hotStockShareRepository).applyFlush(eq(PRODUCT_ID), eq(instanceId), eq(BigDecimal.valueOf(3)), eq(3L), any());
+        verify(hotStockShareRepository).deleteById("share");
+        verify(productRepository).incrementAmount(eq(PRODUCT_ID), eq(BigDecimal.ONE), any());
+        assertFalse(restarted.isHot(PRODUCT_ID));
+        assertTrue(new HotStockJournal(journalDirectory).readAll().isEmpty());
+    }
+
+    @Test
+    void recover_WhenTheShareCannotBeUpdated_ShouldKeepTheShareAndTheJournal() throws IOException {
+        // Given
+        hotStockService.enable(PRODUCT_ID, null);
+        hotStockService.tryReserve(PRODUCT_ID, 2);
+        when(hotStockShareRepository.findByInstanceId(instanceId)).thenReturn(List.of(HotStockShareEntity.builder()
+                .id("share").productId(PRODUCT_ID).instanceId(instanceId).amount(BigDecimal.ONE).journalSeq(0L).build()));
+        when(hotStockShareRepository.applyFlush(any(), any(), any(), anyLong(), any())).thenReturn(0);
+
+        // When
+        HotStockServiceImpl restarted = newService();
+        restarted.recover();
+
+        // Then
+        verify(hotStockShareRepository, never()).deleteById(any());
+        verify(productRepository, never()).incrementAmount(any(), any(), any());
+        assertFalse(new HotStockJournal(journalDirectory).readAll().isEmpty());
+    }
+
+    private HotStockServiceImpl newService() throws IOException {
+        return new HotStockServiceImpl(productRepository, hotStockShareRepository, transactionTemplate, applicationEventPublisher,
+                new HotStockJournal(journalDirectory), 2);
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.springbootmicroservices.productservice.service.impl;
+
+import com.springbootmicroservices.productservice.base.AbstractBaseServiceTest;
+import com.springbootmicroservices.productservice.config.IdempotencyConfigurationParameter;
+import com.springbootmicroservices.productservice.model.common.IdempotentResponse;
+import com.springbootmicroservices.productservice.model.common.entity.IdempotencyRecordEntity;
+import com.springbootmicroservices.productservice.model.common.enums.IdempotencyRecordStatus;
+import com.springbootmicroservices.productservice.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IdempotencyServiceImplTest extends AbstractBaseServiceTest {
+
+    private static final String KEY_HASH = "6f1ed002ab5595859014ebf0951522d9";
+    private static final byte[] BODY = "{\"isSuccess\":true}".getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private IdempotencyServiceImpl idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        final IdempotencyConfigurationParameter idempotencyConfigurationParameter = new IdempotencyConfigurationParameter(
+                List.of("/api/v1/products/*/purchase"), Duration.ofHours(24), Duration.ofMinutes(10), 100,
+                Duration.ofSeconds(30), 1024);
+        idempotencyService = new IdempotencyServiceImpl(idempotencyRecordRepository, idempotencyConfigurationParameter);
+    }
+
+    @Test
+    void complete_WhenResponseIsStored_ShouldServeLaterLookupsFromMemory() {
+
+        // Given
+        when(idempotencyRecordRepository.complete(eq(KEY_HASH), eq(IdempotencyRecordStatus.COMPLETED),
+                eq(IdempotencyRecordStatus.IN_PROGRESS), eq(201), anyString(), any())).thenReturn(1);
+
+        // When
+        idempotencyService.complete(KEY_HASH, new IdempotentResponse("hash", 201, "application/json", BODY));
+        final Optional<IdempotentResponse> found = idempotencyService.findCompleted(KEY_HASH);
+
+        // Then
+        assertTrue(found.isPresent());
+        assertArrayEquals(BODY, found.get().body());
+        verify(idempotencyRecordRepository, never()).findByKeyHashAndStatus(anyString(), any());
+    }
+
+    @Test
+    void complete_WhenResponseIsServerError_ShouldReleaseTheKeyInsteadOfStoringIt() {
+
+        // When
+        idempotencyService.complete(KEY_HASH, new IdempotentResponse("hash", 503, "application/json", BODY));
+
+        // Then
+        verify(idempotencyRecordRepository).deleteByKeyHashAndStatus(KEY_HASH, IdempotencyRecordStatus.IN_PROGRESS);
+        verify(idempotencyRecordRepository, never()).complete(anyString(), any(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void claim_WhenKeyIsHeldByAnotherRequest_ShouldOnlyTakeOverAnAbandonedClaim() {
+
+        // Given
+        when(idempotencyRecordRepository.insertIfAbsent(eq(KEY_HASH), anyString(), any(), any())).thenReturn(0);
+        when(idempotencyRecordRepository.takeOver(eq(KEY_HASH), anyString(), eq(IdempotencyRecordStatus.IN_PROGRESS), any(), any()))
+                .thenReturn(0);
+
+        // When
+        final boolean claimed = idempotencyService.claim(KEY_HASH, "hash");
+
+        // Then
+        assertFalse(claimed);
+    }
+
+    @Test
+    void findCompleted_WhenRecordIsInDatabase_ShouldReturnItsResponse() {
+
+        // Given
+        final IdempotencyRecordEntity idempotencyRecord = IdempotencyRecordEntity.builder()
+                .keyHash(KEY_HASH)
+                .requestHash("hash")
+                .status(IdempotencyRecordStatus.COMPLETED)
+                .responseStatus(200)
+                .responseContentType("application/json")
+                .responseBody(BODY)
+                .lockedAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+        when(idempotencyRecordRepository.findByKeyHashAndStatus(KEY_HASH, IdempotencyRecordStatus.COMPLETED))
+                .thenReturn(Optional.of(idempotencyRecord));
+
+        // When
+        final Optional<IdempotentResponse> found = idempotencyService.findCompleted(KEY_HASH);
+        idempotencyService.findCompleted(KEY_HASH);
+
+        // Then
+        assertTrue(found.isPresent());
+        assertEquals(200, found.get().status());
+        assertArrayEquals(BODY, found.get().body());
+        verify(idempotencyRecordRepository, times(1)).findByKeyHashAndStatus(KEY_HASH, IdempotencyRecordStatus.COMPLETED);
+    }
+
+}
@@ -11,6 +11,7 @@ import com.springbootmicroservices.productservice.repository.ProductRepository;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 
@@ -26,6 +27,9 @@ class ProductCreateServiceImplTest extends AbstractBaseServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
     private final ProductCreateRequestToProductEntityMapper productCreateRequestToProductEntityMapper =
             ProductCreateRequestToProductEntityMapper.initialize();
 
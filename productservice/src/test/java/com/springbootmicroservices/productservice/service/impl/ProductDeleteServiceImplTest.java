@@ -4,9 +4,11 @@ import com.springbootmicroservices.productservice.base.AbstractBaseServiceTest;
 import com.springbootmicroservices.productservice.exception.ProductNotFoundException;
 import com.springbootmicroservices.productservice.model.product.entity.ProductEntity;
 import com.springbootmicroservices.productservice.repository.ProductRepository;
+import com.springbootmicroservices.productservice.service.HotStockService;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
 
@@ -22,6 +24,12 @@ class ProductDeleteServiceImplTest extends AbstractBaseServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private HotStockService hotStockService;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
     @Test
     void deleteProductById_WhenProductExists_ShouldDeleteSuccessfully() {
         // Given
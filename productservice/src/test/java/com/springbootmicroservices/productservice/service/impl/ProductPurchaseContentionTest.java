@@ -0,0 +1,111 @@
+package com.springbootmicroservices.productservice.service.impl;
+
+import com.springbootmicroservices.productservice.base.AbstractTestContainerConfiguration;
+import com.springbootmicroservices.productservice.client.ApiGatewayClient;
+import com.springbootmicroservices.productservice.client.SearchServiceClient;
+import com.springbootmicroservices.productservice.client.UserServiceClient;
+import com.springbootmicroservices.productservice.exception.InsufficientStockException;
+import com.springbootmicroservices.productservice.model.product.entity.ProductEntity;
+import com.springbootmicroservices.productservice.repository.ProductRepository;
+import com.springbootmicroservices.productservice.service.HotStockService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires thousands of concurrent purchases at one product against a real PostgreSQL database
+ * to check that the conditional stock decrement never oversells, and logs the achieved throughput.
+ */
+@Slf4j
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Each purchase must commit on its own, as in production
+@Import(ProductUpdateServiceImpl.class)
+class ProductPurchaseContentionTest extends AbstractTestContainerConfiguration {
+
+    private static final int INITIAL_STOCK = 1_000;
+    private static final int PURCHASES = 5_000;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private ProductUpdateServiceImpl productUpdateService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @MockBean
+    private SearchServiceClient searchServiceClient;
+
+    @MockBean
+    private ApiGatewayClient apiGatewayClient;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    @MockBean
+    private HotStockService hotStockService; // Not in hot mode, so every purchase goes to the database
+
+    @Test
+    void processPurchase_UnderHeavyContention_ShouldNeverOversell() throws InterruptedException {
+        // Given
+        ProductEntity product = productRepository.save(ProductEntity.builder()
+                .name("Contended product " + System.nanoTime())
+                .amount(BigDecimal.valueOf(INITIAL_STOCK))
+                .unitPrice(BigDecimal.TEN)
+                .build());
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        for (int i = 0; i < PURCHASES; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    productUpdateService.processPurchase(product.getId(), 1);
+                    succeeded.incrementAndGet();
+                } catch (InsufficientStockException e) {
+                    rejected.incrementAndGet();
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                }
+            });
+        }
+
+        // When
+        long startedAt = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        long elapsedNanos = System.nanoTime() - startedAt;
+
+        // Then
+        BigDecimal remaining = productRepository.findAmountById(product.getId()).orElseThrow();
+        log.info("{} purchases on {} threads in {} ms ({} purchases/s): {} succeeded, {} rejected",
+                PURCHASES, THREADS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                PURCHASES * 1_000_000_000L / elapsedNanos, succeeded.get(), rejected.get());
+
+        assertEquals(0, failed.get());
+        assertEquals(INITIAL_STOCK, succeeded.get());
+        assertEquals(PURCHASES - INITIAL_STOCK, rejected.get());
+        assertEquals(0, remaining.compareTo(BigDecimal.ZERO));
+    }
+
+}
@@ -10,6 +10,7 @@ import com.springbootmicroservices.productservice.model.product.entity.ProductEn
 import com.springbootmicroservices.productservice.model.product.mapper.ListProductEntityToListProductMapper;
 import com.springbootmicroservices.productservice.model.product.mapper.ProductEntityToProductMapper;
 import com.springbootmicroservices.productservice.repository.ProductRepository;
+import com.springbootmicroservices.productservice.service.HotStockService;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -20,7 +21,9 @@ import org.springframework.data.jpa.domain.Specification;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,6 +37,9 @@ class ProductReadServiceImplTest extends AbstractBaseServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private HotStockService hotStockService;
+
     private final ProductEntityToProductMapper productEntityToProductMapper = ProductEntityToProductMapper.initialize();
     private final ListProductEntityToListProductMapper listProductEntityToListProductMapper = ListProductEntityToListProductMapper.initialize();
 
@@ -99,4 +105,23 @@ class ProductReadServiceImplTest extends AbstractBaseServiceTest {
         // Then
         assertThrows(ProductNotFoundException.class, () -> productReadService.getProducts(pagingRequest));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getProductsByIds_WithDuplicatesAndUnknownIds_ShouldQueryOnceAndReturnFoundProductsInRequestOrder() {
+        // Given
+        ProductEntity first = new ProductEntity();
+        first.setId("1");
+        ProductEntity second = new ProductEntity();
+        second.setId("2");
+        when(productRepository.findAllById(Set.of("1", "2", "3"))).thenReturn(List.of(second, first));
+
+        // When
+        Map<String, Product> result = productReadService.getProductsByIds(List.of("2", "1", "2", "3"));
+
+        // Then
+        assertEquals(List.of("2", "1"), List.copyOf(result.keySet()));
+        assertEquals("1", result.get("1").getId());
+        assertFalse(result.containsKey("3"));
+        verify(productRepository, times(1)).findAllById(any());
+    }
+}
@@ -0,0 +1,366 @@
+package com.springbootmicroservices.productservice.service.impl;
+
+import com.springbootmicroservices.productservice.base.AbstractBaseServiceTest;
+import com.springbootmicroservices.productservice.config.StockHoldConfigurationParameter;
+import com.springbootmicroservices.productservice.exception.StockHoldStateException;
+import com.springbootmicroservices.productservice.model.product.dto.request.StockHoldRequest;
+import com.springbootmicroservices.productservice.model.product.dto.request.StockReservationLineRequest;
+import com.springbootmicroservices.productservice.model.product.dto.request.StockReservationRequest;
+import com.springbootmicroservices.productservice.model.product.dto.response.StockHoldResponse;
+import com.springbootmicroservices.productservice.model.product.dto.response.StockReservationResponse;
+import com.springbootmicroservices.productservice.model.product.entity.StockHoldEntity;
+import com.springbootmicroservices.productservice.model.product.enums.StockHoldStatus;
+import com.springbootmicroservices.productservice.model.product.enums.StockReservationStatus;
+import com.springbootmicroservices.productservice.model.product.event.ProductStockChangedEvent;
+import com.springbootmicroservices.productservice.repository.ProductRepository;
+import com.springbootmicroservices.productservice.repository.StockHoldRepository;
+import com.springbootmicroservices.productservice.service.HotStockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ProductStockServiceImplTest extends AbstractBaseServiceTest {
+
+    private static final String PRODUCT_A = "0b6c9a5e-1a1b-4c2d-8e3f-000000000001";
+    private static final String PRODUCT_B = "0b6c9a5e-1a1b-4c2d-8e3f-000000000002";
+
+    @InjectMocks
+    private ProductStockServiceImpl productStockService;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private HotStockService hotStockService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    private StockHoldRepository stockHoldRepository;
+
+    @Mock
+    private StockHoldConfigurationParameter stockHoldConfigurationParameter;
+
+    private SimpleTransactionStatus transactionStatus;
+
+    @BeforeEach
+    void setUp() {
+        transactionStatus = new SimpleTransactionStatus();
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(transactionStatus));
+        when(stockHoldConfigurationParameter.getDefaultTtl()).thenReturn(Duration.ofMinutes(30));
+        when(stockHoldConfigurationParameter.getMaxTtl()).thenReturn(Duration.ofHours(1));
+        when(stockHoldConfigurationParameter.getSweepBatchSize()).thenReturn(2);
+    }
+
+    @Test
+    void reserveStock_WhenAllLinesHaveStock_ShouldDecrementInIdOrderAndPublishOneEvent() {
+        // Given
+        StockReservationRequest request = reservationOf(line(PRODUCT_B, 2), line(PRODUCT_A, 1), line(PRODUCT_B, 3));
+        when(productRepository.decrementAmountIfAvailable(any(), any(), any())).thenReturn(1);
+        when(productRepository.findAmountById(PRODUCT_A)).thenReturn(Optional.of(BigDecimal.valueOf(9)));
+        when(productRepository.findAmountById(PRODUCT_B)).thenReturn(Optional.of(BigDecimal.valueOf(5)));
+
+        // When
+        StockReservationResponse response = productStockService.reserveStock(request);
+
+        // Then
+        assertTrue(response.isReserved());
+        assertFalse(transactionStatus.isRollbackOnly());
+        assertEquals(3, response.getLines().size());
+        assertEquals(PRODUCT_B, response.getLines().get(0).getProductId());
+        assertTrue(response.getLines().stream().allMatch(line -> line.getStatus() == StockReservationStatus.RESERVED));
+
+        InOrder inOrder = inOrder(productRepository);
+        inOrder.verify(productRepository).decrementAmountIfAvailable(eq(PRODUCT_A), eq(BigDecimal.valueOf(1)), any());
+        inOrder.verify(productRepository).decrementAmountIfAvailable(eq(PRODUCT_B), eq(BigDecimal.valueOf(5)), any());
+        verify(applicationEventPublisher).publishEvent(new ProductStockChangedEvent(List.of(PRODUCT_A, PRODUCT_B)));
+    }
+
+    @Test
+    void reserveStock_WhenOneLineLacksStock_ShouldRollBackAndReportEveryLine() {
+        // Given
+        StockReservationRequest request = reservationOf(line(PRODUCT_A, 1), line(PRODUCT_B, 10));
+        when(productRepository.decrementAmountIfAvailable(eq(PRODUCT_A), any(), any())).thenReturn(1);
+        when(productRepository.decrementAmountIfAvailable(eq(PRODUCT_B), any(), any())).thenReturn(0);
+        when(productRepository.findAmountById(PRODUCT_A)).thenReturn(Optional.of(BigDecimal.valueOf(4)));
+        when(productRepository.findAmountById(PRODUCT_B)).thenReturn(Optional.of(BigDecimal.valueOf(3)));
+
+        // When
+        StockReservationResponse response = productStockService.reserveStock(request);
+
+        // Then
+        assertFalse(response.isReserved());
+        assertTrue(transactionStatus.isRollbackOnly());
+        assertEquals(StockReservationStatus.ROLLED_BACK, response.getLines().get(0).getStatus());
+        assertEquals(0, BigDecimal.valueOf(5).compareTo(response.getLines().get(0).getAvailableAmount()));
+        assertEquals(StockReservationStatus.INSUFFICIENT_STOCK, response.getLines().get(1).getStatus());
+        assertEquals(0, BigDecimal.valueOf(3).compareTo(response.getLines().get(1).getAvailableAmount()));
+        verify(applicationEventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void reserveStock_WhenProductDoesNotExist_ShouldReportProductNotFound() {
+        // Given
+        StockReservationRequest request = reservationOf(line(PRODUCT_A, 1));
+        when(productRepository.decrementAmountIfAvailable(any(), any(), any())).thenReturn(0);
+        when(productRepository.findAmountById(PRODUCT_A)).thenReturn(Optional.empty());
+
+        // When
+        StockReservationResponse response = productStockService.reserveStock(request);
+
+        // Then
+        assertFalse(response.isReserved());
+        assertEquals(StockReservationStatus.PRODUCT_NOT_FOUND, response.getLines().get(0).getStatus());
+        assertNull(response.getLines().get(0).getAvailableAmount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void placeHold_WhenAllLinesHaveStock_ShouldTakeStockAndRecordActiveHoldPerProduct() {
+        // Given
+        StockHoldRequest request = StockHoldRequest.builder()
+                .reference("order-1")
+                .ttlSeconds(7200L)
+                .lines(List.of(line(PRODUCT_B, 2), line(PRODUCT_A, 1), line(PRODUCT_B, 1)))
+                .build();
+        when(productRepository.decrementAmountIfAvailable(any(), any(), any())).thenReturn(1);
+        when(productRepository.findAmountById(any())).thenReturn(Optional.of(BigDecimal.TEN));
+        LocalDateTime before = LocalDateTime.now();
+
+        // When
+        StockHoldResponse response = productStockService.placeHold(request);
+
+        // Then
+        assertTrue(response.isReserved());
+        assertEquals(StockHoldStatus.ACTIVE, response.getStatus());
+        // The requested two hours are capped at the configured maximum of one hour
+        assertFalse(response.getExpiresAt().isBefore(before.plusHours(1)));
+        assertTrue(response.getExpiresAt().isBefore(before.plusHours(1).plusMinutes(1)));
+
+        ArgumentCaptor<List<StockHoldEntity>> holdsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(stockHoldRepository).saveAll(holdsCaptor.capture());
+        List<StockHoldEntity> holds = holdsCaptor.getValue();
+        assertEquals(2, holds.size());
+        assertEquals(PRODUCT_A, holds.get(0).getProductId());
+        assertEquals(1, holds.get(0).getQuantity());
+        assertEquals(PRODUCT_B, holds.get(1).getProductId());
+        assertEquals(3, holds.get(1).getQuantity());
+        assertTrue(holds.stream().allMatch(hold -> hold.getStatus() == StockHoldStatus.ACTIVE && "order-1".equals(hold.getReference())));
+    }
+
+    @Test
+    void placeHold_WhenOneLineLacksStock_ShouldRecordNoHold() {
+        // Given
+        StockHoldRequest request = StockHoldRequest.builder()
+                .reference("order-1")
+                .lines(List.of(line(PRODUCT_A, 1), line(PRODUCT_B, 10)))
+                .build();
+        when(productRepository.decrementAmountIfAvailable(eq(PRODUCT_A), any(), any())).thenReturn(1);
+        when(productRepository.decrementAmountIfAvailable(eq(PRODUCT_B), any(), any())).thenReturn(0);
+        when(productRepository.findAmountById(any())).thenReturn(Optional.of(BigDecimal.ONE));
+
+        // When
+        StockHoldResponse response = productStockService.placeHold(request);
+
+        // Then
+        assertFalse(response.isReserved());
+        assertNull(response.getStatus());
+        assertTrue(transactionStatus.isRollbackOnly());
+        assertEquals(StockReservationStatus.INSUFFICIENT_STOCK, response.getLines().get(1).getStatus());
+        verify(stockHoldRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void placeHold_WhenTheSameHoldIsActive_ShouldReturnItWithoutTakingStockAgain() {
+        // Given
+        StockHoldRequest request = StockHoldRequest.builder()
+                .reference("order-1")
+                .lines(List.of(line(PRODUCT_A, 1), line(PRODUCT_A, 1)))
+                .build();
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(20);
+        when(stockHoldRepository.existsByReference("order-1")).thenReturn(true);
+        when(stockHoldRepository.findByReference("order-1")).thenReturn(List.of(hold(PRODUCT_A, 2, StockHoldStatus.ACTIVE, expiresAt)));
+
+        // When
+        StockHoldResponse response = productStockService.placeHold(request);
+
+        // Then
+        assertTrue(response.isReserved());
+        assertEquals(StockHoldStatus.ACTIVE, response.getStatus());
+        assertEquals(expiresAt, response.getExpiresAt());
+        verify(productRepository, never()).decrementAmountIfAvailable(any(), any(), any());
+        verify(stockHoldRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void placeHold_WhenReferenceHoldsDifferentLines_ShouldThrowStockHoldStateException() {
+        // Given
+        StockHoldRequest request = StockHoldRequest.builder()
+                .reference("order-1")
+                .lines(List.of(line(PRODUCT_A, 3)))
+                .build();
+        when(stockHoldRepository.existsByReference("order-1")).thenReturn(true);
+        when(stockHoldRepository.findByReference("order-1"))
+                .thenReturn(List.of(hold(PRODUCT_A, 2, StockHoldStatus.ACTIVE, LocalDateTime.now().plusMinutes(20))));
+
+        // When / Then
+        assertThrows(StockHoldStateException.class, () -> productStockService.placeHold(request));
+        verify(stockHoldRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void releaseHold_WhenActive_ShouldReturnStockToDatabaseAndHotProductsAfterCommit() {
+        // Given
+        StockHoldEntity databaseHold = hold(PRODUCT_A, 2, StockHoldStatus.ACTIVE, LocalDateTime.now().plusMinutes(5));
+        StockHoldEntity hotHold = hold(PRODUCT_B, 3, StockHoldStatus.ACTIVE, LocalDateTime.now().plusMinutes(5));
+        when(stockHoldRepository.findByReferenceForUpdate("order-1")).thenReturn(List.of(databaseHold, hotHold));
+        when(hotStockService.isHot(PRODUCT_B)).thenReturn(true);
+
+        // When
+        StockHoldResponse response = productStockService.releaseHold("order-1");
+
+        // Then
+        assertEquals(StockHoldStatus.RELEASED, response.getStatus());
+        assertEquals(StockHoldStatus.RELEASED, hotHold.getStatus());
+        verify(productRepository).incrementAmount(eq(PRODUCT_A), eq(BigDecimal.valueOf(2)), any());
+        verify(productRepository, never()).incrementAmount(eq(PRODUCT_B), any(), any());
+        verify(hotStockService).release(PRODUCT_B, 3);
+        verify(applicationEventPublisher).publishEvent(new ProductStockChangedEvent(List.of(PRODUCT_A)));
+    }
+
+    @Test
+    void releaseHold_WhenConfirmed_ShouldReturnStockOfTheCancelledOrder() {
+        // Given
+        StockHoldEntity hold = hold(PRODUCT_A, 2, StockHoldStatus.CONFIRMED, LocalDateTime.now().minusMinutes(45));
+        when(stockHoldRepository.findByReferenceForUpdate("order-1")).thenReturn(List.of(hold));
+
+        // When
+        StockHoldResponse response = productStockService.releaseHold("order-1");
+
+        // Then
+        assertEquals(StockHoldStatus.RELEASED, response.getStatus());
+        verify(productRepository).incrementAmount(eq(PRODUCT_A), eq(BigDecimal.valueOf(2)), any());
+    }
+
+    @Test
+    void confirmHold_WhenPastExpiryButNotSwept_ShouldConfirmWithoutTakingStockAgain() {
+        // Given
+        StockHoldEntity hold = hold(PRODUCT_A, 1, StockHoldStatus.ACTIVE, LocalDateTime.now().minusSeconds(1));
+        when(stockHoldRepository.findByReferenceForUpdate("order-1")).thenReturn(List.of(hold));
+
+        // When
+        StockHoldResponse response = productStockService.confirmHold("order-1");
+
+        // Then
+        assertEquals(StockHoldStatus.CONFIRMED, response.getStatus());
+        verify(productRepository, never()).decrementAmountIfAvailable(any(), any(), any());
+    }
+
+    @Test
+    void confirmHold_WhenExpiredAndStockIsAvailable_ShouldTakeTheStockAgainAndConfirm() {
+        // Given
+        LocalDateTime expiredAt = LocalDateTime.now().minusMinutes(1);
+        StockHoldEntity holdA = hold(PRODUCT_A, 1, StockHoldStatus.EXPIRED, expiredAt);
+        StockHoldEntity holdB = hold(PRODUCT_B, 2, StockHoldStatus.EXPIRED, expiredAt);
+        when(stockHoldRepository.findByReferenceForUpdate("order-1")).thenReturn(List.of(holdA, holdB));
+        when(productRepository.decrementAmountIfAvailable(any(), any(), any())).thenReturn(1);
+
+        // When
+        StockHoldResponse response = productStockService.confirmHold("order-1");
+
+        // Then
+        assertEquals(StockHoldStatus.CONFIRMED, response.getStatus());
+        assertEquals(StockHoldStatus.CONFIRMED, holdB.getStatus());
+        assertFalse(transactionStatus.isRollbackOnly());
+        verify(productRepository).decrementAmountIfAvailable(eq(PRODUCT_A), eq(BigDecimal.valueOf(1)), any());
+        verify(productRepository).decrementAmountIfAvailable(eq(PRODUCT_B), eq(BigDecimal.valueOf(2)), any());
+    }
+
+    @Test
+    void confirmHold_WhenExpiredAndStockWasSoldSince_ShouldThrowStockHoldStateException() {
+        // Given
+        StockHoldEntity hold = hold(PRODUCT_A, 3, StockHoldStatus.EXPIRED, LocalDateTime.now().minusMinutes(1));
+        when(stockHoldRepository.findByReferenceForUpdate("order-1")).thenReturn(List.of(hold));
+        when(productRepository.decrementAmountIfAvailable(any(), any(), any())).thenReturn(0);
+        when(productRepository.findAmountById(PRODUCT_A)).thenReturn(Optional.of(BigDecimal.valueOf(2)));
+
+        // When / Then
+        assertThrows(StockHoldStateException.class, () -> productStockService.confirmHold("order-1"));
+        assertEquals(StockHoldStatus.EXPIRED, hold.getStatus());
+        assertTrue(transactionStatus.isRollbackOnly());
+        verify(stockHoldRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void confirmHold_WhenReleased_ShouldThrowStockHoldStateException() {
+        // Given
+        StockHoldEntity hold = hold(PRODUCT_A, 1, StockHoldStatus.RELEASED, LocalDateTime.now().plusMinutes(1));
+        when(stockHoldRepository.findByReferenceForUpdate("order-1")).thenReturn(List.of(hold));
+
+        // When / Then
+        assertThrows(StockHoldStateException.class, () -> productStockService.confirmHold("order-1"));
+        verify(productRepository, never()).decrementAmountIfAvailable(any(), any(), any());
+    }
+
+    @Test
+    void releaseExpiredHolds_ShouldSweepBatchesUntilOneComesBackShort() {
+        // Given
+        LocalDateTime expiredAt = LocalDateTime.now().minusMinutes(1);
+        when(stockHoldRepository.findExpiredForUpdate(eq(StockHoldStatus.ACTIVE), any(), eq(Limit.of(2))))
+                .thenReturn(List.of(hold(PRODUCT_A, 1, StockHoldStatus.ACTIVE, expiredAt), hold(PRODUCT_B, 1, StockHoldStatus.ACTIVE, expiredAt)))
+                .thenReturn(List.of(hold(PRODUCT_A, 4, StockHoldStatus.ACTIVE, expiredAt)));
+
+        // When
+        int released = productStockService.releaseExpiredHolds();
+
+        // Then
+        assertEquals(3, released);
+        verify(stockHoldRepository, times(2)).findExpiredForUpdate(any(), any(), any());
+        verify(productRepository).incrementAmount(eq(PRODUCT_A), eq(BigDecimal.valueOf(1)), any());
+        verify(productRepository).incrementAmount(eq(PRODUCT_A), eq(BigDecimal.valueOf(4)), any());
+        verify(productRepository).incrementAmount(eq(PRODUCT_B), eq(BigDecimal.valueOf(1)), any());
+    }
+
+    private static StockHoldEntity hold(String productId, int quantity, StockHoldStatus status, LocalDateTime expiresAt) {
+        return StockHoldEntity.builder()
+                .reference("order-1")
+                .productId(productId)
+                .quantity(quantity)
+                .status(status)
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    private static StockReservationRequest reservationOf(StockReservationLineRequest... lines) {
+        return StockReservationRequest.builder().lines(List.of(lines)).build();
+    }
+
+    private static StockReservationLineRequest line(String productId, int quantity) {
+        return StockReservationLineRequest.builder().productId(productId).quantity(quantity).build();
+    }
+
+}
@@ -1,24 +1,32 @@
 package com.springbootmicroservices.productservice.service.impl;
 
 import com.springbootmicroservices.productservice.base.AbstractBaseServiceTest;
+import com.springbootmicroservices.productservice.exception.HotStockEnabledException;
+import com.springbootmicroservices.productservice.exception.InsufficientStockException;
 import com.springbootmicroservices.productservice.exception.ProductAlreadyExistException;
 import com.springbootmicroservices.productservice.exception.ProductNotFoundException;
 import com.springbootmicroservices.productservice.model.product.Product;
 import com.springbootmicroservices.productservice.model.product.dto.request.ProductUpdateRequest;
 import com.springbootmicroservices.productservice.model.product.entity.ProductEntity;
+import com.springbootmicroservices.productservice.model.product.enums.HotStockReservationResult;
+import com.springbootmicroservices.productservice.model.product.event.ProductStockChangedEvent;
 import com.springbootmicroservices.productservice.model.product.mapper.ProductEntityToProductMapper;
 import com.springbootmicroservices.productservice.model.product.mapper.ProductUpdateRequestToProductEntityMapper;
 import com.springbootmicroservices.productservice.repository.ProductRepository;
+import com.springbootmicroservices.productservice.service.HotStockService;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class ProductUpdateServiceImplTest extends AbstractBaseServiceTest {
@@ -29,6 +37,12 @@ class ProductUpdateServiceImplTest extends AbstractBaseServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private HotStockService hotStockService;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
     private final ProductUpdateRequestToProductEntityMapper productUpdateRequestToProductEntityMapper = ProductUpdateRequestToProductEntityMapper.initialize();
     private final ProductEntityToProductMapper productEntityToProductMapper = ProductEntityToProductMapper.initialize();
 
@@ -95,4 +109,62 @@ class ProductUpdateServiceImplTest extends AbstractBaseServiceTest {
         verify(productRepository, never()).findById(anyString());
         verify(productRepository, never()).save(any(ProductEntity.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void processPurchase_WhenStockIsAvailable_ShouldDecrementConditionallyAndPublishStockEvent() {
+        // Given
+        String productId = "1";
+        ProductEntity purchasedProduct = ProductEntity.builder().id(productId).name("Book").amount(BigDecimal.valueOf(7)).build();
+        when(productRepository.decrementAmountIfAvailable(eq(productId), eq(BigDecimal.valueOf(3)), any())).thenReturn(1);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(purchasedProduct));
+
+        // When
+        Product result = productUpdateService.processPurchase(productId, 3);
+
+        // Then
+        assertEquals(BigDecimal.valueOf(7), result.getAmount());
+        verify(productRepository, never()).save(any(ProductEntity.class));
+        verify(applicationEventPublisher).publishEvent(new ProductStockChangedEvent(List.of(productId)));
+    }
+
+    @Test
+    void processPurchase_WhenStockIsInsufficient_ShouldThrowWithoutPublishing() {
+        // Given
+        String productId = "1";
+        when(productRepository.decrementAmountIfAvailable(eq(productId), any(), any())).thenReturn(0);
+        when(productRepository.findById(productId))
+                .thenReturn(Optional.of(ProductEntity.builder().id(productId).name("Book").amount(BigDecimal.ONE).build()));
+
+        // When & Then
+        InsufficientStockException exception =
+                assertThrows(InsufficientStockException.class, () -> productUpdateService.processPurchase(productId, 3));
+        assertTrue(exception.getMessage().contains("Available: 1"));
+        verify(applicationEventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void processPurchase_WhenProductDoesNotExist_ShouldThrowProductNotFound() {
+        // Given
+        String productId = "1";
+        when(productRepository.decrementAmountIfAvailable(eq(productId), any(), any())).thenReturn(0);
+        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(ProductNotFoundException.class, () -> productUpdateService.processPurchase(productId, 1));
+    }
+
+    @Test
+    void processPurchase_WhenProductIsHotOnAnotherInstance_ShouldRefuseTheDatabasePurchase() {
+        // Given
+        String productId = "1";
+        when(hotStockService.tryReserve(productId, 1)).thenReturn(HotStockReservationResult.NOT_HOT);
+        when(productRepository.decrementAmountIfAvailable(eq(productId), any(), any())).thenReturn(0);
+        when(productRepository.findById(productId))
+                .thenReturn(Optional.of(ProductEntity.builder().id(productId).name("Book").amount(BigDecimal.TEN).build()));
+        when(hotStockService.isHotOnAnyInstance(productId)).thenReturn(true);
+
+        // When & Then
+        assertThrows(HotStockEnabledException.class, () -> productUpdateService.processPurchase(productId, 1));
+        verify(applicationEventPublisher, never()).publishEvent(any());
+    }
+}
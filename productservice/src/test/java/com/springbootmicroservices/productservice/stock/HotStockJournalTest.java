@@ -0,0 +1,91 @@
+package com.springbootmicroservices.productservice.stock;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotStockJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_ShouldBeReadBackInOrderAfterReopening() throws IOException {
+        // Given
+        HotStockJournal journal = new HotStockJournal(directory);
+        journal.open(0);
+        journal.append("p1", 2);
+        journal.append("p2", 1);
+        journal.append("p1", -1);
+        journal.close();
+
+        // When
+        HotStockJournal reopened = new HotStockJournal(directory);
+        List<HotStockJournal.Entry> entries = reopened.readAll();
+
+        // Then
+        assertEquals(List.of(
+                new HotStockJournal.Entry(1, "p1", 2),
+                new HotStockJournal.Entry(2, "p2", 1),
+                new HotStockJournal.Entry(3, "p1", -1)), entries);
+    }
+
+    @Test
+    void open_ShouldContinueAfterHighestKnownSequence() throws IOException {
+        // Given
+        HotStockJournal journal = new HotStockJournal(directory);
+        journal.open(41);
+
+        // When
+        long sequence = journal.append("p1", 1);
+
+        // Then
+        assertEquals(42, sequence);
+        journal.close();
+    }
+
+    @Test
+    void rotate_ShouldReturnOnlyClosedSegmentsSoTheyCanBeDeleted() throws IOException {
+        // Given
+        HotStockJournal journal = new HotStockJournal(directory);
+        journal.open(0);
+        journal.append("p1", 1);
+
+        // When
+        List<Path> closed = journal.rotate();
+        journal.append("p1", 2);
+        journal.delete(closed);
+
+        // Then
+        assertEquals(List.of(new HotStockJournal.Entry(2, "p1", 2)), journal.readAll());
+        journal.close();
+    }
+
+    @Test
+    void readAll_ShouldSkipTornLastLine() throws IOException {
+        // Given
+        HotStockJournal journal = new HotStockJournal(directory);
+        journal.open(0);
+        journal.append("p1", 1);
+        journal.close();
+        try (var files = Files.list(directory)) {
+            Path segment = files.findFirst().orElseThrow();
+            Files.writeString(segment, "2 p1", StandardCharsets.US_ASCII, StandardOpenOption.APPEND);
+        }
+
+        // When
+        List<HotStockJournal.Entry> entries = new HotStockJournal(directory).readAll();
+
+        // Then
+        assertEquals(List.of(new HotStockJournal.Entry(1, "p1", 1)), entries);
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.springbootmicroservices.productservice.stock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedStockCounterTest {
+
+    @Test
+    void constructor_ShouldSpreadStockAcrossShards() {
+        // Given
+        StripedStockCounter counter = new StripedStockCounter(10, 4);
+
+        // Then
+        assertEquals(10, counter.available());
+        assertEquals(4, counter.shards());
+    }
+
+    @Test
+    void tryTake_WhenNoSingleShardCoversQuantity_ShouldConsolidateShards() {
+        // Given: 4 shards of 2 or 3 units each
+        StripedStockCounter counter = new StripedStockCounter(10, 4);
+
+        // When
+        boolean taken = counter.tryTake(9);
+
+        // Then
+        assertTrue(taken);
+        assertEquals(1, counter.available());
+        assertFalse(counter.tryTake(2));
+        assertEquals(1, counter.available());
+    }
+
+    @Test
+    void give_ShouldMakeStockAvailableAgain() {
+        // Given
+        StripedStockCounter counter = new StripedStockCounter(1, 2);
+        assertTrue(counter.tryTake(1));
+
+        // When
+        counter.give(1);
+
+        // Then
+        assertTrue(counter.tryTake(1));
+        assertEquals(0, counter.available());
+    }
+
+    @Test
+    void tryTake_UnderContention_ShouldNeverOversell() throws InterruptedException {
+        // Given
+        int stock = 10_000;
+        int threads = 16;
+        int attemptsPerThread = 2_000;
+        StripedStockCounter counter = new StripedStockCounter(stock, 8);
+        AtomicInteger taken = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    if (counter.tryTake(1 + i % 3)) {
+                        taken.addAndGet(1 + i % 3);
+                    }
+                }
+            });
+        }
+
+        // When
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Then: demand exceeds stock, so everything is sold and nothing twice
+        assertEquals(stock, taken.get() + counter.available());
+        assertTrue(counter.available() < 3);
+    }
+
+}